@@ -3,7 +3,6 @@ package io.github.ruitx;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.util.concurrent.CompletableFuture;
-import org.nexus.NexusExecutor;
 import org.nexus.Response;
 import org.nexus.annotations.Mapping;
 import org.nexus.enums.HttpMethod;
@@ -21,8 +20,8 @@ public class Controller {
   }
 
   @Mapping(type = HttpMethod.GET, endpoint = "/echo")
-  public CompletableFuture<Response<String>> echo() {
-    return CompletableFuture.supplyAsync(service::echo, NexusExecutor.INSTANCE.get());
+  public Response<String> echo() {
+    return service.echo();
   }
 
   @Mapping(type = HttpMethod.GET, endpoint = "/entry/:name")
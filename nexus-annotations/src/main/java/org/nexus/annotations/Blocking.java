@@ -0,0 +1,20 @@
+package org.nexus.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link Mapping} method as blocking. The generated route calls it on a virtual thread
+ * from {@code NexusExecutor} instead of the Netty event loop, and completes the response back on
+ * the event loop.
+ *
+ * <p>Methods returning {@code Response<T>} are treated as blocking even without this annotation.
+ * Methods returning a plain {@code T} must be annotated, the value is wrapped in a 200 response.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Blocking {
+
+}
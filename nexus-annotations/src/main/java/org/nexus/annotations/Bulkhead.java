@@ -0,0 +1,18 @@
+package org.nexus.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a {@link Mapping} method inside a named, bounded bulkhead (see {@code NexusBulkhead}). On
+ * a class, applies to every mapping in it; a method annotation takes precedence. The method is
+ * dispatched like a {@link Blocking} one, and requests over the bulkhead limits get a 503.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.SOURCE)
+public @interface Bulkhead {
+
+  String value();
+}
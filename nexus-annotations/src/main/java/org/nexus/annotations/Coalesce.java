@@ -0,0 +1,23 @@
+package org.nexus.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces identical concurrent requests to a GET {@link Mapping} method: the first one runs the
+ * controller, the others wait for its response instead of running it again.
+ *
+ * <p>Requests are identical when they have the same normalised path, the same values for
+ * {@link #queryParams()} (every query parameter when empty) and for {@link #headers()}. Don't use
+ * it on methods whose response depends on anything else, such as the authenticated user.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Coalesce {
+
+  String[] queryParams() default {};
+
+  String[] headers() default {};
+}
@@ -0,0 +1,529 @@
+package org.nexus.annotations.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates reflection-free {@code JsonCodec}s for the records used as request bodies and
+ * responses, in {@code org.nexus.GeneratedCodecs}.
+ *
+ * <p>A codec has to produce exactly what the default mapper would, so only types whose JSON shape
+ * is fully visible at compile time get one: public records of strings, numbers, booleans, lists
+ * and other such records, with no Jackson annotations and no extra getters. Everything else keeps
+ * going through Jackson.
+ */
+final class JsonCodecGenerator {
+
+  static final String GENERATED_FILE_NAME = "GeneratedCodecs";
+  static final String GENERATED_PACKAGE_FILE =
+      MappingProcessorConstants.GENERATED_PACKAGE + "." + GENERATED_FILE_NAME;
+
+  private static final String SERVICE_PATH =
+      "META-INF/services/org.nexus.NexusCodecs$CodecProvider";
+  private static final String JACKSON_PACKAGE = "com.fasterxml.jackson.";
+
+  private final Messager messager;
+  private final Filer filer;
+  private final Types typeUtils;
+  private final Map<String, String> codecs = new LinkedHashMap<>(); // record name -> field
+  private final Map<String, TypeElement> records = new LinkedHashMap<>();
+  private final Set<String> rejected = new HashSet<>();
+  private final Set<String> jacksonTypes = new LinkedHashSet<>();
+
+  JsonCodecGenerator(ProcessingEnvironment processingEnv) {
+    this.messager = processingEnv.getMessager();
+    this.filer = processingEnv.getFiler();
+    this.typeUtils = processingEnv.getTypeUtils();
+  }
+
+  /**
+   * Generates a codec for the type, and every record it contains, when it qualifies.
+   *
+   * @return the codec field, e.g. {@code GeneratedCodecs.CODEC_0}, or {@code null} when the type
+   *     stays on Jackson
+   */
+  String register(TypeMirror type) {
+    TypeElement record = asRecord(type);
+    if (record == null) {
+      addJacksonType(type);
+      return null;
+    }
+    String name = record.getQualifiedName().toString();
+    if (!codecs.containsKey(name)) {
+      if (rejected.contains(name)) {
+        return null;
+      }
+      if (!isSupportedRecord(record, new HashSet<>())) {
+        rejected.add(name);
+        addJacksonType(type);
+        messager.printMessage(Kind.NOTE, "No JSON codec for " + name + ", using Jackson");
+        return null;
+      }
+      assign(record);
+    }
+    return codecFor(name);
+  }
+
+  /**
+   * Remembers an application type left to Jackson, so its reader and writer can be built at
+   * startup.
+   */
+  private void addJacksonType(TypeMirror type) {
+    if (type instanceof DeclaredType declared
+        && declared.getTypeArguments().isEmpty()
+        && declared.asElement() instanceof TypeElement element
+        && !element.getQualifiedName().toString().startsWith("java.")
+        && isAccessible(element)) {
+      jacksonTypes.add(element.getQualifiedName().toString());
+    }
+  }
+
+  /**
+   * Registers the response body type of a route, unwrapping {@code CompletableFuture},
+   * {@code Response} and {@code List}.
+   */
+  void registerResponse(TypeMirror returnType) {
+    TypeMirror type = returnType;
+    while (type instanceof DeclaredType declared && !declared.getTypeArguments().isEmpty()) {
+      String raw = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+      if (!raw.equals("java.util.concurrent.CompletableFuture")
+          && !raw.equals("org.nexus.Response")
+          && !raw.equals("java.util.List")) {
+        break;
+      }
+      type = declared.getTypeArguments().getFirst();
+    }
+    register(type);
+  }
+
+  /**
+   * @return the codec field for an already registered type name, or {@code null}
+   */
+  String codecFor(String qualifiedName) {
+    String field = codecs.get(qualifiedName);
+    return field != null ? GENERATED_FILE_NAME + "." + field : null;
+  }
+
+  /**
+   * @return whether the type is written and read by a generated codec
+   */
+  boolean hasCodec(TypeMirror type) {
+    TypeElement record = asRecord(type);
+    return record != null && codecs.containsKey(record.getQualifiedName().toString());
+  }
+
+  private void assign(TypeElement record) {
+    String name = record.getQualifiedName().toString();
+    if (codecs.containsKey(name)) {
+      return;
+    }
+    codecs.put(name, "CODEC_" + codecs.size());
+    records.put(name, record);
+    for (RecordComponentElement component : record.getRecordComponents()) {
+      assignNested(component.asType());
+    }
+  }
+
+  private void assignNested(TypeMirror type) {
+    TypeElement record = asRecord(type);
+    if (record != null) {
+      assign(record);
+    } else if (isList(type)) {
+      assignNested(((DeclaredType) type).getTypeArguments().getFirst());
+    }
+  }
+
+  // region Eligibility
+
+  private boolean isSupportedRecord(TypeElement record, Set<String> visiting) {
+    String name = record.getQualifiedName().toString();
+    if (codecs.containsKey(name) || !visiting.add(name)) {
+      return true; // already generated, or a cycle that is checked further up
+    }
+    if (rejected.contains(name) || !isAccessible(record)
+        || !record.getTypeParameters().isEmpty() || hasJacksonAnnotation(record)) {
+      return false;
+    }
+    for (TypeMirror iface : record.getInterfaces()) {
+      if (hasJacksonAnnotation(typeUtils.asElement(iface))) {
+        return false;
+      }
+    }
+
+    List<? extends RecordComponentElement> components = record.getRecordComponents();
+    Set<String> accessors = new HashSet<>();
+    for (RecordComponentElement component : components) {
+      accessors.add(component.getSimpleName().toString());
+      if (hasJacksonAnnotation(component) || hasJacksonAnnotation(component.getAccessor())
+          || !isSupportedType(component.asType(), visiting)) {
+        return false;
+      }
+    }
+    for (VariableElement field : ElementFilter.fieldsIn(record.getEnclosedElements())) {
+      if (hasJacksonAnnotation(field)) {
+        return false;
+      }
+    }
+    boolean canonical = false;
+    for (ExecutableElement constructor :
+        ElementFilter.constructorsIn(record.getEnclosedElements())) {
+      for (VariableElement param : constructor.getParameters()) {
+        if (hasJacksonAnnotation(param)) {
+          return false;
+        }
+      }
+      if (hasJacksonAnnotation(constructor)) {
+        return false;
+      }
+      canonical |= isCanonical(constructor, components)
+          && constructor.getModifiers().contains(Modifier.PUBLIC);
+    }
+    for (ExecutableElement method : ElementFilter.methodsIn(record.getEnclosedElements())) {
+      if (hasJacksonAnnotation(method)) {
+        return false;
+      }
+      // Jackson would serialize these as extra properties
+      if (isBeanGetter(method) && !accessors.contains(method.getSimpleName().toString())) {
+        return false;
+      }
+    }
+    return canonical;
+  }
+
+  private boolean isSupportedType(TypeMirror type, Set<String> visiting) {
+    if (type.getKind().isPrimitive()) {
+      return type.getKind() != TypeKind.BYTE && type.getKind() != TypeKind.CHAR;
+    }
+    if (isScalar(type)) {
+      return true;
+    }
+    if (isList(type)) {
+      return isSupportedType(((DeclaredType) type).getTypeArguments().getFirst(), visiting);
+    }
+    TypeElement record = asRecord(type);
+    return record != null && isSupportedRecord(record, visiting);
+  }
+
+  private static boolean isAccessible(TypeElement type) {
+    Element current = type;
+    while (current instanceof TypeElement element) {
+      if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+        return false;
+      }
+      current = element.getEnclosingElement();
+    }
+    return current.getKind() == ElementKind.PACKAGE;
+  }
+
+  private boolean isCanonical(
+      ExecutableElement constructor,
+      List<? extends RecordComponentElement> components
+  ) {
+    List<? extends VariableElement> params = constructor.getParameters();
+    if (params.size() != components.size()) {
+      return false;
+    }
+    for (int i = 0; i < params.size(); i++) {
+      if (!typeUtils.isSameType(params.get(i).asType(), components.get(i).asType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isBeanGetter(ExecutableElement method) {
+    if (method.getModifiers().contains(Modifier.STATIC)
+        || !method.getModifiers().contains(Modifier.PUBLIC)
+        || !method.getParameters().isEmpty()
+        || method.getReturnType().getKind() == TypeKind.VOID) {
+      return false;
+    }
+    String name = method.getSimpleName().toString();
+    return name.length() > 3 && name.startsWith("get")
+        || name.length() > 2 && name.startsWith("is")
+        && method.getReturnType().getKind() == TypeKind.BOOLEAN;
+  }
+
+  private static boolean hasJacksonAnnotation(Element element) {
+    if (element == null) {
+      return false;
+    }
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+      if (type.getQualifiedName().toString().startsWith(JACKSON_PACKAGE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static TypeElement asRecord(TypeMirror type) {
+    if (type instanceof DeclaredType declared
+        && declared.asElement().getKind() == ElementKind.RECORD) {
+      return (TypeElement) declared.asElement();
+    }
+    return null;
+  }
+
+  private static String qualifiedName(TypeMirror type) {
+    if (type instanceof DeclaredType declared) {
+      return ((TypeElement) declared.asElement()).getQualifiedName().toString();
+    }
+    return type.toString();
+  }
+
+  private static boolean isList(TypeMirror type) {
+    return type instanceof DeclaredType declared
+        && qualifiedName(type).equals("java.util.List")
+        && declared.getTypeArguments().size() == 1
+        && declared.getTypeArguments().getFirst().getKind() == TypeKind.DECLARED;
+  }
+
+  private static boolean isScalar(TypeMirror type) {
+    return switch (qualifiedName(type)) {
+      case "java.lang.String", "java.lang.Integer", "java.lang.Long", "java.lang.Double",
+           "java.lang.Float", "java.lang.Short", "java.lang.Boolean", "java.math.BigDecimal",
+           "java.math.BigInteger" -> true;
+      default -> false;
+    };
+  }
+
+  // endregion
+
+  // region Generation
+
+  /**
+   * Writes {@code GeneratedCodecs} and its service file, empty when no type qualified.
+   */
+  void writeCodecs() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    sb.append("""
+        package %s;
+
+        import com.fasterxml.jackson.core.JsonGenerator;
+        import com.fasterxml.jackson.core.JsonParser;
+        import com.fasterxml.jackson.core.JsonToken;
+        import com.fasterxml.jackson.core.io.SerializedString;
+        import java.io.IOException;
+        import java.util.List;
+        import org.nexus.interfaces.JsonCodec;
+
+        public final class %s implements NexusCodecs.CodecProvider {
+
+        """.formatted(MappingProcessorConstants.GENERATED_PACKAGE, GENERATED_FILE_NAME));
+
+    List<String> fields = new ArrayList<>();
+    int index = 0;
+    for (Map.Entry<String, String> e : codecs.entrySet()) {
+      sb.append("  public static final JsonCodec<").append(e.getKey()).append("> ")
+          .append(e.getValue()).append(" = new Codec").append(index++).append("();\n");
+      fields.add(e.getValue());
+    }
+    List<String> classes = jacksonTypes.stream().map(type -> type + ".class").toList();
+
+    sb.append("""
+
+          @Override
+          public List<JsonCodec<?>> codecs() {
+            return List.of(%s);
+          }
+
+          @Override
+          public List<Class<?>> jacksonTypes() {
+            return List.of(%s);
+          }
+        """.formatted(String.join(", ", fields), String.join(", ", classes)));
+
+    index = 0;
+    for (TypeElement record : records.values()) {
+      sb.append("\n").append(generateCodec(record, index++));
+    }
+    sb.append("}\n");
+
+    JavaFileObject sourceFile = filer.createSourceFile(GENERATED_PACKAGE_FILE);
+    try (PrintWriter writer = new PrintWriter(sourceFile.openWriter())) {
+      writer.write(sb.toString());
+    }
+    FileObject service = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_PATH);
+    try (PrintWriter writer = new PrintWriter(service.openWriter())) {
+      writer.println(GENERATED_PACKAGE_FILE);
+    }
+    messager.printMessage(Kind.NOTE,
+        GENERATED_FILE_NAME + ".java created with " + codecs.size() + " codecs");
+  }
+
+  private String generateCodec(TypeElement record, int index) {
+    String type = record.getQualifiedName().toString();
+    List<? extends RecordComponentElement> components = record.getRecordComponents();
+
+    StringBuilder names = new StringBuilder();
+    StringBuilder writes = new StringBuilder();
+    StringBuilder locals = new StringBuilder();
+    StringBuilder cases = new StringBuilder();
+    List<String> args = new ArrayList<>();
+    for (int i = 0; i < components.size(); i++) {
+      RecordComponentElement component = components.get(i);
+      String name = component.getSimpleName().toString();
+      TypeMirror componentType = component.asType();
+      String local = "f" + i;
+
+      names.append("    private static final SerializedString NAME_").append(i)
+          .append(" = new SerializedString(\"").append(name).append("\");\n");
+      writes.append("      gen.writeFieldName(NAME_").append(i).append(");\n")
+          .append("      ").append(writeCall(componentType, "gen", "value." + name + "()", 0))
+          .append(";\n");
+      locals.append("      ").append(sourceType(componentType)).append(" ").append(local)
+          .append(" = ").append(defaultValue(componentType)).append(";\n");
+      cases.append("          case \"").append(name).append("\" -> ").append(local)
+          .append(" = ").append(readCall(componentType, "p", 0)).append(";\n");
+      args.add(local);
+    }
+
+    return """
+          private static final class Codec%1$d implements JsonCodec<%2$s> {
+
+        %3$s
+            @Override
+            public Class<%2$s> type() {
+              return %2$s.class;
+            }
+
+            @Override
+            public void write(JsonGenerator gen, %2$s value) throws IOException {
+              gen.writeStartObject(value);
+        %4$s      gen.writeEndObject();
+            }
+
+            @Override
+            public %2$s read(JsonParser p) throws IOException {
+        %5$s      while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+        %6$s          default -> NexusCodecs.unknownProperty(p, field, %2$s.class);
+                }
+              }
+              return new %2$s(%7$s);
+            }
+          }
+        """.formatted(index, type, names, writes, locals, cases, String.join(", ", args));
+  }
+
+  private String writeCall(TypeMirror type, String gen, String value, int depth) {
+    if (type.getKind().isPrimitive()) {
+      return type.getKind() == TypeKind.BOOLEAN
+          ? gen + ".writeBoolean(" + value + ")"
+          : gen + ".writeNumber(" + value + ")";
+    }
+    if (isList(type)) {
+      TypeMirror element = ((DeclaredType) type).getTypeArguments().getFirst();
+      String g = "g" + depth;
+      String v = "v" + depth;
+      return "NexusCodecs.writeList(%s, %s, (%s, %s) -> %s)"
+          .formatted(gen, value, g, v, writeCall(element, g, v, depth + 1));
+    }
+    TypeElement record = asRecord(type);
+    if (record != null) {
+      return "NexusCodecs.writeObject(%s, %s, %s)".formatted(gen, value, codecField(record));
+    }
+    return switch (qualifiedName(type)) {
+      case "java.lang.String" -> "NexusCodecs.writeString(%s, %s)".formatted(gen, value);
+      case "java.lang.Boolean" -> "NexusCodecs.writeBoolean(%s, %s)".formatted(gen, value);
+      default -> "NexusCodecs.writeNumber(%s, %s)".formatted(gen, value);
+    };
+  }
+
+  private String readCall(TypeMirror type, String parser, int depth) {
+    if (type.getKind().isPrimitive()) {
+      return switch (type.getKind()) {
+        case INT -> "NexusCodecs.readInt(" + parser + ")";
+        case LONG -> "NexusCodecs.readLong(" + parser + ")";
+        case DOUBLE -> "NexusCodecs.readDouble(" + parser + ")";
+        case FLOAT -> "NexusCodecs.readFloat(" + parser + ")";
+        case SHORT -> "NexusCodecs.readShort(" + parser + ")";
+        default -> "NexusCodecs.readBoolean(" + parser + ")";
+      };
+    }
+    if (isList(type)) {
+      TypeMirror element = ((DeclaredType) type).getTypeArguments().getFirst();
+      String p = "p" + depth;
+      return "NexusCodecs.readList(%s, %s -> %s)"
+          .formatted(parser, p, readCall(element, p, depth + 1));
+    }
+    TypeElement record = asRecord(type);
+    if (record != null) {
+      return "NexusCodecs.readObject(%s, %s)".formatted(parser, codecField(record));
+    }
+    String method = switch (qualifiedName(type)) {
+      case "java.lang.String" -> "readString";
+      case "java.lang.Integer" -> "readInteger";
+      case "java.lang.Long" -> "readLongObject";
+      case "java.lang.Double" -> "readDoubleObject";
+      case "java.lang.Float" -> "readFloatObject";
+      case "java.lang.Short" -> "readShortObject";
+      case "java.lang.Boolean" -> "readBooleanObject";
+      case "java.math.BigDecimal" -> "readBigDecimal";
+      default -> "readBigInteger";
+    };
+    return "NexusCodecs." + method + "(" + parser + ")";
+  }
+
+  private String codecField(TypeElement record) {
+    return GENERATED_FILE_NAME + "." + codecs.get(record.getQualifiedName().toString());
+  }
+
+  /**
+   * The type as source, nested records by their canonical name rather than {@code Outer$Inner}.
+   */
+  private static String sourceType(TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return type.toString();
+    }
+    DeclaredType declared = (DeclaredType) type;
+    String raw = qualifiedName(type);
+    if (declared.getTypeArguments().isEmpty()) {
+      return raw;
+    }
+    return raw + "<" + sourceType(declared.getTypeArguments().getFirst()) + ">";
+  }
+
+  private static String defaultValue(TypeMirror type) {
+    return switch (type.getKind()) {
+      case BOOLEAN -> "false";
+      case INT, SHORT -> "0";
+      case LONG -> "0L";
+      case DOUBLE -> "0d";
+      case FLOAT -> "0f";
+      default -> "null";
+    };
+  }
+
+  // endregion
+}
@@ -4,6 +4,7 @@ import static org.nexus.annotations.processor.MappingProcessorConstants.COMMA_SP
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.VariableElement;
 import javax.tools.Diagnostic.Kind;
@@ -18,14 +19,46 @@ final class MappingParameterProcessor {
   private final List<String> parameterNames = new ArrayList<>();
   private final List<String> placeholders;
   private final String endpoint;
+  private final Map<String, String> bodyReaders;
   private int placeholderIndex = 0;
 
+  /**
+   * @param bodyReaders Request body type to the name of its generated reader field, shared by
+   *                    every route so each type gets a single reader
+   */
   MappingParameterProcessor(ProcessingEnvironment processingEnv,
       List<String> placeholders,
-      String endpoint) {
+      String endpoint,
+      Map<String, String> bodyReaders) {
     this.processingEnv = processingEnv;
     this.placeholders = placeholders;
     this.endpoint = endpoint;
+    this.bodyReaders = bodyReaders;
+  }
+
+  /**
+   * Declares the reader fields collected while processing the routes. Types with a generated codec
+   * are read through it, the rest through a Jackson reader.
+   */
+  static String generateBodyReaders(Map<String, String> bodyReaders, JsonCodecGenerator codecs) {
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<String, String> e : bodyReaders.entrySet()) {
+      String type = e.getKey();
+      String codec = codecs.codecFor(type);
+      if (codec != null) {
+        sb.append("  private static final JsonCodec<").append(type).append("> ")
+            .append(e.getValue()).append(" = ").append(codec).append(";\n");
+        continue;
+      }
+      // Generic types need a TypeReference to survive erasure, the rest share the cached reader
+      String reader = type.contains("<")
+          ? "DF_MAPPER.readerFor(new com.fasterxml.jackson.core.type.TypeReference<" + type
+          + ">() {})"
+          : "NexusCodecs.readerFor(" + type + ".class)";
+      sb.append("  private static final ObjectReader ").append(e.getValue())
+          .append(" = ").append(reader).append(";\n");
+    }
+    return sb.isEmpty() ? "" : sb.append("\n").toString();
   }
 
   void processParameter(VariableElement param) {
@@ -106,25 +139,17 @@ final class MappingParameterProcessor {
     String paramType = param.asType().toString();
     String paramName = param.getSimpleName().toString();
 
-    // For generic types, we need to use TypeReference to properly handle type erasure
-    if (paramType.contains("<")) {
-      // For generic types, use TypeReference
-      String typeRef = "new com.fasterxml.jackson.core.type.TypeReference<" + paramType + ">() {}";
-      paramCode
-          .append(paramType).append(" ").append(paramName).append(";")
-          .append(" try {")
-          .append(paramName)
-          .append(" = DF_MAPPER.readValue(rc.getBody(), ").append(typeRef).append(");");
-    } else {
-      // For non-generic types, we can use .class
-      paramCode
-          .append(paramType).append(" ").append(paramName).append(";")
-          .append(" try {")
-          .append(paramName)
-          .append(" = DF_MAPPER.readValue(rc.getBody(), ").append(paramType).append(".class);");
-    }
+    // One reader per body type, built when the generated class loads; parsing reads the UTF-8
+    // bytes straight from the request buffer instead of decoding them to a String first
+    String reader =
+        bodyReaders.computeIfAbsent(paramType, _ -> "BODY_READER_" + bodyReaders.size());
+    paramCode
+        .append(paramType).append(" ").append(paramName).append(";")
+        .append(" try {")
+        .append(paramName)
+        .append(" = readBody(").append(reader).append(", rc);");
 
-    paramCode.append(" } catch (JsonProcessingException e) {")
+    paramCode.append(" } catch (IOException e) {")
         .append(" throw new ProblemDetailsException(")
         .append(" new ProblemDetails.Single(")
         .append(" ProblemDetailsTypes.CLIENT_ERROR,")
@@ -7,6 +7,7 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,6 +29,7 @@ import javax.tools.Diagnostic.Kind;
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
+import org.nexus.annotations.Coalesce;
 import org.nexus.annotations.Mapping;
 import org.nexus.annotations.RequestBody;
 import org.nexus.annotations.RequestContextParam;
@@ -40,13 +42,16 @@ public final class MappingProcessor extends AbstractProcessor {
   private Messager messager;
   private boolean hasGenerated = false;
   private ReflectionConfigGenerator reflectionConfigGenerator;
+  private JsonCodecGenerator jsonCodecGenerator;
 
   @Override
   public synchronized void init(ProcessingEnvironment processingEnv) {
     super.init(processingEnv);
     this.filer = processingEnv.getFiler();
     this.messager = processingEnv.getMessager();
-    this.reflectionConfigGenerator = new ReflectionConfigGenerator(processingEnv);
+    this.jsonCodecGenerator = new JsonCodecGenerator(processingEnv);
+    this.reflectionConfigGenerator =
+        new ReflectionConfigGenerator(processingEnv, jsonCodecGenerator::hasCodec);
   }
 
   @Override
@@ -61,6 +66,7 @@ public final class MappingProcessor extends AbstractProcessor {
         // Generate an empty routes file so runtime can rely on its presence
         generateRoutesFile(List.of());
         writeServiceProvider();
+        jsonCodecGenerator.writeCodecs();
         // Write (possibly empty) reflection config so native builds remain consistent
         reflectionConfigGenerator.writeConfig();
         hasGenerated = true;
@@ -116,8 +122,11 @@ public final class MappingProcessor extends AbstractProcessor {
 
       // Validate return type
       MappingProcessorUtils.validateMethodReturnType(method, messager);
+      MappingProcessorUtils.validateCoalesce(method, mapping, messager);
+      MappingProcessorUtils.validateWebSocket(method, mapping, messager);
 
-      // Collect @RequestBody types for reflection config
+      // Collect @RequestBody and response types for generated codecs and reflection config
+      collectCodecTypes(method);
       collectReflectionTypes(method);
 
       routes.add(new RouteInfo(method, mapping));
@@ -126,11 +135,28 @@ public final class MappingProcessor extends AbstractProcessor {
     // Second pass: generate code
     generateRoutesFile(routes);
     writeServiceProvider();
+    jsonCodecGenerator.writeCodecs();
 
     // Third pass: generate reflection config
     reflectionConfigGenerator.writeConfig();
   }
 
+  /**
+   * Generates codecs for the body and response records that qualify. Runs before reflection config
+   * is collected, so types with a codec can be left out of it.
+   */
+  private void collectCodecTypes(ExecutableElement method) {
+    for (VariableElement param : method.getParameters()) {
+      if (param.getAnnotation(RequestBody.class) != null) {
+        jsonCodecGenerator.register(param.asType());
+      }
+    }
+    // Events and messages are serialised when sent, the route itself has no body
+    if (!MappingProcessorUtils.isLongLived(method)) {
+      jsonCodecGenerator.registerResponse(method.getReturnType());
+    }
+  }
+
   /**
    * Collects all types that need reflection configuration.
    */
@@ -138,7 +164,7 @@ public final class MappingProcessor extends AbstractProcessor {
     // Process method parameters with @RequestBody
     for (VariableElement param : method.getParameters()) {
       RequestBody requestBody = param.getAnnotation(RequestBody.class);
-      if (requestBody != null) {
+      if (requestBody != null && !jsonCodecGenerator.hasCodec(param.asType())) {
         // Add the parameter type to reflection config
         reflectionConfigGenerator.addType(param.asType());
 
@@ -150,6 +176,9 @@ public final class MappingProcessor extends AbstractProcessor {
 
     // Process return type
     TypeMirror returnType = method.getReturnType();
+    if (MappingProcessorUtils.isLongLived(method)) {
+      return;
+    }
     reflectionConfigGenerator.processReturnType(returnType);
 
     messager.printMessage(Kind.NOTE,
@@ -158,23 +187,27 @@ public final class MappingProcessor extends AbstractProcessor {
   }
 
   private void generateRoutesFile(List<RouteInfo> routes) throws IOException {
-    StringBuilder builder = new StringBuilder();
-    builder.append(MappingProcessorConstants.GENERATED_CLASS_HEADER)
-        .append(MappingProcessorConstants.HELPER_METHODS)
-        .append("  private static void initRoutes() {\n");
-
-    // Add route mappings
+    Map<String, String> bodyReaders = new LinkedHashMap<>();
+    StringBuilder mappings = new StringBuilder();
     for (RouteInfo route : routes) {
-      builder.append(SPACER.repeat(2)).append(generateRouteMapping(route)).append("\n");
+      mappings.append(SPACER.repeat(2))
+          .append(generateRouteMapping(route, bodyReaders))
+          .append("\n");
     }
 
-    builder.append("  }")
+    StringBuilder builder = new StringBuilder();
+    builder.append(MappingProcessorConstants.GENERATED_CLASS_HEADER)
+        .append(MappingParameterProcessor.generateBodyReaders(bodyReaders, jsonCodecGenerator))
+        .append(MappingProcessorConstants.HELPER_METHODS)
+        .append("  private static void initRoutes() {\n")
+        .append(mappings)
+        .append("  }")
         .append(MappingProcessorConstants.GENERATED_CLASS_FOOTER);
 
     writeGeneratedFile(builder.toString());
   }
 
-  private String generateRouteMapping(RouteInfo route) {
+  private String generateRouteMapping(RouteInfo route, Map<String, String> bodyReaders) {
     ExecutableElement method = route.method;
     String className = ((TypeElement) method.getEnclosingElement()).getQualifiedName().toString();
     String methodName = method.getSimpleName().toString();
@@ -184,7 +217,7 @@ public final class MappingProcessor extends AbstractProcessor {
 
     List<String> placeholders = MappingProcessorUtils.extractPlaceholders(endpoint);
     MappingParameterProcessor paramProcessor = new MappingParameterProcessor(
-        processingEnv, placeholders, endpoint); //method
+        processingEnv, placeholders, endpoint, bodyReaders);
 
     List<? extends VariableElement> parameters = method.getParameters();
     for (int i = 0; i < parameters.size(); i++) {
@@ -198,28 +231,31 @@ public final class MappingProcessor extends AbstractProcessor {
 
     String paramCode = paramProcessor.getParamCode();
     String invokeArgs = paramProcessor.getInvokeArgs();
-    String responseType = MappingProcessorUtils.getResponseGenericType(method);
+    String responseType = MappingProcessorUtils.getResponseGenericType(
+        method, processingEnv.getTypeUtils());
+    String invocation = generateInvocation(route, methodName, invokeArgs);
 
     boolean isExact = placeholders.isEmpty();
 
-    String sb1 = "new Route<%s>(%s, \"%s\", rc -> {\n"
+    String coalesce = generateCoalesce(route);
+    String sb1 = "new Route<%s>(%s, \"%s\", %src -> {\n"
         + SPACER.repeat(7)
         + (paramCode.isEmpty() ? "" : paramCode)
         + "%s  %s controller = org.nexus.NexusBeanScope.get().get(%s.class);\n"
         + SPACER.repeat(7)
         + "try {\n"
         + SPACER.repeat(8)
-        + "return controller.%s(%s);\n"
+        + "return %s;\n"
         + SPACER.repeat(7)
         + "} catch (Exception e) {\n"
         + SPACER.repeat(8)
-        + "return CompletableFuture.failedFuture(e); }})";
+        + "return CompletableFuture.failedFuture(e); }}%s)";
 
     String routeCreation = String.format(
         sb1,
-        responseType, httpMethod, endpoint,
+        responseType, httpMethod, endpoint, coalesce,
         "", className,  // paramCode (handled above), className
-        className, methodName, invokeArgs
+        className, invocation, coalesce.isEmpty() ? "" : ")"
     );
 
     if (isExact) {
@@ -244,6 +280,57 @@ public final class MappingProcessor extends AbstractProcessor {
     }
   }
 
+  /**
+   * Builds the controller call. Blocking methods are offloaded to a virtual thread, so a controller
+   * that blocks never runs on the event loop. Methods in a bulkhead are offloaded through it.
+   */
+  private String generateInvocation(RouteInfo route, String methodName, String invokeArgs) {
+    String call = "controller.%s(%s)".formatted(methodName, invokeArgs);
+    if (!MappingProcessorUtils.isBlocking(route.method)) {
+      // Returning an SseResponse or WebSocketResponse doesn't block, the connection is taken over
+      // once the head is sent
+      return MappingProcessorUtils.isLongLived(route.method)
+          ? "CompletableFuture.completedFuture(" + call + ")"
+          : call;
+    }
+
+    String work = switch (MappingProcessorUtils.getReturnKind(route.method)) {
+      case FUTURE -> call + ".join()";
+      case RESPONSE -> call;
+      case VALUE -> "new Response<>(200, %s, org.nexus.enums.ResponseType.%s)"
+          .formatted(call, route.mapping.responseType().name());
+    };
+    String bulkhead = MappingProcessorUtils.getBulkhead(route.method);
+    if (bulkhead != null) {
+      return "NexusExecutor.offload(rc, \"%s\", () -> %s)"
+          .formatted(MappingProcessorUtils.escapeJavaString(bulkhead), work);
+    }
+    return "NexusExecutor.offload(rc, () -> " + work + ")";
+  }
+
+  /**
+   * Opens the single-flight wrapper around the route handler for {@code @Coalesce} methods, or
+   * returns an empty string.
+   */
+  private String generateCoalesce(RouteInfo route) {
+    Coalesce coalesce = route.method.getAnnotation(Coalesce.class);
+    if (coalesce == null) {
+      return "";
+    }
+    return "NexusCoalescer.coalesce(%s, %s, "
+        .formatted(toArrayLiteral(coalesce.queryParams()), toArrayLiteral(coalesce.headers()));
+  }
+
+  private static String toArrayLiteral(String[] values) {
+    StringBuilder sb = new StringBuilder("new String[]{");
+    for (int i = 0; i < values.length; i++) {
+      sb.append(i == 0 ? "\"" : ", \"")
+          .append(MappingProcessorUtils.escapeJavaString(values[i]))
+          .append('"');
+    }
+    return sb.append('}').toString();
+  }
+
   private void writeGeneratedFile(String content) throws IOException {
     JavaFileObject sourceFile = filer.createSourceFile(
         MappingProcessorConstants.GENERATED_PACKAGE_FILE);
@@ -16,6 +16,10 @@ public final class MappingProcessorConstants {
   public static final String LIST_TYPE = "java.util.List";
   public static final String COMPLETABLE_FUTURE = "java.util.concurrent.CompletableFuture";
   public static final String RESPONSE_TYPE = "org.nexus.Response";
+  public static final String STREAMING_RESPONSE_TYPE = "org.nexus.StreamingResponse";
+  public static final String SSE_RESPONSE_TYPE = "org.nexus.SseResponse";
+  public static final String WEBSOCKET_RESPONSE_TYPE = "org.nexus.WebSocketResponse";
+  public static final String TYPE_VOID = "java.lang.Void";
   public static final String ERROR_MAPPING_ONLY_ON_METHODS = "@Mapping can only be used on methods";
   public static final String ERROR_DUPLICATE_ROUTE = "Duplicate route: '%s' already defined in '%s'";
 
@@ -24,29 +28,43 @@ public final class MappingProcessorConstants {
       
       import static org.nexus.NexusUtils.DF_MAPPER;
       
+      import com.fasterxml.jackson.core.JsonParser;
       import com.fasterxml.jackson.core.JsonProcessingException;
+      import com.fasterxml.jackson.databind.ObjectReader;
       import io.netty.handler.codec.http.HttpMethod;
+      import java.io.IOException;
       import java.util.ArrayList;
       import java.util.HashMap;
+      import java.util.HashSet;
+      import java.util.LinkedHashMap;
       import java.util.List;
       import java.util.Map;
+      import java.util.Set;
+      import java.util.StringJoiner;
       import java.util.concurrent.CompletableFuture;
+      import org.nexus.NexusExecutor;
       import org.nexus.PathMatcher;
       import org.nexus.PathMatcher.CompiledPattern;
       import org.nexus.PathMatcher.Result;
+      import org.nexus.RequestContext;
+      import org.nexus.Response;
       import org.nexus.Route;
       import org.nexus.RoutesResolver;
       import org.nexus.enums.ProblemDetailsTypes;
       import org.nexus.exceptions.ProblemDetailsException;
+      import org.nexus.interfaces.JsonCodec;
       import org.nexus.interfaces.ProblemDetails;
       
       public final class %s implements RoutesResolver.RoutesProvider {
       
         private static final Map<String, Route<?>> exactRoutes = new HashMap<>();
         private static final Map<String, List<CompiledRoute>> dynamicRoutesByMethod = new HashMap<>();
+        private static final Map<String, String> allowedByPath = new HashMap<>();
+        private static final List<AllowedPattern> allowedPatterns = new ArrayList<>();
       
         static {
           initRoutes();
+          initAllowedMethods();
         }
       """.formatted(GENERATED_PACKAGE, GENERATED_FILE_NAME);
 
@@ -145,6 +163,18 @@ public final class MappingProcessorConstants {
           );
         }
       
+        private static <T> T readBody(ObjectReader reader, RequestContext rc) throws IOException {
+          try (JsonParser parser = NexusFormats.createParser(rc)) {
+            return reader.readValue(parser);
+          }
+        }
+      
+        private static <T> T readBody(JsonCodec<T> codec, RequestContext rc) throws IOException {
+          try (JsonParser parser = NexusFormats.createParser(rc)) {
+            return NexusCodecs.readRoot(parser, codec);
+          }
+        }
+      
       """;
 
   public static final String GENERATED_CLASS_FOOTER = """
@@ -170,6 +200,81 @@ public final class MappingProcessorConstants {
           return null;
         }
       
+        /**
+         * Returns the Allow header for a path, or null if no route matches it under any method.
+         * Exact paths are answered from a table built at startup. Templates are only matched when
+         * the path starts with their literal part, so most unmatched paths never run a regex.
+         */
+        public static String findAllowedMethodsInternal(String path) {
+          String normPath = PathMatcher.normalise(path);
+          String allowed = allowedByPath.get(normPath);
+          if (allowed != null) {
+            return allowed;
+          }
+          Set<String> methods = null;
+          for (AllowedPattern ap : allowedPatterns) {
+            if (normPath.startsWith(ap.prefix)
+                && ap.pattern.pattern().matcher(normPath).matches()) {
+              if (methods == null) {
+                methods = new HashSet<>();
+              }
+              methods.addAll(ap.methods);
+            }
+          }
+          return methods == null ? null : formatAllowed(methods);
+        }
+      
+        private static void initAllowedMethods() {
+          // One entry per template, whatever the number of methods on it
+          Map<String, AllowedPattern> byRegex = new LinkedHashMap<>();
+          dynamicRoutesByMethod.forEach((method, routes) -> {
+            for (CompiledRoute cr : routes) {
+              byRegex.computeIfAbsent(cr.pattern.pattern().pattern(),
+                  k -> new AllowedPattern(cr.pattern, literalPrefix(cr.route.getPath()),
+                      new HashSet<>())).methods.add(method);
+            }
+          });
+          allowedPatterns.addAll(byRegex.values());
+      
+          Map<String, Set<String>> exactMethods = new HashMap<>();
+          for (String key : exactRoutes.keySet()) {
+            int space = key.indexOf(' ');
+            exactMethods.computeIfAbsent(key.substring(space + 1), k -> new HashSet<>())
+                .add(key.substring(0, space));
+          }
+          exactMethods.forEach((normPath, methods) -> {
+            for (AllowedPattern ap : allowedPatterns) {
+              if (ap.pattern.match(normPath).matches()) {
+                methods.addAll(ap.methods);
+              }
+            }
+            allowedByPath.put(normPath, formatAllowed(methods));
+          });
+        }
+      
+        /**
+         * The template up to its first placeholder, e.g. "/users/" for "/users/:id".
+         */
+        private static String literalPrefix(String template) {
+          String normalised = PathMatcher.normalise(template);
+          int param = normalised.indexOf(':');
+          return param < 0 ? normalised : normalised.substring(0, param);
+        }
+      
+        private static String formatAllowed(Set<String> methods) {
+          StringJoiner allowed = new StringJoiner(", ");
+          for (org.nexus.enums.HttpMethod method : org.nexus.enums.HttpMethod.values()) {
+            String name = method.name();
+            // HEAD is served by GET routes and OPTIONS by the server
+            if (methods.contains(name)
+                || name.equals("HEAD") && methods.contains("GET")
+                || name.equals("OPTIONS")) {
+              allowed.add(name);
+            }
+          }
+          return allowed.toString();
+        }
+      
         public static List<Route<?>> getRoutes(String method) {
           List<Route<?>> routes = new ArrayList<>();
           String m = method.toUpperCase();
@@ -188,6 +293,10 @@ public final class MappingProcessorConstants {
       
         }
       
+        private record AllowedPattern(CompiledPattern pattern, String prefix, Set<String> methods) {
+      
+        }
+      
         public record RouteMatch(Route<?> route, Map<String, String> params) {
       
         }
@@ -198,6 +307,11 @@ public final class MappingProcessorConstants {
           RouteMatch m = findMatchingRouteInternal(method, path);
           return (m == null) ? null : new RoutesResolver.RouteMatch(m.route(), m.params());
         }
+      
+        @Override
+        public String findAllowedMethods(String path) {
+          return findAllowedMethodsInternal(path);
+        }
       }
       """;
 
@@ -9,9 +9,16 @@ import javax.annotation.processing.Messager;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic.Kind;
+import org.nexus.annotations.Blocking;
+import org.nexus.annotations.Bulkhead;
+import org.nexus.annotations.Coalesce;
+import org.nexus.annotations.Mapping;
+import org.nexus.enums.HttpMethod;
 
 final class MappingProcessorUtils {
 
@@ -50,25 +57,122 @@ final class MappingProcessorUtils {
     return s.replace("\\", "\\\\").replace("\"", "\\\"");
   }
 
-  static void validateMethodReturnType(ExecutableElement method, Messager messager) {
-    TypeMirror returnType = method.getReturnType();
-    String returnStr = returnType.toString();
-
-    if (!returnStr.startsWith(
+  static ReturnKind getReturnKind(ExecutableElement method) {
+    String returnStr = method.getReturnType().toString();
+    if (returnStr.startsWith(
         MappingProcessorConstants.COMPLETABLE_FUTURE + "<" +
             MappingProcessorConstants.RESPONSE_TYPE + "<")) {
+      return ReturnKind.FUTURE;
+    }
+    if (returnStr.startsWith(MappingProcessorConstants.RESPONSE_TYPE + "<")
+        || isLongLived(method)) {
+      return ReturnKind.RESPONSE;
+    }
+    return ReturnKind.VALUE;
+  }
+
+  /**
+   * @return whether the method returns an {@code SseResponse}, a {@code Response<Void>} whose body
+   *     is written as events are sent
+   */
+  static boolean isEventStream(ExecutableElement method) {
+    return method.getReturnType().toString().equals(MappingProcessorConstants.SSE_RESPONSE_TYPE);
+  }
+
+  /**
+   * @return whether the method returns a {@code WebSocketResponse}, which upgrades the connection
+   */
+  static boolean isWebSocket(ExecutableElement method) {
+    return method.getReturnType().toString()
+        .equals(MappingProcessorConstants.WEBSOCKET_RESPONSE_TYPE);
+  }
+
+  /**
+   * @return whether the route keeps the connection once its head is sent, and has no body of its
+   *     own to serialise
+   */
+  static boolean isLongLived(ExecutableElement method) {
+    return isEventStream(method) || isWebSocket(method);
+  }
+
+  /**
+   * @return whether the declared return type is a {@code StreamingResponse}, with or without a
+   *     future around it; one returned as a plain {@code Response} is only known at runtime
+   */
+  static boolean isStreaming(ExecutableElement method) {
+    return method.getReturnType().toString()
+        .contains(MappingProcessorConstants.STREAMING_RESPONSE_TYPE);
+  }
+
+  static boolean isBlocking(ExecutableElement method) {
+    return method.getAnnotation(Blocking.class) != null
+        || getBulkhead(method) != null
+        || getReturnKind(method) != ReturnKind.FUTURE && !isLongLived(method);
+  }
+
+  static String getBulkhead(ExecutableElement method) {
+    Bulkhead bulkhead = method.getAnnotation(Bulkhead.class);
+    if (bulkhead == null) {
+      bulkhead = method.getEnclosingElement().getAnnotation(Bulkhead.class);
+    }
+    return bulkhead != null ? bulkhead.value() : null;
+  }
+
+  static void validateMethodReturnType(ExecutableElement method, Messager messager) {
+    ReturnKind kind = getReturnKind(method);
+    boolean annotated = method.getAnnotation(Blocking.class) != null
+        || getBulkhead(method) != null;
+    boolean isVoid = method.getReturnType().getKind() == TypeKind.VOID;
+
+    if (kind == ReturnKind.VALUE && (!annotated || isVoid)) {
       messager.printMessage(
           Kind.ERROR,
-          "Return type must be `CompletableFuture<Response<T>>`", method);
+          "Return type must be `CompletableFuture<Response<T>>`, "
+              + "or `Response<T>`/`T` on a @Blocking method", method);
+    }
+  }
+
+  static void validateCoalesce(ExecutableElement method, Mapping mapping, Messager messager) {
+    if (method.getAnnotation(Coalesce.class) != null && mapping.type() != HttpMethod.GET) {
+      messager.printMessage(Kind.ERROR, "@Coalesce can only be used on GET routes", method);
+    }
+    if (method.getAnnotation(Coalesce.class) != null
+        && (isLongLived(method) || isStreaming(method))) {
+      messager.printMessage(Kind.ERROR,
+          "@Coalesce can't be used on StreamingResponse, SseResponse or WebSocketResponse routes",
+          method);
+    }
+  }
+
+  static void validateWebSocket(ExecutableElement method, Mapping mapping, Messager messager) {
+    if (isWebSocket(method) && mapping.type() != HttpMethod.GET) {
+      messager.printMessage(Kind.ERROR, "WebSocketResponse routes must be GET routes", method);
     }
   }
 
-  static String getResponseGenericType(ExecutableElement method) {
+  static String getResponseGenericType(ExecutableElement method, Types typeUtils) {
+    if (isLongLived(method)) {
+      return MappingProcessorConstants.TYPE_VOID;
+    }
     TypeMirror returnType = method.getReturnType();
+    ReturnKind kind = getReturnKind(method);
+
+    if (kind == ReturnKind.VALUE) {
+      if (returnType instanceof PrimitiveType primitive) {
+        return typeUtils.boxedClass(primitive).getQualifiedName().toString();
+      }
+      return returnType.getKind() == TypeKind.DECLARED ? returnType.toString() : OBJECT;
+    }
+
     if (!(returnType instanceof DeclaredType declaredType)) {
       return OBJECT;
     }
 
+    if (kind == ReturnKind.RESPONSE) {
+      List<? extends TypeMirror> responseArgs = declaredType.getTypeArguments();
+      return responseArgs.isEmpty() ? OBJECT : responseArgs.getFirst().toString();
+    }
+
     List<? extends TypeMirror> typeArgs = declaredType.getTypeArguments();
     if (typeArgs.isEmpty() || !(typeArgs.getFirst() instanceof DeclaredType responseType)) {
       return OBJECT;
@@ -77,4 +181,13 @@ final class MappingProcessorUtils {
     List<? extends TypeMirror> responseArgs = responseType.getTypeArguments();
     return responseArgs.isEmpty() ? OBJECT : responseArgs.getFirst().toString();
   }
+
+  /**
+   * Shape of a controller method's return type, decides how the generated route adapts it.
+   */
+  enum ReturnKind {
+    FUTURE,
+    RESPONSE,
+    VALUE
+  }
 }
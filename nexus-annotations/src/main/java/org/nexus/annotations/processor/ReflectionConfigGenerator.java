@@ -9,6 +9,7 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import javax.annotation.processing.Filer;
 import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
@@ -24,7 +25,8 @@ import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 
 /**
- * Generates GraalVM reflect-config.json for types used in @RequestBody parameters.
+ * Generates GraalVM reflect-config.json for types used in @RequestBody parameters. Response types
+ * read and written by a generated codec need no entry.
  */
 final class ReflectionConfigGenerator {
 
@@ -34,13 +36,15 @@ final class ReflectionConfigGenerator {
   private final Messager messager;
   private final Filer filer;
   private final Elements elementUtils;
+  private final Predicate<TypeMirror> hasCodec;
   private final Set<String> processedTypes = new HashSet<>();
   private final List<ReflectionEntry> entries = new ArrayList<>();
 
-  ReflectionConfigGenerator(ProcessingEnvironment processingEnv) {
+  ReflectionConfigGenerator(ProcessingEnvironment processingEnv, Predicate<TypeMirror> hasCodec) {
     this.messager = processingEnv.getMessager();
     this.filer = processingEnv.getFiler();
     this.elementUtils = processingEnv.getElementUtils();
+    this.hasCodec = hasCodec;
   }
 
   /**
@@ -129,7 +133,7 @@ final class ReflectionConfigGenerator {
       return;
     }
 
-    // Handle CompletableFuture<Response<T>> pattern
+    // Handle CompletableFuture<Response<T>> and Response<T> patterns
     if (returnType.getKind() == TypeKind.DECLARED) {
       DeclaredType declaredType = (DeclaredType) returnType;
       String typeName = declaredType.toString();
@@ -144,16 +148,21 @@ final class ReflectionConfigGenerator {
               TypeMirror responseTypeArg = responseType.getTypeArguments().getFirst();
               messager.printMessage(Kind.NOTE,
                   "Processing response type: " + responseTypeArg);
-              processTypeRecursively(responseTypeArg);
+              processResponseType(responseTypeArg);
             }
           } else {
             // Process the type argument directly if it's not a Response
-            processTypeRecursively(futureTypeArg);
+            processResponseType(futureTypeArg);
           }
         }
+      } else if (typeName.startsWith("org.nexus.Response<")) {
+        // Blocking Response<T> pattern, only T needs reflection
+        if (!declaredType.getTypeArguments().isEmpty()) {
+          processResponseType(declaredType.getTypeArguments().getFirst());
+        }
       } else {
         // Process non-Future return types directly
-        processTypeRecursively(returnType);
+        processResponseType(returnType);
       }
     } else {
       // Process non-declared types (primitives, arrays, etc.)
@@ -161,6 +170,13 @@ final class ReflectionConfigGenerator {
     }
   }
 
+  private void processResponseType(TypeMirror type) {
+    if (hasCodec.test(type)) {
+      messager.printMessage(Kind.NOTE, "Skipping type with a generated codec: " + type);
+      return;
+    }
+    processTypeRecursively(type);
+  }
 
   private void processTypeRecursively(TypeMirror type) {
     if (type == null) {
@@ -445,6 +445,313 @@ class MappingProcessorTest {
         .hadErrorContaining("Return type must be `CompletableFuture<Response<T>>`");
   }
 
+  @Test
+  void shouldOffloadBlockingRoutes() {
+    // Given: Controller with blocking methods, by signature and by annotation
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.BlockingController",
+        """
+            package org.nexus.test;
+            
+            import org.nexus.annotations.Blocking;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.enums.HttpMethod;
+            import org.nexus.Response;
+            
+            public class BlockingController {
+                @Mapping(type = HttpMethod.GET, endpoint = "/blocking/response")
+                public Response<String> response() {
+                    return new Response<>(200, "OK");
+                }
+            
+                @Blocking
+                @Mapping(type = HttpMethod.GET, endpoint = "/blocking/value")
+                public String value() {
+                    return "OK";
+                }
+            }
+            """
+    );
+
+    // When: Compiling
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: Both routes should be dispatched to a virtual thread
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("return NexusExecutor.offload(rc, () -> controller.response());");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("return NexusExecutor.offload(rc, () -> new Response<>(200, controller.value(), "
+            + "org.nexus.enums.ResponseType.JSON));");
+  }
+
+  @Test
+  void shouldOffloadBulkheadRoutesThroughNamedBulkhead() {
+    // Given: Controller with a class level bulkhead and a method override
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.BulkheadController",
+        """
+            package org.nexus.test;
+            
+            import java.util.concurrent.CompletableFuture;
+            import org.nexus.annotations.Bulkhead;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.enums.HttpMethod;
+            import org.nexus.Response;
+            
+            @Bulkhead("reports")
+            public class BulkheadController {
+                @Mapping(type = HttpMethod.GET, endpoint = "/reports")
+                public CompletableFuture<Response<String>> reports() {
+                    return CompletableFuture.completedFuture(new Response<>(200, "OK"));
+                }
+            
+                @Bulkhead("exports")
+                @Mapping(type = HttpMethod.GET, endpoint = "/exports")
+                public Response<String> exports() {
+                    return new Response<>(200, "OK");
+                }
+            }
+            """
+    );
+
+    // When: Compiling
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: Each route should go through its bulkhead
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("return NexusExecutor.offload(rc, \"reports\", "
+            + "() -> controller.reports().join());");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("return NexusExecutor.offload(rc, \"exports\", () -> controller.exports());");
+  }
+
+  @Test
+  void shouldWrapCoalescedRoutesInSingleFlight() {
+    // Given: Controller with a coalesced GET route
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.CoalesceController",
+        """
+            package org.nexus.test;
+            
+            import java.util.concurrent.CompletableFuture;
+            import org.nexus.annotations.Coalesce;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.annotations.QueryParam;
+            import org.nexus.enums.HttpMethod;
+            import org.nexus.Response;
+            
+            public class CoalesceController {
+                @Coalesce(queryParams = {"page", "size"}, headers = "Accept-Language")
+                @Mapping(type = HttpMethod.GET, endpoint = "/products")
+                public CompletableFuture<Response<String>> products(
+                    @QueryParam("page") String page) {
+                    return CompletableFuture.completedFuture(new Response<>(200, "OK"));
+                }
+            }
+            """
+    );
+
+    // When: Compiling
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: The handler should be wrapped
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("NexusCoalescer.coalesce(new String[]{\"page\", \"size\"}, "
+            + "new String[]{\"Accept-Language\"}, rc -> {");
+  }
+
+  @Test
+  void shouldRejectCoalesceOnNonGetRoutes() {
+    // Given: Controller with a coalesced POST route
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.CoalescePostController",
+        """
+            package org.nexus.test;
+            
+            import java.util.concurrent.CompletableFuture;
+            import org.nexus.annotations.Coalesce;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.enums.HttpMethod;
+            import org.nexus.Response;
+            
+            public class CoalescePostController {
+                @Coalesce
+                @Mapping(type = HttpMethod.POST, endpoint = "/orders")
+                public CompletableFuture<Response<String>> create() {
+                    return CompletableFuture.completedFuture(new Response<>(201, "OK"));
+                }
+            }
+            """
+    );
+
+    // When: Compiling
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: Should fail
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("@Coalesce can only be used on GET routes");
+  }
+
+  @Test
+  void shouldRejectCoalesceOnStreamingRoutes() {
+    // Given: Controller with a coalesced streaming route
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.CoalesceStreamController",
+        """
+            package org.nexus.test;
+            
+            import java.util.List;
+            import java.util.concurrent.CompletableFuture;
+            import org.nexus.StreamingResponse;
+            import org.nexus.annotations.Coalesce;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.enums.HttpMethod;
+            
+            public class CoalesceStreamController {
+                @Coalesce
+                @Mapping(type = HttpMethod.GET, endpoint = "/export")
+                public CompletableFuture<StreamingResponse<String>> export() {
+                    return CompletableFuture.completedFuture(
+                        new StreamingResponse<>(200, List.of("a").iterator()));
+                }
+            }
+            """
+    );
+
+    // When: Compiling
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: Should fail
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("@Coalesce can't be used on StreamingResponse");
+  }
+
+  @Test
+  void shouldGenerateEventStreamRoutes() {
+    // Given: Controller returning event streams, directly and on a virtual thread
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.EventsController",
+        """
+            package org.nexus.test;
+
+            import org.nexus.SseResponse;
+            import org.nexus.SseTopic;
+            import org.nexus.annotations.Blocking;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.enums.HttpMethod;
+
+            public class EventsController {
+                private static final SseTopic PRICES = new SseTopic(16);
+
+                @Mapping(type = HttpMethod.GET, endpoint = "/prices")
+                public SseResponse prices() {
+                    return PRICES.subscribe();
+                }
+
+                @Blocking
+                @Mapping(type = HttpMethod.GET, endpoint = "/alerts")
+                public SseResponse alerts() {
+                    return new SseResponse(emitter -> emitter.send("ready"));
+                }
+            }
+            """
+    );
+
+    // When: Compiling
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: Plain SSE routes return in place, blocking ones are offloaded, and nothing is
+    // registered for the response body
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("new Route<java.lang.Void>(HttpMethod.GET, \"/prices\"");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("return CompletableFuture.completedFuture(controller.prices());");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("return NexusExecutor.offload(rc, () -> controller.alerts());");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedCodecs")
+        .contentsAsUtf8String()
+        .doesNotContain("SseResponse");
+  }
+
+  @Test
+  void shouldRejectWebSocketRoutesOnNonGetRoutes() {
+    // Given: A WebSocket route, and one declared on POST
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.SocketController",
+        """
+            package org.nexus.test;
+
+            import org.nexus.WebSocketGroup;
+            import org.nexus.WebSocketResponse;
+            import org.nexus.WebSocketSession;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.enums.HttpMethod;
+            import org.nexus.interfaces.WebSocketListener;
+
+            public class SocketController {
+                private static final WebSocketGroup ROOM = new WebSocketGroup();
+
+                @Mapping(type = HttpMethod.GET, endpoint = "/chat")
+                public WebSocketResponse chat() {
+                    return new WebSocketResponse(new WebSocketListener() {
+                        @Override
+                        public void onOpen(WebSocketSession session) {
+                            ROOM.add(session);
+                        }
+                    });
+                }
+
+                @Mapping(type = HttpMethod.POST, endpoint = "/chat")
+                public WebSocketResponse post() {
+                    return chat();
+                }
+            }
+            """
+    );
+
+    // When: Compiling
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: Should fail on the POST route
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("WebSocketResponse routes must be GET routes");
+  }
+
   @Disabled
   @Test
   void shouldGenerateEmptyRoutesWhenNoMappings() {
@@ -510,12 +817,116 @@ class MappingProcessorTest {
         .withProcessors(new MappingProcessor())
         .compile(dtoSource, controllerSource);
 
-    // Then: Should generate route with RequestBody handling
+    // Then: Should parse the body bytes with the record's generated codec
     assertThat(compilation).succeeded();
     assertThat(compilation)
         .generatedSourceFile("org.nexus.GeneratedRoutes")
         .contentsAsUtf8String()
-        .contains("DF_MAPPER.readValue");
+        .contains("private static final JsonCodec<org.nexus.test.User> BODY_READER_0 = "
+            + "GeneratedCodecs.CODEC_0;");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("user = readBody(BODY_READER_0, rc);");
+  }
+
+  @Test
+  void shouldGenerateCodecsForBodyAndResponseRecords() {
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.OrderController",
+        """
+            package org.nexus.test;
+            
+            import java.util.List;
+            import java.util.concurrent.CompletableFuture;
+            import org.nexus.Response;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.annotations.RequestBody;
+            import org.nexus.enums.HttpMethod;
+            
+            public class OrderController {
+                public record Line(String sku, int quantity) {}
+                public record Order(long id, List<Line> lines) {}
+                public record Summary(Long id, Boolean paid) {}
+            
+                @Mapping(type = HttpMethod.POST, endpoint = "/orders")
+                public CompletableFuture<Response<List<Summary>>> create(@RequestBody Order order) {
+                    return CompletableFuture.completedFuture(new Response<>(200, List.of()));
+                }
+            }
+            """
+    );
+
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: Nested and response records get codecs too, and none of them needs reflection
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedCodecs")
+        .contentsAsUtf8String()
+        .contains("return List.of(CODEC_0, CODEC_1, CODEC_2);");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedCodecs")
+        .contentsAsUtf8String()
+        .contains("case \"lines\" -> f1 = NexusCodecs.readList(p, p0 -> "
+            + "NexusCodecs.readObject(p0, GeneratedCodecs.CODEC_1));");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedCodecs")
+        .contentsAsUtf8String()
+        .contains("NexusCodecs.writeBoolean(gen, value.paid());");
+  }
+
+  @Test
+  void shouldFallBackToJacksonForAnnotatedTypes() {
+    JavaFileObject controllerSource = JavaFileObjects.forSourceString(
+        "org.nexus.test.PostController",
+        """
+            package org.nexus.test;
+            
+            import com.fasterxml.jackson.annotation.JsonProperty;
+            import java.util.concurrent.CompletableFuture;
+            import org.nexus.Response;
+            import org.nexus.annotations.Mapping;
+            import org.nexus.annotations.RequestBody;
+            import org.nexus.enums.HttpMethod;
+            
+            public class PostController {
+                public record Renamed(@JsonProperty("full_name") String name) {}
+                public record Computed(String name) {
+                    public String getDisplayName() { return name.toUpperCase(); }
+                }
+            
+                @Mapping(type = HttpMethod.POST, endpoint = "/renamed")
+                public CompletableFuture<Response<Computed>> create(@RequestBody Renamed body) {
+                    return CompletableFuture.completedFuture(new Response<>(200, null));
+                }
+            }
+            """
+    );
+
+    Compilation compilation = javac()
+        .withProcessors(new MappingProcessor())
+        .compile(controllerSource);
+
+    // Then: Jackson still reads and writes them, since a codec couldn't match its output
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedRoutes")
+        .contentsAsUtf8String()
+        .contains("private static final ObjectReader BODY_READER_0 = "
+            + "NexusCodecs.readerFor(org.nexus.test.PostController.Renamed.class);");
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedCodecs")
+        .contentsAsUtf8String()
+        .contains("return List.of();");
+    // and have their reader and writer built at startup
+    assertThat(compilation)
+        .generatedSourceFile("org.nexus.GeneratedCodecs")
+        .contentsAsUtf8String()
+        .contains("return List.of(org.nexus.test.PostController.Renamed.class, "
+            + "org.nexus.test.PostController.Computed.class);");
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package org.nexus.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.nexus.NexusDatabase;
+import org.nexus.config.db.DatabaseConfig;
+import org.nexus.dbconnector.SqliteConnector;
+import org.nexus.enums.DatabaseType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link NexusDatabase#query} against a SQLite file of 1000 users, fetching one row by key and a
+ * page of 100. Includes taking the connection from the pool and mapping the rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseBenchmark {
+
+  private static final int USERS = 1000;
+  private static final NexusDatabase.ResultSetMapper<User> USER = rs -> new User(
+      rs.getLong("id"), rs.getString("name"), rs.getString("email"), rs.getBoolean("active"));
+
+  private Path directory;
+  private SqliteConnector connector;
+  private NexusDatabase database;
+  private long id;
+
+  @Setup
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory("nexus-bench");
+    DatabaseConfig config = DatabaseConfig.defaultConfig("bench", DatabaseType.SQLITE)
+        .withUrl("jdbc:sqlite:" + directory.resolve("bench.db"))
+        .withPoolSize(4)
+        .withAutoCommit(true);
+    connector = new SqliteConnector(config);
+    database = new NexusDatabase(connector);
+
+    database.update("""
+        CREATE TABLE users (
+          id INTEGER PRIMARY KEY AUTOINCREMENT,
+          name TEXT NOT NULL,
+          email TEXT UNIQUE NOT NULL,
+          active INTEGER DEFAULT 1
+        )
+        """);
+    database.beginTransaction();
+    for (int i = 1; i <= USERS; i++) {
+      database.update("INSERT INTO users (name, email, active) VALUES (?, ?, ?)",
+          "User " + i, "user" + i + "@example.com", i % 2);
+    }
+    database.commitTransaction();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    database.close();
+    connector.close();
+    try (var files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  @Benchmark
+  public List<User> byId() {
+    id = id % USERS + 1;
+    return database.query("SELECT id, name, email, active FROM users WHERE id = ?", USER, id);
+  }
+
+  @Benchmark
+  public List<User> page() {
+    return database.query(
+        "SELECT id, name, email, active FROM users ORDER BY id LIMIT 100 OFFSET ?", USER, 200);
+  }
+
+  public record User(long id, String name, String email, boolean active) {
+
+  }
+}
@@ -0,0 +1,72 @@
+package org.nexus.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.nexus.NexusConfig;
+import org.nexus.config.jwt.JwtConfig;
+import org.nexus.config.jwt.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link JwtService#validateAccessToken} with a valid token, and with one whose signature doesn't
+ * match, which is what a forged or stale token costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+  private JwtService jwtService;
+  private String validToken;
+  private String tamperedToken;
+
+  @Setup
+  public void setUp() {
+    NexusConfig.closeInstance();
+    NexusConfig config = NexusConfig.getInstance();
+    config.setEnvFilePath("benchmark.env"); // not there, only the arguments below count
+    config.init(new String[]{
+        "--JWT_ACCESS_SECRET=benchmark-access-secret-at-least-32-characters",
+        "--JWT_REFRESH_SECRET=benchmark-refresh-secret-at-least-32-characters",
+        "--JWT_ISSUER=nexus-benchmarks"
+    });
+    jwtService = new JwtService(new JwtConfig(config));
+
+    validToken = jwtService.generateAccessToken("user-42", Map.of("role", "admin"));
+    // Flip the last signature character, the header and claims still parse
+    char last = validToken.charAt(validToken.length() - 1);
+    tamperedToken = validToken.substring(0, validToken.length() - 1) + (last == 'A' ? 'B' : 'A');
+    if (!jwtService.validateAccessToken(validToken)
+        || jwtService.validateAccessToken(tamperedToken)) {
+      throw new IllegalStateException("Tokens don't validate as expected");
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    NexusConfig.closeInstance();
+  }
+
+  @Benchmark
+  public boolean valid() {
+    return jwtService.validateAccessToken(validToken);
+  }
+
+  @Benchmark
+  public boolean tampered() {
+    return jwtService.validateAccessToken(tamperedToken);
+  }
+}
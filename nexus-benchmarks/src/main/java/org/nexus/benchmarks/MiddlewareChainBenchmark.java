@@ -0,0 +1,103 @@
+package org.nexus.benchmarks;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.nexus.RequestContext;
+import org.nexus.Route;
+import org.nexus.config.CorsConfig;
+import org.nexus.interfaces.Middleware;
+import org.nexus.middleware.CorsMiddleware;
+import org.nexus.middleware.DefaultMiddlewareChain;
+import org.nexus.middleware.SecurityHeadersMiddleware;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A request through {@link DefaultMiddlewareChain}, created per request as the server does. The
+ * {@code passThrough} chains measure the chain itself; {@code builtIn} runs the CORS and security
+ * header middleware on a cross-origin request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MiddlewareChainBenchmark {
+
+  private List<Middleware> builtIn;
+  private EmbeddedChannel channel;
+  private DefaultFullHttpRequest request;
+
+  @Setup
+  public void setUp() {
+    builtIn = List.of(
+        new CorsMiddleware(new CorsConfig(true, List.of("https://app.example.com"), "",
+            "Content-Type, Authorization", "", false, 600)),
+        new SecurityHeadersMiddleware(true));
+    channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/api/users/42");
+    request.headers().set("Origin", "https://app.example.com");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    request.release();
+    channel.finishAndReleaseAll();
+  }
+
+  @Benchmark
+  public void passThrough(PassThrough chain, Blackhole blackhole) throws Exception {
+    run(chain.middlewares, blackhole);
+  }
+
+  @Benchmark
+  public void builtIn(Blackhole blackhole) throws Exception {
+    run(builtIn, blackhole);
+  }
+
+  private void run(List<Middleware> chain, Blackhole blackhole) throws Exception {
+    RequestContext ctx = new RequestContext(
+        channel.pipeline().firstContext(), request, Map.of("id", "42"), (Route<?>) null);
+    DefaultMiddlewareChain.create(chain, () -> blackhole.consume(ctx)).next(ctx);
+  }
+
+  /**
+   * Middleware that only calls the next one.
+   */
+  @State(Scope.Thread)
+  public static class PassThrough {
+
+    @Param({"0", "3", "10"})
+    public int count;
+
+    List<Middleware> middlewares;
+
+    @Setup
+    public void setUp() {
+      middlewares = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        middlewares.add((ctx, next) -> next.next(ctx));
+      }
+    }
+  }
+}
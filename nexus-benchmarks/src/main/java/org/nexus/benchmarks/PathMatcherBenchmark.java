@@ -0,0 +1,34 @@
+package org.nexus.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.nexus.PathMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PathMatcher#normalise(String)}, run on every request before the route lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathMatcherBenchmark {
+
+  @Param({"/", "/api/v1/users/42", "/api/v1/users/42/", "//api//v1///users/42//"})
+  public String path;
+
+  @Benchmark
+  public String normalise() {
+    return PathMatcher.normalise(path);
+  }
+}
@@ -0,0 +1,63 @@
+package org.nexus.benchmarks;
+
+import io.netty.handler.codec.http.FullHttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.nexus.Response;
+import org.nexus.enums.BodyFormat;
+import org.nexus.enums.ResponseType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Response#toHttpResponse(BodyFormat)}: encoding the body into its buffer and building the
+ * response head. The response is released again, as the channel would once it is written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+  @Param({"record", "list", "text"})
+  public String body;
+
+  private Response<?> response;
+
+  @Setup
+  public void setUp() {
+    User user = new User(42, "Alice", "alice@example.com", true);
+    response = switch (body) {
+      case "record" -> new Response<>(200, user);
+      case "list" -> new Response<>(200, IntStream.range(0, 100)
+          .mapToObj(i -> new User(i, "User " + i, "user" + i + "@example.com", i % 2 == 0))
+          .toList());
+      case "text" -> new Response<>(200, "OK", ResponseType.TEXT);
+      default -> throw new IllegalArgumentException(body);
+    };
+  }
+
+  @Benchmark
+  public int toHttpResponse() {
+    FullHttpResponse httpResponse = response.toHttpResponse(BodyFormat.JSON);
+    int bytes = httpResponse.content().readableBytes();
+    httpResponse.release();
+    return bytes;
+  }
+
+  public record User(long id, String name, String email, boolean active) {
+
+  }
+
+}
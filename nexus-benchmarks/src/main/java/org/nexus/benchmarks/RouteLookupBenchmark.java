@@ -0,0 +1,113 @@
+package org.nexus.benchmarks;
+
+import io.netty.handler.codec.http.HttpMethod;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.nexus.PathMatcher;
+import org.nexus.PathMatcher.CompiledPattern;
+import org.nexus.PathMatcher.Result;
+import org.nexus.Response;
+import org.nexus.Route;
+import org.nexus.RoutesResolver.RouteMatch;
+import org.nexus.interfaces.RouteHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Route lookup as done by the generated {@code GeneratedRoutes}, against tables of 10 to 1000
+ * routes. The generated class holds the routes of the application it was compiled with, so this
+ * builds the same two tables, exact paths by {@code "METHOD path"} and compiled templates per
+ * method in declaration order, and runs the same lookup over them.
+ *
+ * <p>Half the routes are exact paths and half are templates, e.g. {@code /resource42/:id}. The
+ * template benchmarks look up the last one declared, the worst case of the linear scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+  private static final RouteHandler<Void> HANDLER =
+      _ -> CompletableFuture.completedFuture(new Response<>(204));
+
+  @Param({"10", "100", "1000"})
+  public int routes;
+
+  private final Map<String, Route<?>> exactRoutes = new HashMap<>();
+  private final Map<String, List<CompiledRoute>> dynamicRoutesByMethod = new HashMap<>();
+  private String exactPath;
+  private String templatePath;
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < routes / 2; i++) {
+      String exact = "/api/resource" + i + "/list";
+      exactRoutes.put("GET " + exact, new Route<>(HttpMethod.GET, exact, HANDLER));
+      String template = "/api/resource" + i + "/:id";
+      dynamicRoutesByMethod.computeIfAbsent("GET", _ -> new ArrayList<>()).add(new CompiledRoute(
+          CompiledPattern.compile(template), new Route<>(HttpMethod.GET, template, HANDLER)));
+    }
+    int last = routes / 2 - 1;
+    exactPath = "/api/resource" + last + "/list";
+    templatePath = "/api/resource" + last + "/42";
+  }
+
+  @Benchmark
+  public RouteMatch exactPath() {
+    return findMatchingRouteInternal("GET", exactPath);
+  }
+
+  @Benchmark
+  public RouteMatch templatePath() {
+    return findMatchingRouteInternal("GET", templatePath);
+  }
+
+  @Benchmark
+  public RouteMatch noMatch() {
+    return findMatchingRouteInternal("GET", "/api/missing/42");
+  }
+
+  /**
+   * Same as {@code GeneratedRoutes.findMatchingRouteInternal}, which {@code
+   * RouteLookupBenchmarkTest} checks against the template it is generated from.
+   */
+  private RouteMatch findMatchingRouteInternal(String httpMethod, String path) {
+    String normPath = PathMatcher.normalise(path);
+    String key = httpMethod.toUpperCase() + " " + normPath;
+    Route<?> exact = exactRoutes.get(key);
+    if (exact != null) {
+      return new RouteMatch(exact, Map.of());
+    }
+    List<CompiledRoute> candidates = dynamicRoutesByMethod.get(httpMethod.toUpperCase());
+    if (candidates == null) {
+      return null;
+    }
+    for (CompiledRoute cr : candidates) {
+      Result result = cr.pattern.match(normPath);
+      if (result.matches()) {
+        return new RouteMatch(cr.route, result.params());
+      }
+    }
+    return null;
+  }
+
+  private record CompiledRoute(CompiledPattern pattern, Route<?> route) {
+
+  }
+}
@@ -0,0 +1,53 @@
+package org.nexus.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.annotations.processor.MappingProcessorConstants;
+
+@DisplayName("RouteLookupBenchmark Tests")
+class RouteLookupBenchmarkTest {
+
+  private static final String LOOKUP =
+      "RouteMatch findMatchingRouteInternal(String httpMethod, String path)";
+
+  /**
+   * @return the body of the method, one trimmed line per statement, without blank lines
+   */
+  private static String body(String source, String signature) {
+    int start = source.indexOf(signature);
+    assertTrue(start >= 0, "missing " + signature);
+    int open = source.indexOf('{', start);
+    int depth = 0;
+    int end = open;
+    do {
+      char c = source.charAt(end++);
+      if (c == '{') {
+        depth++;
+      } else if (c == '}') {
+        depth--;
+      }
+    } while (depth > 0);
+    return source.substring(open + 1, end - 1).lines()
+        .map(String::strip)
+        .filter(line -> !line.isEmpty())
+        .collect(Collectors.joining("\n"));
+  }
+
+  @Test
+  @DisplayName("Should benchmark the same lookup as the generated routes")
+  void lookup_matchesGeneratedTemplate() throws IOException {
+    String benchmark = Files.readString(
+        Path.of("src/main/java/org/nexus/benchmarks/RouteLookupBenchmark.java"));
+
+    assertEquals(
+        body(MappingProcessorConstants.GENERATED_CLASS_FOOTER, LOOKUP),
+        body(benchmark, LOOKUP));
+  }
+}
@@ -1,6 +1,7 @@
 package org.nexus;
 
 import io.netty.handler.codec.http.FullHttpResponse;
+import org.nexus.enums.BodyFormat;
 
 public class CachedHttpResponse<T> extends Response<T> {
 
@@ -12,7 +13,7 @@ public class CachedHttpResponse<T> extends Response<T> {
   }
 
   @Override
-  public FullHttpResponse toHttpResponse() {
+  public FullHttpResponse toHttpResponse(BodyFormat format) {
     return cached.retainedDuplicate();
   }
 }
@@ -0,0 +1,126 @@
+package org.nexus;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.nexus.enums.ProblemDetailsTypes;
+import org.nexus.exceptions.ProblemDetailsException;
+import org.nexus.interfaces.ProblemDetails;
+
+/**
+ * A named, bounded executor that isolates a route (or a group of routes) from the rest of the
+ * server. At most {@code maxConcurrent} tasks run at once and at most {@code maxQueued} wait for a
+ * slot; anything beyond that is rejected straight away with a 503 problem, so a flood on one slow
+ * endpoint can't take every virtual thread and pool connection with it.
+ *
+ * <p>Tasks run on virtual threads from {@link NexusExecutor#get()}. Queued tasks park on a
+ * semaphore, which is cheap for virtual threads and keeps the bookkeeping lock-free.
+ */
+public final class NexusBulkhead implements Executor {
+
+  private final String name;
+  private final int maxConcurrent;
+  private final int maxQueued;
+  private final Semaphore permits;
+  private final AtomicInteger admitted = new AtomicInteger(); // running + queued
+  private final AtomicInteger active = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+
+  public NexusBulkhead(String name, int maxConcurrent, int maxQueued) {
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("name must not be null or blank");
+    }
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("maxConcurrent must be at least 1");
+    }
+    if (maxQueued < 0) {
+      throw new IllegalArgumentException("maxQueued must not be negative");
+    }
+    this.name = name;
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueued = maxQueued;
+    this.permits = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * Runs the task if there is room for it.
+   *
+   * @throws ProblemDetailsException with status 503 if both the slots and the queue are full
+   */
+  @Override
+  public void execute(Runnable task) {
+    if (admitted.incrementAndGet() > maxConcurrent + maxQueued) {
+      admitted.decrementAndGet();
+      rejected.increment();
+      throw rejection();
+    }
+
+    try {
+      NexusExecutor.get().execute(() -> run(task));
+    } catch (RejectedExecutionException e) {
+      admitted.decrementAndGet();
+      throw e;
+    }
+  }
+
+  private void run(Runnable task) {
+    permits.acquireUninterruptibly();
+    active.incrementAndGet();
+    try {
+      task.run();
+    } finally {
+      active.decrementAndGet();
+      permits.release();
+      admitted.decrementAndGet();
+    }
+  }
+
+  private ProblemDetailsException rejection() {
+    return new ProblemDetailsException(
+        new ProblemDetails.Single(
+            ProblemDetailsTypes.SERVICE_UNAVAILABLE,
+            "Service Unavailable",
+            503,
+            "Too many concurrent requests, try again later",
+            "",
+            Map.of("bulkhead", name)
+        )
+    );
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  public int getMaxQueued() {
+    return maxQueued;
+  }
+
+  /**
+   * @return tasks currently running
+   */
+  public int getActiveCount() {
+    return active.get();
+  }
+
+  /**
+   * @return tasks admitted and waiting for a slot
+   */
+  public int getQueuedCount() {
+    return Math.max(0, admitted.get() - active.get());
+  }
+
+  /**
+   * @return tasks rejected since creation
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,188 @@
+package org.nexus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.nexus.interfaces.RouteHandler;
+
+/**
+ * Single-flight for idempotent routes. While a call for a key is running, identical requests wait
+ * for its result instead of running the controller again; the response is encoded once and every
+ * waiter writes a duplicate of it.
+ *
+ * <p>The key is the method, the normalised path, the negotiated body format, the query parameters
+ * and the chosen headers.
+ * Only coalesce routes whose response doesn't depend on anything else, such as the caller's
+ * identity, unless that is part of the key.
+ *
+ * <p>Streaming, SSE and WebSocket responses can only be written by the server, once. When one
+ * comes back with waiters attached, the request that made the call gets it and the waiters fail.
+ */
+public final class NexusCoalescer {
+
+  private static final char SEPARATOR = '\u0000';
+  private static final ConcurrentHashMap<String, Flight> FLIGHTS = new ConcurrentHashMap<>();
+  private static final LongAdder COALESCED = new LongAdder();
+
+  private NexusCoalescer() {
+  }
+
+  /**
+   * Wraps a route handler with single-flight.
+   *
+   * @param queryParams Query parameters that are part of the key, all of them when empty
+   * @param headers     Request headers that are part of the key
+   * @param handler     The route handler
+   */
+  public static <T> RouteHandler<T> coalesce(
+      String[] queryParams,
+      String[] headers,
+      RouteHandler<T> handler
+  ) {
+    String[] params = queryParams.clone();
+    Arrays.sort(params);
+    String[] headerNames = headers.clone();
+    return rc -> coalesce(key(rc, params, headerNames), rc, handler);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> CompletableFuture<Response<T>> coalesce(
+      String key,
+      RequestContext rc,
+      RouteHandler<T> handler
+  ) {
+    Flight flight = FLIGHTS.get(key);
+    if (flight != null && flight.join()) {
+      COALESCED.increment();
+      return (CompletableFuture<Response<T>>) (CompletableFuture<?>) flight.result;
+    }
+
+    Flight leader = new Flight();
+    while ((flight = FLIGHTS.putIfAbsent(key, leader)) != null) {
+      // A finished flight is removed before it stops accepting waiters, so this settles quickly
+      if (flight.join()) {
+        COALESCED.increment();
+        return (CompletableFuture<Response<T>>) (CompletableFuture<?>) flight.result;
+      }
+    }
+
+    CompletableFuture<Response<T>> call;
+    try {
+      call = handler.handle(rc);
+    } catch (RuntimeException e) {
+      call = CompletableFuture.failedFuture(e);
+    }
+    CompletableFuture<Response<?>> own = new CompletableFuture<>();
+    call.whenComplete((response, error) -> {
+      FLIGHTS.remove(key, leader);
+      int waiters = leader.close();
+      Response<?> result = response;
+      Throwable failure = error;
+      if (error == null && waiters > 1 && response != null) {
+        if (isWrittenByServer(response)) {
+          own.complete(response);
+          leader.result.completeExceptionally(new IllegalStateException(
+              response.getClass().getSimpleName() + " can't be shared by coalesced requests"));
+          return;
+        }
+        try {
+          result = new SharedHttpResponse<>(
+              response.toHttpResponse(NexusFormats.responseFormat(rc)), waiters);
+        } catch (RuntimeException e) {
+          failure = e;
+        }
+      }
+      if (failure != null) {
+        leader.result.completeExceptionally(failure);
+        own.completeExceptionally(failure);
+      } else {
+        leader.result.complete(result);
+        own.complete(result);
+      }
+    });
+    return (CompletableFuture<Response<T>>) (CompletableFuture<?>) own;
+  }
+
+  private static boolean isWrittenByServer(Response<?> response) {
+    return response instanceof StreamingResponse<?>
+        || response instanceof SseResponse
+        || response instanceof WebSocketResponse;
+  }
+
+  static String key(RequestContext rc, String[] params, String[] headers) {
+    String uri = rc.getRequest().uri();
+    int q = uri.indexOf('?');
+    StringBuilder key = new StringBuilder(uri.length() + 16)
+        .append(rc.getRequest().method().name())
+        .append(' ')
+        .append(PathMatcher.normalise(q < 0 ? uri : uri.substring(0, q)));
+    if (NexusFormats.isNegotiable()) {
+      key.append(SEPARATOR).append(NexusFormats.responseFormat(rc).name());
+    }
+
+    if (params.length == 0) {
+      if (!rc.getQueryParams().isEmpty()) {
+        for (Map.Entry<String, List<String>> e : new TreeMap<>(rc.getQueryParams()).entrySet()) {
+          appendParam(key, e.getKey(), e.getValue());
+        }
+      }
+    } else {
+      for (String param : params) {
+        appendParam(key, param, rc.getQueryParams(param));
+      }
+    }
+
+    for (String header : headers) {
+      key.append(SEPARATOR).append(header).append(':')
+          .append(rc.getRequest().headers().get(header));
+    }
+    return key.toString();
+  }
+
+  private static void appendParam(StringBuilder key, String name, List<String> values) {
+    key.append(SEPARATOR).append(name).append('=');
+    for (String value : values) {
+      key.append(value).append(SEPARATOR);
+    }
+  }
+
+  /**
+   * @return requests that were served by another request's call
+   */
+  public static long getCoalescedCount() {
+    return COALESCED.sum();
+  }
+
+  /**
+   * @return calls currently running with waiters possibly attached
+   */
+  public static int getInFlightCount() {
+    return FLIGHTS.size();
+  }
+
+  private static final class Flight {
+
+    private final CompletableFuture<Response<?>> result = new CompletableFuture<>();
+    private final AtomicInteger waiters = new AtomicInteger(1); // -1 once closed
+
+    private boolean join() {
+      int n;
+      do {
+        n = waiters.get();
+        if (n < 0) {
+          return false;
+        }
+      } while (!waiters.compareAndSet(n, n + 1));
+      return true;
+    }
+
+    private int close() {
+      return waiters.getAndSet(-1);
+    }
+  }
+}
@@ -0,0 +1,410 @@
+package org.nexus;
+
+import static org.nexus.NexusUtils.DF_MAPPER;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import org.nexus.interfaces.JsonCodec;
+import org.nexus.interfaces.JsonCodec.ValueReader;
+import org.nexus.interfaces.JsonCodec.ValueWriter;
+
+/**
+ * Registry of the {@link JsonCodec}s generated for the application's request and response types,
+ * loaded through {@link ServiceLoader} like the generated routes. Types without a codec go through
+ * {@link NexusUtils#DF_MAPPER}, with an {@link ObjectWriter} and {@link ObjectReader} built once
+ * per type; {@link #prepare()} builds them up front for the types the processor saw on routes.
+ *
+ * <p>The static {@code read*}/{@code write*} helpers are what generated codecs are built from; they
+ * follow the default mapper's coercion rules, so switching a type to a codec doesn't change what
+ * clients can send or get back.
+ */
+public final class NexusCodecs {
+
+  private static final Map<Class<?>, JsonCodec<?>> CODECS = new ConcurrentHashMap<>();
+  private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+  private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+  private static final List<Class<?>> JACKSON_TYPES = new ArrayList<>();
+
+  static {
+    for (CodecProvider provider : ServiceLoader.load(CodecProvider.class)) {
+      provider.codecs().forEach(NexusCodecs::register);
+      JACKSON_TYPES.addAll(provider.jacksonTypes());
+    }
+  }
+
+  private NexusCodecs() {
+  }
+
+  public static void register(JsonCodec<?> codec) {
+    CODECS.put(codec.type(), codec);
+  }
+
+  /**
+   * @return the codec for exactly this class, or {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> JsonCodec<T> get(Class<T> type) {
+    return (JsonCodec<T>) CODECS.get(type);
+  }
+
+  /**
+   * Builds the Jackson writers and readers for the route types without a codec, so the first
+   * request of each type doesn't pay for resolving its serializers. Called at startup, after
+   * {@link NexusUtils#configureMapper(NexusConfig)}.
+   */
+  public static void prepare() {
+    for (Class<?> type : JACKSON_TYPES) {
+      writerFor(type);
+      readerFor(type);
+    }
+  }
+
+  /**
+   * @return the cached writer for exactly this class
+   */
+  public static ObjectWriter writerFor(Class<?> type) {
+    ObjectWriter writer = WRITERS.get(type);
+    return writer != null ? writer : WRITERS.computeIfAbsent(type, DF_MAPPER::writerFor);
+  }
+
+  /**
+   * @return the cached reader for exactly this class
+   */
+  public static ObjectReader readerFor(Class<?> type) {
+    ObjectReader reader = READERS.get(type);
+    return reader != null ? reader : READERS.computeIfAbsent(type, DF_MAPPER::readerFor);
+  }
+
+  static void clearJacksonCache() {
+    WRITERS.clear();
+    READERS.clear();
+  }
+
+  /**
+   * Writes any value, through its codec when it has one and Jackson otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  public static void writeValue(JsonGenerator gen, Object value) throws IOException {
+    switch (value) {
+      case null -> gen.writeNull();
+      case String s -> gen.writeString(s);
+      case Integer i -> gen.writeNumber(i);
+      case Long l -> gen.writeNumber(l);
+      case Boolean b -> gen.writeBoolean(b);
+      case List<?> list -> writeList(gen, (List<Object>) list, NexusCodecs::writeValue);
+      default -> {
+        JsonCodec<Object> codec = (JsonCodec<Object>) CODECS.get(value.getClass());
+        if (codec != null) {
+          codec.write(gen, value);
+        } else {
+          writerFor(value.getClass()).writeValue(gen, value);
+        }
+      }
+    }
+  }
+
+  // region Writers
+
+  public static void writeString(JsonGenerator gen, String value) throws IOException {
+    if (value == null) {
+      gen.writeNull();
+    } else {
+      gen.writeString(value);
+    }
+  }
+
+  public static void writeNumber(JsonGenerator gen, Number value) throws IOException {
+    switch (value) {
+      case null -> gen.writeNull();
+      case Integer i -> gen.writeNumber(i);
+      case Long l -> gen.writeNumber(l);
+      case Double d -> gen.writeNumber(d);
+      case Float f -> gen.writeNumber(f);
+      case Short s -> gen.writeNumber(s);
+      case BigDecimal d -> gen.writeNumber(d);
+      case BigInteger i -> gen.writeNumber(i);
+      default -> DF_MAPPER.writeValue(gen, value);
+    }
+  }
+
+  public static void writeBoolean(JsonGenerator gen, Boolean value) throws IOException {
+    if (value == null) {
+      gen.writeNull();
+    } else {
+      gen.writeBoolean(value);
+    }
+  }
+
+  public static <T> void writeObject(JsonGenerator gen, T value, JsonCodec<T> codec)
+      throws IOException {
+    if (value == null) {
+      gen.writeNull();
+    } else {
+      codec.write(gen, value);
+    }
+  }
+
+  public static <T> void writeList(JsonGenerator gen, List<T> list, ValueWriter<T> element)
+      throws IOException {
+    if (list == null) {
+      gen.writeNull();
+      return;
+    }
+    gen.writeStartArray(list, list.size());
+    for (T value : list) {
+      element.write(gen, value);
+    }
+    gen.writeEndArray();
+  }
+
+  // endregion
+
+  // region Readers
+
+  public static String readString(JsonParser p) throws IOException {
+    JsonToken t = p.currentToken();
+    if (t == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (t.isScalarValue()) {
+      return p.getText();
+    }
+    throw mismatch(p, String.class);
+  }
+
+  public static int readInt(JsonParser p) throws IOException {
+    Integer value = readInteger(p);
+    return value != null ? value : 0;
+  }
+
+  public static Integer readInteger(JsonParser p) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_NULL -> null;
+      case VALUE_NUMBER_INT -> p.getIntValue();
+      case VALUE_NUMBER_FLOAT -> (int) p.getDoubleValue();
+      case VALUE_STRING -> {
+        String text = numberText(p, Integer.class);
+        yield text != null ? new BigDecimal(text).intValue() : null;
+      }
+      default -> throw mismatch(p, Integer.class);
+    };
+  }
+
+  public static long readLong(JsonParser p) throws IOException {
+    Long value = readLongObject(p);
+    return value != null ? value : 0L;
+  }
+
+  public static Long readLongObject(JsonParser p) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_NULL -> null;
+      case VALUE_NUMBER_INT -> p.getLongValue();
+      case VALUE_NUMBER_FLOAT -> (long) p.getDoubleValue();
+      case VALUE_STRING -> {
+        String text = numberText(p, Long.class);
+        yield text != null ? new BigDecimal(text).longValue() : null;
+      }
+      default -> throw mismatch(p, Long.class);
+    };
+  }
+
+  public static short readShort(JsonParser p) throws IOException {
+    Short value = readShortObject(p);
+    return value != null ? value : 0;
+  }
+
+  public static Short readShortObject(JsonParser p) throws IOException {
+    Integer value = readInteger(p);
+    if (value == null) {
+      return null;
+    }
+    if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+      throw new JsonParseException(p, "Numeric value (" + value + ") out of range of short");
+    }
+    return value.shortValue();
+  }
+
+  public static double readDouble(JsonParser p) throws IOException {
+    Double value = readDoubleObject(p);
+    return value != null ? value : 0d;
+  }
+
+  public static Double readDoubleObject(JsonParser p) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_NULL -> null;
+      case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getDoubleValue();
+      case VALUE_STRING -> {
+        String text = numberText(p, Double.class);
+        yield text != null ? Double.valueOf(text) : null;
+      }
+      default -> throw mismatch(p, Double.class);
+    };
+  }
+
+  public static float readFloat(JsonParser p) throws IOException {
+    Double value = readDoubleObject(p);
+    return value != null ? value.floatValue() : 0f;
+  }
+
+  public static Float readFloatObject(JsonParser p) throws IOException {
+    Double value = readDoubleObject(p);
+    return value != null ? value.floatValue() : null;
+  }
+
+  public static boolean readBoolean(JsonParser p) throws IOException {
+    Boolean value = readBooleanObject(p);
+    return value != null && value;
+  }
+
+  public static Boolean readBooleanObject(JsonParser p) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_NULL -> null;
+      case VALUE_TRUE -> Boolean.TRUE;
+      case VALUE_FALSE -> Boolean.FALSE;
+      case VALUE_NUMBER_INT -> p.getIntValue() != 0;
+      case VALUE_STRING -> {
+        String text = p.getText().trim();
+        if ("true".equalsIgnoreCase(text)) {
+          yield Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(text)) {
+          yield Boolean.FALSE;
+        }
+        if (text.isEmpty()) {
+          yield null;
+        }
+        throw mismatch(p, Boolean.class);
+      }
+      default -> throw mismatch(p, Boolean.class);
+    };
+  }
+
+  public static BigDecimal readBigDecimal(JsonParser p) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_NULL -> null;
+      case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getDecimalValue();
+      case VALUE_STRING -> {
+        String text = numberText(p, BigDecimal.class);
+        yield text != null ? new BigDecimal(text) : null;
+      }
+      default -> throw mismatch(p, BigDecimal.class);
+    };
+  }
+
+  public static BigInteger readBigInteger(JsonParser p) throws IOException {
+    return switch (p.currentToken()) {
+      case VALUE_NULL -> null;
+      case VALUE_NUMBER_INT -> p.getBigIntegerValue();
+      case VALUE_NUMBER_FLOAT -> p.getDecimalValue().toBigInteger();
+      case VALUE_STRING -> {
+        String text = numberText(p, BigInteger.class);
+        yield text != null ? new BigDecimal(text).toBigInteger() : null;
+      }
+      default -> throw mismatch(p, BigInteger.class);
+    };
+  }
+
+  public static <T> T readObject(JsonParser p, JsonCodec<T> codec) throws IOException {
+    JsonToken t = p.currentToken();
+    if (t == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (t != JsonToken.START_OBJECT) {
+      throw mismatch(p, codec.type());
+    }
+    return codec.read(p);
+  }
+
+  public static <T> List<T> readList(JsonParser p, ValueReader<T> element) throws IOException {
+    JsonToken t = p.currentToken();
+    if (t == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (t != JsonToken.START_ARRAY) {
+      throw mismatch(p, List.class);
+    }
+    List<T> list = new ArrayList<>();
+    while (p.nextToken() != JsonToken.END_ARRAY) {
+      list.add(element.read(p));
+    }
+    return list;
+  }
+
+  /**
+   * Reads a whole document, the parser has not been advanced yet.
+   */
+  public static <T> T readRoot(JsonParser p, JsonCodec<T> codec) throws IOException {
+    if (p.nextToken() == null) {
+      throw new JsonParseException(p, "No content to map due to end-of-input");
+    }
+    T value = readObject(p, codec);
+    if (value == null) {
+      throw mismatch(p, codec.type());
+    }
+    return value;
+  }
+
+  /**
+   * Called by generated codecs for a property the type doesn't have.
+   */
+  public static void unknownProperty(JsonParser p, String name, Class<?> type) throws IOException {
+    if (DF_MAPPER.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)) {
+      throw new JsonParseException(p, "Unrecognized field \"" + name + "\" (class "
+          + type.getName() + "), not marked as ignorable");
+    }
+    p.skipChildren();
+  }
+
+  /**
+   * The trimmed text of a quoted number, or {@code null} for an empty string like the default
+   * mapper reads it.
+   */
+  private static String numberText(JsonParser p, Class<?> type) throws IOException {
+    String text = p.getText().trim();
+    if (text.isEmpty()) {
+      return null;
+    }
+    try {
+      new BigDecimal(text);
+      return text;
+    } catch (NumberFormatException _) {
+      throw new JsonParseException(p, "Cannot deserialize value of type `" + type.getName()
+          + "` from String \"" + text + "\": not a valid representation");
+    }
+  }
+
+  private static JsonParseException mismatch(JsonParser p, Class<?> type) {
+    return new JsonParseException(p,
+        "Cannot deserialize value of type `" + type.getName() + "` from " + p.currentToken());
+  }
+
+  // endregion
+
+  /**
+   * Implemented by the generated {@code org.nexus.GeneratedCodecs}.
+   */
+  public interface CodecProvider {
+
+    List<JsonCodec<?>> codecs();
+
+    /**
+     * @return the route body and response types left to Jackson
+     */
+    default List<Class<?>> jacksonTypes() {
+      return List.of();
+    }
+  }
+}
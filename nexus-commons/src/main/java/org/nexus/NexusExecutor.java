@@ -1,14 +1,24 @@
 package org.nexus;
 
+import io.netty.util.concurrent.EventExecutor;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import org.nexus.exceptions.ProblemDetailsException;
+import org.nexus.tracing.NexusTracing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public final class NexusExecutor {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NexusExecutor.class);
+  private static final Map<String, NexusBulkhead> BULKHEADS = new ConcurrentHashMap<>();
   private static volatile boolean shutdown = false;
 
   private NexusExecutor() {
@@ -18,6 +28,124 @@ public final class NexusExecutor {
     return InstanceHolder.instance;
   }
 
+  /**
+   * Runs blocking work on a virtual thread and completes the returned future back on the event
+   * loop that owns the request's channel. Used by the generated routes for blocking controllers.
+   * The work runs with the span current at the call, so its database calls join the trace.
+   *
+   * @param rc   The request the work belongs to
+   * @param work The blocking work
+   * @param <T>  The result type
+   * @return A future completed on the channel's event loop
+   */
+  public static <T> CompletableFuture<T> offload(RequestContext rc, Callable<T> work) {
+    return offload(rc, get(), work);
+  }
+
+  /**
+   * Same as {@link #offload(RequestContext, Callable)}, but runs the work inside the named
+   * bulkhead. If the bulkhead is full the returned future fails with a 503 problem.
+   *
+   * @param rc       The request the work belongs to
+   * @param bulkhead The bulkhead name
+   * @param work     The blocking work
+   * @param <T>      The result type
+   * @return A future completed on the channel's event loop
+   */
+  public static <T> CompletableFuture<T> offload(
+      RequestContext rc,
+      String bulkhead,
+      Callable<T> work
+  ) {
+    return offload(rc, bulkhead(bulkhead), work);
+  }
+
+  private static <T> CompletableFuture<T> offload(
+      RequestContext rc,
+      Executor executor,
+      Callable<T> work
+  ) {
+    EventExecutor loop = rc.getCtx().executor();
+    CompletableFuture<T> result = new CompletableFuture<>();
+    try {
+      executor.execute(NexusTracing.wrap(() -> {
+        T value;
+        try {
+          value = work.call();
+        } catch (Throwable e) {
+          completeOnLoop(loop, () -> result.completeExceptionally(e));
+          return;
+        }
+        completeOnLoop(loop, () -> result.complete(value));
+      }));
+    } catch (RejectedExecutionException | ProblemDetailsException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the named bulkhead, creating it on first use. Limits are read from
+   * {@code BULKHEAD_<NAME>_MAX_CONCURRENT} and {@code BULKHEAD_<NAME>_MAX_QUEUED}, falling back to
+   * {@code BULKHEAD_DEFAULT_MAX_CONCURRENT} (64) and {@code BULKHEAD_DEFAULT_MAX_QUEUED} (256).
+   *
+   * @param name The bulkhead name
+   * @return The bulkhead
+   */
+  public static NexusBulkhead bulkhead(String name) {
+    NexusBulkhead existing = BULKHEADS.get(name);
+    if (existing != null) {
+      return existing;
+    }
+    return BULKHEADS.computeIfAbsent(name, NexusExecutor::createBulkhead);
+  }
+
+  /**
+   * Registers a bulkhead with explicit limits. Must be called before the bulkhead is first used.
+   *
+   * @param name          The bulkhead name
+   * @param maxConcurrent Maximum tasks running at once
+   * @param maxQueued     Maximum tasks waiting for a slot
+   * @return The registered bulkhead
+   */
+  public static NexusBulkhead registerBulkhead(String name, int maxConcurrent, int maxQueued) {
+    NexusBulkhead bulkhead = new NexusBulkhead(name, maxConcurrent, maxQueued);
+    if (BULKHEADS.putIfAbsent(name, bulkhead) != null) {
+      throw new IllegalStateException("Bulkhead already registered: " + name);
+    }
+    LOGGER.info("Registered bulkhead '{}' (concurrent={}, queued={})",
+        name, maxConcurrent, maxQueued);
+    return bulkhead;
+  }
+
+  /**
+   * @return a snapshot of all bulkheads, keyed by name
+   */
+  public static Map<String, NexusBulkhead> getBulkheads() {
+    return Map.copyOf(BULKHEADS);
+  }
+
+  private static NexusBulkhead createBulkhead(String name) {
+    NexusConfig config = NexusConfig.getInstance();
+    String prefix = "BULKHEAD_" + name.toUpperCase().replaceAll("[^A-Z0-9]", "_") + "_";
+    int maxConcurrent = config.getInt(prefix + "MAX_CONCURRENT",
+        config.getInt("BULKHEAD_DEFAULT_MAX_CONCURRENT", 64));
+    int maxQueued = config.getInt(prefix + "MAX_QUEUED",
+        config.getInt("BULKHEAD_DEFAULT_MAX_QUEUED", 256));
+    LOGGER.info("Created bulkhead '{}' (concurrent={}, queued={})",
+        name, maxConcurrent, maxQueued);
+    return new NexusBulkhead(name, maxConcurrent, maxQueued);
+  }
+
+  private static void completeOnLoop(EventExecutor loop, Runnable completion) {
+    try {
+      loop.execute(completion);
+    } catch (RejectedExecutionException _) {
+      // Event loop is shutting down, complete here so the caller is not left hanging
+      completion.run();
+    }
+  }
+
   public static synchronized void shutdown() {
     if (!shutdown) {
       LOGGER.info("Shutting down NexusExecutor");
@@ -38,4 +166,4 @@ public final class NexusExecutor {
 
     private static final ExecutorService instance = Executors.newVirtualThreadPerTaskExecutor();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,198 @@
+package org.nexus;
+
+import static org.nexus.NexusUtils.DF_MAPPER;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import org.nexus.enums.BodyFormat;
+import org.nexus.enums.ProblemDetailsTypes;
+import org.nexus.exceptions.ProblemDetailsException;
+import org.nexus.interfaces.ProblemDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content negotiation for JSON-shaped bodies. Responses are encoded in the best {@link BodyFormat}
+ * the client accepts and request bodies are parsed according to their {@code Content-Type}; both
+ * default to JSON, so clients that don't ask for anything else see no difference.
+ *
+ * <p>A binary format is only offered when its Jackson dataformat is on the classpath. Generated
+ * codecs and Jackson work on the token stream, so the same types are read and written in every
+ * format.
+ */
+public final class NexusFormats {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NexusFormats.class);
+  private static final BodyFormat[] FORMATS = BodyFormat.values();
+  private static final JsonFactory[] FACTORIES = new JsonFactory[FORMATS.length];
+  private static final boolean NEGOTIABLE;
+
+  static {
+    boolean binary = false;
+    for (BodyFormat format : FORMATS) {
+      JsonFactory factory = format == BodyFormat.JSON ? DF_MAPPER.getFactory() : load(format);
+      FACTORIES[format.ordinal()] = factory;
+      binary |= format != BodyFormat.JSON && factory != null;
+    }
+    NEGOTIABLE = binary;
+  }
+
+  private NexusFormats() {
+  }
+
+  private static JsonFactory load(BodyFormat format) {
+    try {
+      JsonFactory factory = (JsonFactory) Class.forName(format.getFactoryClass())
+          .getDeclaredConstructor().newInstance();
+      LOGGER.info("Content negotiation enabled for {}", format.getMediaType());
+      return factory;
+    } catch (ClassNotFoundException _) {
+      return null;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      LOGGER.warn("Failed to load {} for {}", format.getFactoryClass(), format.getMediaType(), e);
+      return null;
+    }
+  }
+
+  public static boolean isAvailable(BodyFormat format) {
+    return FACTORIES[format.ordinal()] != null;
+  }
+
+  /**
+   * @return whether any format besides JSON is available, i.e. whether responses vary on
+   *     {@code Accept}
+   */
+  public static boolean isNegotiable() {
+    return NEGOTIABLE;
+  }
+
+  public static JsonFactory factory(BodyFormat format) {
+    JsonFactory factory = FACTORIES[format.ordinal()];
+    if (factory == null) {
+      throw new IllegalStateException(format.getFactoryClass() + " is not on the classpath");
+    }
+    return factory;
+  }
+
+  /**
+   * @return the format to encode the response to this request in
+   */
+  public static BodyFormat responseFormat(RequestContext rc) {
+    return NEGOTIABLE ? negotiate(rc.getRequest().headers().get(HttpHeaderNames.ACCEPT))
+        : BodyFormat.JSON;
+  }
+
+  /**
+   * Picks the available format with the highest quality in an {@code Accept} header. Ties go to
+   * the more specific range, then to the first listed; anything unavailable falls back to JSON.
+   */
+  public static BodyFormat negotiate(String accept) {
+    if (accept == null || accept.isEmpty()) {
+      return BodyFormat.JSON;
+    }
+    BodyFormat best = BodyFormat.JSON;
+    float bestQ = 0;
+    boolean bestWildcard = true;
+    int start = 0;
+    while (start < accept.length()) {
+      int end = accept.indexOf(',', start);
+      if (end < 0) {
+        end = accept.length();
+      }
+      String range = accept.substring(start, end);
+      start = end + 1;
+
+      int semi = range.indexOf(';');
+      String type = (semi < 0 ? range : range.substring(0, semi)).trim();
+      float q = semi < 0 ? 1 : quality(range.substring(semi + 1));
+      if (q <= 0) {
+        continue;
+      }
+      boolean wildcard = type.equals("*/*") || type.equalsIgnoreCase("application/*");
+      BodyFormat format = wildcard ? BodyFormat.JSON : match(type);
+      if (format != null && (q > bestQ || q == bestQ && bestWildcard && !wildcard)) {
+        best = format;
+        bestQ = q;
+        bestWildcard = wildcard;
+      }
+    }
+    return best;
+  }
+
+  private static float quality(String params) {
+    for (String param : params.split(";")) {
+      String p = param.trim();
+      if (p.length() > 2 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+        try {
+          return Float.parseFloat(p.substring(2));
+        } catch (NumberFormatException _) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  private static BodyFormat match(String mediaType) {
+    for (BodyFormat format : FORMATS) {
+      if (format.matches(mediaType)) {
+        return isAvailable(format) ? format : null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the format of the request body; JSON when there is no {@code Content-Type} or it isn't
+   *     one of the binary formats
+   * @throws ProblemDetailsException 415 for a binary format that isn't available
+   */
+  public static BodyFormat requestFormat(RequestContext rc) {
+    String contentType = rc.getRequest().headers().get(HttpHeaderNames.CONTENT_TYPE);
+    if (contentType == null) {
+      return BodyFormat.JSON;
+    }
+    int semi = contentType.indexOf(';');
+    String mediaType = (semi < 0 ? contentType : contentType.substring(0, semi)).trim();
+    for (BodyFormat format : FORMATS) {
+      if (format.matches(mediaType)) {
+        if (!isAvailable(format)) {
+          throw new ProblemDetailsException(
+              new ProblemDetails.Single(
+                  ProblemDetailsTypes.UNSUPPORTED_MEDIA_TYPE,
+                  "Unsupported Media Type",
+                  415,
+                  "Request bodies in " + mediaType + " are not supported",
+                  rc.getRequest().uri(),
+                  Map.of("contentType", mediaType)
+              )
+          );
+        }
+        return format;
+      }
+    }
+    return BodyFormat.JSON;
+  }
+
+  /**
+   * Opens a parser over the request body in its format, reading the buffer in place. Neither path
+   * moves the request's indices.
+   */
+  public static JsonParser createParser(RequestContext rc) throws IOException {
+    JsonFactory factory = FACTORIES[requestFormat(rc).ordinal()];
+    // Not getBodyBuffer(): a read-only view never exposes its array
+    ByteBuf content = rc.getRequest().content();
+    if (content != null && content.hasArray()) {
+      return factory.createParser(
+          content.array(), content.arrayOffset() + content.readerIndex(), content.readableBytes());
+    }
+    // ByteBufInputStream is also a DataInput, the cast picks the stream overload
+    return factory.createParser((InputStream) new ByteBufInputStream(rc.getBodyBuffer()));
+  }
+}
@@ -1,6 +1,11 @@
 package org.nexus;
 
+import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import org.nexus.tracing.NexusTracing;
+import org.nexus.tracing.Span;
+import org.nexus.tracing.TraceContext;
 
 public final class NexusHttpClient {
 
@@ -11,6 +16,26 @@ public final class NexusHttpClient {
     return InstanceHolder.instance;
   }
 
+  /**
+   * Starts a request made on behalf of {@code ctx}. It carries the same {@code X-Request-ID}, so
+   * the call can be followed from one service's logs to the other's, and, while tracing is on, a
+   * {@code traceparent} naming the current span, or the request's own, as the parent.
+   */
+  public static HttpRequest.Builder newRequest(RequestContext ctx, URI uri) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+        .header(RequestIds.HEADER.toString(), ctx.getRequestId());
+    Span current = NexusTracing.current();
+    Span parent = current != null ? current : ctx.getSpan();
+    if (parent != null) {
+      TraceContext context = parent.getContext();
+      builder.header(TraceContext.TRACEPARENT.toString(), context.traceparent());
+      if (context.traceState() != null) {
+        builder.header(TraceContext.TRACESTATE.toString(), context.traceState());
+      }
+    }
+    return builder;
+  }
+
   private static final class InstanceHolder {
 
     private static final HttpClient instance = HttpClient.newBuilder()
@@ -1,10 +1,19 @@
 package org.nexus;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class NexusUtils {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(NexusUtils.class);
+
   public static final ObjectMapper DF_MAPPER = new ObjectMapper();
   public static final ObjectMapper MAPPER_REFLECTION_CFG =
       new ObjectMapper()
@@ -13,4 +22,65 @@ public class NexusUtils {
   private NexusUtils() {
   }
 
+  /**
+   * Applies the JSON settings from the configuration to {@link #DF_MAPPER}. Call it once at
+   * startup, before anything is serialized.
+   *
+   * <ul>
+   *   <li>{@code JSON_FAIL_ON_UNKNOWN_PROPERTIES}: reject unknown body properties (default
+   *   {@code true})</li>
+   *   <li>{@code JSON_DATE_FORMAT}: {@code timestamp} (default), {@code iso} or a
+   *   {@link SimpleDateFormat} pattern, for {@code java.util.Date} values</li>
+   *   <li>{@code JSON_ACCESSOR_MODULE}: {@code none} (default), {@code blackbird} or
+   *   {@code afterburner}, whose jar has to be added to the application</li>
+   * </ul>
+   *
+   * <p>There is deliberately no naming strategy setting: generated codecs use the record component
+   * names and would no longer match what Jackson writes.
+   */
+  public static synchronized void configureMapper(NexusConfig config) {
+    DF_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
+        config.getBoolean("JSON_FAIL_ON_UNKNOWN_PROPERTIES", true));
+
+    String dateFormat = config.get("JSON_DATE_FORMAT", "timestamp");
+    switch (dateFormat.toLowerCase(Locale.ROOT)) {
+      case "timestamp" -> DF_MAPPER.setDateFormat(new StdDateFormat())
+          .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+      case "iso" -> DF_MAPPER.setDateFormat(new StdDateFormat().withColonInTimeZone(true));
+      default -> DF_MAPPER.setDateFormat(new SimpleDateFormat(dateFormat, Locale.ROOT));
+    }
+
+    String module = config.get("JSON_ACCESSOR_MODULE", "none").toLowerCase(Locale.ROOT);
+    switch (module) {
+      case "none" -> {
+      }
+      case "blackbird" -> registerModule("com.fasterxml.jackson.module.blackbird.BlackbirdModule");
+      case "afterburner" ->
+          registerModule("com.fasterxml.jackson.module.afterburner.AfterburnerModule");
+      default -> throw new IllegalArgumentException(
+          "JSON_ACCESSOR_MODULE must be none, blackbird or afterburner, got " + module);
+    }
+
+    // Readers and writers built so far captured the old settings
+    NexusCodecs.clearJacksonCache();
+  }
+
+  /**
+   * The accessor modules are optional dependencies, so they are only loaded when asked for.
+   */
+  private static void registerModule(String className) {
+    try {
+      Module module = (Module) Class.forName(className).getDeclaredConstructor().newInstance();
+      if (!DF_MAPPER.getRegisteredModuleIds().contains(module.getTypeId())) {
+        DF_MAPPER.registerModule(module);
+        LOGGER.info("Registered Jackson module {}", module.getModuleName());
+      }
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(
+          className + " is not on the classpath, add its jackson-module dependency", e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to create " + className, e);
+    }
+  }
+
 }
@@ -0,0 +1,107 @@
+package org.nexus;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The part of a connection the server pushes to that doesn't depend on the protocol, shared by
+ * {@link SseEmitter} and {@link WebSocketSession}. Writes happen on the channel's event loop, in
+ * the order they were handed over. A client that falls behind is dropped instead of buffered for:
+ * once the channel stops being writable, i.e. more than its high watermark is waiting to be sent,
+ * the next write closes it.
+ */
+final class PushConnection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PushConnection.class);
+
+  private final Channel channel;
+  private final String protocol;
+  // Guarded by itself until open turns false, read-only after
+  private final List<Runnable> closeHandlers = new ArrayList<>(2);
+  private volatile boolean open = true;
+
+  /**
+   * @param protocol Name of the protocol in log lines, e.g. {@code "SSE"}
+   */
+  PushConnection(Channel channel, String protocol) {
+    this.channel = channel;
+    this.protocol = protocol;
+    channel.closeFuture().addListener(_ -> closed());
+  }
+
+  Channel channel() {
+    return channel;
+  }
+
+  boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * Runs the task on the event loop, straight away when already on it.
+   */
+  void onEventLoop(Runnable task) {
+    EventLoop loop = channel.eventLoop();
+    if (loop.inEventLoop()) {
+      task.run();
+    } else {
+      loop.execute(task);
+    }
+  }
+
+  /**
+   * Queues the task on the event loop, even when called from it, so it runs after every task
+   * queued before it.
+   */
+  void enqueue(Runnable task) {
+    channel.eventLoop().execute(task);
+  }
+
+  /**
+   * To be called on the event loop before each write.
+   *
+   * @return whether the write can go ahead; {@code false} if the connection is closed, or the
+   *     client fell behind and the connection is now closing
+   */
+  boolean canWrite() {
+    if (!open) {
+      return false;
+    }
+    if (!channel.isWritable()) {
+      LOGGER.debug("Dropping slow {} consumer {}", protocol, channel.remoteAddress());
+      channel.close();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * @param handler Runs once the connection is closed, by either side
+   */
+  void onClose(Runnable handler) {
+    synchronized (closeHandlers) {
+      if (open) {
+        closeHandlers.add(handler);
+        return;
+      }
+    }
+    handler.run();
+  }
+
+  private void closed() {
+    synchronized (closeHandlers) {
+      open = false;
+    }
+    for (Runnable handler : closeHandlers) {
+      try {
+        handler.run();
+      } catch (RuntimeException e) {
+        LOGGER.error("Error in {} close handler", protocol, e);
+      }
+    }
+  }
+}
@@ -1,17 +1,27 @@
 package org.nexus;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.util.CharsetUtil;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
+import org.nexus.jfr.RequestEvent;
+import org.nexus.tracing.NexusTracing;
+import org.nexus.tracing.Span;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,28 +32,55 @@ public final class RequestContext {
   private final ChannelHandlerContext nettyCtx;
   private final FullHttpRequest request;
   private final Map<String, String> pathParams;
-  private final Map<String, List<String>> queryParams;
-  private final String body;
-  private final long startTime = System.currentTimeMillis();
+  private final Route<?> route;
+  private final long startNanos = System.nanoTime();
+  private Map<String, List<String>> queryParams; // decoded on first use
+  private String body; // decoded on first use
+  private final AtomicBoolean released = new AtomicBoolean();
   private Map<String, Object> attributes;
   private BiConsumer<FullHttpResponse, Throwable> completionHandler;  // slot for completion handler
   private List<BiConsumer<FullHttpResponse, Throwable>> extraHandlers;  // more than 1 (rare)
+  private CompletionListener completionListener;
   private HttpHeaders requestHeaders;
-  private long endTime = System.currentTimeMillis();
+  private long endTime;
   private FullHttpResponse response;
+  private FullHttpResponse middlewareResponse;
+  private String requestId;
   private boolean responseCompleted = false;
+  private RequestEvent requestEvent; // only while a recording takes it
+  private Span span; // only while tracing is on
 
   public RequestContext(
       ChannelHandlerContext nettyCtx,
       FullHttpRequest request,
       Map<String, String> pathParams,
       Map<String, List<String>> queryParams
+  ) {
+    this(nettyCtx, request, pathParams, (Route<?>) null);
+    this.queryParams = Objects.requireNonNull(queryParams, "queryParams cannot be null");
+  }
+
+  /**
+   * Creates a context whose query parameters and body are only decoded when first asked for, so a
+   * route that never reads them never pays for it.
+   */
+  public RequestContext(
+      ChannelHandlerContext nettyCtx,
+      FullHttpRequest request,
+      Map<String, String> pathParams,
+      Route<?> route
   ) {
     this.nettyCtx = Objects.requireNonNull(nettyCtx, "nettyCtx cannot be null");
     this.request = Objects.requireNonNull(request, "request cannot be null");
     this.pathParams = Objects.requireNonNull(pathParams, "pathParams cannot be null");
-    this.queryParams = Objects.requireNonNull(queryParams, "queryParams cannot be null");
-    this.body = request.content() != null ? request.content().toString(CharsetUtil.UTF_8) : "";
+    this.route = route;
+    if (RequestEvent.enabled()) {
+      requestEvent = new RequestEvent();
+      requestEvent.begin();
+    }
+    if (NexusTracing.isEnabled()) {
+      startSpan();
+    }
   }
 
   // Getters
@@ -55,6 +92,13 @@ public final class RequestContext {
     return request;
   }
 
+  /**
+   * @return whether {@link #getRequestHeaders()} has anything to add, without creating the map
+   */
+  public boolean hasRequestHeaders() {
+    return requestHeaders != null && !requestHeaders.isEmpty();
+  }
+
   public HttpHeaders getRequestHeaders() {
     if (requestHeaders == null) {
       requestHeaders = new DefaultHttpHeaders();
@@ -62,27 +106,93 @@ public final class RequestContext {
     return requestHeaders;
   }
 
+  /**
+   * @return the matched route, or {@code null} for an {@code OPTIONS} request no route takes and
+   *     for a context built outside the server
+   */
+  public Route<?> getRoute() {
+    return route;
+  }
+
+  /**
+   * @return the ID of this request: the {@code X-Request-ID} the client sent if it is usable, a new
+   *     one from {@link RequestIds} otherwise
+   */
+  public String getRequestId() {
+    if (requestId == null) {
+      String sent = request.headers().get(RequestIds.HEADER);
+      requestId = RequestIds.isValid(sent) ? sent : RequestIds.next();
+    }
+    return requestId;
+  }
+
   public Map<String, String> getPathParams() {
     return pathParams;
   }
 
   public Map<String, List<String>> getQueryParams() {
+    if (queryParams == null) {
+      String uri = request.uri();
+      queryParams = uri.indexOf('?') < 0
+          ? Map.of()
+          : new QueryStringDecoder(uri, CharsetUtil.UTF_8).parameters();
+    }
     return queryParams;
   }
 
   public String getQueryParam(String name) {
-    var list = queryParams.get(name);
+    var list = getQueryParams().get(name);
     return (list != null && !list.isEmpty()) ? list.getFirst() : null;
   }
 
   public List<String> getQueryParams(String name) {
-    return queryParams.getOrDefault(name, List.of());
+    return getQueryParams().getOrDefault(name, List.of());
   }
 
+  /**
+   * @return the body decoded as UTF-8. Prefer {@link #getBodyBuffer()} when the text isn't needed.
+   */
   public String getBody() {
+    if (body == null) {
+      ByteBuf content = request.content();
+      body = content != null && content.isReadable() ? content.toString(CharsetUtil.UTF_8) : "";
+    }
     return body;
   }
 
+  /**
+   * @return a read-only view of the raw body, valid until the response is sent
+   */
+  public ByteBuf getBodyBuffer() {
+    ByteBuf content = request.content();
+    return content != null ? content.asReadOnly() : Unpooled.EMPTY_BUFFER;
+  }
+
+  /**
+   * @return a stream over the raw body, valid until the response is sent
+   */
+  public InputStream getBodyStream() {
+    return new ByteBufInputStream(getBodyBuffer());
+  }
+
+  /**
+   * @return the body length in bytes, without decoding it
+   */
+  public int getBodyLength() {
+    ByteBuf content = request.content();
+    return content != null ? content.readableBytes() : 0;
+  }
+
+  /**
+   * Releases the request retained by the server for this context. Only the server calls this, once
+   * the response has been produced; calling it more than once, from any thread, is harmless.
+   */
+  public void release() {
+    if (released.compareAndSet(false, true)) {
+      request.release();
+    }
+  }
+
   public FullHttpResponse getResponse() {
     return response;
   }
@@ -91,6 +201,22 @@ public final class RequestContext {
     this.response = response;
   }
 
+  /**
+   * Answers the request from a middleware, e.g. a CORS preflight. The middleware then returns
+   * without calling the rest of the chain, and the server writes {@code response} with the headers
+   * in {@link #getRequestHeaders()}.
+   */
+  public void respond(FullHttpResponse response) {
+    this.middlewareResponse = Objects.requireNonNull(response, "response cannot be null");
+  }
+
+  /**
+   * @return the response given to {@link #respond(FullHttpResponse)}, or {@code null}
+   */
+  public FullHttpResponse getMiddlewareResponse() {
+    return middlewareResponse;
+  }
+
   @SuppressWarnings("unchecked")
   public <T> T getAttribute(String key) {
     return attributes != null ? (T) attributes.get(key) : null;
@@ -103,12 +229,83 @@ public final class RequestContext {
     attributes.put(key, value);
   }
 
+  /**
+   * @return the {@link System#nanoTime()} at which the request was read
+   */
+  public long getStartNanos() {
+    return startNanos;
+  }
+
+  /**
+   * @return milliseconds from reading the request to the last {@link #setRequestDuration()}
+   */
   public long getRequestDuration() {
     return endTime;
   }
 
   public void setRequestDuration() {
-    endTime = System.currentTimeMillis() - startTime;
+    endTime = (System.nanoTime() - startNanos) / 1_000_000;
+  }
+
+  /**
+   * Ends the request's flight recorder event, if a recording took it. Only the first call counts.
+   *
+   * @param status The status sent
+   */
+  public void endRequestEvent(int status) {
+    RequestEvent event = requestEvent;
+    if (event == null) {
+      return;
+    }
+    requestEvent = null;
+    event.end();
+    if (event.shouldCommit()) {
+      event.method = request.method().name();
+      event.uri = request.uri();
+      event.route = route != null ? route.toString() : null;
+      event.status = status;
+      event.requestId = getRequestId();
+      event.commit();
+    }
+  }
+
+  /**
+   * @return the server span of this request, continuing the caller's trace if it sent a
+   *     {@code traceparent}, or {@code null} if tracing is off
+   */
+  public Span getSpan() {
+    return span;
+  }
+
+  /**
+   * Ends the request's span, if it has one. Only the first call counts.
+   *
+   * @param status The status sent
+   */
+  public void endSpan(int status) {
+    if (span == null) {
+      return;
+    }
+    span.setAttribute("http.response.status_code", status);
+    if (status >= 500) {
+      span.setError(HttpResponseStatus.valueOf(status).reasonPhrase());
+    }
+    span.end();
+  }
+
+  private void startSpan() {
+    String method = request.method().name();
+    span = NexusTracing.startServerSpan(
+        route != null ? route.toString() : method, request.headers());
+    if (span != null) {
+      String uri = request.uri();
+      int query = uri.indexOf('?');
+      span.setAttribute("http.request.method", method)
+          .setAttribute("url.path", query < 0 ? uri : uri.substring(0, query));
+      if (route != null) {
+        span.setAttribute("http.route", route.getPath());
+      }
+    }
   }
 
   public void addCompletionHandler(BiConsumer<FullHttpResponse, Throwable> handler) {
@@ -128,6 +325,20 @@ public final class RequestContext {
     }
   }
 
+  /**
+   * Like {@link #addCompletionHandler(BiConsumer)}, but the listener is given the context, so a
+   * middleware can register the same instance for every request instead of one per request.
+   */
+  public void addCompletionListener(CompletionListener listener) {
+    if (responseCompleted) {
+      listener.onComplete(this, response, null);
+    } else if (completionListener == null) {
+      completionListener = listener;
+    } else {
+      addCompletionHandler((r, e) -> listener.onComplete(this, r, e));
+    }
+  }
+
   public void complete(FullHttpResponse response, Throwable error) {
     if (responseCompleted) {
       LOGGER.debug("Already completed, ignoring duplicate completion");
@@ -141,6 +352,14 @@ public final class RequestContext {
     this.response = response;
     this.responseCompleted = true;
 
+    if (completionListener != null) {
+      try {
+        completionListener.onComplete(this, response, error);
+      } catch (Exception e) {
+        LOGGER.error("Error in completion listener", e);
+      }
+    }
+
     if (completionHandler != null) {
       try {
         completionHandler.accept(response, error);
@@ -160,4 +379,17 @@ public final class RequestContext {
       extraHandlers.clear();
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Called once the response is written or failed to be.
+   */
+  @FunctionalInterface
+  public interface CompletionListener {
+
+    /**
+     * @param response The response written, or {@code null} if it failed
+     * @param error    Why it failed, or {@code null}
+     */
+    void onComplete(RequestContext ctx, FullHttpResponse response, Throwable error);
+  }
+}
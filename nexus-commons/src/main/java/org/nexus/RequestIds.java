@@ -0,0 +1,111 @@
+package org.nexus;
+
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.FastThreadLocal;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request IDs that are unique across threads, restarts and nodes, made without touching anything
+ * shared between threads. An ID is {@code <prefix>-<thread>-<sequence>} in Crockford base 32, e.g.
+ * {@code 1KQ8Z4MRWX2P7-3-4F}:
+ *
+ * <ul>
+ *   <li>the prefix is the startup time in seconds and 30 random bits, drawn once per process;</li>
+ *   <li>each thread is numbered the first time it asks for an ID;</li>
+ *   <li>then counts its own IDs in a plain field.</li>
+ * </ul>
+ *
+ * <p>Virtual threads are short-lived and usually make one ID each, so they don't get a number or a
+ * thread-local of their own: they share thread number {@code 0} and one atomic counter.
+ */
+public final class RequestIds {
+
+  public static final AsciiString HEADER = AsciiString.cached("X-Request-ID");
+  static final int MAX_LENGTH = 128;
+
+  private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+  private static final String PREFIX = prefix();
+  private static final String VIRTUAL_PREFIX = PREFIX + "-0-";
+  private static final AtomicLong THREADS = new AtomicLong();
+  private static final AtomicLong VIRTUAL = new AtomicLong();
+  private static final FastThreadLocal<Sequence> SEQUENCES = new FastThreadLocal<>() {
+    @Override
+    protected Sequence initialValue() {
+      StringBuilder id = new StringBuilder(32).append(PREFIX).append('-');
+      appendBase32(id, THREADS.incrementAndGet());
+      return new Sequence(id.append('-'));
+    }
+  };
+
+  private RequestIds() {
+  }
+
+  /**
+   * @return a new ID
+   */
+  public static String next() {
+    if (Thread.currentThread().isVirtual()) {
+      StringBuilder id = new StringBuilder(32).append(VIRTUAL_PREFIX);
+      appendBase32(id, VIRTUAL.incrementAndGet());
+      return id.toString();
+    }
+    return SEQUENCES.get().next();
+  }
+
+  /**
+   * @return whether an ID sent by a client can be used as it is: 1 to 128 printable ASCII
+   *     characters, so it can't break a log line
+   */
+  public static boolean isValid(CharSequence id) {
+    if (id == null || id.isEmpty() || id.length() > MAX_LENGTH) {
+      return false;
+    }
+    for (int i = 0; i < id.length(); i++) {
+      char c = id.charAt(i);
+      if (c <= ' ' || c >= 0x7f) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String prefix() {
+    StringBuilder prefix = new StringBuilder(13);
+    appendFixed(prefix, System.currentTimeMillis() / 1000, 7);
+    appendFixed(prefix, new SecureRandom().nextInt() & 0x3fffffff, 6);
+    return prefix.toString();
+  }
+
+  private static void appendFixed(StringBuilder out, long value, int digits) {
+    for (int shift = (digits - 1) * 5; shift >= 0; shift -= 5) {
+      out.append(DIGITS[(int) (value >>> shift) & 31]);
+    }
+  }
+
+  private static void appendBase32(StringBuilder out, long value) {
+    int digits = Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 4) / 5);
+    appendFixed(out, value, digits);
+  }
+
+  /**
+   * IDs of one thread, built in the same buffer every time.
+   */
+  private static final class Sequence {
+
+    private final StringBuilder id;
+    private final int prefixLength;
+    private long count;
+
+    Sequence(StringBuilder prefix) {
+      this.id = prefix;
+      this.prefixLength = prefix.length();
+    }
+
+    String next() {
+      id.setLength(prefixLength);
+      appendBase32(id, ++count);
+      return id.toString();
+    }
+  }
+}
@@ -1,18 +1,27 @@
 package org.nexus;
 
-import static org.nexus.NexusUtils.DF_MAPPER;
-
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.AsciiString;
 import io.netty.util.CharsetUtil;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.ZoneId;
+import org.nexus.enums.BodyFormat;
 import org.nexus.enums.ResponseType;
 import org.nexus.interfaces.ProblemDetails;
 import org.slf4j.Logger;
@@ -21,6 +30,10 @@ import org.slf4j.LoggerFactory;
 public class Response<T> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(Response.class);
+  private static final SerializedString DATE = new SerializedString("date");
+  private static final SerializedString STATUS = new SerializedString("status");
+  private static final SerializedString DATA = new SerializedString("data");
+  private static final AsciiString PROBLEM_JSON = AsciiString.cached("application/problem+json");
 
   private final int statusCode;
   private final T body;
@@ -56,50 +69,102 @@ public class Response<T> {
   }
 
   public FullHttpResponse toHttpResponse() {
+    return toHttpResponse(BodyFormat.JSON);
+  }
+
+  /**
+   * Encodes the response, JSON bodies in the negotiated format. Problems are always
+   * {@code application/problem+json} and text stays text.
+   *
+   * @param format Format from {@link NexusFormats#responseFormat(RequestContext)}
+   */
+  public FullHttpResponse toHttpResponse(BodyFormat format) {
     boolean isProblem = body instanceof ProblemDetails;
     boolean errorParsing = false;
-    String parsed;
+    ByteBuf content;
 
     try {
-      if (isProblem) {
-        parsed = DF_MAPPER.writeValueAsString(body);
+      if (body == null) {
+        content = Unpooled.EMPTY_BUFFER;
+      } else if (isProblem) {
+        content = Unpooled.wrappedBuffer(NexusCodecs.writerFor(body.getClass())
+            .writeValueAsBytes(body));
       } else if (responseType == ResponseType.JSON) {
-        ApiResponse wrapper = new ApiResponse(statusCode, body);
-        parsed = DF_MAPPER.writeValueAsString(wrapper);
+        content = writeBody(format);
       } else {
-        parsed = body != null ? body.toString() : "";
+        content = Unpooled.copiedBuffer(body.toString(), CharsetUtil.UTF_8);
       }
-    } catch (JsonProcessingException e) {
+    } catch (IOException e) {
       LOGGER.error("Serialization failed", e);
       errorParsing = true;
-      parsed = """
+      content = Unpooled.copiedBuffer("""
           {"status":%d,"error":"Serialization failed"}
-          """.formatted(statusCode);
+          """.formatted(statusCode), CharsetUtil.UTF_8);
     }
 
-    String contentType;
+    AsciiString contentType;
     if (isProblem) {
-      contentType = "application/problem+json";
+      contentType = PROBLEM_JSON;
     } else {
       if (responseType == ResponseType.JSON) {
-        contentType = "application/json";
+        contentType = errorParsing ? HttpHeaderValues.APPLICATION_JSON : format.getContentType();
       } else {
-        contentType = "text/plain";
+        contentType = HttpHeaderValues.TEXT_PLAIN;
       }
     }
 
     DefaultFullHttpResponse response = new DefaultFullHttpResponse(
         HttpVersion.HTTP_1_1,
         HttpResponseStatus.valueOf(!errorParsing ? statusCode : 500),
-        body != null ? Unpooled.copiedBuffer(parsed, CharsetUtil.UTF_8) : Unpooled.EMPTY_BUFFER
+        content
     );
 
     response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
     response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+    if (!isProblem && responseType == ResponseType.JSON && NexusFormats.isNegotiable()) {
+      response.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT);
+    }
+
+    return response;
+  }
 
+  /**
+   * @return {@code head} as a full response with no body, the full form of responses whose body
+   *     only the server can write
+   */
+  static FullHttpResponse headOnly(HttpResponse head) {
+    FullHttpResponse response = new DefaultFullHttpResponse(
+        head.protocolVersion(), head.status(), Unpooled.EMPTY_BUFFER);
+    response.headers().set(head.headers());
+    HttpUtil.setTransferEncodingChunked(response, false);
+    HttpUtil.setContentLength(response, 0);
     return response;
   }
 
+  /**
+   * Streams the {@link ApiResponse} envelope straight into the response buffer, writing the data
+   * through its generated codec when it has one instead of building the envelope and a String.
+   */
+  private ByteBuf writeBody(BodyFormat format) throws IOException {
+    ByteBuf buf = Unpooled.buffer();
+    // ByteBufOutputStream is also a DataOutput, the cast picks the stream overload
+    try (JsonGenerator gen = NexusFormats.factory(format).createGenerator(
+        (OutputStream) new ByteBufOutputStream(buf), JsonEncoding.UTF8)) {
+      gen.writeStartObject();
+      gen.writeFieldName(DATE);
+      gen.writeString(Instant.now().atZone(ZoneId.systemDefault()).toString());
+      gen.writeFieldName(STATUS);
+      gen.writeNumber(statusCode);
+      gen.writeFieldName(DATA);
+      NexusCodecs.writeValue(gen, body);
+      gen.writeEndObject();
+    } catch (IOException | RuntimeException e) {
+      buf.release();
+      throw e;
+    }
+    return buf;
+  }
+
   public record ApiResponse(
       @JsonProperty("date") String date,
       int status,
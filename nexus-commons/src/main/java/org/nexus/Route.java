@@ -31,4 +31,12 @@ public class Route<T> {
       return CompletableFuture.failedFuture(e);
     }
   }
+
+  /**
+   * @return {@code METHOD template}, e.g. {@code GET /users/:id}
+   */
+  @Override
+  public String toString() {
+    return method.name() + " " + path;
+  }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package org.nexus;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.StringJoiner;
+import org.nexus.enums.HttpMethod;
 
 /**
  * RoutesResolver provides a stable indirection layer for resolving routes without a direct
@@ -9,20 +12,83 @@ import java.util.ServiceLoader;
  * </p>
  * The user application (or any module that uses @Mapping) will generate org.nexus.GeneratedRoutes
  * at compile-time. This resolver will use ServiceLoader to load RoutesProvider at runtime.
+ * </p>
+ * Routes the framework serves itself, e.g. the metrics endpoint, are added with
+ * {@link #register(Route)} and take precedence over generated ones.
  */
 public final class RoutesResolver {
 
+  // Built-in routes by exact path, then method. Replaced as a whole on register, never mutated
+  private static volatile Map<String, BuiltInPath> builtIn = Map.of();
+
   private RoutesResolver() {
   }
 
   public static RouteMatch findMatchingRoute(String method, String path) {
+    Map<String, BuiltInPath> routes = builtIn;
+    if (!routes.isEmpty()) {
+      BuiltInPath builtInPath = routes.get(path);
+      Route<?> route = builtInPath != null ? builtInPath.routes().get(method) : null;
+      if (route != null) {
+        return new RouteMatch(route, Map.of());
+      }
+    }
     RoutesProvider p = ProviderHolder.INSTANCE;
     return p != null ? p.findMatchingRoute(method, path) : null;
   }
 
+  /**
+   * @return the value of an {@code Allow} header for the path, or {@code null} if no route matches
+   *     it under any method
+   */
+  public static String findAllowedMethods(String path) {
+    BuiltInPath builtInPath = builtIn.get(path);
+    if (builtInPath != null) {
+      return builtInPath.allowed();
+    }
+    RoutesProvider p = ProviderHolder.INSTANCE;
+    return p != null ? p.findAllowedMethods(path) : null;
+  }
+
+  /**
+   * Adds a route served on an exact path, replacing any built-in route already registered for the
+   * same method and path. Meant to be called at startup, before requests come in.
+   */
+  public static synchronized void register(Route<?> route) {
+    String path = route.getPath();
+    Map<String, Route<?>> methods = new HashMap<>();
+    BuiltInPath existing = builtIn.get(path);
+    if (existing != null) {
+      methods.putAll(existing.routes());
+    }
+    methods.put(route.getMethod().name(), route);
+
+    Map<String, BuiltInPath> routes = new HashMap<>(builtIn);
+    routes.put(path, new BuiltInPath(Map.copyOf(methods), formatAllowed(methods)));
+    builtIn = Map.copyOf(routes);
+  }
+
+  private static String formatAllowed(Map<String, Route<?>> methods) {
+    StringJoiner allowed = new StringJoiner(", ");
+    for (HttpMethod method : HttpMethod.values()) {
+      String name = method.name();
+      // Same as the generated routes: HEAD is served by GET routes and OPTIONS by the server
+      if (methods.containsKey(name)
+          || name.equals("HEAD") && methods.containsKey("GET")
+          || name.equals("OPTIONS")) {
+        allowed.add(name);
+      }
+    }
+    return allowed.toString();
+  }
+
   public interface RoutesProvider {
 
     RouteMatch findMatchingRoute(String method, String path);
+
+    default String findAllowedMethods(String path) {
+      return null;
+    }
   }
 
   private static class ProviderHolder {
@@ -38,4 +104,8 @@ public final class RoutesResolver {
   public record RouteMatch(Route<?> route, Map<String, String> params) {
 
   }
+
+  private record BuiltInPath(Map<String, Route<?>> routes, String allowed) {
+
+  }
 }
@@ -0,0 +1,45 @@
+package org.nexus;
+
+import io.netty.handler.codec.http.FullHttpResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.nexus.enums.BodyFormat;
+
+/**
+ * An already encoded response handed to several requests at once, e.g. the waiters of a coalesced
+ * call. Every holder must either write it ({@link #toHttpResponse()}) or {@link #release()} it,
+ * exactly once; the encoded buffer is freed when the last one is done.
+ */
+public final class SharedHttpResponse<T> extends Response<T> {
+
+  private final FullHttpResponse encoded;
+  private final AtomicInteger holders;
+
+  public SharedHttpResponse(FullHttpResponse encoded, int holders) {
+    super(encoded.status().code());
+    if (holders < 1) {
+      throw new IllegalArgumentException("holders must be at least 1");
+    }
+    this.encoded = encoded;
+    this.holders = new AtomicInteger(holders);
+  }
+
+  /**
+   * @return a duplicate with its own headers, sharing the body encoded in the format the flight
+   *     was keyed on
+   */
+  @Override
+  public FullHttpResponse toHttpResponse(BodyFormat format) {
+    FullHttpResponse copy = encoded.retainedDuplicate();
+    release();
+    return copy;
+  }
+
+  /**
+   * Gives up this holder's share without writing it.
+   */
+  public void release() {
+    if (holders.decrementAndGet() == 0) {
+      encoded.release();
+    }
+  }
+}
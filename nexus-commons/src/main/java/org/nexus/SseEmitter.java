@@ -0,0 +1,100 @@
+package org.nexus;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One open server-sent events connection. Events can be sent from any thread, they are written in
+ * order on the channel's event loop.
+ *
+ * <p>A client that falls behind by more than {@code SSE_WRITE_BUFFER_HIGH_WATER_MARK} bytes is
+ * disconnected rather than buffered for. Clients reconnect on their own and, with an
+ * {@link SseTopic}, pick up where they left off.
+ */
+public final class SseEmitter {
+
+  private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+  private final PushConnection connection;
+  private final String lastEventId;
+
+  SseEmitter(Channel channel, String lastEventId, int heartbeatSeconds) {
+    this.connection = new PushConnection(channel, "SSE");
+    this.lastEventId = lastEventId;
+    if (heartbeatSeconds > 0) {
+      // A comment line keeps proxies from timing the connection out and finds dead peers
+      ScheduledFuture<?> heartbeat = channel.eventLoop().scheduleAtFixedRate(
+          () -> write(HEARTBEAT), heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+      connection.onClose(() -> heartbeat.cancel(false));
+    }
+  }
+
+  /**
+   * @return the {@code Last-Event-ID} the client reconnected with, or {@code null}
+   */
+  public String getLastEventId() {
+    return lastEventId;
+  }
+
+  public boolean isOpen() {
+    return connection.isOpen();
+  }
+
+  public void send(Object data) {
+    send(SseEvent.of(data));
+  }
+
+  public void send(SseEvent event) {
+    // Serialised on the caller's thread, the event loop only copies bytes
+    byte[] frame = event.encode();
+    if (connection.isOpen()) {
+      connection.onEventLoop(() -> write(frame));
+    }
+  }
+
+  /**
+   * Queues encoded frames on the event loop, even when called from it, so they are written after
+   * every frame queued before them. An {@link SseTopic} relies on it to keep its events in order.
+   */
+  void enqueue(byte[]... frames) {
+    if (!connection.isOpen()) {
+      return;
+    }
+    connection.enqueue(() -> {
+      for (byte[] frame : frames) {
+        write(frame);
+      }
+    });
+  }
+
+  private void write(byte[] frame) {
+    if (connection.canWrite()) {
+      connection.channel().writeAndFlush(new DefaultHttpContent(Unpooled.wrappedBuffer(frame)));
+    }
+  }
+
+  /**
+   * Ends the event stream and closes the connection.
+   */
+  public void close() {
+    connection.onEventLoop(() -> {
+      if (connection.isOpen()) {
+        connection.channel().writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT)
+            .addListener(ChannelFutureListener.CLOSE);
+      }
+    });
+  }
+
+  /**
+   * @param handler Runs once the connection is closed, by either side
+   */
+  public void onClose(Runnable handler) {
+    connection.onClose(handler);
+  }
+}
@@ -0,0 +1,96 @@
+package org.nexus;
+
+import static org.nexus.NexusUtils.DF_MAPPER;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A server-sent event. Strings are sent as they are, one {@code data:} line per line, anything
+ * else as a single line of JSON.
+ *
+ * @param id    Event id, echoed back by the client in {@code Last-Event-ID} when it reconnects
+ * @param event Event name, or {@code null} for the default {@code message}
+ * @param data  Payload
+ */
+public record SseEvent(String id, String event, Object data) {
+
+  public SseEvent {
+    requireSingleLine(id, "id");
+    requireSingleLine(event, "event");
+  }
+
+  public static SseEvent of(Object data) {
+    return new SseEvent(null, null, data);
+  }
+
+  public static SseEvent of(String event, Object data) {
+    return new SseEvent(null, event, data);
+  }
+
+  private static void requireSingleLine(String value, String field) {
+    if (value != null && (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0)) {
+      throw new IllegalArgumentException("SSE " + field + " cannot contain line breaks");
+    }
+  }
+
+  /**
+   * @return the event in wire format, ending with the blank line that dispatches it
+   */
+  byte[] encode() {
+    return frame(id, encodeBody(event, data));
+  }
+
+  /**
+   * Encodes the {@code event} and {@code data} fields, so a payload published to many connections
+   * is only serialised once.
+   */
+  static byte[] encodeBody(String event, Object data) {
+    requireSingleLine(event, "event");
+    StringBuilder body = new StringBuilder(64);
+    if (event != null) {
+      body.append("event: ").append(event).append('\n');
+    }
+    String payload = data instanceof String s ? s : json(data);
+    int start = 0;
+    int length = payload.length();
+    do {
+      int end = start;
+      while (end < length && payload.charAt(end) != '\n' && payload.charAt(end) != '\r') {
+        end++;
+      }
+      body.append("data: ").append(payload, start, end).append('\n');
+      if (end < length && payload.charAt(end) == '\r' && end + 1 < length
+          && payload.charAt(end + 1) == '\n') {
+        end++;
+      }
+      start = end + 1;
+    } while (start <= length);
+    body.append('\n');
+    return body.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  static byte[] frame(String id, byte[] body) {
+    if (id == null) {
+      return body;
+    }
+    byte[] prefix = ("id: " + id + "\n").getBytes(StandardCharsets.UTF_8);
+    byte[] frame = new byte[prefix.length + body.length];
+    System.arraycopy(prefix, 0, frame, 0, prefix.length);
+    System.arraycopy(body, 0, frame, prefix.length, body.length);
+    return frame;
+  }
+
+  private static String json(Object data) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+    try (JsonGenerator gen = DF_MAPPER.createGenerator(out)) {
+      NexusCodecs.writeValue(gen, data);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to serialise SSE data", e);
+    }
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
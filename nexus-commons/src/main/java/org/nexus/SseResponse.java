@@ -0,0 +1,96 @@
+package org.nexus;
+
+import io.netty.channel.Channel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.AsciiString;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.nexus.enums.BodyFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Turns a route into a server-sent events stream. The server sends the {@code text/event-stream}
+ * head, keeps the connection open and hands an {@link SseEmitter} to {@code onOpen}, which can
+ * keep it and send events from any thread until either side closes it.
+ *
+ * <pre>{@code
+ * @Mapping(type = HttpMethod.GET, endpoint = "/prices")
+ * public SseResponse prices() {
+ *   return PRICES.subscribe(); // an SseTopic
+ * }
+ * }</pre>
+ *
+ * <p>Every connection gets a comment line every {@code SSE_HEARTBEAT_SECONDS} (15, 0 disables) and
+ * is dropped once more than {@code SSE_WRITE_BUFFER_HIGH_WATER_MARK} bytes (64 KiB) are waiting to
+ * be sent to it.
+ */
+public class SseResponse extends Response<Void> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SseResponse.class);
+  private static final AsciiString EVENT_STREAM = AsciiString.cached("text/event-stream");
+  private static final AsciiString X_ACCEL_BUFFERING = AsciiString.cached("X-Accel-Buffering");
+  private static final AsciiString NO = AsciiString.cached("no");
+
+  private final Consumer<SseEmitter> onOpen;
+
+  /**
+   * @param onOpen Called on the event loop once the head is sent; must not block
+   */
+  public SseResponse(Consumer<SseEmitter> onOpen) {
+    super(200);
+    this.onOpen = Objects.requireNonNull(onOpen, "onOpen cannot be null");
+  }
+
+  /**
+   * Event streams are written by the server as events are sent. Encoded anywhere else, an event
+   * stream is its {@link #head()} with no body, a stream that ends straight away; {@code onOpen}
+   * is never called.
+   */
+  @Override
+  public FullHttpResponse toHttpResponse(BodyFormat format) {
+    return headOnly(head());
+  }
+
+  /**
+   * @return the status line and headers of the event stream
+   */
+  public HttpResponse head() {
+    HttpResponse head = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+    head.headers().set(HttpHeaderNames.CONTENT_TYPE, EVENT_STREAM);
+    head.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
+    // Keeps reverse proxies such as nginx from buffering the stream
+    head.headers().set(X_ACCEL_BUFFERING, NO);
+    HttpUtil.setTransferEncodingChunked(head, true);
+    return head;
+  }
+
+  /**
+   * Starts the stream on a channel that has been sent the {@link #head()}.
+   *
+   * @param lastEventId The request's {@code Last-Event-ID}, or {@code null}
+   */
+  public SseEmitter open(Channel channel, String lastEventId) {
+    NexusConfig config = NexusConfig.getInstance();
+    int high = config.getInt("SSE_WRITE_BUFFER_HIGH_WATER_MARK", 64 * 1024);
+    channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(high / 2, high));
+
+    SseEmitter emitter = new SseEmitter(
+        channel, lastEventId, config.getInt("SSE_HEARTBEAT_SECONDS", 15));
+    try {
+      onOpen.accept(emitter);
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to open SSE stream", e);
+      emitter.close();
+    }
+    return emitter;
+  }
+}
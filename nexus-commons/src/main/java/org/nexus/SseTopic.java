@@ -0,0 +1,118 @@
+package org.nexus;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans events out to every connection subscribed to it and keeps the last few for clients that
+ * reconnect. Each event is serialised once, whatever the number of subscribers.
+ *
+ * <p>Events get ids of the form {@code <epoch>-<sequence>}, where the epoch changes every time the
+ * topic is created. A client reconnecting with a {@code Last-Event-ID} from this topic is sent the
+ * events it missed that are still in the replay buffer; one with an id from before a restart is
+ * sent the whole buffer.
+ */
+public final class SseTopic {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+  // Held by publishers for the whole fan-out, so frames are queued in id order, but never by
+  // attach, which runs on an event loop
+  private final Object fanOut = new Object();
+  // Ring buffer of the last frames, guarded by this
+  private final byte[][] replay;
+  private long sequence;
+
+  /**
+   * @param replaySize How many past events to keep for reconnecting clients, 0 for none
+   */
+  public SseTopic(int replaySize) {
+    if (replaySize < 0) {
+      throw new IllegalArgumentException("replaySize cannot be negative");
+    }
+    this.replay = new byte[replaySize][];
+  }
+
+  /**
+   * @return a response that subscribes the requesting connection to this topic
+   */
+  public SseResponse subscribe() {
+    return new SseResponse(this::attach);
+  }
+
+  public String publish(Object data) {
+    return publish(null, data);
+  }
+
+  /**
+   * Sends an event to every subscriber. Can be called from any thread.
+   *
+   * @param event Event name, or {@code null} for the default {@code message}
+   * @return the id given to the event
+   */
+  public String publish(String event, Object data) {
+    byte[] body = SseEvent.encodeBody(event, data);
+    synchronized (fanOut) {
+      String id;
+      byte[] frame;
+      SseEmitter[] targets;
+      synchronized (this) {
+        long seq = ++sequence;
+        id = epoch + "-" + seq;
+        frame = SseEvent.frame(id, body);
+        if (replay.length > 0) {
+          replay[(int) (seq % replay.length)] = frame;
+        }
+        targets = subscribers.toArray(new SseEmitter[0]);
+      }
+      for (SseEmitter subscriber : targets) {
+        subscriber.enqueue(frame);
+      }
+      return id;
+    }
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * Only holds the topic for as long as a publisher does to take its id, never for a fan-out. The
+   * missed frames are queued before the connection can be seen by a publisher, so they come first.
+   */
+  private void attach(SseEmitter emitter) {
+    synchronized (this) {
+      long from = resumeFrom(emitter.getLastEventId());
+      long oldest = Math.max(sequence - replay.length + 1, 1);
+      long first = Math.max(from, oldest);
+      if (first <= sequence) {
+        byte[][] missed = new byte[(int) (sequence - first + 1)][];
+        for (long seq = first; seq <= sequence; seq++) {
+          missed[(int) (seq - first)] = replay[(int) (seq % replay.length)];
+        }
+        emitter.enqueue(missed);
+      }
+      subscribers.add(emitter);
+    }
+    emitter.onClose(() -> subscribers.remove(emitter));
+  }
+
+  /**
+   * @return the first sequence the client hasn't seen
+   */
+  private long resumeFrom(String lastEventId) {
+    if (lastEventId == null) {
+      return sequence + 1;
+    }
+    int dash = lastEventId.indexOf('-');
+    if (dash < 0 || !lastEventId.regionMatches(0, epoch, 0, dash) || dash != epoch.length()) {
+      // Not one of ours, or from before a restart
+      return 1;
+    }
+    try {
+      return Long.parseLong(lastEventId, dash + 1, lastEventId.length(), 10) + 1;
+    } catch (NumberFormatException _) {
+      return 1;
+    }
+  }
+}
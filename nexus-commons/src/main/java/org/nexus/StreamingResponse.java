@@ -0,0 +1,470 @@
+package org.nexus;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.stream.ChunkedInput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.nexus.enums.BodyFormat;
+
+/**
+ * A JSON array response written element by element instead of from a list held in memory. The
+ * {@link ApiResponse} envelope goes out first, then each element as it arrives, in chunks of about
+ * {@value #CHUNK_SIZE} bytes with {@code Transfer-Encoding: chunked}.
+ *
+ * <p>Elements are only requested from the source while the channel is writable, so a slow client
+ * holds back the source instead of filling the outbound buffer. Iterators and streams are pulled
+ * on virtual threads, which makes a database cursor a fine source; a publisher is subscribed to
+ * directly. The source is closed when the response is done, the write fails or the client goes
+ * away.
+ *
+ * <p>The status and headers are sent before the first element, so a source failing mid-way can
+ * only be reported by closing the connection. A streaming response is written once, by the server
+ * (it needs a {@link io.netty.handler.stream.ChunkedWriteHandler} in the pipeline), and can't be
+ * shared by {@code @Coalesce} waiters. MessagePack needs array sizes up front, so in that format
+ * the body is buffered until the source completes.
+ *
+ * @param <T> The element type
+ */
+public class StreamingResponse<T> extends Response<List<T>> {
+
+  static final int CHUNK_SIZE = 8192;
+  // Elements requested from the source at a time, more are asked for when half are written
+  private static final int BATCH = 64;
+  private static final Object NULL = new Object();
+  private static final SerializedString DATE = new SerializedString("date");
+  private static final SerializedString STATUS = new SerializedString("status");
+  private static final SerializedString DATA = new SerializedString("data");
+
+  private final Flow.Publisher<? extends T> source;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  public StreamingResponse(int statusCode, Flow.Publisher<? extends T> source) {
+    super(statusCode);
+    this.source = Objects.requireNonNull(source, "source cannot be null");
+  }
+
+  public StreamingResponse(int statusCode, Iterator<? extends T> source) {
+    this(statusCode, new IteratorPublisher<>(source, null));
+  }
+
+  /**
+   * @param source Closed once the response is written or abandoned
+   */
+  public StreamingResponse(int statusCode, Stream<? extends T> source) {
+    this(statusCode, new IteratorPublisher<>(source.iterator(), source::close));
+  }
+
+  /**
+   * Streaming responses are written by the server in chunks and have no full form. Encoding one
+   * anywhere else, e.g. in a middleware, closes the source unread and fails, rather than sending
+   * the head with an empty body.
+   *
+   * @throws IllegalStateException always
+   */
+  @Override
+  public FullHttpResponse toHttpResponse(BodyFormat format) {
+    discard();
+    throw new IllegalStateException("StreamingResponse can only be written by the server");
+  }
+
+  /**
+   * @return the status line and headers, to be followed by {@link #chunks}
+   */
+  public HttpResponse head(BodyFormat format) {
+    HttpResponse head = new DefaultHttpResponse(
+        HttpVersion.HTTP_1_1, HttpResponseStatus.valueOf(getStatusCode()));
+    head.headers().set(HttpHeaderNames.CONTENT_TYPE, format.getContentType());
+    if (NexusFormats.isNegotiable()) {
+      head.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT);
+    }
+    HttpUtil.setTransferEncodingChunked(head, true);
+    return head;
+  }
+
+  /**
+   * Subscribes to the source and returns the body, to be wrapped in an
+   * {@link io.netty.handler.codec.http.HttpChunkedInput} and written to the channel.
+   *
+   * @param format The negotiated body format
+   * @param resume Resumes the transfer once more elements are ready, e.g.
+   *               {@link io.netty.handler.stream.ChunkedWriteHandler#resumeTransfer()}
+   * @throws IllegalStateException if the response was already written or discarded
+   */
+  public ChunkedInput<ByteBuf> chunks(BodyFormat format, Runnable resume) {
+    if (!subscribed.compareAndSet(false, true)) {
+      throw new IllegalStateException("StreamingResponse can only be written once");
+    }
+    Chunks<T> chunks = new Chunks<>(getStatusCode(), format, resume);
+    source.subscribe(chunks);
+    return chunks;
+  }
+
+  /**
+   * Closes the source without writing anything, for a response that will never be sent.
+   */
+  public void discard() {
+    if (subscribed.compareAndSet(false, true)) {
+      source.subscribe(new Flow.Subscriber<T>() {
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+          subscription.cancel();
+        }
+
+        @Override
+        public void onNext(T item) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+      });
+    }
+  }
+
+  /**
+   * Encodes the elements handed over by the source into chunks. The source may call in from any
+   * thread; {@link #readChunk} only runs on the event loop, while the channel is writable.
+   */
+  private static final class Chunks<T> implements ChunkedInput<ByteBuf>, Flow.Subscriber<T> {
+
+    private final int statusCode;
+    private final BodyFormat format;
+    private final Runnable resume;
+    private final Queue<Object> elements = new ConcurrentLinkedQueue<>();
+    private final Sink sink = new Sink();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile Throwable failure;
+    // Set when readChunk ran out of elements, the source resumes the transfer on the next one
+    private volatile boolean waiting;
+
+    // Event loop only
+    private JsonGenerator gen;
+    private boolean ended;
+    private int written;
+    private long progress;
+
+    Chunks(int statusCode, BodyFormat format, Runnable resume) {
+      this.statusCode = statusCode;
+      this.format = format;
+      this.resume = resume;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (cancelled) {
+        subscription.cancel();
+      } else {
+        subscription.request(BATCH);
+      }
+    }
+
+    @Override
+    public void onNext(T item) {
+      elements.offer(item == null ? NULL : item);
+      wake();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      failure = throwable;
+      done = true;
+      wake();
+    }
+
+    @Override
+    public void onComplete() {
+      done = true;
+      wake();
+    }
+
+    private void wake() {
+      if (waiting) {
+        waiting = false;
+        resume.run();
+      }
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+      return ended;
+    }
+
+    @Override
+    @Deprecated
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+      return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+      if (ended) {
+        return null;
+      }
+      ByteBuf buf = allocator.buffer(CHUNK_SIZE);
+      sink.buf = buf;
+      try {
+        if (gen == null) {
+          gen = NexusFormats.factory(format).createGenerator(sink, JsonEncoding.UTF8);
+          gen.writeStartObject();
+          gen.writeFieldName(DATE);
+          gen.writeString(Instant.now().atZone(ZoneId.systemDefault()).toString());
+          gen.writeFieldName(STATUS);
+          gen.writeNumber(statusCode);
+          gen.writeFieldName(DATA);
+          gen.writeStartArray();
+        }
+        while (true) {
+          writeElements();
+          if (done && elements.isEmpty()) {
+            if (failure != null) {
+              throw new IOException("Streaming response source failed", failure);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.close();
+            ended = true;
+            break;
+          }
+          gen.flush();
+          if (buf.isReadable()) {
+            break;
+          }
+          // Publish before the last look, so an element offered meanwhile either shows up here
+          // or finds the flag set and resumes the transfer
+          waiting = true;
+          if (elements.isEmpty() && !done) {
+            break;
+          }
+          waiting = false;
+        }
+      } catch (Exception e) {
+        sink.buf = null;
+        buf.release();
+        throw e;
+      }
+      sink.buf = null;
+      if (!buf.isReadable()) {
+        buf.release();
+        return null;
+      }
+      progress += buf.readableBytes();
+      return buf;
+    }
+
+    private void writeElements() throws IOException {
+      Object element;
+      // Generators that can't tell what they buffer report -1 and spill when their buffer is full
+      while (sink.buf.readableBytes() + Math.max(gen.getOutputBuffered(), 0) < CHUNK_SIZE
+          && (element = elements.poll()) != null) {
+        NexusCodecs.writeValue(gen, element == NULL ? null : element);
+        if (++written == BATCH / 2) {
+          written = 0;
+          subscription.request(BATCH / 2);
+        }
+      }
+    }
+
+    @Override
+    public void close() {
+      if (!done) {
+        cancelled = true;
+        Flow.Subscription s = subscription;
+        if (s != null) {
+          s.cancel();
+        }
+      }
+      elements.clear();
+      if (gen != null && !gen.isClosed()) {
+        // Nothing left to write to, drop whatever the generator still holds
+        sink.buf = null;
+        try {
+          gen.close();
+        } catch (IOException | RuntimeException _) {
+          // The response is abandoned either way
+        }
+      }
+    }
+
+    @Override
+    public long length() {
+      return -1;
+    }
+
+    @Override
+    public long progress() {
+      return progress;
+    }
+  }
+
+  /**
+   * Appends to the chunk being built; discards writes when there is none.
+   */
+  private static final class Sink extends OutputStream {
+
+    private ByteBuf buf;
+
+    @Override
+    public void write(int b) {
+      if (buf != null) {
+        buf.writeByte(b);
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      if (buf != null) {
+        buf.writeBytes(b, off, len);
+      }
+    }
+  }
+
+  /**
+   * Publishes an iterator to a single subscriber, pulling requested elements on a virtual thread
+   * so that a blocking source never runs on the event loop.
+   */
+  private static final class IteratorPublisher<T> implements Flow.Publisher<T> {
+
+    private final Iterator<? extends T> iterator;
+    private final Runnable onClose;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    IteratorPublisher(Iterator<? extends T> iterator, Runnable onClose) {
+      this.iterator = Objects.requireNonNull(iterator, "source cannot be null");
+      this.onClose = onClose;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+      if (!subscribed.compareAndSet(false, true)) {
+        throw new IllegalStateException("An iterator can only be published once");
+      }
+      subscriber.onSubscribe(new Pull<>(iterator, onClose, subscriber));
+    }
+  }
+
+  /**
+   * Drains the iterator up to the outstanding demand. At most one pull runs at a time: only the
+   * call that raises the demand from zero starts one, and a pull keeps going until it has
+   * emitted everything requested meanwhile. Cancelling counts as demand, so the pull that sees it
+   * is the one that closes the source.
+   */
+  private static final class Pull<T> implements Flow.Subscription, Runnable {
+
+    private final Iterator<? extends T> iterator;
+    private final Runnable onClose;
+    private final Flow.Subscriber<? super T> subscriber;
+    private final AtomicLong demand = new AtomicLong();
+    private volatile boolean cancelled;
+
+    Pull(Iterator<? extends T> iterator, Runnable onClose, Flow.Subscriber<? super T> subscriber) {
+      this.iterator = iterator;
+      this.onClose = onClose;
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        cancelled = true;
+        subscriber.onError(new IllegalArgumentException("request must be positive"));
+      }
+      schedule(n);
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule(1);
+    }
+
+    private void schedule(long n) {
+      long n1 = Math.max(n, 1);
+      if (demand.getAndAccumulate(n1, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b) == 0) {
+        try {
+          NexusExecutor.get().execute(this);
+        } catch (RejectedExecutionException e) {
+          close();
+          if (!cancelled) {
+            subscriber.onError(e);
+          }
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        long requested = demand.get();
+        long emitted = 0;
+        try {
+          while (emitted < requested) {
+            if (cancelled) {
+              close();
+              return;
+            }
+            if (!iterator.hasNext()) {
+              close();
+              subscriber.onComplete();
+              return;
+            }
+            subscriber.onNext(iterator.next());
+            emitted++;
+          }
+          if (cancelled) {
+            close();
+            return;
+          }
+        } catch (RuntimeException | Error e) {
+          close();
+          subscriber.onError(e);
+          return;
+        }
+        if (demand.addAndGet(-emitted) == 0) {
+          return;
+        }
+      }
+    }
+
+    private void close() {
+      // Whatever ends the pull leaves demand above zero, so nothing schedules another one
+      if (onClose != null) {
+        try {
+          onClose.run();
+        } catch (RuntimeException _) {
+          // Nothing to report it to once the response is done
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package org.nexus;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.nexus.interfaces.WebSocketListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Takes over a connection once it is upgraded: answers pings and close frames, and hands whole
+ * messages, put together by the {@code WebSocketFrameAggregator} before it, to the listener.
+ */
+final class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocketFrame> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketFrameHandler.class);
+
+  private final WebSocketListener listener;
+  private final WebSocketSession session;
+
+  WebSocketFrameHandler(WebSocketListener listener, WebSocketSession session) {
+    this.listener = listener;
+    this.session = session;
+  }
+
+  /**
+   * Called once the handshake response is sent.
+   */
+  void open() {
+    try {
+      listener.onOpen(session);
+    } catch (RuntimeException e) {
+      failed(e);
+    }
+  }
+
+  @Override
+  protected void channelRead0(ChannelHandlerContext ctx, WebSocketFrame frame) {
+    if (frame instanceof PingWebSocketFrame) {
+      ctx.writeAndFlush(new PongWebSocketFrame(frame.content().retain()));
+      return;
+    }
+    if (frame instanceof CloseWebSocketFrame close) {
+      // -1 is a close frame without a status
+      session.closing(close.statusCode() < 0 ? 1005 : close.statusCode(), close.reasonText());
+      ctx.writeAndFlush(close.retainedDuplicate()).addListener(ChannelFutureListener.CLOSE);
+      return;
+    }
+    try {
+      if (frame instanceof TextWebSocketFrame text) {
+        listener.onText(session, text.text());
+      } else if (frame instanceof BinaryWebSocketFrame binary) {
+        listener.onBinary(session, ByteBufUtil.getBytes(binary.content()));
+      }
+    } catch (RuntimeException e) {
+      failed(e);
+    }
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    try {
+      listener.onClose(session, session.getCloseStatus(), session.getCloseReason());
+    } catch (RuntimeException e) {
+      LOGGER.error("Error in WebSocket close listener", e);
+    }
+    super.channelInactive(ctx);
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    if (cause instanceof TooLongFrameException) {
+      session.close(1009, "Message too big");
+      return;
+    }
+    LOGGER.debug("WebSocket error on {}, closing", ctx.channel().remoteAddress(), cause);
+    ctx.close();
+  }
+
+  private void failed(RuntimeException e) {
+    LOGGER.error("Error in WebSocket listener", e);
+    session.close(1011, "Internal error");
+  }
+}
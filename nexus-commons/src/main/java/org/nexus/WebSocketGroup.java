@@ -0,0 +1,64 @@
+package org.nexus;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions that are sent the same messages, such as everyone in a chat room. A message is encoded
+ * once into a single buffer and every session is written a retained duplicate of it, whatever the
+ * number of sessions. With permessage-deflate each connection still compresses its own copy.
+ *
+ * <p>Sessions leave the group on their own when they close.
+ */
+public final class WebSocketGroup {
+
+  private final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
+
+  public void add(WebSocketSession session) {
+    if (sessions.add(session)) {
+      session.onClose(() -> sessions.remove(session));
+    }
+  }
+
+  public void remove(WebSocketSession session) {
+    sessions.remove(session);
+  }
+
+  public int size() {
+    return sessions.size();
+  }
+
+  /**
+   * Sends a text message to every session: strings as they are, anything else as JSON. Can be
+   * called from any thread.
+   */
+  public void broadcast(Object message) {
+    ByteBuf payload = WebSocketSession.encode(message);
+    try {
+      for (WebSocketSession session : sessions) {
+        session.sendFrame(new TextWebSocketFrame(payload.retainedDuplicate()));
+      }
+    } finally {
+      payload.release();
+    }
+  }
+
+  /**
+   * Sends a binary message to every session. The array is sent as it is, so it must not change
+   * afterwards.
+   */
+  public void broadcast(byte[] data) {
+    ByteBuf payload = Unpooled.wrappedBuffer(data);
+    try {
+      for (WebSocketSession session : sessions) {
+        session.sendFrame(new BinaryWebSocketFrame(payload.retainedDuplicate()));
+      }
+    } finally {
+      payload.release();
+    }
+  }
+}
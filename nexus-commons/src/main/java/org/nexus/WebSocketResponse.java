@@ -0,0 +1,126 @@
+package org.nexus;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.websocketx.WebSocketDecoderConfig;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketServerHandshaker;
+import io.netty.handler.codec.http.websocketx.WebSocketServerHandshakerFactory;
+import java.util.Objects;
+import org.nexus.enums.BodyFormat;
+import org.nexus.interfaces.WebSocketListener;
+
+/**
+ * Upgrades a route to a WebSocket connection, handled by a {@link WebSocketListener}.
+ *
+ * <pre>{@code
+ * @Mapping(type = HttpMethod.GET, endpoint = "/chat")
+ * public WebSocketResponse chat() {
+ *   return new WebSocketResponse(new WebSocketListener() {
+ *     public void onOpen(WebSocketSession session) {
+ *       ROOM.add(session); // a WebSocketGroup
+ *     }
+ *
+ *     public void onText(WebSocketSession session, String text) {
+ *       ROOM.broadcast(text);
+ *     }
+ *   });
+ * }
+ * }</pre>
+ *
+ * <p>Frames are limited to {@code WEBSOCKET_MAX_FRAME_SIZE} bytes (64 KiB) and messages put
+ * together from them to {@code WEBSOCKET_MAX_MESSAGE_SIZE} (1 MiB). A connection is dropped once
+ * more than {@code WEBSOCKET_WRITE_BUFFER_HIGH_WATER_MARK} bytes (64 KiB) are waiting to be sent to
+ * it.
+ */
+public class WebSocketResponse extends Response<Void> {
+
+  private static final String AGGREGATOR = "wsAggregator";
+  private static final String HANDLER = "wsHandler";
+
+  private final WebSocketListener listener;
+  private final String subprotocols;
+
+  public WebSocketResponse(WebSocketListener listener) {
+    this(listener, null);
+  }
+
+  /**
+   * @param subprotocols Comma separated subprotocols the route speaks, or {@code null} for none
+   */
+  public WebSocketResponse(WebSocketListener listener, String subprotocols) {
+    super(101);
+    this.listener = Objects.requireNonNull(listener, "listener cannot be null");
+    this.subprotocols = subprotocols;
+  }
+
+  /**
+   * The handshake response is written by the server. Encoded anywhere else, a WebSocket response is
+   * a {@code 426 Upgrade Required} with no body, as the server answers a plain request to the
+   * route.
+   */
+  @Override
+  public FullHttpResponse toHttpResponse(BodyFormat format) {
+    HttpResponse head =
+        new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.UPGRADE_REQUIRED);
+    head.headers().set(HttpHeaderNames.UPGRADE, HttpHeaderValues.WEBSOCKET);
+    return headOnly(head);
+  }
+
+  /**
+   * Sends the handshake response and hands the connection to the listener. Must be called on the
+   * event loop; the handler of {@code ctx} is taken out of the pipeline once the upgrade is sent.
+   *
+   * @param headers Extra headers for the {@code 101} response
+   * @return the future of the handshake response
+   */
+  public ChannelFuture upgrade(ChannelHandlerContext ctx, FullHttpRequest request,
+      HttpHeaders headers) {
+    NexusConfig config = NexusConfig.getInstance();
+    WebSocketDecoderConfig decoderConfig = WebSocketDecoderConfig.newBuilder()
+        .maxFramePayloadLength(config.getInt("WEBSOCKET_MAX_FRAME_SIZE", 64 * 1024))
+        // Lets permessage-deflate through when the server negotiates it
+        .allowExtensions(true)
+        .build();
+    Channel channel = ctx.channel();
+    WebSocketServerHandshaker handshaker = new WebSocketServerHandshakerFactory(
+        "ws://" + request.headers().get(HttpHeaderNames.HOST) + request.uri(),
+        subprotocols,
+        decoderConfig
+    ).newHandshaker(request);
+    if (handshaker == null) {
+      return WebSocketServerHandshakerFactory.sendUnsupportedVersionResponse(channel);
+    }
+
+    // Replaces the HTTP codec and aggregator; nothing can arrive before this task ends, so the
+    // frame handlers are in place for the first frame
+    ChannelFuture future = handshaker.handshake(channel, request, headers, channel.newPromise());
+    WebSocketSession session = new WebSocketSession(channel);
+    WebSocketFrameHandler frames = new WebSocketFrameHandler(listener, session);
+    ctx.pipeline()
+        .addAfter(ctx.name(), AGGREGATOR,
+            new WebSocketFrameAggregator(config.getInt("WEBSOCKET_MAX_MESSAGE_SIZE", 1024 * 1024)))
+        .addAfter(AGGREGATOR, HANDLER, frames);
+
+    int high = config.getInt("WEBSOCKET_WRITE_BUFFER_HIGH_WATER_MARK", 64 * 1024);
+    channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(high / 2, high));
+
+    return future.addListener(f -> {
+      if (f.isSuccess()) {
+        ctx.pipeline().remove(ctx.handler());
+        frames.open();
+      }
+    });
+  }
+}
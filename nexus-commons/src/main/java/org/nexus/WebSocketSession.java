@@ -0,0 +1,142 @@
+package org.nexus;
+
+import static org.nexus.NexusUtils.DF_MAPPER;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * One open WebSocket connection. {@link #send} and {@link #close} can be called from any thread;
+ * frames go out on the channel's event loop in the order they were sent. A client that doesn't
+ * read fast enough is disconnected once {@code WEBSOCKET_WRITE_BUFFER_HIGH_WATER_MARK} bytes are
+ * waiting for it.
+ */
+public final class WebSocketSession {
+
+  static final int NO_CLOSE_FRAME = 1006;
+
+  private final PushConnection connection;
+  // Event loop only, the first close frame sent or received wins
+  private int closeStatus = NO_CLOSE_FRAME;
+  private String closeReason = "";
+
+  WebSocketSession(Channel channel) {
+    this.connection = new PushConnection(channel, "WebSocket");
+  }
+
+  public String getId() {
+    return connection.channel().id().asShortText();
+  }
+
+  public boolean isOpen() {
+    return connection.isOpen();
+  }
+
+  /**
+   * Sends a text message: strings as they are, anything else as JSON.
+   */
+  public void send(Object message) {
+    sendFrame(new TextWebSocketFrame(encode(message)));
+  }
+
+  /**
+   * Sends a binary message. The array is sent as it is, so it must not change afterwards.
+   */
+  public void send(byte[] data) {
+    sendFrame(new BinaryWebSocketFrame(Unpooled.wrappedBuffer(data)));
+  }
+
+  public void close() {
+    close(1000, "");
+  }
+
+  /**
+   * Sends a close frame and closes the connection once it is out.
+   */
+  public void close(int statusCode, String reason) {
+    connection.onEventLoop(() -> {
+      if (!connection.isOpen()) {
+        return;
+      }
+      closing(statusCode, reason);
+      connection.channel().writeAndFlush(new CloseWebSocketFrame(statusCode, reason))
+          .addListener(ChannelFutureListener.CLOSE);
+    });
+  }
+
+  /**
+   * Writes a frame, e.g. a duplicate of one broadcast to a group. Takes ownership of the frame.
+   */
+  void sendFrame(WebSocketFrame frame) {
+    if (!connection.isOpen()) {
+      frame.release();
+      return;
+    }
+    connection.onEventLoop(() -> write(frame));
+  }
+
+  private void write(WebSocketFrame frame) {
+    if (!connection.canWrite()) {
+      frame.release();
+      return;
+    }
+    Channel channel = connection.channel();
+    channel.writeAndFlush(frame, channel.voidPromise());
+  }
+
+  /**
+   * Records the status of the first close frame, sent or received.
+   */
+  void closing(int statusCode, String reason) {
+    if (closeStatus == NO_CLOSE_FRAME) {
+      closeStatus = statusCode;
+      closeReason = reason != null ? reason : "";
+    }
+  }
+
+  int getCloseStatus() {
+    return closeStatus;
+  }
+
+  String getCloseReason() {
+    return closeReason;
+  }
+
+  /**
+   * @param handler Runs once the connection is closed, by either side
+   */
+  void onClose(Runnable handler) {
+    connection.onClose(handler);
+  }
+
+  /**
+   * @return the UTF-8 payload of a text message, strings as they are and anything else as JSON
+   */
+  static ByteBuf encode(Object message) {
+    if (message instanceof String text) {
+      return ByteBufUtil.writeUtf8(ByteBufAllocator.DEFAULT, text);
+    }
+    ByteBuf buf = ByteBufAllocator.DEFAULT.buffer();
+    OutputStream out = new ByteBufOutputStream(buf);
+    try (JsonGenerator gen = DF_MAPPER.createGenerator(out)) {
+      NexusCodecs.writeValue(gen, message);
+    } catch (IOException e) {
+      buf.release();
+      throw new UncheckedIOException("Failed to serialise WebSocket message", e);
+    }
+    return buf;
+  }
+}
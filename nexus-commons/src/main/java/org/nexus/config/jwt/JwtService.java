@@ -13,6 +13,7 @@ import java.text.ParseException;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class JwtService {
 
@@ -21,6 +22,9 @@ public class JwtService {
   private final JWSSigner refreshSigner;
   private final JWSVerifier accessVerifier;
   private final JWSVerifier refreshVerifier;
+  private final LongAdder issued = new LongAdder();
+  private final LongAdder verified = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
 
   public JwtService(JwtConfig config) {
     this.config = config;
@@ -57,6 +61,7 @@ public class JwtService {
       );
 
       signedJWT.sign(accessSigner);
+      issued.increment();
       return signedJWT.serialize();
     } catch (JOSEException e) {
       throw new RuntimeException("Failed to generate access token", e);
@@ -81,6 +86,7 @@ public class JwtService {
       );
 
       signedJWT.sign(refreshSigner);
+      issued.increment();
       return signedJWT.serialize();
     } catch (JOSEException e) {
       throw new RuntimeException("Failed to generate refresh token", e);
@@ -102,16 +108,16 @@ public class JwtService {
 
       // Verify signature
       if (!signedJWT.verify(verifier)) {
-        return false;
+        return counted(false);
       }
 
       // Check expiration
       JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
       Date expirationTime = claims.getExpirationTime();
-      return expirationTime == null || !expirationTime.before(new Date());
+      return counted(expirationTime == null || !expirationTime.before(new Date()));
 
     } catch (ParseException | JOSEException _) {
-      return false;
+      return counted(false);
     }
   }
 
@@ -130,13 +136,41 @@ public class JwtService {
       SignedJWT signedJWT = SignedJWT.parse(token);
       JWSVerifier verifier = isRefreshToken ? refreshVerifier : accessVerifier;
 
+      // Not counted, a request reading several claims would count its token several times
       if (!signedJWT.verify(verifier)) {
         return null;
       }
-
       return signedJWT.getJWTClaimsSet();
     } catch (ParseException | JOSEException _) {
       return null;
     }
   }
-}
\ No newline at end of file
+
+  private boolean counted(boolean valid) {
+    (valid ? verified : rejected).increment();
+    return valid;
+  }
+
+  /**
+   * @return access and refresh tokens signed so far
+   */
+  public long getIssuedCount() {
+    return issued.sum();
+  }
+
+  /**
+   * @return tokens that {@link #validateAccessToken} or {@link #validateRefreshToken} accepted so
+   *     far; reading claims isn't counted
+   */
+  public long getVerifiedCount() {
+    return verified.sum();
+  }
+
+  /**
+   * @return tokens that {@link #validateAccessToken} or {@link #validateRefreshToken} rejected as
+   *     malformed, badly signed or expired
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+}
@@ -81,6 +81,15 @@ public final class DatabaseConnectorFactory {
     }
   }
 
+  /**
+   * Get the cached database connectors.
+   *
+   * @return Snapshot of the connectors by configuration name
+   */
+  public static Map<String, DatabaseConnector> getConnectors() {
+    return Map.copyOf(connectorCache);
+  }
+
   /**
    * Close all cached database connectors. Call this during application shutdown.
    */
@@ -2,6 +2,7 @@ package org.nexus.dbconnector;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Objects;
@@ -87,4 +88,9 @@ public class PostgresConnector implements DatabaseConnector {
   public boolean isReady() {
     return isReady && dataSource != null && !dataSource.isClosed();
   }
-}
\ No newline at end of file
+
+  @Override
+  public HikariPoolMXBean getPool() {
+    return dataSource != null ? dataSource.getHikariPoolMXBean() : null;
+  }
+}
@@ -2,6 +2,7 @@ package org.nexus.dbconnector;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -107,4 +108,9 @@ public class SqliteConnector implements DatabaseConnector {
   public boolean isReady() {
     return isReady && dataSource != null && !dataSource.isClosed();
   }
+
+  @Override
+  public HikariPoolMXBean getPool() {
+    return dataSource != null ? dataSource.getHikariPoolMXBean() : null;
+  }
 }
@@ -0,0 +1,57 @@
+package org.nexus.enums;
+
+import io.netty.util.AsciiString;
+
+/**
+ * Encodings for JSON-shaped bodies, picked per request from {@code Accept} and
+ * {@code Content-Type}. The binary ones need their Jackson dataformat on the classpath.
+ */
+public enum BodyFormat {
+  JSON("application/json", null),
+  CBOR("application/cbor", "com.fasterxml.jackson.dataformat.cbor.CBORFactory"),
+  SMILE("application/x-jackson-smile", "com.fasterxml.jackson.dataformat.smile.SmileFactory"),
+  MSGPACK("application/msgpack", "org.msgpack.jackson.dataformat.MessagePackFactory",
+      "application/x-msgpack", "application/vnd.msgpack");
+
+  private final String mediaType;
+  private final AsciiString contentType;
+  private final String factoryClass;
+  private final String[] aliases;
+
+  BodyFormat(String mediaType, String factoryClass, String... aliases) {
+    this.mediaType = mediaType;
+    this.contentType = AsciiString.cached(mediaType);
+    this.factoryClass = factoryClass;
+    this.aliases = aliases;
+  }
+
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * @return the media type as a header value, encoded once
+   */
+  public AsciiString getContentType() {
+    return contentType;
+  }
+
+  /**
+   * @return the {@code JsonFactory} implementation, {@code null} for JSON
+   */
+  public String getFactoryClass() {
+    return factoryClass;
+  }
+
+  public boolean matches(String mediaType) {
+    if (this.mediaType.equalsIgnoreCase(mediaType)) {
+      return true;
+    }
+    for (String alias : aliases) {
+      if (alias.equalsIgnoreCase(mediaType)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
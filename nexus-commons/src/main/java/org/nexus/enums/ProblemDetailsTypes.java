@@ -8,7 +8,13 @@ public final class ProblemDetailsTypes {
   public static final String PATH_PARAM_INVALID_LONG = BASE + "/path-param-invalid-long";
   public static final String PATH_PARAM_MISSING = BASE + "/path-param-missing";
   public static final String CLIENT_ERROR = BASE + "/client-error";
+  public static final String NOT_FOUND = BASE + "/not-found";
+  public static final String METHOD_NOT_ALLOWED = BASE + "/method-not-allowed";
   public static final String SECURITY_ERROR = BASE + "/security-error";
+  public static final String SERVICE_UNAVAILABLE = BASE + "/service-unavailable";
+  public static final String TOO_MANY_REQUESTS = BASE + "/too-many-requests";
+  public static final String UNSUPPORTED_MEDIA_TYPE = BASE + "/unsupported-media-type";
+  public static final String UPGRADE_REQUIRED = BASE + "/upgrade-required";
 
   public static final String QUERY_PARAM_MISSING = BASE + "/query-param-missing";
   public static final String QUERY_PARAM_INVALID_INTEGER = BASE + "/query-param-invalid-integer";
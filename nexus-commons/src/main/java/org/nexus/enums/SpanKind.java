@@ -0,0 +1,20 @@
+package org.nexus.enums;
+
+/**
+ * Role of a span, numbered as in OTLP.
+ */
+public enum SpanKind {
+  INTERNAL(1),
+  SERVER(2),
+  CLIENT(3);
+
+  private final int code;
+
+  SpanKind(int code) {
+    this.code = code;
+  }
+
+  public int getCode() {
+    return code;
+  }
+}
@@ -1,5 +1,6 @@
 package org.nexus.interfaces;
 
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
 import java.sql.SQLException;
 
@@ -27,4 +28,13 @@ public interface DatabaseConnector extends AutoCloseable {
    * @return true if ready, false otherwise
    */
   boolean isReady();
+
+  /**
+   * Get the live counters of the connection pool, e.g. to export them as metrics.
+   *
+   * @return the pool, or null if the connector has none or it isn't started
+   */
+  default HikariPoolMXBean getPool() {
+    return null;
+  }
 }
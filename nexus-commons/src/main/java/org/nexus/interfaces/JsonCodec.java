@@ -0,0 +1,38 @@
+package org.nexus.interfaces;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+
+/**
+ * Reflection-free JSON mapping for one type, generated at compile time for request and response
+ * records. Produces the same JSON as the default Jackson mapper would.
+ *
+ * @param <T> The mapped type
+ */
+public interface JsonCodec<T> {
+
+  Class<T> type();
+
+  /**
+   * Writes a non-null value.
+   */
+  void write(JsonGenerator gen, T value) throws IOException;
+
+  /**
+   * Reads a value, the parser is positioned on its {@code START_OBJECT}.
+   */
+  T read(JsonParser parser) throws IOException;
+
+  @FunctionalInterface
+  interface ValueWriter<T> {
+
+    void write(JsonGenerator gen, T value) throws IOException;
+  }
+
+  @FunctionalInterface
+  interface ValueReader<T> {
+
+    T read(JsonParser parser) throws IOException;
+  }
+}
@@ -0,0 +1,18 @@
+package org.nexus.interfaces;
+
+import java.io.IOException;
+import java.util.List;
+import org.nexus.tracing.Span;
+
+/**
+ * Sends ended spans somewhere, e.g. a file or a collector. Called from a single background thread
+ * with batches of spans.
+ */
+public interface SpanExporter extends AutoCloseable {
+
+  void export(List<Span> spans) throws IOException;
+
+  @Override
+  default void close() throws IOException {
+  }
+}
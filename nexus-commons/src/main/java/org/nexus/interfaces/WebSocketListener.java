@@ -0,0 +1,30 @@
+package org.nexus.interfaces;
+
+import org.nexus.WebSocketSession;
+
+/**
+ * Receives what happens on a WebSocket connection. Callbacks run in order on the connection's event
+ * loop and must not block; hand longer work to {@code NexusExecutor}.
+ */
+public interface WebSocketListener {
+
+  default void onOpen(WebSocketSession session) {
+  }
+
+  default void onText(WebSocketSession session, String text) {
+  }
+
+  /**
+   * @param data The whole message, owned by the listener
+   */
+  default void onBinary(WebSocketSession session, byte[] data) {
+  }
+
+  /**
+   * Called once the connection is closed, by either side.
+   *
+   * @param statusCode Close status, {@code 1006} if the connection dropped without a close frame
+   */
+  default void onClose(WebSocketSession session, int statusCode, String reason) {
+  }
+}
@@ -0,0 +1,29 @@
+package org.nexus.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A statement run by {@code NexusDatabase}, including getting the connection and mapping rows. A
+ * stream's ends when it is closed. Keeps its stack trace, so a slow statement can be traced back to its caller.
+ */
+@Name("org.nexus.Database")
+@Label("Database Statement")
+@Category({"Nexus", "Database"})
+@Description("A statement run by NexusDatabase, including getting the connection and mapping rows")
+public final class DatabaseEvent extends Event {
+
+  @Label("Operation")
+  @Description("query, stream, update or insert")
+  public String operation;
+
+  @Label("SQL")
+  public String sql;
+
+  @Label("Rows")
+  @Description("Rows returned, read or affected, -1 if the statement failed")
+  public long rows;
+}
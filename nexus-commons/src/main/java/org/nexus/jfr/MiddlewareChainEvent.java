@@ -0,0 +1,26 @@
+package org.nexus.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The middleware chain run on the event loop. Includes the part of the route that runs before it
+ * returns its future, which is also recorded on its own as a {@link RouteHandleEvent}.
+ */
+@Name("org.nexus.MiddlewareChain")
+@Label("Middleware Chain")
+@Category({"Nexus", "HTTP"})
+@Description("The middleware chain run on the event loop, up to the route returning its future")
+@StackTrace(false)
+public final class MiddlewareChainEvent extends Event {
+
+  @Label("Route")
+  public String route;
+
+  @Label("Middlewares")
+  public int middlewares;
+}
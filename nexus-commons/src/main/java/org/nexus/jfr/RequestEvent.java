@@ -0,0 +1,45 @@
+package org.nexus.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A request, from being read to its response being written. Its start is the request's start.
+ */
+@Name("org.nexus.Request")
+@Label("HTTP Request")
+@Category({"Nexus", "HTTP"})
+@Description("A request, from being read to its response being written")
+@StackTrace(false)
+public final class RequestEvent extends Event {
+
+  private static final RequestEvent PROBE = new RequestEvent();
+
+  @Label("Method")
+  public String method;
+
+  @Label("URI")
+  public String uri;
+
+  @Label("Route")
+  @Description("Template of the matched route, e.g. GET /users/:id")
+  public String route;
+
+  @Label("Status")
+  @Description("Status code sent, 499 if the client went away first")
+  public int status;
+
+  @Label("Request ID")
+  public String requestId;
+
+  /**
+   * @return whether a recording takes these events. Cheap: a static check once JIT-compiled
+   */
+  public static boolean enabled() {
+    return PROBE.isEnabled();
+  }
+}
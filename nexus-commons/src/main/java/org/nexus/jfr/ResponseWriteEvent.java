@@ -0,0 +1,44 @@
+package org.nexus.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A response, from being handed to the channel to the write completing. For a streamed body the
+ * write completes once the last chunk is out.
+ */
+@Name("org.nexus.ResponseWrite")
+@Label("Response Write")
+@Category({"Nexus", "HTTP"})
+@Description("A response, from being handed to the channel to the write completing")
+@StackTrace(false)
+public final class ResponseWriteEvent extends Event {
+
+  private static final ResponseWriteEvent PROBE = new ResponseWriteEvent();
+
+  @Label("Route")
+  public String route;
+
+  @Label("Status")
+  public int status;
+
+  @Label("Size")
+  @Description("Body size, 0 for a streamed body")
+  @DataAmount
+  public long bytes;
+
+  @Label("Succeeded")
+  public boolean succeeded;
+
+  /**
+   * @return whether a recording takes these events. Cheap: a static check once JIT-compiled
+   */
+  public static boolean enabled() {
+    return PROBE.isEnabled();
+  }
+}
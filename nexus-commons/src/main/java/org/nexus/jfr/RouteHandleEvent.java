@@ -0,0 +1,34 @@
+package org.nexus.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A route, from {@code Route.handle} being called to its future completing.
+ */
+@Name("org.nexus.RouteHandle")
+@Label("Route Handle")
+@Category({"Nexus", "HTTP"})
+@Description("A route, from being called to its future completing")
+@StackTrace(false)
+public final class RouteHandleEvent extends Event {
+
+  private static final RouteHandleEvent PROBE = new RouteHandleEvent();
+
+  @Label("Route")
+  public String route;
+
+  @Label("Failed")
+  public boolean failed;
+
+  /**
+   * @return whether a recording takes these events. Cheap: a static check once JIT-compiled
+   */
+  public static boolean enabled() {
+    return PROBE.isEnabled();
+  }
+}
@@ -0,0 +1,30 @@
+package org.nexus.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A response body encoded by {@code Response.toHttpResponse}.
+ */
+@Name("org.nexus.Serialization")
+@Label("Response Serialization")
+@Category({"Nexus", "HTTP"})
+@Description("A response body encoded into its wire format")
+@StackTrace(false)
+public final class SerializationEvent extends Event {
+
+  @Label("Route")
+  public String route;
+
+  @Label("Format")
+  public String format;
+
+  @Label("Size")
+  @DataAmount
+  public long bytes;
+}
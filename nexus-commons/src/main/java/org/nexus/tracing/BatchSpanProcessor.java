@@ -0,0 +1,142 @@
+package org.nexus.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.nexus.interfaces.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects ended spans in a bounded buffer and hands them to a {@link SpanExporter} in batches,
+ * from a background thread. A batch is exported once it is full, or once the export interval has
+ * passed since the first span of it was taken.
+ *
+ * <p>Ending a span never blocks: when the exporter falls a full buffer behind, spans are dropped
+ * and counted in {@link #getDroppedCount()}. Close the processor to export what is left and close
+ * the exporter.
+ */
+public final class BatchSpanProcessor implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchSpanProcessor.class);
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final SpanExporter exporter;
+  private final ArrayBlockingQueue<Span> queue;
+  private final int batchSize;
+  private final long intervalNanos;
+  private final Thread worker;
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder exported = new LongAdder();
+  private volatile boolean running = true;
+
+  /**
+   * @param exporter       Where batches go; closed with the processor
+   * @param bufferSize     Spans that can wait to be exported before new ones are dropped
+   * @param batchSize      Most spans handed to the exporter at once
+   * @param intervalMillis Longest a span waits for its batch to fill
+   */
+  public BatchSpanProcessor(
+      SpanExporter exporter,
+      int bufferSize,
+      int batchSize,
+      long intervalMillis
+  ) {
+    this.exporter = Objects.requireNonNull(exporter, "exporter cannot be null");
+    if (bufferSize < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("bufferSize and batchSize must be positive");
+    }
+    this.queue = new ArrayBlockingQueue<>(bufferSize);
+    this.batchSize = batchSize;
+    this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    this.worker = Thread.ofPlatform()
+        .daemon()
+        .name("nexus-span-exporter")
+        .start(this::run);
+  }
+
+  void onEnd(Span span) {
+    if (!running || !queue.offer(span)) {
+      dropped.increment();
+    }
+  }
+
+  /**
+   * @return spans dropped because the buffer was full
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return spans handed to the exporter so far
+   */
+  public long getExportedCount() {
+    return exported.sum();
+  }
+
+  /**
+   * Exports the spans already ended, stops the background thread and closes the exporter.
+   */
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(worker);
+    try {
+      worker.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOGGER.warn("Interrupted while closing the span exporter");
+    }
+  }
+
+  private void run() {
+    List<Span> batch = new ArrayList<>(batchSize);
+    long firstTaken = 0;
+    while (true) {
+      boolean empty = batch.isEmpty();
+      queue.drainTo(batch, batchSize - batch.size());
+      if (empty && !batch.isEmpty()) {
+        firstTaken = System.nanoTime();
+      }
+      boolean stopping = !running;
+      if (batch.size() >= batchSize || !batch.isEmpty()
+          && (stopping || System.nanoTime() - firstTaken >= intervalNanos)) {
+        export(batch);
+        continue;
+      }
+      if (stopping) {
+        // Anything ended before close() is visible by now
+        if (queue.isEmpty()) {
+          break;
+        }
+        continue;
+      }
+      LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+    }
+
+    try {
+      exporter.close();
+    } catch (Exception e) {
+      LOGGER.warn("Failed to close the span exporter", e);
+    }
+  }
+
+  private void export(List<Span> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      exporter.export(batch);
+      exported.add(batch.size());
+    } catch (Exception e) {
+      LOGGER.warn("Failed to export {} spans", batch.size(), e);
+    } finally {
+      batch.clear();
+    }
+  }
+}
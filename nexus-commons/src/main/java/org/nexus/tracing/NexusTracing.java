@@ -0,0 +1,144 @@
+package org.nexus.tracing;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import org.nexus.enums.SpanKind;
+
+/**
+ * Entry point for tracing. Spans are only made once a {@link BatchSpanProcessor} is installed,
+ * which the server does when {@code TRACING_ENABLED} is set; until then every method here returns
+ * {@code null} or runs the work as it is.
+ *
+ * <p>The current span is held in a {@link ScopedValue}, bound while the middleware chain and the
+ * route run. {@code NexusExecutor.offload} binds it again on the virtual thread the work moves to.
+ * Work handed to another executor can be wrapped with {@link #wrap(Runnable)}; continuations of a
+ * {@code CompletableFuture} run outside any scope, and can use {@code RequestContext.getSpan()}
+ * instead.
+ */
+public final class NexusTracing {
+
+  private static final ScopedValue<Span> CURRENT = ScopedValue.newInstance();
+  private static volatile BatchSpanProcessor processor;
+  private static volatile double sampleRatio = 1.0;
+
+  private NexusTracing() {
+  }
+
+  /**
+   * Starts tracing, replacing any processor installed before.
+   *
+   * @param processor   Where ended spans go
+   * @param sampleRatio Share of new traces recorded, from 0 to 1. Traces started by a caller
+   *                    follow the caller's decision
+   * @return the processor replaced, or {@code null}
+   */
+  public static synchronized BatchSpanProcessor install(
+      BatchSpanProcessor processor,
+      double sampleRatio
+  ) {
+    if (sampleRatio < 0 || sampleRatio > 1) {
+      throw new IllegalArgumentException("sampleRatio must be between 0 and 1");
+    }
+    BatchSpanProcessor previous = NexusTracing.processor;
+    NexusTracing.sampleRatio = sampleRatio;
+    NexusTracing.processor = processor;
+    return previous;
+  }
+
+  /**
+   * Stops making spans. Spans already started are still exported when they end.
+   *
+   * @return the processor that was installed, or {@code null}
+   */
+  public static synchronized BatchSpanProcessor uninstall() {
+    BatchSpanProcessor previous = processor;
+    processor = null;
+    return previous;
+  }
+
+  public static boolean isEnabled() {
+    return processor != null;
+  }
+
+  /**
+   * @return the span bound to the current scope, or {@code null}
+   */
+  public static Span current() {
+    // orElse() doesn't take null
+    return CURRENT.isBound() ? CURRENT.get() : null;
+  }
+
+  /**
+   * Starts the span of a request received, continuing the trace in its {@code traceparent} header
+   * or starting a new one.
+   *
+   * @return the span, or {@code null} if tracing is off
+   */
+  public static Span startServerSpan(String name, HttpHeaders headers) {
+    BatchSpanProcessor installed = processor;
+    if (installed == null) {
+      return null;
+    }
+    TraceContext remote = TraceContext.parse(
+        headers.get(TraceContext.TRACEPARENT), headers.get(TraceContext.TRACESTATE));
+    if (remote == null) {
+      return new Span(name, SpanKind.SERVER, TraceContext.newRoot(sample()), null, installed);
+    }
+    return new Span(name, SpanKind.SERVER, remote.newChild(), remote.spanId(), installed);
+  }
+
+  /**
+   * Starts a child of the current span.
+   *
+   * @return the span, or {@code null} if tracing is off or there is no current span
+   */
+  public static Span startSpan(String name, SpanKind kind) {
+    return startSpan(name, kind, current());
+  }
+
+  /**
+   * Starts a child of {@code parent}.
+   *
+   * @return the span, or {@code null} if tracing is off or {@code parent} is {@code null}
+   */
+  public static Span startSpan(String name, SpanKind kind, Span parent) {
+    BatchSpanProcessor installed = processor;
+    if (installed == null || parent == null) {
+      return null;
+    }
+    TraceContext context = parent.getContext();
+    return new Span(name, kind, context.newChild(), context.spanId(), installed);
+  }
+
+  /**
+   * Runs {@code op} with {@code span} as the current span.
+   *
+   * @param span The span, or {@code null} to run {@code op} as it is
+   */
+  public static <T, X extends Throwable> T call(Span span, ScopedValue.CallableOp<T, X> op)
+      throws X {
+    return span != null ? ScopedValue.where(CURRENT, span).call(op) : op.call();
+  }
+
+  /**
+   * @return {@code task}, made to run with the span current now, if any
+   */
+  public static Runnable wrap(Runnable task) {
+    Span span = current();
+    return span != null ? () -> ScopedValue.where(CURRENT, span).run(task) : task;
+  }
+
+  /**
+   * @return {@code task}, made to run with the span current now, if any
+   */
+  public static <T> Callable<T> wrap(Callable<T> task) {
+    Span span = current();
+    return span != null ? () -> ScopedValue.where(CURRENT, span).call(task::call) : task;
+  }
+
+  private static boolean sample() {
+    double ratio = sampleRatio;
+    return ratio >= 1 || (ratio > 0 && ThreadLocalRandom.current().nextDouble() < ratio);
+  }
+}
@@ -0,0 +1,140 @@
+package org.nexus.tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.nexus.interfaces.SpanExporter;
+
+/**
+ * Appends spans to a file in the OTLP/JSON file format: one {@code ExportTraceServiceRequest} per
+ * line and batch, which an OpenTelemetry Collector's {@code otlpjsonfile} receiver can read.
+ */
+public final class OtlpFileExporter implements SpanExporter {
+
+  private final BufferedWriter writer;
+  private final String resource;
+  private final StringBuilder line = new StringBuilder(4096);
+
+  private OtlpFileExporter(Path path, String serviceName) throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    StringBuilder r = new StringBuilder("{\"resource\":{\"attributes\":[");
+    attribute(r, "service.name", serviceName);
+    this.resource = r.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"org.nexus\"},\"spans\":[")
+        .toString();
+  }
+
+  /**
+   * Opens {@code path} for appending, creating it and its directories if needed.
+   *
+   * @throws UncheckedIOException if the file can't be opened
+   */
+  public static OtlpFileExporter open(Path path, String serviceName) {
+    try {
+      return new OtlpFileExporter(path, serviceName);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open trace file " + path, e);
+    }
+  }
+
+  @Override
+  public void export(List<Span> spans) throws IOException {
+    line.setLength(0);
+    line.append("{\"resourceSpans\":[").append(resource);
+    for (int i = 0; i < spans.size(); i++) {
+      if (i > 0) {
+        line.append(',');
+      }
+      span(line, spans.get(i));
+    }
+    line.append("]}]}]}\n");
+    writer.append(line);
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  private static void span(StringBuilder out, Span span) {
+    TraceContext context = span.getContext();
+    out.append("{\"traceId\":\"").append(context.traceId())
+        .append("\",\"spanId\":\"").append(context.spanId()).append('"');
+    if (context.traceState() != null) {
+      out.append(",\"traceState\":");
+      string(out, context.traceState());
+    }
+    if (span.getParentSpanId() != null) {
+      out.append(",\"parentSpanId\":\"").append(span.getParentSpanId()).append('"');
+    }
+    out.append(",\"name\":");
+    string(out, span.getName());
+    // 64-bit integers are strings in OTLP/JSON
+    out.append(",\"kind\":").append(span.getKind().getCode())
+        .append(",\"startTimeUnixNano\":\"").append(span.getStartEpochNanos())
+        .append("\",\"endTimeUnixNano\":\"").append(span.getEndEpochNanos())
+        .append("\",\"attributes\":[");
+    boolean first = true;
+    for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      attribute(out, attribute.getKey(), attribute.getValue());
+    }
+    out.append("],\"status\":{");
+    if (span.isError()) {
+      out.append("\"code\":2");
+      if (span.getErrorMessage() != null) {
+        out.append(",\"message\":");
+        string(out, span.getErrorMessage());
+      }
+    }
+    out.append("}}");
+  }
+
+  private static void attribute(StringBuilder out, String key, Object value) {
+    out.append("{\"key\":");
+    string(out, key);
+    if (value instanceof Long number) {
+      out.append(",\"value\":{\"intValue\":\"").append(number).append("\"}}");
+    } else {
+      out.append(",\"value\":{\"stringValue\":");
+      string(out, value.toString());
+      out.append("}}");
+    }
+  }
+
+  private static void string(StringBuilder out, String value) {
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> out.append("\\\"");
+        case '\\' -> out.append("\\\\");
+        case '\n' -> out.append("\\n");
+        case '\r' -> out.append("\\r");
+        case '\t' -> out.append("\\t");
+        default -> {
+          if (c < ' ') {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+        }
+      }
+    }
+    out.append('"');
+  }
+}
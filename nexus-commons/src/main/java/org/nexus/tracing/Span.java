@@ -0,0 +1,139 @@
+package org.nexus.tracing;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.nexus.enums.SpanKind;
+
+/**
+ * A timed operation in a trace. Started by {@link NexusTracing}, and handed to the exporter when
+ * {@link #end()} is called if its trace is sampled.
+ *
+ * <p>A span is used by one thread at a time: the one that started it, or the one its work was
+ * handed to.
+ */
+public final class Span {
+
+  private final String name;
+  private final SpanKind kind;
+  private final TraceContext context;
+  private final String parentSpanId;
+  private final BatchSpanProcessor processor;
+  private final long startEpochNanos;
+  private final long startNanos;
+  private long endEpochNanos;
+  private Map<String, Object> attributes;
+  private String errorMessage;
+  private boolean error;
+  private boolean ended;
+
+  Span(String name, SpanKind kind, TraceContext context, String parentSpanId,
+      BatchSpanProcessor processor) {
+    this.name = Objects.requireNonNull(name, "name cannot be null");
+    this.kind = kind;
+    this.context = context;
+    this.parentSpanId = parentSpanId;
+    // Only sampled spans are exported
+    this.processor = context.sampled() ? processor : null;
+    Instant now = Instant.now();
+    this.startEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    this.startNanos = System.nanoTime();
+  }
+
+  public Span setAttribute(String key, String value) {
+    return putAttribute(key, value);
+  }
+
+  public Span setAttribute(String key, long value) {
+    return putAttribute(key, value);
+  }
+
+  /**
+   * Marks the span as failed.
+   */
+  public Span setError(Throwable cause) {
+    return setError(Objects.toString(cause.getMessage(), cause.getClass().getName()));
+  }
+
+  /**
+   * Marks the span as failed.
+   *
+   * @param message Why, or {@code null}
+   */
+  public Span setError(String message) {
+    this.error = true;
+    this.errorMessage = message;
+    return this;
+  }
+
+  /**
+   * Ends the span. Only the first call counts.
+   */
+  public void end() {
+    if (ended) {
+      return;
+    }
+    ended = true;
+    endEpochNanos = startEpochNanos + (System.nanoTime() - startNanos);
+    if (processor != null) {
+      processor.onEnd(this);
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public SpanKind getKind() {
+    return kind;
+  }
+
+  public TraceContext getContext() {
+    return context;
+  }
+
+  /**
+   * @return the parent's span ID, {@code null} for the first span of a trace
+   */
+  public String getParentSpanId() {
+    return parentSpanId;
+  }
+
+  public long getStartEpochNanos() {
+    return startEpochNanos;
+  }
+
+  /**
+   * @return the end time, {@code 0} until the span has ended
+   */
+  public long getEndEpochNanos() {
+    return endEpochNanos;
+  }
+
+  /**
+   * @return the attributes, each a {@code String} or a {@code Long}
+   */
+  public Map<String, Object> getAttributes() {
+    return attributes != null ? Collections.unmodifiableMap(attributes) : Map.of();
+  }
+
+  public boolean isError() {
+    return error;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  private Span putAttribute(String key, Object value) {
+    if (value != null) {
+      if (attributes == null) {
+        attributes = LinkedHashMap.newLinkedHashMap(6);
+      }
+      attributes.put(key, value);
+    }
+    return this;
+  }
+}
@@ -0,0 +1,126 @@
+package org.nexus.tracing;
+
+import io.netty.util.AsciiString;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Position of a span in a trace, as carried by the W3C {@code traceparent} and {@code tracestate}
+ * headers.
+ *
+ * @param traceId    32 lowercase hex digits, shared by every span of the trace
+ * @param spanId     16 lowercase hex digits
+ * @param sampled    Whether the trace is recorded
+ * @param traceState Vendor state passed along as it was received, or {@code null}
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled, String traceState) {
+
+  public static final AsciiString TRACEPARENT = AsciiString.cached("traceparent");
+  public static final AsciiString TRACESTATE = AsciiString.cached("tracestate");
+
+  private static final HexFormat HEX = HexFormat.of();
+  private static final int TRACEPARENT_LENGTH = 55;
+  private static final int MAX_TRACESTATE_LENGTH = 512;
+
+  /**
+   * Reads the context a caller sent.
+   *
+   * @return the context, or {@code null} if {@code traceparent} is missing or malformed, in which
+   *     case {@code tracestate} is ignored too
+   */
+  public static TraceContext parse(String traceparent, String tracestate) {
+    if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH) {
+      return null;
+    }
+    String version = traceparent.substring(0, 2);
+    if (!isHex(version) || version.equals("ff")) {
+      return null;
+    }
+    // Later versions may append fields, version 00 may not
+    if (traceparent.length() > TRACEPARENT_LENGTH
+        && (version.equals("00") || traceparent.charAt(TRACEPARENT_LENGTH) != '-')) {
+      return null;
+    }
+    if (traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-'
+        || traceparent.charAt(52) != '-') {
+      return null;
+    }
+    String traceId = traceparent.substring(3, 35);
+    String spanId = traceparent.substring(36, 52);
+    String flags = traceparent.substring(53, 55);
+    if (!isHex(traceId) || isZero(traceId) || !isHex(spanId) || isZero(spanId) || !isHex(flags)) {
+      return null;
+    }
+    boolean sampled = (HEX.fromHexDigits(flags) & 1) != 0;
+    return new TraceContext(traceId, spanId, sampled, validState(tracestate));
+  }
+
+  /**
+   * @return the context of the first span of a new trace
+   */
+  public static TraceContext newRoot(boolean sampled) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long high = random.nextLong();
+    long low = random.nextLong();
+    if (high == 0 && low == 0) {
+      low = 1;
+    }
+    return new TraceContext(HEX.toHexDigits(high) + HEX.toHexDigits(low), newSpanId(), sampled,
+        null);
+  }
+
+  /**
+   * @return the context of a new span in the same trace
+   */
+  public TraceContext newChild() {
+    return new TraceContext(traceId, newSpanId(), sampled, traceState);
+  }
+
+  /**
+   * @return the {@code traceparent} header value naming this span as the parent
+   */
+  public String traceparent() {
+    return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+  }
+
+  private static String newSpanId() {
+    long id;
+    do {
+      id = ThreadLocalRandom.current().nextLong();
+    } while (id == 0);
+    return HEX.toHexDigits(id);
+  }
+
+  private static String validState(String tracestate) {
+    if (tracestate == null || tracestate.isBlank()
+        || tracestate.length() > MAX_TRACESTATE_LENGTH) {
+      return null;
+    }
+    for (int i = 0; i < tracestate.length(); i++) {
+      char c = tracestate.charAt(i);
+      if (c < ' ' || c >= 0x7f) {
+        return null;
+      }
+    }
+    return tracestate;
+  }
+
+  private static boolean isHex(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isZero(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) != '0') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -201,4 +201,22 @@ class JwtServiceTest {
     assertNull(jwtService.getSubjectFromToken(tampered, false));
     assertNull(jwtService.getClaim(validToken, "nonexistent", true)); // wrong token type
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Should only count validations, not claim reads")
+  void countsOnlyValidations() {
+    String token = jwtService.generateAccessToken("carol", Map.of("role", "USER"));
+
+    jwtService.getSubjectFromToken(token, false);
+    jwtService.getClaim(token, "role", false);
+    jwtService.getSubjectFromToken("invalid", false);
+    assertEquals(0, jwtService.getVerifiedCount());
+    assertEquals(0, jwtService.getRejectedCount());
+
+    assertTrue(jwtService.validateAccessToken(token));
+    assertFalse(jwtService.validateAccessToken("invalid"));
+    assertEquals(1, jwtService.getVerifiedCount());
+    assertEquals(1, jwtService.getRejectedCount());
+    assertEquals(1, jwtService.getIssuedCount());
+  }
+}
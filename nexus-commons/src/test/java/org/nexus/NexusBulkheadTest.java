@@ -0,0 +1,64 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.nexus.exceptions.ProblemDetailsException;
+
+class NexusBulkheadTest {
+
+  @Test
+  void fullBulkhead_shouldRejectWith503() throws Exception {
+    NexusBulkhead bulkhead = new NexusBulkhead("test", 1, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(2);
+
+    Runnable blocking = () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException _) {
+        Thread.currentThread().interrupt();
+      }
+      done.countDown();
+    };
+
+    bulkhead.execute(blocking);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    bulkhead.execute(done::countDown); // waits for the running task
+
+    ProblemDetailsException e = assertThrows(ProblemDetailsException.class,
+        () -> bulkhead.execute(() -> {
+        }));
+    assertEquals(503, e.getProblemDetails().getStatus());
+    assertEquals(1, bulkhead.getActiveCount());
+    assertEquals(1, bulkhead.getQueuedCount());
+    assertEquals(1, bulkhead.getRejectedCount());
+
+    release.countDown();
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void invalidLimits_shouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> new NexusBulkhead("x", 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new NexusBulkhead("x", 1, -1));
+    assertThrows(IllegalArgumentException.class, () -> new NexusBulkhead(" ", 1, 1));
+  }
+
+  @Test
+  void registeredBulkhead_shouldBeReturnedByName() {
+    NexusBulkhead registered = NexusExecutor.registerBulkhead("registry-test", 2, 3);
+
+    assertSame(registered, NexusExecutor.bulkhead("registry-test"));
+    assertSame(registered, NexusExecutor.getBulkheads().get("registry-test"));
+    assertThrows(IllegalStateException.class,
+        () -> NexusExecutor.registerBulkhead("registry-test", 1, 1));
+  }
+}
@@ -0,0 +1,136 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.util.CharsetUtil;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.interfaces.RouteHandler;
+
+@DisplayName("NexusCoalescer Tests")
+class NexusCoalescerTest {
+
+  private static final String[] NONE = new String[0];
+
+  private static RequestContext newContext(String uri) {
+    return TestRequests.context(TestRequests.request(HttpMethod.GET, uri));
+  }
+
+  @Test
+  @DisplayName("Should run the handler once for identical concurrent requests")
+  void identicalRequests_shareOneCall() {
+    AtomicInteger calls = new AtomicInteger();
+    CompletableFuture<Response<String>> pending = new CompletableFuture<>();
+    RouteHandler<String> handler = NexusCoalescer.coalesce(NONE, NONE, _ -> {
+      calls.incrementAndGet();
+      return pending;
+    });
+    long coalescedBefore = NexusCoalescer.getCoalescedCount();
+
+    CompletableFuture<Response<String>> first = handler.handle(newContext("/items?b=2&a=1"));
+    CompletableFuture<Response<String>> second = handler.handle(newContext("//items/?a=1&b=2"));
+    CompletableFuture<Response<String>> third = handler.handle(newContext("/items?a=1&b=2"));
+    assertEquals(1, calls.get());
+    assertEquals(2, NexusCoalescer.getCoalescedCount() - coalescedBefore);
+
+    pending.complete(new Response<>(200, "shared"));
+
+    Response<String> response = first.join();
+    assertInstanceOf(SharedHttpResponse.class, response);
+    assertSame(response, second.join());
+    assertSame(response, third.join());
+
+    FullHttpResponse a = response.toHttpResponse();
+    FullHttpResponse b = response.toHttpResponse();
+    FullHttpResponse c = response.toHttpResponse();
+    assertTrue(a.content().toString(CharsetUtil.UTF_8).contains("shared"));
+    assertEquals(a.content().toString(CharsetUtil.UTF_8), c.content().toString(CharsetUtil.UTF_8));
+    a.release();
+    b.release();
+    assertEquals(1, c.refCnt());
+    c.release();
+    assertEquals(0, c.refCnt());
+
+    // The flight is over, the next request runs the handler again
+    handler.handle(newContext("/items?a=1&b=2"));
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  @DisplayName("Should give a streaming response to the caller only and fail its waiters")
+  void streamingResponse_isNotShared() throws InterruptedException {
+    CountDownLatch closed = new CountDownLatch(1);
+    CompletableFuture<Response<List<Integer>>> pending = new CompletableFuture<>();
+    RouteHandler<List<Integer>> handler = NexusCoalescer.coalesce(NONE, NONE, _ -> pending);
+
+    CompletableFuture<Response<List<Integer>>> first = handler.handle(newContext("/export"));
+    CompletableFuture<Response<List<Integer>>> second = handler.handle(newContext("/export"));
+    CompletableFuture<Response<List<Integer>>> third = handler.handle(newContext("/export"));
+    StreamingResponse<Integer> streaming =
+        new StreamingResponse<>(200, Stream.of(1, 2, 3).onClose(closed::countDown));
+    pending.complete(streaming);
+
+    assertSame(streaming, first.join());
+    CompletionException e = assertThrows(CompletionException.class, second::join);
+    assertInstanceOf(IllegalStateException.class, e.getCause());
+    assertTrue(third.isCompletedExceptionally());
+    // Still unread, for the caller to write
+    assertEquals(1, closed.getCount());
+    streaming.discard();
+    assertTrue(closed.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("Should only key on the selected query params and headers")
+  void key_usesSelectedParamsAndHeaders() {
+    String[] page = {"page"};
+    String[] lang = {"Accept-Language"};
+
+    String key = NexusCoalescer.key(newContext("/items?page=1&_=123"), page, NONE);
+    assertEquals(key, NexusCoalescer.key(newContext("/items?_=456&page=1"), page, NONE));
+    assertNotEquals(key, NexusCoalescer.key(newContext("/items?page=2"), page, NONE));
+
+    RequestContext en = newContext("/items");
+    en.getRequest().headers().set("Accept-Language", "en");
+    RequestContext pt = newContext("/items");
+    pt.getRequest().headers().set("Accept-Language", "pt");
+    assertNotEquals(NexusCoalescer.key(en, NONE, lang), NexusCoalescer.key(pt, NONE, lang));
+  }
+
+  @Test
+  @DisplayName("Should hand the failure to every waiter")
+  void failure_isShared() {
+    AtomicInteger calls = new AtomicInteger();
+    CompletableFuture<Response<String>> pending = new CompletableFuture<>();
+    RouteHandler<String> handler = NexusCoalescer.coalesce(NONE, NONE, _ -> {
+      calls.incrementAndGet();
+      return pending;
+    });
+
+    CompletableFuture<Response<String>> first = handler.handle(newContext("/failing"));
+    CompletableFuture<Response<String>> second = handler.handle(newContext("/failing"));
+    pending.completeExceptionally(new IllegalStateException("boom"));
+
+    assertTrue(first.isCompletedExceptionally());
+    assertTrue(second.isCompletedExceptionally());
+    assertEquals(1, calls.get());
+
+    // Failures are not remembered
+    handler.handle(newContext("/failing"));
+    assertEquals(2, calls.get());
+  }
+}
@@ -0,0 +1,168 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.nexus.NexusUtils.DF_MAPPER;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.util.CharsetUtil;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.interfaces.JsonCodec;
+
+@DisplayName("NexusCodecs Tests")
+class NexusCodecsTest {
+
+  @BeforeAll
+  static void registerCodec() {
+    NexusCodecs.register(new ItemCodec());
+  }
+
+  private static String write(Object value) throws IOException {
+    StringWriter out = new StringWriter();
+    try (JsonGenerator gen = DF_MAPPER.createGenerator(out)) {
+      NexusCodecs.writeValue(gen, value);
+    }
+    return out.toString();
+  }
+
+  private static Item read(String json) throws IOException {
+    try (JsonParser p = DF_MAPPER.createParser(json)) {
+      return NexusCodecs.readRoot(p, NexusCodecs.get(Item.class));
+    }
+  }
+
+  @Test
+  @DisplayName("Should write exactly what Jackson writes")
+  void write_matchesJackson() throws IOException {
+    List<Object> values = List.of(new Item("a\"b", 3, List.of("x", "y")), "s", 1, true);
+    assertEquals(DF_MAPPER.writeValueAsString(values), write(values));
+    assertEquals(DF_MAPPER.writeValueAsString(new Item(null, 0, null)),
+        write(new Item(null, 0, null)));
+  }
+
+  @Test
+  @DisplayName("Should coerce scalars the way the default mapper does")
+  void read_coercesLikeJackson() throws IOException {
+    String json = """
+        {"name":"n","count":"7","tags":["t"]}
+        """;
+    assertEquals(DF_MAPPER.readValue(json, Item.class), read(json));
+    assertEquals(new Item(null, 2, null), read("{\"count\":2.0,\"name\":null}"));
+    assertEquals(new Item(null, 0, null), read("{\"count\":\"\"}"));
+  }
+
+  @Test
+  @DisplayName("Should reject unknown properties and malformed values")
+  void read_rejectsInvalidInput() {
+    assertThrows(IOException.class, () -> read("{\"name\":\"n\",\"other\":{\"a\":[1]}}"));
+    assertThrows(IOException.class, () -> read("{\"count\":\"seven\"}"));
+    assertThrows(IOException.class, () -> read("[]"));
+    assertThrows(IOException.class, () -> read(""));
+  }
+
+  @Test
+  @DisplayName("Should stream the response envelope through the codec")
+  void response_usesCodec() throws IOException {
+    FullHttpResponse response = new Response<>(201, new Item("n", 1, List.of())).toHttpResponse();
+    try {
+      JsonNode json = DF_MAPPER.readTree(response.content().toString(CharsetUtil.UTF_8));
+      assertEquals(201, json.get("status").asInt());
+      assertTrue(json.get("date").isTextual());
+      assertEquals(DF_MAPPER.valueToTree(new Item("n", 1, List.of())), json.get("data"));
+      assertEquals(String.valueOf(response.content().readableBytes()),
+          response.headers().get("Content-Length"));
+    } finally {
+      response.release();
+    }
+    assertNull(NexusCodecs.get(String.class));
+  }
+
+  @Test
+  @DisplayName("Should apply mapper settings from the configuration and rebuild cached writers")
+  void configureMapper_appliesSettings() throws IOException {
+    ObjectWriter before = NexusCodecs.writerFor(Date.class);
+    try {
+      NexusUtils.configureMapper(newConfig(
+          "--JSON_FAIL_ON_UNKNOWN_PROPERTIES=false", "--JSON_DATE_FORMAT=yyyy-MM-dd"));
+
+      assertEquals(new Item("n", 0, null), read("{\"name\":\"n\",\"other\":[1]}"));
+      ObjectWriter after = NexusCodecs.writerFor(Date.class);
+      assertNotSame(before, after);
+      assertEquals("\"1970-01-02\"", after.writeValueAsString(new Date(86_400_000L)));
+      assertThrows(IllegalArgumentException.class,
+          () -> NexusUtils.configureMapper(newConfig("--JSON_ACCESSOR_MODULE=unknown")));
+    } finally {
+      NexusUtils.configureMapper(newConfig());
+      NexusConfig.closeInstance();
+    }
+    assertEquals("86400000", NexusCodecs.writerFor(Date.class)
+        .writeValueAsString(new Date(86_400_000L)));
+  }
+
+  private static NexusConfig newConfig(String... args) {
+    NexusConfig.closeInstance();
+    NexusConfig config = NexusConfig.getInstance();
+    config.setEnvFilePath("nonexistent.env");
+    config.init(args);
+    return config;
+  }
+
+  public record Item(String name, int count, List<String> tags) {
+
+  }
+
+  /**
+   * Written the way the processor generates codecs.
+   */
+  private static final class ItemCodec implements JsonCodec<Item> {
+
+    @Override
+    public Class<Item> type() {
+      return Item.class;
+    }
+
+    @Override
+    public void write(JsonGenerator gen, Item value) throws IOException {
+      gen.writeStartObject(value);
+      gen.writeFieldName("name");
+      NexusCodecs.writeString(gen, value.name());
+      gen.writeFieldName("count");
+      gen.writeNumber(value.count());
+      gen.writeFieldName("tags");
+      NexusCodecs.writeList(gen, value.tags(), (g0, v0) -> NexusCodecs.writeString(g0, v0));
+      gen.writeEndObject();
+    }
+
+    @Override
+    public Item read(JsonParser p) throws IOException {
+      String name = null;
+      int count = 0;
+      List<String> tags = null;
+      while (p.nextToken() == JsonToken.FIELD_NAME) {
+        String field = p.currentName();
+        p.nextToken();
+        switch (field) {
+          case "name" -> name = NexusCodecs.readString(p);
+          case "count" -> count = NexusCodecs.readInt(p);
+          case "tags" -> tags = NexusCodecs.readList(p, NexusCodecs::readString);
+          default -> NexusCodecs.unknownProperty(p, field, Item.class);
+        }
+      }
+      return new Item(name, count, tags);
+    }
+  }
+}
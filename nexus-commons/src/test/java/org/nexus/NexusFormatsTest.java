@@ -0,0 +1,111 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.nexus.NexusUtils.DF_MAPPER;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.enums.BodyFormat;
+import org.nexus.interfaces.ProblemDetails;
+
+@DisplayName("NexusFormats Tests")
+class NexusFormatsTest {
+
+  @Test
+  @DisplayName("Should pick the best available format from Accept")
+  void negotiate_honoursQualityAndSpecificity() {
+    assertEquals(BodyFormat.JSON, NexusFormats.negotiate(null));
+    assertEquals(BodyFormat.JSON, NexusFormats.negotiate("*/*"));
+    assertEquals(BodyFormat.JSON, NexusFormats.negotiate("text/html"));
+    assertEquals(BodyFormat.CBOR, NexusFormats.negotiate("application/cbor"));
+    assertEquals(BodyFormat.CBOR, NexusFormats.negotiate("*/*, application/cbor"));
+    assertEquals(BodyFormat.SMILE,
+        NexusFormats.negotiate("application/json;q=0.5, application/x-jackson-smile"));
+    assertEquals(BodyFormat.MSGPACK,
+        NexusFormats.negotiate("application/cbor;q=0, application/x-msgpack;q=0.9"));
+  }
+
+  @Test
+  @DisplayName("Should encode JSON bodies in the negotiated format and keep problems as JSON")
+  void response_encodesNegotiatedFormat() throws IOException {
+    Map<String, Object> data = Map.of("id", 7, "tags", List.of("a", "b"));
+    FullHttpResponse cbor = new Response<>(200, data).toHttpResponse(BodyFormat.CBOR);
+    try {
+      assertEquals("application/cbor", cbor.headers().get("Content-Type"));
+      assertEquals("Accept", cbor.headers().get("Vary"));
+      JsonNode json = DF_MAPPER.readTree(NexusFormats.factory(BodyFormat.CBOR)
+          .createParser(ByteBufUtil.getBytes(cbor.content())));
+      assertEquals(200, json.get("status").asInt());
+      assertEquals(DF_MAPPER.valueToTree(data), json.get("data"));
+    } finally {
+      cbor.release();
+    }
+
+    ProblemDetails problem = new ProblemDetails.Single(
+        "/problems/test", "Test", 400, "detail", "");
+    FullHttpResponse error = new Response<>(400, problem).toHttpResponse(BodyFormat.CBOR);
+    try {
+      assertEquals("application/problem+json", error.headers().get("Content-Type"));
+      assertTrue(DF_MAPPER.readTree(ByteBufUtil.getBytes(error.content())).has("title"));
+    } finally {
+      error.release();
+    }
+  }
+
+  @Test
+  @DisplayName("Should parse request bodies according to Content-Type")
+  void createParser_followsContentType() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (JsonGenerator gen = NexusFormats.factory(BodyFormat.SMILE).createGenerator(out)) {
+      gen.writeStartObject();
+      gen.writeStringField("name", "n");
+      gen.writeEndObject();
+    }
+    DefaultFullHttpRequest request = new DefaultFullHttpRequest(
+        HttpVersion.HTTP_1_1, HttpMethod.POST, "/items", Unpooled.wrappedBuffer(out.toByteArray()));
+    request.headers().set("Content-Type", "application/x-jackson-smile; charset=binary");
+    RequestContext rc = TestRequests.context(request);
+
+    assertEquals(BodyFormat.SMILE, NexusFormats.requestFormat(rc));
+    try (JsonParser parser = NexusFormats.createParser(rc)) {
+      assertEquals("n", DF_MAPPER.readTree(parser).get("name").asText());
+    }
+  }
+
+  @Test
+  @DisplayName("Should parse heap bodies from their array and others through a stream")
+  void createParser_readsHeapArrayInPlace() throws IOException {
+    byte[] json = "{\"name\":\"n\"}".getBytes(StandardCharsets.UTF_8);
+    ByteBuf direct = Unpooled.directBuffer(json.length).writeBytes(json);
+
+    for (ByteBuf body : List.of(Unpooled.wrappedBuffer(json), direct)) {
+      DefaultFullHttpRequest request = new DefaultFullHttpRequest(
+          HttpVersion.HTTP_1_1, HttpMethod.POST, "/items", body);
+      RequestContext rc = TestRequests.context(request);
+
+      try (JsonParser parser = NexusFormats.createParser(rc)) {
+        // A parser over an array has no input source
+        assertEquals(body.hasArray(), parser.getInputSource() == null);
+        assertEquals("n", DF_MAPPER.readTree(parser).get("name").asText());
+      }
+      assertEquals(0, body.readerIndex());
+      request.release();
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nexus.enums.SpanKind;
+import org.nexus.tracing.BatchSpanProcessor;
+import org.nexus.tracing.NexusTracing;
+import org.nexus.tracing.OtlpFileExporter;
+import org.nexus.tracing.Span;
+import org.nexus.tracing.TraceContext;
+
+@DisplayName("Tracing Tests")
+class NexusTracingTest {
+
+  private static final String PARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+  @TempDir
+  Path dir;
+
+  @AfterEach
+  void tearDown() {
+    BatchSpanProcessor processor = NexusTracing.uninstall();
+    if (processor != null) {
+      processor.close();
+    }
+  }
+
+  private static RequestContext newContext(String traceparent) {
+    FullHttpRequest request = TestRequests.request(HttpMethod.GET, "/users/7?full=true");
+    if (traceparent != null) {
+      request.headers().set(TraceContext.TRACEPARENT, traceparent);
+      request.headers().set(TraceContext.TRACESTATE, "congo=t61rcWkgMzE");
+    }
+    return TestRequests.context(request, new Route<>(HttpMethod.GET, "/users/:id", null));
+  }
+
+  @Test
+  @DisplayName("Should parse a valid traceparent and reject malformed ones")
+  void traceContext_parse() {
+    TraceContext context = TraceContext.parse(PARENT, "congo=t61rcWkgMzE");
+    assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", context.traceId());
+    assertEquals("00f067aa0ba902b7", context.spanId());
+    assertTrue(context.sampled());
+    assertEquals(PARENT, context.traceparent());
+
+    assertNull(TraceContext.parse(PARENT.toUpperCase(), null));
+    assertNull(TraceContext.parse("ff" + PARENT.substring(2), null));
+    assertNull(TraceContext.parse(PARENT + "-extra", null));
+    assertNull(TraceContext.parse(
+        "00-00000000000000000000000000000000-00f067aa0ba902b7-01", null));
+    assertFalse(TraceContext.parse(PARENT.replace("-01", "-00"), null).sampled());
+    // A later version may add fields
+    assertEquals("00f067aa0ba902b7", TraceContext.parse(
+        "01" + PARENT.substring(2) + "-extra", null).spanId());
+
+    TraceContext child = context.newChild();
+    assertEquals(context.traceId(), child.traceId());
+    assertNotEquals(context.spanId(), child.spanId());
+  }
+
+  @Test
+  @DisplayName("Should continue the caller's trace across offloaded work and outgoing calls")
+  void context_flowsAcrossThreads() throws InterruptedException {
+    List<Span> exported = new CopyOnWriteArrayList<>();
+    NexusTracing.install(new BatchSpanProcessor(exported::addAll, 16, 16, 10), 1.0);
+
+    RequestContext rc = newContext(PARENT);
+    Span server = rc.getSpan();
+    assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", server.getContext().traceId());
+    assertEquals("00f067aa0ba902b7", server.getParentSpanId());
+    assertEquals("GET /users/:id", server.getName());
+
+    AtomicReference<Span> onVirtualThread = new AtomicReference<>();
+    AtomicReference<String> sent = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(1);
+    NexusTracing.call(server, () -> NexusExecutor.offload(rc, () -> {
+      Span work = NexusTracing.startSpan("work", SpanKind.INTERNAL);
+      onVirtualThread.set(work);
+      NexusTracing.call(work, () -> {
+        sent.set(NexusHttpClient.newRequest(rc, URI.create("http://localhost/")).build()
+            .headers().firstValue("traceparent").orElse(null));
+        return null;
+      });
+      work.end();
+      done.countDown();
+      return null;
+    }));
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+
+    Span work = onVirtualThread.get();
+    assertEquals(server.getContext().spanId(), work.getParentSpanId());
+    assertEquals(work.getContext().traceparent(), sent.get());
+    rc.endSpan(200);
+    // Outside of any scope
+    assertNull(NexusTracing.startSpan("orphan", SpanKind.INTERNAL));
+
+    NexusTracing.uninstall().close();
+    assertEquals(2, exported.size());
+    assertEquals(200L, server.getAttributes().get("http.response.status_code"));
+    assertEquals("/users/7", server.getAttributes().get("url.path"));
+  }
+
+  @Test
+  @DisplayName("Should append batches of spans to an OTLP/JSON file")
+  void otlpFile_writesBatches() throws IOException {
+    Path file = dir.resolve("traces/spans.jsonl");
+    BatchSpanProcessor processor =
+        new BatchSpanProcessor(OtlpFileExporter.open(file, "test \"svc\""), 16, 2, 10_000);
+    NexusTracing.install(processor, 1.0);
+
+    RequestContext rc = newContext(null);
+    NexusTracing.startSpan("query", SpanKind.CLIENT, rc.getSpan())
+        .setAttribute("db.query.text", "SELECT 1")
+        .end();
+    rc.endSpan(503);
+    newContext(null).endSpan(200);
+    NexusTracing.uninstall().close();
+
+    List<String> lines = Files.readAllLines(file);
+    assertEquals(2, lines.size());
+    String first = lines.getFirst();
+    assertTrue(first.startsWith("{\"resourceSpans\":[{\"resource\":{\"attributes\":["
+        + "{\"key\":\"service.name\",\"value\":{\"stringValue\":\"test \\\"svc\\\"\"}}]}"), first);
+    assertTrue(first.contains("\"parentSpanId\":\"" + rc.getSpan().getContext().spanId()), first);
+    assertTrue(first.contains("\"kind\":2"), first);
+    assertTrue(first.contains("{\"key\":\"http.response.status_code\","
+        + "\"value\":{\"intValue\":\"503\"}}"), first);
+    assertTrue(first.contains(
+        "\"status\":{\"code\":2,\"message\":\"Service Unavailable\"}"), first);
+    assertEquals(3, processor.getExportedCount());
+    assertEquals(0, processor.getDroppedCount());
+  }
+}
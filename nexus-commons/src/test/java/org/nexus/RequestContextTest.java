@@ -0,0 +1,100 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.CharsetUtil;
+import java.io.InputStream;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RequestContext Tests")
+class RequestContextTest {
+
+  private static FullHttpRequest post(String uri, String body) {
+    return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, uri,
+        Unpooled.copiedBuffer(body, CharsetUtil.UTF_8));
+  }
+
+  @Test
+  @DisplayName("Should decode query params on first use")
+  void queryParams_areDecodedLazily() {
+    RequestContext rc = TestRequests.context(post("/items?tag=a&tag=b&q=x%20y", ""));
+
+    assertEquals("x y", rc.getQueryParam("q"));
+    assertEquals(List.of("a", "b"), rc.getQueryParams("tag"));
+    assertNull(rc.getQueryParam("missing"));
+    assertTrue(TestRequests.context(post("/items", "")).getQueryParams().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should expose the body as text, bytes and stream")
+  void body_isAvailableWithoutCopies() throws Exception {
+    RequestContext rc = TestRequests.context(post("/items", "{\"name\":\"ação\"}"));
+
+    ByteBuf buffer = rc.getBodyBuffer();
+    assertTrue(buffer.isReadOnly());
+    assertEquals(rc.getBodyLength(), buffer.readableBytes());
+    buffer.skipBytes(2); // views don't move each other's indices
+    assertEquals(rc.getBodyLength(), rc.getBodyBuffer().readableBytes());
+    assertThrows(ReadOnlyBufferException.class, () -> rc.getBodyBuffer().setByte(0, 'x'));
+
+    try (InputStream in = rc.getBodyStream()) {
+      assertEquals("{\"name\":\"ação\"}", new String(in.readAllBytes(), CharsetUtil.UTF_8));
+    }
+    assertEquals("{\"name\":\"ação\"}", rc.getBody());
+  }
+
+  @Test
+  @DisplayName("Should only release the request once")
+  void release_isIdempotent() {
+    FullHttpRequest request = post("/items", "body").retain();
+    RequestContext rc = TestRequests.context(request);
+
+    rc.release();
+    rc.release();
+    assertEquals(1, request.refCnt());
+    assertFalse(rc.hasRequestHeaders());
+    request.release();
+  }
+
+  @Test
+  @DisplayName("Should only release the request once when released from several threads")
+  void release_isIdempotentAcrossThreads() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      FullHttpRequest request = post("/items", "body").retain();
+      RequestContext rc = TestRequests.context(request);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        threads.add(Thread.ofPlatform().start(() -> {
+          try {
+            start.await();
+          } catch (InterruptedException _) {
+            return;
+          }
+          rc.release();
+        }));
+      }
+      start.countDown();
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      assertEquals(1, request.refCnt());
+      request.release();
+    }
+  }
+}
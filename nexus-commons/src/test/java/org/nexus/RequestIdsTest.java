@@ -0,0 +1,81 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RequestIds Tests")
+class RequestIdsTest {
+
+  private static RequestContext newContext(String sentId) {
+    FullHttpRequest request = TestRequests.request(HttpMethod.GET, "/");
+    if (sentId != null) {
+      request.headers().set("X-Request-ID", sentId);
+    }
+    return TestRequests.context(request);
+  }
+
+  @Test
+  @DisplayName("Should give every thread its own unique sequence under one prefix")
+  void next_isUniqueAcrossThreads() throws InterruptedException {
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      threads.add(Thread.ofPlatform().start(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          ids.add(RequestIds.next());
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(40_000, ids.size());
+    String id = RequestIds.next();
+    assertTrue(id.matches("[0-9A-HJKMNP-TV-Z]{13}-[0-9A-HJKMNP-TV-Z]+-[0-9A-HJKMNP-TV-Z]+"), id);
+    assertEquals(1, ids.stream().map(i -> i.substring(0, 13)).distinct().count());
+  }
+
+  @Test
+  @DisplayName("Should share one sequence between virtual threads instead of numbering each")
+  void next_sharesSequenceOnVirtualThreads() throws InterruptedException {
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 1_000; t++) {
+      threads.add(Thread.ofVirtual().start(() -> ids.add(RequestIds.next())));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(1_000, ids.size());
+    assertEquals(1, ids.stream().map(i -> i.substring(0, 16)).distinct().count());
+    assertTrue(ids.iterator().next().substring(13).startsWith("-0-"));
+  }
+
+  @Test
+  @DisplayName("Should keep a usable client ID and replace one that could break a log line")
+  void requestContext_validatesSentId() {
+    assertEquals("abc-123", newContext("abc-123").getRequestId());
+
+    String generated = newContext(null).getRequestId();
+    assertTrue(RequestIds.isValid(generated));
+    RequestContext rc = newContext("bad id\n");
+    assertNotEquals("bad id\n", rc.getRequestId());
+    assertEquals(rc.getRequestId(), rc.getRequestId());
+
+    assertFalse(RequestIds.isValid("x".repeat(129)));
+    assertFalse(RequestIds.isValid(""));
+  }
+}
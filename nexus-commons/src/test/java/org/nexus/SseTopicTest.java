@@ -0,0 +1,150 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.CharsetUtil;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SseTopic Tests")
+class SseTopicTest {
+
+  private static String readEvents(EmbeddedChannel channel) {
+    channel.runPendingTasks();
+    StringBuilder events = new StringBuilder();
+    Object msg;
+    while ((msg = channel.readOutbound()) != null) {
+      HttpContent content = (HttpContent) msg;
+      events.append(content.content().toString(CharsetUtil.UTF_8));
+      content.release();
+    }
+    return events.toString();
+  }
+
+  @Test
+  @DisplayName("Should encode events in the event-stream format")
+  void encode_writesFields() {
+    assertEquals("id: 7\nevent: price\ndata: {\"sku\":\"a\",\"price\":3}\n\n",
+        new String(new SseEvent("7", "price", new Price("a", 3)).encode(), CharsetUtil.UTF_8));
+    assertEquals("data: one\ndata: two\ndata: \n\n",
+        new String(SseEvent.of("one\r\ntwo\n").encode(), CharsetUtil.UTF_8));
+    assertThrows(IllegalArgumentException.class, () -> SseEvent.of("a\nb", "data"));
+  }
+
+  @Test
+  @DisplayName("Should fan events out and replay the missed ones on reconnect")
+  void publish_fansOutAndReplays() {
+    SseTopic topic = new SseTopic(2);
+    EmbeddedChannel first = new EmbeddedChannel();
+    topic.subscribe().open(first, null);
+
+    String id1 = topic.publish("tick", Map.of("n", 1));
+    String id2 = topic.publish("tick", Map.of("n", 2));
+    String id3 = topic.publish("tick", Map.of("n", 3));
+
+    assertEquals(1, topic.getSubscriberCount());
+    String events = readEvents(first);
+    assertTrue(events.startsWith("id: " + id1 + "\nevent: tick\ndata: {\"n\":1}\n\n"), events);
+    assertTrue(events.endsWith("data: {\"n\":3}\n\n"), events);
+
+    // Resumes after the second event, the third is still buffered
+    EmbeddedChannel resumed = new EmbeddedChannel();
+    topic.subscribe().open(resumed, id2);
+    assertEquals("id: " + id3 + "\nevent: tick\ndata: {\"n\":3}\n\n", readEvents(resumed));
+
+    // An id from before a restart gets the whole buffer, which no longer has the first event
+    EmbeddedChannel stale = new EmbeddedChannel();
+    topic.subscribe().open(stale, "old-1");
+    String replayed = readEvents(stale);
+    assertFalse(replayed.contains("{\"n\":1}"), replayed);
+    assertTrue(replayed.contains("{\"n\":2}") && replayed.contains("{\"n\":3}"), replayed);
+
+    first.close();
+    assertEquals(2, topic.getSubscriberCount());
+  }
+
+  @Test
+  @DisplayName("Should write the replay before events published while it is still queued")
+  void replay_comesBeforeLaterEvents() {
+    SseTopic topic = new SseTopic(4);
+    topic.publish("one");
+    topic.publish("two");
+
+    EmbeddedChannel channel = new EmbeddedChannel();
+    topic.subscribe().open(channel, "old-1");
+    // Published from the subscriber's own loop before the replay ran
+    topic.publish("three");
+
+    String events = readEvents(channel);
+    assertTrue(events.startsWith("id: "), events);
+    assertTrue(events.indexOf("data: one") >= 0, events);
+    assertTrue(events.indexOf("data: one") < events.indexOf("data: two"), events);
+    assertTrue(events.indexOf("data: two") < events.indexOf("data: three"), events);
+  }
+
+  @Test
+  @DisplayName("Should drop a consumer that stops reading instead of buffering for it")
+  void slowConsumer_isDropped() {
+    SseTopic topic = new SseTopic(0);
+    EmbeddedChannel channel = new EmbeddedChannel();
+    SseEmitter emitter = topic.subscribe().open(channel, null);
+    AtomicInteger closed = new AtomicInteger();
+    emitter.onClose(closed::incrementAndGet);
+
+    // Written but never flushed, as if the client stopped reading
+    channel.write(Unpooled.wrappedBuffer(new byte[128 * 1024]));
+    assertFalse(channel.isWritable());
+    topic.publish("late");
+    channel.runPendingTasks();
+
+    assertFalse(channel.isOpen());
+    assertFalse(emitter.isOpen());
+    assertEquals(1, closed.get());
+    assertEquals(0, topic.getSubscriberCount());
+  }
+
+  @Test
+  @DisplayName("Should end the stream when closed")
+  void close_endsStream() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    SseEmitter emitter = new SseResponse(e -> e.send("hello")).open(channel, null);
+
+    emitter.close();
+    channel.runPendingTasks();
+
+    assertEquals("data: hello\n\n",
+        ((HttpContent) channel.readOutbound()).content().toString(CharsetUtil.UTF_8));
+    assertInstanceOf(LastHttpContent.class, channel.readOutbound());
+    assertFalse(channel.isOpen());
+    assertFalse(emitter.isOpen());
+  }
+
+  public record Price(String sku, int price) {
+
+  }
+
+  @Test
+  @DisplayName("Should encode as the event-stream head with no body, without opening")
+  void toHttpResponse_isHeadOnly() {
+    AtomicInteger opened = new AtomicInteger();
+    FullHttpResponse full = new SseResponse(_ -> opened.incrementAndGet()).toHttpResponse();
+
+    assertEquals(200, full.status().code());
+    assertEquals("text/event-stream", full.headers().get(HttpHeaderNames.CONTENT_TYPE));
+    assertEquals("0", full.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+    assertFalse(full.headers().contains(HttpHeaderNames.TRANSFER_ENCODING));
+    assertEquals(0, opened.get());
+  }
+}
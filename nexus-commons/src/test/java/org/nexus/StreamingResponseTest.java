@@ -0,0 +1,158 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.nexus.NexusUtils.DF_MAPPER;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpChunkedInput;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.CharsetUtil;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.enums.BodyFormat;
+
+@DisplayName("StreamingResponse Tests")
+class StreamingResponseTest {
+
+  /**
+   * Emits on the requesting thread, so the whole response is written by one flush.
+   */
+  private static <T> Flow.Publisher<T> publisher(List<T> items, Throwable failure,
+      AtomicLong requested) {
+    return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+      private int next;
+      private boolean done;
+
+      @Override
+      public void request(long n) {
+        requested.addAndGet(n);
+        for (long i = 0; i < n && !done; i++) {
+          if (next < items.size()) {
+            subscriber.onNext(items.get(next++));
+          } else {
+            done = true;
+            if (failure != null) {
+              subscriber.onError(failure);
+            } else {
+              subscriber.onComplete();
+            }
+          }
+        }
+      }
+
+      @Override
+      public void cancel() {
+        done = true;
+      }
+    });
+  }
+
+  private static ChannelFuture write(EmbeddedChannel channel, StreamingResponse<?> response) {
+    channel.write(response.head(BodyFormat.JSON));
+    return channel.writeAndFlush(new HttpChunkedInput(response.chunks(BodyFormat.JSON,
+        () -> channel.pipeline().get(ChunkedWriteHandler.class).resumeTransfer())));
+  }
+
+  @Test
+  @DisplayName("Should write the envelope and every element as chunked JSON")
+  void writesChunkedEnvelope() throws IOException {
+    List<Map<String, Object>> items = IntStream.range(0, 5000)
+        .mapToObj(i -> Map.<String, Object>of("id", i, "name", "item-" + i))
+        .toList();
+    AtomicLong requested = new AtomicLong();
+    EmbeddedChannel channel = new EmbeddedChannel(new ChunkedWriteHandler());
+
+    ChannelFuture future = write(channel, new StreamingResponse<>(201,
+        publisher(items, null, requested)));
+
+    assertTrue(future.isSuccess());
+    HttpResponse head = channel.readOutbound();
+    assertEquals(201, head.status().code());
+    assertEquals("application/json", head.headers().get(HttpHeaderNames.CONTENT_TYPE));
+    assertTrue(head.headers().contains(
+        HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED, true));
+
+    ByteBuf body = Unpooled.buffer();
+    int chunks = 0;
+    Object msg;
+    while ((msg = channel.readOutbound()) != null) {
+      HttpContent content = (HttpContent) msg;
+      assertTrue(content.content().readableBytes() < 2 * StreamingResponse.CHUNK_SIZE);
+      body.writeBytes(content.content());
+      content.release();
+      chunks++;
+      if (msg instanceof LastHttpContent) {
+        assertNull(channel.readOutbound());
+      }
+    }
+    JsonNode json = DF_MAPPER.readTree(body.toString(CharsetUtil.UTF_8));
+    body.release();
+
+    assertTrue(chunks > 2, "body should be split in chunks, got " + chunks);
+    assertEquals(201, json.get("status").asInt());
+    assertEquals(DF_MAPPER.valueToTree(items), json.get("data"));
+    assertTrue(requested.get() < items.size() + 100, "requested " + requested.get());
+  }
+
+  @Test
+  @DisplayName("Should fail the write when the source fails mid-way")
+  void sourceFailure_failsWrite() {
+    EmbeddedChannel channel = new EmbeddedChannel(new ChunkedWriteHandler());
+
+    ChannelFuture future = write(channel, new StreamingResponse<>(200,
+        publisher(List.of("a", "b"), new IllegalStateException("cursor lost"), new AtomicLong())));
+
+    assertFalse(future.isSuccess());
+    assertInstanceOf(IOException.class, future.cause());
+    assertInstanceOf(IllegalStateException.class, future.cause().getCause());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  @DisplayName("Should close the source when the response is discarded, and only write once")
+  void discard_closesSource() throws InterruptedException {
+    CountDownLatch closed = new CountDownLatch(1);
+    StreamingResponse<Integer> response =
+        new StreamingResponse<>(200, Stream.of(1, 2, 3).onClose(closed::countDown));
+
+    response.discard();
+
+    assertTrue(closed.await(5, TimeUnit.SECONDS));
+    assertThrows(IllegalStateException.class, () -> response.chunks(BodyFormat.JSON, () -> {
+    }));
+  }
+
+  @Test
+  @DisplayName("Should refuse to encode as a full response, closing the source unread")
+  void toHttpResponse_fails() throws InterruptedException {
+    CountDownLatch closed = new CountDownLatch(1);
+    StreamingResponse<Integer> response =
+        new StreamingResponse<>(200, Stream.of(1, 2, 3).onClose(closed::countDown));
+
+    assertThrows(IllegalStateException.class, response::toHttpResponse);
+    assertTrue(closed.await(5, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,41 @@
+package org.nexus;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import java.util.Map;
+
+/**
+ * Requests and request contexts for unit tests, bound to an embedded channel instead of a server.
+ * Shared with the modules built on nexus-commons through its test jar.
+ */
+public final class TestRequests {
+
+  private TestRequests() {
+  }
+
+  /**
+   * @return an HTTP/1.1 request with an empty body
+   */
+  public static FullHttpRequest request(HttpMethod method, String uri) {
+    return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri);
+  }
+
+  /**
+   * @return a context for the request with no path parameters and no route
+   */
+  public static RequestContext context(FullHttpRequest request) {
+    return context(request, null);
+  }
+
+  /**
+   * @return a context for the request with no path parameters, matched to the route
+   */
+  public static RequestContext context(FullHttpRequest request, Route<?> route) {
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    return new RequestContext(channel.pipeline().firstContext(), request, Map.of(), route);
+  }
+}
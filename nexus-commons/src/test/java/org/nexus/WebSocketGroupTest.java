@@ -0,0 +1,151 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.interfaces.WebSocketListener;
+
+@DisplayName("WebSocketGroup Tests")
+class WebSocketGroupTest {
+
+  @Test
+  @DisplayName("Should write every session a duplicate of the same encoded message")
+  void broadcast_sharesPayload() {
+    WebSocketGroup group = new WebSocketGroup();
+    EmbeddedChannel first = new EmbeddedChannel();
+    EmbeddedChannel second = new EmbeddedChannel();
+    group.add(new WebSocketSession(first));
+    group.add(new WebSocketSession(second));
+
+    group.broadcast(Map.of("n", 1));
+    TextWebSocketFrame a = first.readOutbound();
+    TextWebSocketFrame b = second.readOutbound();
+    assertEquals("{\"n\":1}", a.text());
+    assertEquals("{\"n\":1}", b.text());
+    a.release();
+    b.release();
+
+    byte[] data = {1, 2, 3};
+    group.broadcast(data);
+    BinaryWebSocketFrame x = first.readOutbound();
+    BinaryWebSocketFrame y = second.readOutbound();
+    assertSame(data, x.content().array());
+    assertSame(data, y.content().array());
+    // One reference per frame still to be written, the group's own is gone
+    assertEquals(2, x.content().refCnt());
+    x.release();
+    y.release();
+    assertEquals(0, x.content().refCnt());
+
+    first.close();
+    first.runPendingTasks();
+    assertEquals(1, group.size());
+  }
+
+  @Test
+  @DisplayName("Should drop a consumer that stops reading instead of buffering for it")
+  void slowConsumer_isDropped() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(512, 1024));
+    WebSocketGroup group = new WebSocketGroup();
+    group.add(new WebSocketSession(channel));
+
+    // Written but never flushed, as if the client stopped reading
+    ByteBuf pending = Unpooled.wrappedBuffer(new byte[4096]);
+    channel.write(pending);
+    assertFalse(channel.isWritable());
+    group.broadcast("late");
+    channel.runPendingTasks();
+
+    assertFalse(channel.isOpen());
+    assertEquals(0, group.size());
+    assertEquals(0, pending.refCnt());
+  }
+
+  @Test
+  @DisplayName("Should answer pings, hand messages to the listener and echo the close frame")
+  void frameHandler_dispatchesFrames() {
+    List<String> events = new ArrayList<>();
+    EmbeddedChannel channel = new EmbeddedChannel();
+    WebSocketSession session = new WebSocketSession(channel);
+    channel.pipeline().addLast(new WebSocketFrameHandler(new WebSocketListener() {
+      @Override
+      public void onText(WebSocketSession s, String text) {
+        events.add("text:" + text);
+        s.send(text.toUpperCase());
+      }
+
+      @Override
+      public void onClose(WebSocketSession s, int statusCode, String reason) {
+        events.add("close:" + statusCode + ":" + reason);
+      }
+    }, session));
+
+    channel.writeInbound(new PingWebSocketFrame(Unpooled.wrappedBuffer(new byte[]{1})));
+    PongWebSocketFrame pong = channel.readOutbound();
+    assertEquals(1, pong.content().getByte(0));
+    pong.release();
+
+    channel.writeInbound(new TextWebSocketFrame("hi"));
+    TextWebSocketFrame reply = channel.readOutbound();
+    assertEquals("HI", reply.text());
+    reply.release();
+
+    channel.writeInbound(new CloseWebSocketFrame(1001, "bye"));
+    CloseWebSocketFrame echoed = channel.readOutbound();
+    assertEquals(1001, echoed.statusCode());
+    echoed.release();
+    channel.runPendingTasks();
+
+    assertFalse(channel.isOpen());
+    assertFalse(session.isOpen());
+    assertEquals(List.of("text:hi", "close:1001:bye"), events);
+    assertNull(channel.readOutbound());
+  }
+
+  @Test
+  @DisplayName("Should send a close frame before closing the connection")
+  void close_sendsCloseFrame() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    WebSocketSession session = new WebSocketSession(channel);
+
+    session.close(4000, "done");
+
+    CloseWebSocketFrame frame = assertInstanceOf(CloseWebSocketFrame.class, channel.readOutbound());
+    assertEquals(4000, frame.statusCode());
+    assertEquals("done", frame.reasonText());
+    frame.release();
+    assertFalse(channel.isOpen());
+    assertEquals(4000, session.getCloseStatus());
+  }
+
+  @Test
+  @DisplayName("Should encode as 426 Upgrade Required, as a plain request to the route gets")
+  void toHttpResponse_isUpgradeRequired() {
+    FullHttpResponse full = new WebSocketResponse(new WebSocketListener() {
+    }).toHttpResponse();
+
+    assertEquals(426, full.status().code());
+    assertEquals("websocket", full.headers().get(HttpHeaderNames.UPGRADE));
+    assertEquals("0", full.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+  }
+}
@@ -24,6 +24,8 @@ public abstract class NexusApplication {
       // Initialize configuration
       LOGGER.info("Initializing application...");
       config.init(args);
+      NexusUtils.configureMapper(config);
+      NexusCodecs.prepare();
 
       // Initialize dependency injection
       NexusBeanScope.init();
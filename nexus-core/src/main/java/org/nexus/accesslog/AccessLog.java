@@ -0,0 +1,196 @@
+package org.nexus.accesslog;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpUtil;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.nexus.RequestContext;
+import org.nexus.config.AccessLogConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access log written off the event loop. Recording a response only copies its fields into a slot
+ * of a fixed-size ring; a background thread formats the slots and appends them to a file that is
+ * rolled over by size.
+ *
+ * <p>Recording never blocks: when the writer falls a full ring behind, new events are dropped and
+ * counted in {@link #getDroppedCount()}. Close the log to write out what is left and stop the
+ * thread.
+ */
+public final class AccessLog implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AccessLog.class);
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final AccessLogRing ring;
+  private final AccessLogFormat format;
+  private final RotatingFile file;
+  private final Thread writer;
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicLong written = new AtomicLong();
+  private volatile boolean running = true;
+
+  private AccessLog(AccessLogConfig config) throws IOException {
+    this.ring = new AccessLogRing(config.bufferSize());
+    this.format = config.format();
+    this.file = new RotatingFile(config.path(), config.maxSize(), config.maxFiles());
+    this.writer = Thread.ofPlatform()
+        .daemon()
+        .name("nexus-access-log")
+        .start(this::drain);
+  }
+
+  /**
+   * Opens the file of {@code config} and starts the writer thread.
+   *
+   * @throws UncheckedIOException if the file can't be opened
+   */
+  public static AccessLog open(AccessLogConfig config) {
+    try {
+      return new AccessLog(config);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open access log " + config.path(), e);
+    }
+  }
+
+  /**
+   * Records a request and its response. Safe to call from any thread.
+   *
+   * @param response The response written, or {@code null} if none was. Its body may be released by
+   *                 now, so the size is taken from its {@code Content-Length}
+   */
+  public void record(RequestContext ctx, FullHttpResponse response) {
+    long pos = ring.claim();
+    if (pos < 0) {
+      dropped.increment();
+      return;
+    }
+
+    FullHttpRequest request = ctx.getRequest();
+    HttpHeaders headers = request.headers();
+    SocketAddress remote = ctx.getCtx().channel().remoteAddress();
+    InetAddress address = remote instanceof InetSocketAddress inet ? inet.getAddress() : null;
+    AccessLogEvent.write(
+        ring.slots(), ring.offset(pos),
+        System.currentTimeMillis(),
+        ctx.getRequestDuration(),
+        response != null ? HttpUtil.getContentLength(response, 0L) : 0,
+        response != null ? response.status().code() : 0,
+        request.protocolVersion().minorVersion(),
+        address,
+        request.method().asciiName(),
+        ctx.getRequestId(),
+        request.uri(),
+        headers.get(HttpHeaderNames.REFERER),
+        headers.get(HttpHeaderNames.USER_AGENT)
+    );
+    ring.publish(pos);
+  }
+
+  /**
+   * @return events dropped because the writer was a full buffer behind
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return events written to the file so far
+   */
+  public long getWrittenCount() {
+    return written.get();
+  }
+
+  /**
+   * Writes out the events already recorded and stops the writer thread.
+   */
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(writer);
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOGGER.warn("Interrupted while closing the access log");
+    }
+  }
+
+  private void drain() {
+    AccessLogEvent event = new AccessLogEvent(ring.slots().array());
+    AccessLogLine line = new AccessLogLine();
+    boolean unflushed = false;
+    boolean failing = false;
+
+    while (true) {
+      int offset = ring.peek();
+      if (offset < 0) {
+        if (unflushed) {
+          failing = flush(failing);
+          unflushed = false;
+        }
+        if (!running) {
+          // Anything recorded before close() is visible by now
+          if (ring.peek() < 0) {
+            break;
+          }
+          continue;
+        }
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        continue;
+      }
+
+      // Formatted before the slot is released, the event still points into it
+      event.read(offset);
+      line.reset();
+      format.format(event, line);
+      line.write('\n');
+      ring.release();
+
+      try {
+        file.write(line);
+        written.incrementAndGet();
+        unflushed = true;
+        failing = false;
+      } catch (IOException e) {
+        failing = failed(failing, e);
+      }
+    }
+
+    try {
+      file.close();
+    } catch (IOException e) {
+      LOGGER.warn("Failed to close the access log", e);
+    }
+  }
+
+  private boolean flush(boolean failing) {
+    try {
+      file.flush();
+      return failing;
+    } catch (IOException e) {
+      return failed(failing, e);
+    }
+  }
+
+  /**
+   * Logs the first of a run of write errors, so a full disk doesn't log once per request.
+   */
+  private static boolean failed(boolean failing, IOException e) {
+    if (!failing) {
+      LOGGER.error("Failed to write the access log, events are lost until it recovers", e);
+    }
+    return true;
+  }
+}
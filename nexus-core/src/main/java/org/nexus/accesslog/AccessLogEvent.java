@@ -0,0 +1,158 @@
+package org.nexus.accesslog;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of an event in an {@link AccessLogRing} slot, and a reusable view over one for the writer
+ * thread. Text is stored one byte per char: request lines and headers are decoded as ISO-8859-1,
+ * so this gives back the bytes the client sent. Text that doesn't fit the slot is cut.
+ */
+final class AccessLogEvent {
+
+  static final int METHOD = 0;
+  static final int REQUEST_ID = 1;
+  static final int URI = 2;
+  static final int REFERER = 3;
+  static final int USER_AGENT = 4;
+
+  private static final int TIME = 0;
+  private static final int DURATION = 8;
+  private static final int BYTES = 16;
+  private static final int STATUS = 24;
+  private static final int PROTOCOL = 26;
+  private static final int ADDRESS_LENGTH = 27;
+  private static final int ADDRESS = 28;
+  private static final int TEXT = ADDRESS + 16;
+  // Longest each text field may take, in field order; the user agent gets whatever is left
+  private static final int[] MAX_LENGTHS = {16, 64, 256, 128, AccessLogRing.SLOT_SIZE};
+
+  private final byte[] data;
+  private final ByteBuffer slot;
+  private final int[] starts = new int[MAX_LENGTHS.length];
+  private final int[] lengths = new int[MAX_LENGTHS.length];
+  private final byte[] address4 = new byte[4];
+  private final byte[] address16 = new byte[16];
+  private long time;
+  private long duration;
+  private long bytes;
+  private int status;
+  private int protocol;
+  private byte[] address;
+
+  AccessLogEvent(byte[] data) {
+    this.data = data;
+    this.slot = ByteBuffer.wrap(data);
+  }
+
+  /**
+   * Writes an event into the slot at {@code offset}.
+   *
+   * @param status   Response status, {@code 0} if there was no response
+   * @param protocol Minor version of HTTP/1.x
+   * @param address  Client address, or {@code null} if unknown
+   */
+  static void write(
+      ByteBuffer slots, int offset,
+      long time, long duration, long bytes, int status, int protocol, InetAddress address,
+      CharSequence method, CharSequence requestId, CharSequence uri, CharSequence referer,
+      CharSequence userAgent
+  ) {
+    slots.putLong(offset + TIME, time);
+    slots.putLong(offset + DURATION, duration);
+    slots.putLong(offset + BYTES, bytes);
+    slots.putShort(offset + STATUS, (short) status);
+    slots.put(offset + PROTOCOL, (byte) protocol);
+    byte[] raw = address != null ? address.getAddress() : null;
+    slots.put(offset + ADDRESS_LENGTH, (byte) (raw != null ? raw.length : 0));
+    if (raw != null) {
+      slots.put(offset + ADDRESS, raw);
+    }
+
+    int end = offset + AccessLogRing.SLOT_SIZE;
+    int pos = offset + TEXT;
+    pos = writeText(slots, pos, end, METHOD, method);
+    pos = writeText(slots, pos, end, REQUEST_ID, requestId);
+    pos = writeText(slots, pos, end, URI, uri);
+    pos = writeText(slots, pos, end, REFERER, referer);
+    writeText(slots, pos, end, USER_AGENT, userAgent);
+  }
+
+  private static int writeText(ByteBuffer slots, int pos, int end, int field, CharSequence text) {
+    // Room is kept for the length of every field after this one
+    int room = end - pos - 2 * (MAX_LENGTHS.length - field);
+    int length = text != null ? Math.min(text.length(), Math.min(room, MAX_LENGTHS[field])) : 0;
+    slots.putShort(pos, (short) length);
+    for (int i = 0; i < length; i++) {
+      slots.put(pos + 2 + i, (byte) text.charAt(i));
+    }
+    return pos + 2 + length;
+  }
+
+  /**
+   * Points this view at the slot at {@code offset}. Text stays in the slot, so the event must be
+   * used before the slot is released.
+   */
+  void read(int offset) {
+    time = slot.getLong(offset + TIME);
+    duration = slot.getLong(offset + DURATION);
+    bytes = slot.getLong(offset + BYTES);
+    status = slot.getShort(offset + STATUS);
+    protocol = data[offset + PROTOCOL];
+    int addressLength = data[offset + ADDRESS_LENGTH];
+    address = switch (addressLength) {
+      case 4 -> address4;
+      case 16 -> address16;
+      default -> null;
+    };
+    if (address != null) {
+      System.arraycopy(data, offset + ADDRESS, address, 0, addressLength);
+    }
+
+    int pos = offset + TEXT;
+    for (int field = 0; field < starts.length; field++) {
+      lengths[field] = slot.getShort(pos);
+      starts[field] = pos + 2;
+      pos += 2 + lengths[field];
+    }
+  }
+
+  byte[] data() {
+    return data;
+  }
+
+  int start(int field) {
+    return starts[field];
+  }
+
+  int length(int field) {
+    return lengths[field];
+  }
+
+  long time() {
+    return time;
+  }
+
+  long duration() {
+    return duration;
+  }
+
+  long bytes() {
+    return bytes;
+  }
+
+  int status() {
+    return status;
+  }
+
+  int protocol() {
+    return protocol;
+  }
+
+  /**
+   * @return the raw client address, or {@code null} if unknown
+   */
+  byte[] address() {
+    return address;
+  }
+}
@@ -0,0 +1,95 @@
+package org.nexus.accesslog;
+
+/**
+ * Line format of the {@link AccessLog}.
+ */
+public enum AccessLogFormat {
+
+  /**
+   * Common Log Format: {@code 127.0.0.1 - - [10/Oct/2000:13:55:36 -0700] "GET / HTTP/1.1" 200 2326}
+   */
+  COMMON {
+    @Override
+    void format(AccessLogEvent event, AccessLogLine line) {
+      common(event, line);
+    }
+  },
+
+  /**
+   * Common Log Format followed by the quoted {@code Referer} and {@code User-Agent}, as written by
+   * Apache and nginx by default.
+   */
+  COMBINED {
+    @Override
+    void format(AccessLogEvent event, AccessLogLine line) {
+      common(event, line);
+      line.write(' ');
+      line.write('"');
+      line.quotedField(event, AccessLogEvent.REFERER);
+      line.ascii("\" \"");
+      line.quotedField(event, AccessLogEvent.USER_AGENT);
+      line.write('"');
+    }
+  },
+
+  /**
+   * One JSON object per line, with the request ID and duration as well.
+   */
+  JSON {
+    @Override
+    void format(AccessLogEvent event, AccessLogLine line) {
+      line.ascii("{\"time\":\"");
+      line.isoTime(event.time());
+      line.ascii("\",\"remote\":\"");
+      line.address(event);
+      line.ascii("\",\"method\":");
+      line.jsonField(event, AccessLogEvent.METHOD);
+      line.ascii(",\"uri\":");
+      line.jsonField(event, AccessLogEvent.URI);
+      line.ascii(",\"protocol\":\"");
+      line.protocol(event);
+      line.ascii("\",\"status\":");
+      line.number(event.status());
+      line.ascii(",\"bytes\":");
+      line.number(event.bytes());
+      line.ascii(",\"duration_ms\":");
+      line.number(event.duration());
+      line.ascii(",\"request_id\":");
+      line.jsonField(event, AccessLogEvent.REQUEST_ID);
+      line.ascii(",\"referer\":");
+      line.jsonField(event, AccessLogEvent.REFERER);
+      line.ascii(",\"user_agent\":");
+      line.jsonField(event, AccessLogEvent.USER_AGENT);
+      line.write('}');
+    }
+  };
+
+  /**
+   * Appends {@code event} to {@code line}, without the line break.
+   */
+  abstract void format(AccessLogEvent event, AccessLogLine line);
+
+  private static void common(AccessLogEvent event, AccessLogLine line) {
+    line.address(event);
+    line.ascii(" - - [");
+    line.clfTime(event.time());
+    line.ascii("] \"");
+    line.quotedField(event, AccessLogEvent.METHOD);
+    line.write(' ');
+    line.quotedField(event, AccessLogEvent.URI);
+    line.write(' ');
+    line.protocol(event);
+    line.ascii("\" ");
+    if (event.status() == 0) {
+      line.write('-');
+    } else {
+      line.number(event.status());
+    }
+    line.write(' ');
+    if (event.bytes() == 0) {
+      line.write('-');
+    } else {
+      line.number(event.bytes());
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package org.nexus.accesslog;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Line being formatted by the writer thread, reused for every event. Timestamps only change once a
+ * second, so their text is kept until then.
+ */
+final class AccessLogLine extends ByteArrayOutputStream {
+
+  private static final DateTimeFormatter CLF_TIME =
+      DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH)
+          .withZone(ZoneId.systemDefault());
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  private long clfSecond = Long.MIN_VALUE;
+  private byte[] clfTime;
+
+  AccessLogLine() {
+    super(1024);
+  }
+
+  void ascii(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      write(text.charAt(i));
+    }
+  }
+
+  void number(long value) {
+    ascii(Long.toString(value));
+  }
+
+  /**
+   * Appends a text field of {@code event}, {@code -} when empty.
+   */
+  void field(AccessLogEvent event, int field) {
+    int length = event.length(field);
+    if (length == 0) {
+      write('-');
+    } else {
+      write(event.data(), event.start(field), length);
+    }
+  }
+
+  /**
+   * Appends a text field of {@code event} for a quoted string of a text log: quotes and
+   * backslashes escaped, control characters as {@code \xhh}.
+   */
+  void quotedField(AccessLogEvent event, int field) {
+    byte[] data = event.data();
+    int start = event.start(field);
+    int length = event.length(field);
+    if (length == 0) {
+      write('-');
+      return;
+    }
+    for (int i = start; i < start + length; i++) {
+      int b = data[i] & 0xff;
+      if (b == '"' || b == '\\') {
+        write('\\');
+        write(b);
+      } else if (b < 0x20 || b == 0x7f) {
+        write('\\');
+        write('x');
+        write(HEX[b >> 4]);
+        write(HEX[b & 0xf]);
+      } else {
+        write(b);
+      }
+    }
+  }
+
+  /**
+   * Appends a text field of {@code event} as a JSON string, {@code null} when empty.
+   */
+  void jsonField(AccessLogEvent event, int field) {
+    byte[] data = event.data();
+    int start = event.start(field);
+    int length = event.length(field);
+    if (length == 0) {
+      ascii("null");
+      return;
+    }
+    write('"');
+    for (int i = start; i < start + length; i++) {
+      int b = data[i] & 0xff;
+      if (b == '"' || b == '\\') {
+        write('\\');
+        write(b);
+      } else if (b < 0x20) {
+        ascii("\\u00");
+        write(HEX[b >> 4]);
+        write(HEX[b & 0xf]);
+      } else {
+        write(b);
+      }
+    }
+    write('"');
+  }
+
+  void address(AccessLogEvent event) {
+    byte[] address = event.address();
+    if (address == null) {
+      write('-');
+      return;
+    }
+    try {
+      ascii(InetAddress.getByAddress(address).getHostAddress());
+    } catch (UnknownHostException e) {
+      write('-'); // only for an address of the wrong length, which is never stored
+    }
+  }
+
+  /**
+   * Appends the time in Common Log Format, e.g. {@code 10/Oct/2000:13:55:36 -0700}.
+   */
+  void clfTime(long millis) {
+    long second = Math.floorDiv(millis, 1000);
+    if (second != clfSecond) {
+      clfSecond = second;
+      clfTime = CLF_TIME.format(Instant.ofEpochSecond(second))
+          .getBytes(StandardCharsets.US_ASCII);
+    }
+    write(clfTime, 0, clfTime.length);
+  }
+
+  /**
+   * Appends the time as an ISO-8601 instant in UTC, to the millisecond.
+   */
+  void isoTime(long millis) {
+    ascii(Instant.ofEpochMilli(millis).toString());
+  }
+
+  void protocol(AccessLogEvent event) {
+    ascii(event.protocol() == 0 ? "HTTP/1.0" : "HTTP/1.1");
+  }
+}
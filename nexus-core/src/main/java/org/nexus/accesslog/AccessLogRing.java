@@ -0,0 +1,106 @@
+package org.nexus.accesslog;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded ring of fixed-size slots, written by any number of threads and read by one. Writers
+ * claim a slot with a single CAS and never wait: when the reader is a full ring behind, the claim
+ * fails and the caller drops the event.
+ *
+ * <p>Each slot has a sequence number telling whose turn it is: {@code pos} when free for the
+ * writer of position {@code pos}, {@code pos + 1} once that writer published it, and
+ * {@code pos + capacity} once the reader is done with it.
+ */
+final class AccessLogRing {
+
+  static final int SLOT_SIZE = 512;
+  private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private final int capacity;
+  private final int mask;
+  private final long[] sequences;
+  private final ByteBuffer slots;
+  private final AtomicLong tail = new AtomicLong();
+  // Reader only
+  private long head;
+
+  /**
+   * @param capacity Number of slots, rounded up to a power of two. A single slot can't tell a
+   *     published slot from the next free one, so there must be at least two.
+   */
+  AccessLogRing(int capacity) {
+    if (capacity < 2 || capacity > 1 << 20) {
+      throw new IllegalArgumentException("capacity must be between 2 and 2^20: " + capacity);
+    }
+    this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = this.capacity - 1;
+    this.sequences = new long[this.capacity];
+    for (int i = 0; i < this.capacity; i++) {
+      sequences[i] = i;
+    }
+    this.slots = ByteBuffer.allocate(this.capacity * SLOT_SIZE);
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+  ByteBuffer slots() {
+    return slots;
+  }
+
+  /**
+   * @return the position claimed, or {@code -1} if the ring is full
+   */
+  long claim() {
+    long pos = tail.get();
+    while (true) {
+      long seq = (long) SEQUENCE.getAcquire(sequences, (int) pos & mask);
+      long diff = seq - pos;
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          return pos;
+        }
+        pos = tail.get();
+      } else if (diff < 0) {
+        return -1;
+      } else {
+        // Another writer took it first
+        pos = tail.get();
+      }
+    }
+  }
+
+  /**
+   * @return the byte offset of the slot at {@code pos}
+   */
+  int offset(long pos) {
+    return ((int) pos & mask) * SLOT_SIZE;
+  }
+
+  /**
+   * Hands the slot at {@code pos} to the reader.
+   */
+  void publish(long pos) {
+    SEQUENCE.setRelease(sequences, (int) pos & mask, pos + 1);
+  }
+
+  /**
+   * @return the byte offset of the next published slot, or {@code -1} if there is none yet
+   */
+  int peek() {
+    long seq = (long) SEQUENCE.getAcquire(sequences, (int) head & mask);
+    return seq == head + 1 ? offset(head) : -1;
+  }
+
+  /**
+   * Gives the slot returned by {@link #peek()} back to the writers.
+   */
+  void release() {
+    SEQUENCE.setRelease(sequences, (int) head & mask, head + capacity);
+    head++;
+  }
+}
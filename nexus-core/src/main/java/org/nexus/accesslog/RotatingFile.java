@@ -0,0 +1,89 @@
+package org.nexus.accesslog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends to a file and rolls it over once it would grow past a size: {@code access.log} becomes
+ * {@code access.log.1}, {@code access.log.1} becomes {@code access.log.2} and so on, the oldest
+ * being deleted. Used by one thread only.
+ */
+final class RotatingFile implements Closeable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path path;
+  private final long maxSize;
+  private final int maxFiles;
+  private OutputStream out;
+  private long size;
+
+  /**
+   * @param maxFiles Rolled over files to keep, besides the current one
+   */
+  RotatingFile(Path path, long maxSize, int maxFiles) throws IOException {
+    this.path = path;
+    this.maxSize = maxSize;
+    this.maxFiles = maxFiles;
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    open();
+  }
+
+  void write(ByteArrayOutputStream line) throws IOException {
+    if (size > 0 && size + line.size() > maxSize) {
+      rotate();
+    }
+    line.writeTo(out);
+    size += line.size();
+  }
+
+  void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  private void open() throws IOException {
+    out = new BufferedOutputStream(Files.newOutputStream(
+        path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), BUFFER_SIZE);
+    size = Files.size(path);
+  }
+
+  private void rotate() throws IOException {
+    out.close();
+    try {
+      if (maxFiles == 0) {
+        Files.delete(path);
+      } else {
+        Files.deleteIfExists(rolled(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+          Path from = rolled(i);
+          if (Files.exists(from)) {
+            Files.move(from, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+          }
+        }
+        Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      // Keeps logging to the same file if it couldn't be moved
+      open();
+    }
+  }
+
+  private Path rolled(int index) {
+    return path.resolveSibling(path.getFileName() + "." + index);
+  }
+}
@@ -0,0 +1,56 @@
+package org.nexus.config;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import org.nexus.NexusConfig;
+import org.nexus.accesslog.AccessLogFormat;
+
+/**
+ * Configuration for the {@link org.nexus.accesslog.AccessLog}.
+ *
+ * @param enabled    Whether responses are written to an access log file
+ * @param format     Line format
+ * @param path       File written to; rolled over files get {@code .1}, {@code .2}... appended
+ * @param maxSize    Size in bytes past which the file is rolled over
+ * @param maxFiles   Rolled over files to keep
+ * @param bufferSize Events that can wait to be written before new ones are dropped, at least 2
+ */
+public record AccessLogConfig(
+    boolean enabled,
+    AccessLogFormat format,
+    Path path,
+    long maxSize,
+    int maxFiles,
+    int bufferSize
+) {
+
+  public AccessLogConfig {
+    Objects.requireNonNull(format, "format cannot be null");
+    Objects.requireNonNull(path, "path cannot be null");
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    if (maxFiles < 0) {
+      throw new IllegalArgumentException("maxFiles must not be negative");
+    }
+    if (bufferSize < 2) {
+      throw new IllegalArgumentException("bufferSize must be at least 2");
+    }
+  }
+
+  public static AccessLogConfig disabled() {
+    return new AccessLogConfig(
+        false, AccessLogFormat.COMBINED, Path.of("logs/access.log"), 10_485_760, 5, 8192);
+  }
+
+  public static AccessLogConfig from(NexusConfig config) {
+    return new AccessLogConfig(
+        config.getBoolean("ACCESS_LOG_ENABLED", false),
+        AccessLogFormat.valueOf(config.get("ACCESS_LOG_FORMAT", "COMBINED").toUpperCase()),
+        Path.of(config.get("ACCESS_LOG_PATH", "logs/access.log")),
+        config.getInt("ACCESS_LOG_MAX_SIZE", 10_485_760),
+        config.getInt("ACCESS_LOG_MAX_FILES", 5),
+        config.getInt("ACCESS_LOG_BUFFER_SIZE", 8192)
+    );
+  }
+}
@@ -0,0 +1,47 @@
+package org.nexus.config;
+
+import org.nexus.NexusConfig;
+
+/**
+ * Configuration for the adaptive admission control in front of route execution.
+ *
+ * @param enabled      Whether requests are subject to an adaptive concurrency limit
+ * @param perRoute     Whether each route also gets its own limit, on top of the global one
+ * @param initialLimit Limit to start from before any latency is observed
+ * @param minLimit     Lowest the limit can go
+ * @param maxLimit     Highest the limit can go
+ * @param retryAfter   Seconds sent in the {@code Retry-After} header of rejected requests
+ */
+public record ConcurrencyLimitConfig(
+    boolean enabled,
+    boolean perRoute,
+    int initialLimit,
+    int minLimit,
+    int maxLimit,
+    int retryAfter
+) {
+
+  public ConcurrencyLimitConfig {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Invalid limits: min=" + minLimit + ", max=" + maxLimit);
+    }
+    if (retryAfter < 0) {
+      throw new IllegalArgumentException("retryAfter must not be negative");
+    }
+  }
+
+  public static ConcurrencyLimitConfig disabled() {
+    return new ConcurrencyLimitConfig(false, false, 100, 10, 1000, 1);
+  }
+
+  public static ConcurrencyLimitConfig from(NexusConfig config) {
+    return new ConcurrencyLimitConfig(
+        config.getBoolean("CONCURRENCY_LIMIT_ENABLED", false),
+        config.getBoolean("CONCURRENCY_LIMIT_PER_ROUTE", false),
+        config.getInt("CONCURRENCY_LIMIT_INITIAL", 100),
+        config.getInt("CONCURRENCY_LIMIT_MIN", 10),
+        config.getInt("CONCURRENCY_LIMIT_MAX", 1000),
+        config.getInt("CONCURRENCY_LIMIT_RETRY_AFTER", 1)
+    );
+  }
+}
@@ -0,0 +1,63 @@
+package org.nexus.config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.nexus.NexusConfig;
+
+/**
+ * Configuration for cross-origin requests, answered by
+ * {@link org.nexus.middleware.CorsMiddleware}.
+ *
+ * @param enabled          Whether cross-origin requests are allowed at all
+ * @param allowedOrigins   Origins allowed to call the server: exact ({@code https://app.example}),
+ *                         a wildcard subdomain ({@code https://*.example.com}) or {@code *} for any
+ * @param allowedMethods   {@code Access-Control-Allow-Methods} of preflight responses; empty for
+ *                         the methods the requested path has
+ * @param allowedHeaders   {@code Access-Control-Allow-Headers} of preflight responses
+ * @param exposedHeaders   {@code Access-Control-Expose-Headers}, empty for none
+ * @param allowCredentials Whether browsers may send cookies and authorization headers
+ * @param maxAgeSeconds    How long browsers may cache a preflight response
+ */
+public record CorsConfig(
+    boolean enabled,
+    List<String> allowedOrigins,
+    String allowedMethods,
+    String allowedHeaders,
+    String exposedHeaders,
+    boolean allowCredentials,
+    int maxAgeSeconds
+) {
+
+  public CorsConfig {
+    allowedOrigins = List.copyOf(allowedOrigins);
+    Objects.requireNonNull(allowedMethods, "allowedMethods cannot be null");
+    Objects.requireNonNull(allowedHeaders, "allowedHeaders cannot be null");
+    Objects.requireNonNull(exposedHeaders, "exposedHeaders cannot be null");
+    if (enabled && allowedOrigins.isEmpty()) {
+      throw new IllegalArgumentException("CORS is enabled but no origin is allowed");
+    }
+    if (maxAgeSeconds < 0) {
+      throw new IllegalArgumentException("maxAgeSeconds must not be negative");
+    }
+  }
+
+  public static CorsConfig disabled() {
+    return new CorsConfig(false, List.of(), "", "", "", false, 0);
+  }
+
+  public static CorsConfig from(NexusConfig config) {
+    return new CorsConfig(
+        config.getBoolean("CORS_ENABLED", false),
+        Arrays.stream(config.get("CORS_ALLOWED_ORIGINS", "").split(","))
+            .map(String::trim)
+            .filter(origin -> !origin.isEmpty())
+            .toList(),
+        config.get("CORS_ALLOWED_METHODS", ""),
+        config.get("CORS_ALLOWED_HEADERS", "Content-Type, Authorization"),
+        config.get("CORS_EXPOSED_HEADERS", ""),
+        config.getBoolean("CORS_ALLOW_CREDENTIALS", false),
+        config.getInt("CORS_MAX_AGE", 600)
+    );
+  }
+}
@@ -0,0 +1,46 @@
+package org.nexus.config;
+
+import org.nexus.NexusConfig;
+
+/**
+ * Configuration for the {@link org.nexus.metrics.EventLoopMonitor}.
+ *
+ * @param enabled           Whether the worker event loops are probed
+ * @param intervalMillis    Time between two probes of a loop
+ * @param blockedMillis     Time a probe can wait before the loop counts as blocked and its stack
+ *                          trace is logged
+ * @param slowHandlerMillis Time a route can spend on the event loop, before it returns or hands
+ *                          off its work, before it is reported as slow
+ */
+public record EventLoopMonitorConfig(
+    boolean enabled,
+    long intervalMillis,
+    long blockedMillis,
+    long slowHandlerMillis
+) {
+
+  public EventLoopMonitorConfig {
+    if (intervalMillis < 1) {
+      throw new IllegalArgumentException("intervalMillis must be positive");
+    }
+    if (blockedMillis < intervalMillis) {
+      throw new IllegalArgumentException("blockedMillis must not be less than intervalMillis");
+    }
+    if (slowHandlerMillis < 0) {
+      throw new IllegalArgumentException("slowHandlerMillis must not be negative");
+    }
+  }
+
+  public static EventLoopMonitorConfig disabled() {
+    return new EventLoopMonitorConfig(false, 100, 1000, 50);
+  }
+
+  public static EventLoopMonitorConfig from(NexusConfig config) {
+    return new EventLoopMonitorConfig(
+        config.getBoolean("EVENT_LOOP_MONITOR_ENABLED", true),
+        config.getInt("EVENT_LOOP_MONITOR_INTERVAL_MS", 100),
+        config.getInt("EVENT_LOOP_BLOCKED_MS", 1000),
+        config.getInt("EVENT_LOOP_SLOW_HANDLER_MS", 50)
+    );
+  }
+}
@@ -0,0 +1,40 @@
+package org.nexus.config;
+
+import java.util.Objects;
+import org.nexus.NexusConfig;
+
+/**
+ * Configuration for the built-in Prometheus scrape endpoint.
+ *
+ * @param enabled       Whether the server registers the endpoint; it needs metrics to be enabled
+ * @param path          Exact path it is served on
+ * @param refreshMillis How long a rendered exposition is served before it is rendered again
+ */
+public record MetricsEndpointConfig(
+    boolean enabled,
+    String path,
+    long refreshMillis
+) {
+
+  public MetricsEndpointConfig {
+    Objects.requireNonNull(path, "path cannot be null");
+    if (!path.startsWith("/")) {
+      throw new IllegalArgumentException("path must start with '/'");
+    }
+    if (refreshMillis < 0) {
+      throw new IllegalArgumentException("refreshMillis must not be negative");
+    }
+  }
+
+  public static MetricsEndpointConfig disabled() {
+    return new MetricsEndpointConfig(false, "/metrics", 5000);
+  }
+
+  public static MetricsEndpointConfig from(NexusConfig config) {
+    return new MetricsEndpointConfig(
+        config.getBoolean("METRICS_ENDPOINT_ENABLED", false),
+        config.get("METRICS_ENDPOINT_PATH", "/metrics"),
+        config.getInt("METRICS_ENDPOINT_REFRESH_MS", 5000)
+    );
+  }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Objects;
 import org.nexus.NexusConfig;
 import org.nexus.interfaces.Middleware;
+import org.nexus.interfaces.SpanExporter;
 
 /**
  * Configuration class for Nexus server.
@@ -15,7 +16,16 @@ public class ServerConfig {
   private final int port;
   private final int idleTimeoutSeconds;
   private final int maxContentLength;
+  private final boolean webSocketCompression;
   private final SslConfig sslConfig;
+  private final ConcurrencyLimitConfig concurrencyLimit;
+  private final CorsConfig cors;
+  private final AccessLogConfig accessLog;
+  private final boolean metricsEnabled;
+  private final MetricsEndpointConfig metricsEndpoint;
+  private final EventLoopMonitorConfig eventLoopMonitor;
+  private final TracingConfig tracing;
+  private final SpanExporter spanExporter;
   private final List<Middleware> middlewares;
 
   private ServerConfig(Builder builder) {
@@ -23,7 +33,16 @@ public class ServerConfig {
     this.port = builder.port;
     this.idleTimeoutSeconds = builder.idleTimeoutSeconds;
     this.maxContentLength = builder.maxContentLength;
+    this.webSocketCompression = builder.webSocketCompression;
     this.sslConfig = builder.sslConfig;
+    this.concurrencyLimit = builder.concurrencyLimit;
+    this.cors = builder.cors;
+    this.accessLog = builder.accessLog;
+    this.metricsEnabled = builder.metricsEnabled;
+    this.metricsEndpoint = builder.metricsEndpoint;
+    this.eventLoopMonitor = builder.eventLoopMonitor;
+    this.tracing = builder.tracing;
+    this.spanExporter = builder.spanExporter;
     this.middlewares = List.copyOf(builder.middlewares); // immutable
   }
 
@@ -33,7 +52,15 @@ public class ServerConfig {
         .port(config.getInt("SERVER_PORT", 15000))
         .idleTimeoutSeconds(config.getInt("IDLE_TIMEOUT_SECONDS", 300))
         .maxContentLength(config.getInt("MAX_CONTENT_LENGTH", 10_485_760))
+        .webSocketCompression(config.getBoolean("WEBSOCKET_COMPRESSION", false))
         .sslConfig(config.getBoolean("SSL_ENABLED", false) ? SslConfig.fromConfig() : null)
+        .concurrencyLimit(ConcurrencyLimitConfig.from(config))
+        .cors(CorsConfig.from(config))
+        .accessLog(AccessLogConfig.from(config))
+        .metricsEnabled(config.getBoolean("METRICS_ENABLED", true))
+        .metricsEndpoint(MetricsEndpointConfig.from(config))
+        .eventLoopMonitor(EventLoopMonitorConfig.from(config))
+        .tracing(TracingConfig.from(config))
         .build();
   }
 
@@ -58,6 +85,13 @@ public class ServerConfig {
     return maxContentLength;
   }
 
+  /**
+   * @return whether WebSocket upgrades negotiate permessage-deflate
+   */
+  public boolean isWebSocketCompression() {
+    return webSocketCompression;
+  }
+
   public SslConfig getSslConfig() {
     return sslConfig;
   }
@@ -66,6 +100,45 @@ public class ServerConfig {
     return sslConfig != null;
   }
 
+  public ConcurrencyLimitConfig getConcurrencyLimit() {
+    return concurrencyLimit;
+  }
+
+  public CorsConfig getCors() {
+    return cors;
+  }
+
+  public AccessLogConfig getAccessLog() {
+    return accessLog;
+  }
+
+  /**
+   * @return whether the server records per-route {@link org.nexus.metrics.NexusMetrics}
+   */
+  public boolean isMetricsEnabled() {
+    return metricsEnabled;
+  }
+
+  public MetricsEndpointConfig getMetricsEndpoint() {
+    return metricsEndpoint;
+  }
+
+  public EventLoopMonitorConfig getEventLoopMonitor() {
+    return eventLoopMonitor;
+  }
+
+  public TracingConfig getTracing() {
+    return tracing;
+  }
+
+  /**
+   * @return the exporter spans are sent to, or {@code null} to write them to the file of
+   *     {@link #getTracing()}
+   */
+  public SpanExporter getSpanExporter() {
+    return spanExporter;
+  }
+
   public List<Middleware> getMiddlewares() {
     return middlewares;
   }
@@ -77,7 +150,16 @@ public class ServerConfig {
     private int port = 15000;
     private int idleTimeoutSeconds = 300;
     private int maxContentLength = 10_485_760; // 10MB
+    private boolean webSocketCompression = false;
     private SslConfig sslConfig = null;
+    private ConcurrencyLimitConfig concurrencyLimit = ConcurrencyLimitConfig.disabled();
+    private CorsConfig cors = CorsConfig.disabled();
+    private AccessLogConfig accessLog = AccessLogConfig.disabled();
+    private boolean metricsEnabled = true;
+    private MetricsEndpointConfig metricsEndpoint = MetricsEndpointConfig.disabled();
+    private EventLoopMonitorConfig eventLoopMonitor = EventLoopMonitorConfig.disabled();
+    private TracingConfig tracing = TracingConfig.disabled();
+    private SpanExporter spanExporter = null;
 
     public Builder bindAddress(String bindAddress) {
       this.bindAddress = bindAddress;
@@ -99,11 +181,56 @@ public class ServerConfig {
       return this;
     }
 
+    public Builder webSocketCompression(boolean webSocketCompression) {
+      this.webSocketCompression = webSocketCompression;
+      return this;
+    }
+
     public Builder sslConfig(SslConfig sslConfig) {
       this.sslConfig = sslConfig;
       return this;
     }
 
+    public Builder concurrencyLimit(ConcurrencyLimitConfig concurrencyLimit) {
+      this.concurrencyLimit = Objects.requireNonNull(concurrencyLimit);
+      return this;
+    }
+
+    public Builder cors(CorsConfig cors) {
+      this.cors = Objects.requireNonNull(cors);
+      return this;
+    }
+
+    public Builder accessLog(AccessLogConfig accessLog) {
+      this.accessLog = Objects.requireNonNull(accessLog);
+      return this;
+    }
+
+    public Builder metricsEnabled(boolean metricsEnabled) {
+      this.metricsEnabled = metricsEnabled;
+      return this;
+    }
+
+    public Builder metricsEndpoint(MetricsEndpointConfig metricsEndpoint) {
+      this.metricsEndpoint = Objects.requireNonNull(metricsEndpoint);
+      return this;
+    }
+
+    public Builder eventLoopMonitor(EventLoopMonitorConfig eventLoopMonitor) {
+      this.eventLoopMonitor = Objects.requireNonNull(eventLoopMonitor);
+      return this;
+    }
+
+    public Builder tracing(TracingConfig tracing) {
+      this.tracing = Objects.requireNonNull(tracing);
+      return this;
+    }
+
+    public Builder spanExporter(SpanExporter spanExporter) {
+      this.spanExporter = spanExporter;
+      return this;
+    }
+
     public Builder middleware(Middleware middleware) {
       this.middlewares.add(Objects.requireNonNull(middleware));
       return this;
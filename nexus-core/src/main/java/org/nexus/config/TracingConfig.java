@@ -0,0 +1,59 @@
+package org.nexus.config;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import org.nexus.NexusConfig;
+
+/**
+ * Configuration for tracing, see {@link org.nexus.tracing.NexusTracing}.
+ *
+ * @param enabled        Whether requests are traced
+ * @param serviceName    {@code service.name} of the exported spans
+ * @param path           OTLP/JSON file spans are appended to, unless the server is given its own
+ *                       exporter
+ * @param sampleRatio    Share of new traces recorded, from 0 to 1. Traces started by a caller
+ *                       follow the caller's {@code traceparent}
+ * @param bufferSize     Spans that can wait to be exported before new ones are dropped
+ * @param batchSize      Most spans exported at once
+ * @param intervalMillis Longest a span waits for its batch to fill
+ */
+public record TracingConfig(
+    boolean enabled,
+    String serviceName,
+    Path path,
+    double sampleRatio,
+    int bufferSize,
+    int batchSize,
+    long intervalMillis
+) {
+
+  public TracingConfig {
+    Objects.requireNonNull(serviceName, "serviceName cannot be null");
+    Objects.requireNonNull(path, "path cannot be null");
+    if (sampleRatio < 0 || sampleRatio > 1) {
+      throw new IllegalArgumentException("sampleRatio must be between 0 and 1");
+    }
+    if (bufferSize < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("bufferSize and batchSize must be positive");
+    }
+    if (intervalMillis < 1) {
+      throw new IllegalArgumentException("intervalMillis must be positive");
+    }
+  }
+
+  public static TracingConfig disabled() {
+    return new TracingConfig(false, "nexus", Path.of("logs/traces.jsonl"), 1.0, 2048, 512, 5000);
+  }
+
+  public static TracingConfig from(NexusConfig config) {
+    return new TracingConfig(
+        config.getBoolean("TRACING_ENABLED", false),
+        config.get("TRACING_SERVICE_NAME", "nexus"),
+        Path.of(config.get("TRACING_PATH", "logs/traces.jsonl")),
+        Double.parseDouble(config.get("TRACING_SAMPLE_RATIO", "1.0")),
+        config.getInt("TRACING_BUFFER_SIZE", 2048),
+        config.getInt("TRACING_BATCH_SIZE", 512),
+        config.getInt("TRACING_EXPORT_INTERVAL_MS", 5000)
+    );
+  }
+}
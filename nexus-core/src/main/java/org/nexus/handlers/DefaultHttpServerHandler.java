@@ -1,48 +1,110 @@
 package org.nexus.handlers;
 
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpChunkedInput;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpUtil;
-import io.netty.handler.codec.http.QueryStringDecoder;
-import io.netty.util.AttributeKey;
-import io.netty.util.CharsetUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.Future;
 import java.nio.channels.ClosedChannelException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import org.nexus.CachedHttpResponse;
+import org.nexus.NexusFormats;
 import org.nexus.RequestContext;
 import org.nexus.Response;
 import org.nexus.Route;
 import org.nexus.RoutesResolver;
 import org.nexus.RoutesResolver.RouteMatch;
+import org.nexus.SharedHttpResponse;
+import org.nexus.SseResponse;
+import org.nexus.StreamingResponse;
+import org.nexus.WebSocketResponse;
+import org.nexus.enums.BodyFormat;
 import org.nexus.enums.ProblemDetailsTypes;
+import org.nexus.enums.SpanKind;
 import org.nexus.exceptions.ProblemDetailsException;
 import org.nexus.interfaces.Middleware;
 import org.nexus.interfaces.MiddlewareChain;
 import org.nexus.interfaces.ProblemDetails;
 import org.nexus.interfaces.ProblemDetails.Single;
+import org.nexus.jfr.MiddlewareChainEvent;
+import org.nexus.jfr.ResponseWriteEvent;
+import org.nexus.jfr.RouteHandleEvent;
+import org.nexus.jfr.SerializationEvent;
+import org.nexus.limiter.AdmissionController;
+import org.nexus.limiter.AdmissionController.Permit;
+import org.nexus.metrics.EventLoopMonitor;
+import org.nexus.metrics.NexusMetrics;
+import org.nexus.metrics.RouteMetrics;
 import org.nexus.middleware.DefaultMiddlewareChain;
+import org.nexus.tracing.NexusTracing;
+import org.nexus.tracing.Span;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class DefaultHttpServerHandler extends SimpleChannelInboundHandler<HttpObject> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultHttpServerHandler.class);
-  private static final AttributeKey<RequestContext> REQUEST_CONTEXT_KEY =
-      AttributeKey.valueOf("requestContext");
+  private static final AsciiString LAST_EVENT_ID = AsciiString.cached("Last-Event-ID");
+  private static final AsciiString X_RESPONSE_TIME = AsciiString.cached("X-Response-Time");
+  // nginx's code for a request the client gave up on before the response was written
+  private static final int CLIENT_CLOSED_REQUEST = 499;
   private final List<Middleware> middlewares;
+  private final AdmissionController admissionController;
+  private final NexusMetrics metrics;
+  private final EventLoopMonitor eventLoopMonitor;
 
   public DefaultHttpServerHandler(List<Middleware> middlewares) {
+    this(middlewares, null);
+  }
+
+  public DefaultHttpServerHandler(
+      List<Middleware> middlewares,
+      AdmissionController admissionController
+  ) {
+    this(middlewares, admissionController, null, null);
+  }
+
+  /**
+   * @param middlewares         Middlewares to run before every route
+   * @param admissionController Shared admission control, or {@code null} to admit everything
+   * @param metrics             Shared per-route metrics, or {@code null} to record none
+   * @param eventLoopMonitor    Monitor told how long each request ran on the event loop, or
+   *                            {@code null}
+   */
+  public DefaultHttpServerHandler(
+      List<Middleware> middlewares,
+      AdmissionController admissionController,
+      NexusMetrics metrics,
+      EventLoopMonitor eventLoopMonitor
+  ) {
     this.middlewares = List.copyOf(
         Objects.requireNonNull(middlewares, "middlewares cannot be null"));
+    this.admissionController = admissionController;
+    this.metrics = metrics;
+    this.eventLoopMonitor = eventLoopMonitor;
   }
 
   @Override
@@ -56,71 +118,443 @@ public class DefaultHttpServerHandler extends SimpleChannelInboundHandler<HttpOb
     String rawUri = request.uri();
     int qIndex = rawUri.indexOf('?');
     String path = (qIndex < 0) ? rawUri : rawUri.substring(0, qIndex);
-    Map<String, List<String>> queryParams =
-        (qIndex < 0)
-            ? Map.of()
-            : new QueryStringDecoder(rawUri, CharsetUtil.UTF_8).parameters();
 
     RouteMatch match = RoutesResolver.findMatchingRoute(method, path);
+    if (match == null && HttpMethod.HEAD.equals(request.method())) {
+      // HEAD runs the GET route, the codec leaves the body out
+      match = RoutesResolver.findMatchingRoute(HttpMethod.GET.name(), path);
+    }
     if (match == null) {
-      sendResponse(ctx, new Response<>(404, "Not Found"), keepAlive);
+      String allowed = RoutesResolver.findAllowedMethods(path);
+      if (allowed != null && HttpMethod.OPTIONS.equals(request.method())) {
+        // No route, but middleware still sees it, e.g. to answer a CORS preflight
+        RequestContext requestContext =
+            new RequestContext(ctx, request.retain(), Map.of(), (Route<?>) null);
+        recordStarted(requestContext);
+        runChain(requestContext, () -> sendOptions(requestContext, allowed, keepAlive), null,
+            keepAlive);
+      } else {
+        long startNanos = System.nanoTime();
+        int status = sendUnmatched(ctx, allowed, keepAlive);
+        recordAnswered(null, request, status, startNanos);
+      }
       return;
     }
 
     Route<?> route = match.route();
-    Map<String, String> pathParams = match.params();
-    RequestContext requestContext = new RequestContext(ctx, request, pathParams, queryParams);
-    // Store the context in the channel's attributes, so we can use it in the sendResponse()
-    ctx.channel().attr(REQUEST_CONTEXT_KEY).set(requestContext);
-
-    // Create a middleware chain with route execution as the final action
-    MiddlewareChain chain = DefaultMiddlewareChain.create(
-        middlewares,
-        () -> executeRoute(route, requestContext, keepAlive)
-    );
+    Permit permit = null;
+    if (admissionController != null) {
+      // Admit before the middleware chain, so shedding costs as little as possible
+      permit = admissionController.tryAcquire(route);
+      if (permit == null) {
+        long startNanos = System.nanoTime();
+        sendRejection(ctx, keepAlive);
+        recordAnswered(route, request, HttpResponseStatus.SERVICE_UNAVAILABLE.code(), startNanos);
+        return;
+      }
+    }
+
+    // Query params and body are decoded on demand, so the request must outlive channelRead0
+    RequestContext requestContext =
+        new RequestContext(ctx, request.retain(), match.params(), route);
+    recordStarted(requestContext);
+    runChain(requestContext, new RouteCall(route, requestContext, permit, keepAlive), permit,
+        keepAlive);
+  }
 
-    // Start the middleware chain
+  /**
+   * Runs the middleware chain, then {@code finalAction} unless a middleware answered the request
+   * itself.
+   *
+   * @param permit The request's admission permit, or {@code null} if it wasn't admitted
+   */
+  private void runChain(
+      RequestContext requestContext,
+      Runnable finalAction,
+      Permit permit,
+      boolean keepAlive
+  ) {
+    ChannelHandlerContext ctx = requestContext.getCtx();
+    MiddlewareChain chain = DefaultMiddlewareChain.create(middlewares, finalAction);
+    MiddlewareChainEvent event = new MiddlewareChainEvent();
+    event.begin();
+    Span span = NexusTracing.startSpan("middleware", SpanKind.INTERNAL, requestContext.getSpan());
     try {
-      chain.next(requestContext);
+      if (span == null) {
+        chain.next(requestContext);
+      } else {
+        NexusTracing.call(span, () -> {
+          chain.next(requestContext);
+          return null;
+        });
+      }
     } catch (Exception e) {
-      handleError(ctx, e, keepAlive);
+      if (span != null) {
+        span.setError(e);
+      }
+      if (finalAction instanceof RouteCall call && call.started) {
+        // The route may still be running elsewhere; it answers and releases the request once its
+        // future completes
+        LOGGER.error("Middleware failed after calling the route", e);
+      } else {
+        handleError(requestContext, e, permit, keepAlive);
+        requestContext.release();
+      }
+      return;
+    } finally {
+      if (span != null) {
+        span.end();
+      }
+      event.end();
+      if (event.shouldCommit()) {
+        event.route = Objects.toString(requestContext.getRoute(), null);
+        event.middlewares = middlewares.size();
+        event.commit();
+      }
+      if (eventLoopMonitor != null) {
+        // Whatever the route didn't hand off ran here, holding up the loop's other channels
+        eventLoopMonitor.handled(
+            requestContext.getRoute(), System.nanoTime() - requestContext.getStartNanos());
+      }
+    }
+
+    FullHttpResponse answered = requestContext.getMiddlewareResponse();
+    if (answered != null) {
+      writeResponse(ctx, answered, requestContext, permit, keepAlive);
+      requestContext.release();
+    }
+  }
+
+  /**
+   * Answers an {@code OPTIONS} request no route takes with the methods its path has.
+   */
+  private void sendOptions(RequestContext requestContext, String allowed, boolean keepAlive) {
+    FullHttpResponse options = new DefaultFullHttpResponse(
+        HttpVersion.HTTP_1_1, HttpResponseStatus.NO_CONTENT, Unpooled.EMPTY_BUFFER);
+    options.headers().set(HttpHeaderNames.ALLOW, allowed);
+    writeResponse(requestContext.getCtx(), options, requestContext, null, keepAlive);
+    requestContext.release();
+  }
+
+  /**
+   * Answers a request no route takes without running middleware: a {@code 405} if its path has
+   * other methods, a {@code 404} if it has none.
+   *
+   * @return the status sent
+   */
+  private int sendUnmatched(ChannelHandlerContext ctx, String allowed, boolean keepAlive) {
+    if (allowed == null) {
+      writeResponse(ctx, ErrorResponses.NOT_FOUND.retainedDuplicate(), null, null, keepAlive);
+      return HttpResponseStatus.NOT_FOUND.code();
     }
+    FullHttpResponse notAllowed = ErrorResponses.METHOD_NOT_ALLOWED.retainedDuplicate();
+    notAllowed.headers().set(HttpHeaderNames.ALLOW, allowed);
+    writeResponse(ctx, notAllowed, null, null, keepAlive);
+    return HttpResponseStatus.METHOD_NOT_ALLOWED.code();
   }
 
-  private void executeRoute(Route<?> route, RequestContext ctx, boolean keepAlive) {
-    route.handle(ctx).whenComplete((response, error) -> {
+  private void executeRoute(
+      Route<?> route,
+      RequestContext ctx,
+      Permit permit,
+      boolean keepAlive
+  ) {
+    RouteHandleEvent event = RouteHandleEvent.enabled() ? new RouteHandleEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    // A sibling of the middleware span, though the chain calls it
+    Span span = ctx.getSpan() != null
+        ? NexusTracing.startSpan("handle " + route, SpanKind.INTERNAL, ctx.getSpan())
+        : null;
+    CompletableFuture<? extends Response<?>> future = span != null
+        ? NexusTracing.call(span, () -> route.handle(ctx))
+        : route.handle(ctx);
+    future.whenComplete((response, error) -> {
+      if (span != null) {
+        if (error != null) {
+          span.setError(error instanceof CompletionException ? error.getCause() : error);
+        }
+        span.end();
+      }
+      if (event != null) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.route = route.toString();
+          event.failed = error != null;
+          event.commit();
+        }
+      }
       try {
         if (error != null) {
-          handleError(ctx.getCtx(), error, keepAlive);
+          handleError(ctx, error, permit, keepAlive);
           return;
         }
 
-        sendResponse(ctx.getCtx(), response, keepAlive);
+        sendResponse(ctx, response, permit, keepAlive);
       } catch (Exception e) {
-        handleError(ctx.getCtx(), e, keepAlive);
+        handleError(ctx, e, permit, keepAlive);
+      } finally {
+        ctx.release();
       }
     });
   }
 
-  private void sendResponse(ChannelHandlerContext ctx, Response<?> response, boolean keepAlive) {
+  private void sendResponse(
+      RequestContext requestContext,
+      Response<?> response,
+      Permit permit,
+      boolean keepAlive
+  ) {
+    ChannelHandlerContext ctx = requestContext.getCtx();
     if (!ctx.channel().isActive()) {
       LOGGER.debug("Channel closed, skipping response send");
+      if (permit != null) {
+        permit.cancel();
+      }
+      recordCompleted(requestContext, CLIENT_CLOSED_REQUEST, 0);
+      if (response instanceof SharedHttpResponse<?> shared) {
+        shared.release();
+      } else if (response instanceof StreamingResponse<?> streaming) {
+        streaming.discard();
+      }
+      return;
+    }
+
+    BodyFormat format = NexusFormats.responseFormat(requestContext);
+    // Full responses to HEAD lose their body in the codec, streams aren't started at all
+    boolean headOnly = HttpMethod.HEAD.equals(requestContext.getRequest().method());
+    if (response instanceof StreamingResponse<?> streaming) {
+      sendStreaming(ctx, streaming, format, requestContext, permit, keepAlive, headOnly);
+      return;
+    }
+    if (response instanceof SseResponse sse) {
+      sendEvents(ctx, sse, requestContext, permit, headOnly);
+      return;
+    }
+    if (response instanceof WebSocketResponse webSocket) {
+      sendUpgrade(ctx, webSocket, requestContext, permit, keepAlive);
+      return;
+    }
+
+    SerializationEvent event = new SerializationEvent();
+    event.begin();
+    FullHttpResponse httpResponse = response.toHttpResponse(format);
+    event.end();
+    if (event.shouldCommit()) {
+      event.route = Objects.toString(requestContext.getRoute(), null);
+      event.format = format.name();
+      event.bytes = httpResponse.content().readableBytes();
+      event.commit();
+    }
+    writeResponse(ctx, httpResponse, requestContext, permit, keepAlive);
+  }
+
+  private void writeResponse(
+      ChannelHandlerContext ctx,
+      FullHttpResponse httpResponse,
+      RequestContext requestContext,
+      Permit permit,
+      boolean keepAlive
+  ) {
+    addHeaders(httpResponse, requestContext, keepAlive);
+    // A 204 has no body and must not announce one
+    if (httpResponse.status().code() != HttpResponseStatus.NO_CONTENT.code()) {
+      HttpUtil.setContentLength(httpResponse, httpResponse.content().readableBytes());
+    }
+
+    ResponseWriteEvent event = beginWrite();
+    ChannelFuture future = ctx.writeAndFlush(httpResponse);
+    future.addListener(f -> {
+      endWrite(event, f, httpResponse, requestContext);
+      onWritten(ctx, f, httpResponse, requestContext, permit);
+    });
+    if (!keepAlive) {
+      future.addListener(ChannelFutureListener.CLOSE);
+    }
+  }
+
+  /**
+   * @return a started write event, or {@code null} if no recording takes them
+   */
+  private static ResponseWriteEvent beginWrite() {
+    if (!ResponseWriteEvent.enabled()) {
+      return null;
+    }
+    ResponseWriteEvent event = new ResponseWriteEvent();
+    event.begin();
+    return event;
+  }
+
+  private static void endWrite(
+      ResponseWriteEvent event,
+      Future<? super Void> f,
+      FullHttpResponse httpResponse,
+      RequestContext requestContext
+  ) {
+    if (event == null) {
+      return;
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.route = requestContext != null
+          ? Objects.toString(requestContext.getRoute(), null)
+          : null;
+      event.status = httpResponse.status().code();
+      event.bytes = HttpUtil.getContentLength(httpResponse, 0L);
+      event.succeeded = f.isSuccess();
+      event.commit();
+    }
+  }
+
+  /**
+   * Writes the head, then the body as the source produces it. {@link ChunkedWriteHandler} only
+   * reads the next chunk while the channel is writable, which holds the source back.
+   */
+  private void sendStreaming(
+      ChannelHandlerContext ctx,
+      StreamingResponse<?> response,
+      BodyFormat format,
+      RequestContext requestContext,
+      Permit permit,
+      boolean keepAlive,
+      boolean headOnly
+  ) {
+    HttpResponse head = response.head(format);
+    addHeaders(head, requestContext, keepAlive);
+
+    ResponseWriteEvent event = beginWrite();
+    ctx.write(head);
+    ChannelFuture future;
+    if (headOnly) {
+      response.discard();
+      future = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+    } else {
+      future = ctx.writeAndFlush(new HttpChunkedInput(response.chunks(format, () -> {
+        ChunkedWriteHandler chunked = ctx.pipeline().get(ChunkedWriteHandler.class);
+        if (chunked != null) {
+          chunked.resumeTransfer();
+        }
+      })));
+    }
+    FullHttpResponse written = withoutBody(head);
+    future.addListener(f -> {
+      endWrite(event, f, written, requestContext);
+      onWritten(ctx, f, written, requestContext, permit);
+    });
+    future.addListener(f -> {
+      // A body cut short can't be told apart from a complete one but by the connection closing
+      if (!keepAlive || !f.isSuccess()) {
+        ctx.close();
+      }
+    });
+  }
+
+  /**
+   * Sends the event stream head and opens the stream. The request counts as complete once the head
+   * is out, so a long-lived stream doesn't hold an admission permit.
+   */
+  private void sendEvents(
+      ChannelHandlerContext ctx,
+      SseResponse response,
+      RequestContext requestContext,
+      Permit permit,
+      boolean headOnly
+  ) {
+    HttpResponse head = response.head();
+    String lastEventId = requestContext != null
+        ? requestContext.getRequest().headers().get(LAST_EVENT_ID)
+        : null;
+    // The stream ends by closing the connection, either way
+    addHeaders(head, requestContext, false);
+
+    FullHttpResponse written = withoutBody(head);
+    if (headOnly) {
+      ctx.write(head);
+      ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(f -> {
+        onWritten(ctx, f, written, requestContext, permit);
+        ctx.close();
+      });
+      return;
+    }
+    ctx.writeAndFlush(head).addListener(f -> {
+      onWritten(ctx, f, written, requestContext, permit);
+      if (f.isSuccess()) {
+        response.open(ctx.channel(), lastEventId);
+      } else {
+        ctx.close();
+      }
+    });
+  }
+
+  /**
+   * Upgrades the connection to a WebSocket. Like an event stream, the request is complete once the
+   * {@code 101} is out. A plain request to a WebSocket route gets a {@code 426}.
+   */
+  private void sendUpgrade(
+      ChannelHandlerContext ctx,
+      WebSocketResponse response,
+      RequestContext requestContext,
+      Permit permit,
+      boolean keepAlive
+  ) {
+    FullHttpRequest request = requestContext.getRequest();
+    if (!ctx.executor().inEventLoop()) {
+      // The pipeline is rebuilt on the event loop; the request is released once the route is done
+      request.retain();
+      ctx.executor().execute(() -> {
+        try {
+          sendUpgrade(ctx, response, requestContext, permit, keepAlive);
+        } finally {
+          request.release();
+        }
+      });
       return;
     }
+    if (!request.headers().containsValue(
+        HttpHeaderNames.UPGRADE, HttpHeaderValues.WEBSOCKET, true)) {
+      FullHttpResponse upgradeRequired = ErrorResponses.UPGRADE_REQUIRED.retainedDuplicate();
+      upgradeRequired.headers().set(HttpHeaderNames.UPGRADE, HttpHeaderValues.WEBSOCKET);
+      writeResponse(ctx, upgradeRequired, requestContext, permit, keepAlive);
+      return;
+    }
+
+    HttpResponse head =
+        new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.SWITCHING_PROTOCOLS);
+    addHeaders(head, requestContext, false);
+    // The handshake sets its own
+    head.headers().remove(HttpHeaderNames.CONNECTION);
+
+    FullHttpResponse written = withoutBody(head);
+    response.upgrade(ctx, request, head.headers()).addListener(f -> {
+      onWritten(ctx, f, written, requestContext, permit);
+      if (!f.isSuccess()) {
+        ctx.close();
+      }
+    });
+  }
 
-    FullHttpResponse httpResponse = response.toHttpResponse();
-    RequestContext requestContext = ctx.channel().attr(REQUEST_CONTEXT_KEY).get();
+  /**
+   * @return the head of a response whose body is written separately, for completion handlers
+   */
+  private static FullHttpResponse withoutBody(HttpResponse head) {
+    return new DefaultFullHttpResponse(
+        head.protocolVersion(), head.status(), Unpooled.EMPTY_BUFFER,
+        head.headers(), EmptyHttpHeaders.INSTANCE);
+  }
 
-    if (requestContext != null && requestContext.getRequestHeaders() != null) {
+  private void addHeaders(HttpResponse httpResponse, RequestContext requestContext,
+      boolean keepAlive) {
+    if (requestContext != null) {
       requestContext.setRequestDuration();
 
       // Custom headers
-      requestContext.getRequestHeaders().add(
-          "X-Response-Time",
-          requestContext.getRequestDuration());
+      httpResponse.headers().add(X_RESPONSE_TIME, requestContext.getRequestDuration());
 
       // add to the response all the headers from middleware, etc...
-      httpResponse.headers().add(requestContext.getRequestHeaders());
+      if (requestContext.hasRequestHeaders()) {
+        httpResponse.headers().add(requestContext.getRequestHeaders());
+      }
     }
 
     if (keepAlive) {
@@ -128,27 +562,104 @@ public class DefaultHttpServerHandler extends SimpleChannelInboundHandler<HttpOb
     } else {
       httpResponse.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
     }
+  }
 
-    HttpUtil.setContentLength(httpResponse, httpResponse.content().readableBytes());
+  private void onWritten(
+      ChannelHandlerContext ctx,
+      Future<? super Void> f,
+      FullHttpResponse httpResponse,
+      RequestContext requestContext,
+      Permit permit
+  ) {
+    releasePermit(permit, f.isSuccess(), httpResponse.status().code());
+    // The body may be released by now, its size is taken from the header set before writing
+    recordCompleted(
+        requestContext,
+        f.isSuccess() ? httpResponse.status().code() : CLIENT_CLOSED_REQUEST,
+        f.isSuccess() ? HttpUtil.getContentLength(httpResponse, 0L) : 0);
+    if (requestContext != null) {
+      if (!f.isSuccess() && f.cause() instanceof ClosedChannelException) {
+        LOGGER.debug("Channel closed during write, ignoring", f.cause());
+      } else if (!f.isSuccess()) {
 
-    ChannelFuture future = ctx.writeAndFlush(httpResponse);
-    future.addListener(f -> {
-      if (requestContext != null) {
-        if (!f.isSuccess() && f.cause() instanceof ClosedChannelException) {
-          LOGGER.debug("Channel closed during write, ignoring", f.cause());
-        } else if (!f.isSuccess()) {
-
-          requestContext.complete(null, f.cause());  // Other errors
-        } else {
-          requestContext.complete(httpResponse, null);
-        }
+        requestContext.complete(null, f.cause());  // Other errors
+      } else {
+        requestContext.complete(httpResponse, null);
       }
-    });
+    }
+  }
+
+  private void recordStarted(RequestContext requestContext) {
+    if (metrics != null) {
+      metrics.forRoute(requestContext.getRoute())
+          .started(requestContext.getRequest().content().readableBytes());
+    }
+  }
+
+  /**
+   * Records the end of a request counted by {@link #recordStarted(RequestContext)}. Every such
+   * request ends in exactly one of {@link #onWritten} or the closed-channel path of
+   * {@link #sendResponse}.
+   */
+  private void recordCompleted(RequestContext requestContext, int status, long responseBytes) {
+    if (requestContext != null) {
+      requestContext.endRequestEvent(status);
+      requestContext.endSpan(status);
+    }
+    if (metrics != null && requestContext != null) {
+      metrics.forRoute(requestContext.getRoute())
+          .completed(status, responseBytes, System.nanoTime() - requestContext.getStartNanos());
+    }
+  }
+
+  /**
+   * Records a request answered straight away, without a {@link RequestContext}.
+   */
+  private void recordAnswered(
+      Route<?> route,
+      FullHttpRequest request,
+      int status,
+      long startNanos
+  ) {
+    if (metrics != null) {
+      RouteMetrics routeMetrics = metrics.forRoute(route);
+      routeMetrics.started(request.content().readableBytes());
+      routeMetrics.completed(status, 0, System.nanoTime() - startNanos);
+    }
+  }
+
+  private void sendRejection(ChannelHandlerContext ctx, boolean keepAlive) {
+    FullHttpResponse httpResponse = ErrorResponses.SERVICE_UNAVAILABLE.retainedDuplicate();
+    httpResponse.headers().set(
+        HttpHeaderNames.RETRY_AFTER, admissionController.getRetryAfterSeconds());
+    httpResponse.headers().set(
+        HttpHeaderNames.CONNECTION,
+        keepAlive ? HttpHeaderValues.KEEP_ALIVE : HttpHeaderValues.CLOSE);
+
+    ChannelFuture future = ctx.writeAndFlush(httpResponse);
     if (!keepAlive) {
       future.addListener(ChannelFutureListener.CLOSE);
     }
   }
 
+  /**
+   * Only a request shed further on or timed out backs off the limit. One the client gave up on, or
+   * that failed on its own, says nothing about load and doesn't count either way.
+   */
+  private static void releasePermit(Permit permit, boolean written, int status) {
+    if (permit == null) {
+      return;
+    }
+    if (status == HttpResponseStatus.SERVICE_UNAVAILABLE.code()
+        || status == HttpResponseStatus.GATEWAY_TIMEOUT.code()) {
+      permit.release(true);
+    } else if (!written || status >= 500) {
+      permit.cancel();
+    } else {
+      permit.release(false);
+    }
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
     ProblemDetails error = (cause instanceof ProblemDetailsException pde)
@@ -160,7 +671,12 @@ public class DefaultHttpServerHandler extends SimpleChannelInboundHandler<HttpOb
         .addListener(ChannelFutureListener.CLOSE);
   }
 
-  private void handleError(ChannelHandlerContext ctx, Throwable error, boolean keepAlive) {
+  private void handleError(
+      RequestContext requestContext,
+      Throwable error,
+      Permit permit,
+      boolean keepAlive
+  ) {
     // Unwrap CompletionException to get to the root cause
     Throwable cause = error instanceof CompletionException ? error.getCause() : error;
 
@@ -168,7 +684,7 @@ public class DefaultHttpServerHandler extends SimpleChannelInboundHandler<HttpOb
         ? new Response<>(pde.getProblemDetails().getStatus(), pde.getProblemDetails())
         : createErrorResponse(cause);
 
-    sendResponse(ctx, errorResponse, keepAlive);
+    sendResponse(requestContext, errorResponse, permit, keepAlive);
   }
 
   private ProblemDetails createInternalServerError(Throwable cause) {
@@ -184,7 +700,38 @@ public class DefaultHttpServerHandler extends SimpleChannelInboundHandler<HttpOb
   }
 
   private Response<?> createErrorResponse(Throwable error) {
+    if (error instanceof TimeoutException) {
+      // Most likely waiting behind other work, which admission control has to know about
+      LOGGER.warn("Route timed out", error);
+      return new CachedHttpResponse<>(ErrorResponses.SERVICE_UNAVAILABLE);
+    }
     LOGGER.error("Unexpected error", error);
-    return new Response<>(500, "Internal Server Error");
+    return new CachedHttpResponse<>(ErrorResponses.INTERNAL_SERVER_ERROR);
+  }
+
+  /**
+   * The end of the middleware chain for a matched route. Remembers whether the chain got that far,
+   * as from then on the route owns the request.
+   */
+  private final class RouteCall implements Runnable {
+
+    private final Route<?> route;
+    private final RequestContext requestContext;
+    private final Permit permit;
+    private final boolean keepAlive;
+    private boolean started;
+
+    RouteCall(Route<?> route, RequestContext requestContext, Permit permit, boolean keepAlive) {
+      this.route = route;
+      this.requestContext = requestContext;
+      this.permit = permit;
+      this.keepAlive = keepAlive;
+    }
+
+    @Override
+    public void run() {
+      started = true;
+      executeRoute(route, requestContext, permit, keepAlive);
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package org.nexus.handlers;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.FullHttpResponse;
+import org.nexus.Response;
+import org.nexus.enums.ProblemDetailsTypes;
+import org.nexus.interfaces.ProblemDetails.Single;
+
+/**
+ * Error responses that don't depend on the request, encoded once the first time one is needed.
+ * Unmatched paths are mostly scanners and bots, so a 404 shouldn't cost a serialisation.
+ *
+ * <p>Every use takes a {@link FullHttpResponse#retainedDuplicate()}: its own headers, over a body
+ * that is never freed, so writing one doesn't touch a reference count.
+ */
+final class ErrorResponses {
+
+  static final FullHttpResponse NOT_FOUND =
+      encode(ProblemDetailsTypes.NOT_FOUND, "Not Found", 404, "No route matches the request");
+  static final FullHttpResponse METHOD_NOT_ALLOWED = encode(
+      ProblemDetailsTypes.METHOD_NOT_ALLOWED, "Method Not Allowed", 405,
+      "The route doesn't support this method, see the Allow header");
+  static final FullHttpResponse UPGRADE_REQUIRED = encode(
+      ProblemDetailsTypes.UPGRADE_REQUIRED, "Upgrade Required", 426,
+      "The route only takes WebSocket upgrades");
+  static final FullHttpResponse INTERNAL_SERVER_ERROR = encode(
+      ProblemDetailsTypes.SERVER_ERROR, "Internal Server Error", 500,
+      "An unexpected error occurred");
+  static final FullHttpResponse SERVICE_UNAVAILABLE = encode(
+      ProblemDetailsTypes.SERVICE_UNAVAILABLE, "Service Unavailable", 503,
+      "Server is at capacity, try again later");
+
+  private ErrorResponses() {
+  }
+
+  private static FullHttpResponse encode(String type, String title, int status, String detail) {
+    FullHttpResponse encoded =
+        new Response<>(status, new Single(type, title, status, detail, "")).toHttpResponse();
+    return encoded.replace(Unpooled.unreleasableBuffer(encoded.content()));
+  }
+}
@@ -0,0 +1,118 @@
+package org.nexus.limiter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.nexus.Route;
+import org.nexus.config.ConcurrencyLimitConfig;
+
+/**
+ * Server-wide admission control. Every request that matched a route must get a {@link Permit}
+ * before it enters the middleware chain; when the global (or its route's) adaptive limit is
+ * reached it is shed straight away instead of queueing behind slower requests.
+ */
+public final class AdmissionController {
+
+  private final ConcurrencyLimitConfig config;
+  private final GradientConcurrencyLimiter global;
+  private final Map<String, GradientConcurrencyLimiter> routeLimiters = new ConcurrentHashMap<>();
+
+  public AdmissionController(ConcurrencyLimitConfig config) {
+    this.config = config;
+    this.global = newLimiter("global");
+  }
+
+  /**
+   * Tries to admit a request for the given route.
+   *
+   * @param route The matched route
+   * @return A permit to release once the response is written, or {@code null} if rejected
+   */
+  public Permit tryAcquire(Route<?> route) {
+    if (!global.tryAcquire()) {
+      return null;
+    }
+
+    GradientConcurrencyLimiter routeLimiter = null;
+    if (config.perRoute()) {
+      routeLimiter = routeLimiters.computeIfAbsent(
+          route.getMethod().name() + " " + route.getPath(), this::newLimiter);
+      if (!routeLimiter.tryAcquire()) {
+        global.cancel();
+        return null;
+      }
+    }
+    return new Permit(routeLimiter, System.nanoTime());
+  }
+
+  private GradientConcurrencyLimiter newLimiter(String name) {
+    return new GradientConcurrencyLimiter(
+        name, config.initialLimit(), config.minLimit(), config.maxLimit());
+  }
+
+  public int getRetryAfterSeconds() {
+    return config.retryAfter();
+  }
+
+  public GradientConcurrencyLimiter getGlobalLimiter() {
+    return global;
+  }
+
+  /**
+   * @return a snapshot of the per-route limiters, keyed by "METHOD template"
+   */
+  public Map<String, GradientConcurrencyLimiter> getRouteLimiters() {
+    return Map.copyOf(routeLimiters);
+  }
+
+  /**
+   * An admitted request. Releasing is idempotent, so every exit path can safely call it.
+   */
+  public final class Permit {
+
+    private final GradientConcurrencyLimiter routeLimiter;
+    private final long startNanos;
+    private boolean released;
+
+    private Permit(GradientConcurrencyLimiter routeLimiter, long startNanos) {
+      this.routeLimiter = routeLimiter;
+      this.startNanos = startNanos;
+    }
+
+    /**
+     * @param dropped Whether the request was a sign of overload (shed further on, timed out),
+     *                which backs off the limit
+     */
+    public void release(boolean dropped) {
+      if (!claim()) {
+        return;
+      }
+      long rtt = System.nanoTime() - startNanos;
+      global.release(rtt, dropped);
+      if (routeLimiter != null) {
+        routeLimiter.release(rtt, dropped);
+      }
+    }
+
+    /**
+     * Releases the permit without updating the limit, for a request that says nothing about the
+     * server's capacity: the client went away, or the route failed on its own.
+     */
+    public void cancel() {
+      if (!claim()) {
+        return;
+      }
+      global.cancel();
+      if (routeLimiter != null) {
+        routeLimiter.cancel();
+      }
+    }
+
+    private synchronized boolean claim() {
+      if (released) {
+        return false;
+      }
+      released = true;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package org.nexus.limiter;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.regex.Pattern;
+import org.nexus.NexusDatabase;
+
+/**
+ * {@link RateLimitStore} kept in a table of a {@link NexusDatabase}, one row per key holding its
+ * arrival time. The upsert only uses syntax shared by SQLite and PostgreSQL.
+ */
+public final class DatabaseRateLimitStore implements RateLimitStore {
+
+  public static final String DEFAULT_TABLE = "nexus_rate_limits";
+  private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+  private final NexusDatabase database;
+  private final String mergeSql;
+  private final String selectSql;
+  private final String evictSql;
+  private final String createSql;
+
+  public DatabaseRateLimitStore(NexusDatabase database) {
+    this(database, DEFAULT_TABLE);
+  }
+
+  public DatabaseRateLimitStore(NexusDatabase database, String table) {
+    if (database == null) {
+      throw new IllegalArgumentException("database must not be null");
+    }
+    if (table == null || !TABLE_NAME.matcher(table).matches()) {
+      throw new IllegalArgumentException("Invalid table name: " + table);
+    }
+    this.database = database;
+    this.createSql = "CREATE TABLE IF NOT EXISTS " + table
+        + " (limit_key VARCHAR(512) PRIMARY KEY, tat BIGINT NOT NULL)";
+    this.mergeSql = "INSERT INTO " + table + " (limit_key, tat) VALUES (?, ?)"
+        + " ON CONFLICT (limit_key) DO UPDATE SET tat ="
+        + " CASE WHEN " + table + ".tat > ? THEN " + table + ".tat ELSE ? END + ?";
+    this.selectSql = "SELECT tat FROM " + table + " WHERE limit_key = ?";
+    this.evictSql = "DELETE FROM " + table + " WHERE tat < ?";
+  }
+
+  /**
+   * Creates the table if it doesn't exist yet. Use a migration instead when the schema is managed.
+   *
+   * @return this store
+   */
+  public DatabaseRateLimitStore createTable() {
+    database.update(createSql);
+    return this;
+  }
+
+  @Override
+  public long merge(String key, long consumedNanos, long nowEpochNanos) {
+    return database.withConnection(conn -> {
+      try (PreparedStatement merge = conn.prepareStatement(mergeSql)) {
+        merge.setString(1, key);
+        merge.setLong(2, nowEpochNanos + consumedNanos);
+        merge.setLong(3, nowEpochNanos);
+        merge.setLong(4, nowEpochNanos);
+        merge.setLong(5, consumedNanos);
+        merge.executeUpdate();
+      }
+      try (PreparedStatement select = conn.prepareStatement(selectSql)) {
+        select.setString(1, key);
+        try (ResultSet rs = select.executeQuery()) {
+          return rs.next() ? rs.getLong(1) : nowEpochNanos + consumedNanos;
+        }
+      }
+    });
+  }
+
+  @Override
+  public void evict(long beforeEpochNanos) {
+    database.update(evictSql, beforeEpochNanos);
+  }
+}
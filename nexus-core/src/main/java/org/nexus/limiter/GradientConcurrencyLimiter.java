@@ -0,0 +1,130 @@
+package org.nexus.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter that adapts its limit to observed latency, in the style of the "gradient"
+ * algorithm: it tracks a short and a long exponential average of the round trip time, and shrinks
+ * the limit when the short one grows past the long one (i.e. requests are starting to queue).
+ * Otherwise, it grows by roughly {@code sqrt(limit)} per sample.
+ *
+ * <p>{@link #tryAcquire()} and {@link #release(long, boolean)} are lock-free on the hot path. The
+ * limit itself is updated under a {@code tryLock}; a sample that arrives while another thread is
+ * updating is simply skipped.
+ */
+public final class GradientConcurrencyLimiter {
+
+  private static final double TOLERANCE = 1.5;
+  private static final double SMOOTHING = 0.2;
+  private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+  private static final double LONG_ALPHA = 2.0 / (600 + 1);
+  private static final double DROP_BACKOFF = 0.9;
+
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+  private final ReentrantLock updateLock = new ReentrantLock();
+
+  private volatile double limit;
+  private double shortRtt;
+  private double longRtt;
+
+  public GradientConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Invalid limits: min=" + minLimit + ", max=" + maxLimit);
+    }
+    this.name = name;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+  }
+
+  /**
+   * @return {@code true} if the request was admitted, and must later be released
+   */
+  public boolean tryAcquire() {
+    if (inFlight.incrementAndGet() > (int) limit) {
+      inFlight.decrementAndGet();
+      rejected.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Releases an admitted request without feeding its latency to the algorithm.
+   */
+  public void cancel() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Releases an admitted request and updates the limit from its round trip time.
+   *
+   * @param rttNanos Time from admission to completion
+   * @param dropped  Whether the request failed or timed out, which backs off the limit
+   */
+  public void release(long rttNanos, boolean dropped) {
+    int inFlightAtRelease = inFlight.getAndDecrement();
+    if (!updateLock.tryLock()) {
+      return;
+    }
+    try {
+      update(rttNanos, inFlightAtRelease, dropped);
+    } finally {
+      updateLock.unlock();
+    }
+  }
+
+  private void update(long rttNanos, int inFlightAtRelease, boolean dropped) {
+    double current = limit;
+    if (dropped) {
+      limit = Math.max(minLimit, current * DROP_BACKOFF);
+      return;
+    }
+
+    double rtt = Math.max(1, rttNanos);
+    if (longRtt == 0) {
+      shortRtt = rtt;
+      longRtt = rtt;
+      return;
+    }
+    shortRtt += SHORT_ALPHA * (rtt - shortRtt);
+    longRtt += LONG_ALPHA * (rtt - longRtt);
+
+    // The long average can get stuck high after a slow spell, let it recover faster
+    if (longRtt / shortRtt > 2) {
+      longRtt *= 0.95;
+    }
+
+    // Not enough load to know if a higher limit would hurt, so don't grow
+    if (inFlightAtRelease < current / 2) {
+      return;
+    }
+
+    double gradient = Math.clamp(TOLERANCE * longRtt / shortRtt, 0.5, 1.0);
+    double target = current * gradient + Math.sqrt(current);
+    double smoothed = current * (1 - SMOOTHING) + target * SMOOTHING;
+    limit = Math.clamp(smoothed, minLimit, maxLimit);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,28 @@
+package org.nexus.limiter;
+
+/**
+ * Shared state behind a {@link TokenBucketRateLimiter}, so several nodes enforce one limit.
+ *
+ * <p>Nodes keep deciding locally and only report what they consumed every sync interval, so the
+ * request path never waits on the store. The cluster-wide limit is therefore approximate: it can be
+ * overshot by what the other nodes admit within one interval.
+ */
+public interface RateLimitStore {
+
+  /**
+   * Adds consumption to a key's shared bucket.
+   *
+   * @param key           The bucket key
+   * @param consumedNanos Tokens taken since the last merge, as refill time
+   * @param nowEpochNanos Current wall-clock time in nanos
+   * @return the shared bucket's arrival time after the merge, in wall-clock nanos
+   */
+  long merge(String key, long consumedNanos, long nowEpochNanos);
+
+  /**
+   * Removes keys that have been full since before the given instant.
+   *
+   * @param beforeEpochNanos Wall-clock time in nanos
+   */
+  void evict(long beforeEpochNanos);
+}
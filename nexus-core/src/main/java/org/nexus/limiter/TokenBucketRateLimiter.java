@@ -0,0 +1,246 @@
+package org.nexus.limiter;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keyed token buckets, {@code capacity} tokens refilled evenly over {@code period}.
+ *
+ * <p>Each bucket is a single long, its "theoretical arrival time" (GCRA): the instant at which it
+ * would be full again. Taking a token is one CAS that pushes that instant forward by one emission
+ * interval, so the hot path takes no lock and allocates nothing once the key has a bucket. Buckets
+ * are spread over power-of-two stripes, so eviction can sweep one stripe at a time and never stalls
+ * the whole table.
+ *
+ * <p>A bucket whose arrival time is in the past is full, dropping it is indistinguishable from
+ * keeping it, which is what {@link #evictIdle(long, long)} relies on to keep memory bounded.
+ */
+public final class TokenBucketRateLimiter {
+
+  private final String name;
+  private final int capacity;
+  private final long intervalNanos; // time to refill one token
+  private final long toleranceNanos; // time to refill the whole bucket
+  private final ConcurrentHashMap<String, Bucket>[] stripes;
+  private final int stripeMask;
+  private final RateLimitStore store;
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * @param name     Name used in metrics and logs
+   * @param capacity Maximum burst, also the number of tokens refilled per period
+   * @param period   Time to refill a drained bucket
+   * @param stripes  Number of stripes, rounded up to a power of two
+   * @param store    Shared store for multi-node limits, or {@code null} to keep them local
+   */
+  @SuppressWarnings("unchecked")
+  public TokenBucketRateLimiter(
+      String name,
+      int capacity,
+      Duration period,
+      int stripes,
+      RateLimitStore store
+  ) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    if (period == null || period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("period must be positive");
+    }
+    if (stripes < 1) {
+      throw new IllegalArgumentException("stripes must be at least 1");
+    }
+    this.name = name;
+    this.capacity = capacity;
+    this.intervalNanos = Math.max(1, period.toNanos() / capacity);
+    this.toleranceNanos = intervalNanos * capacity;
+
+    int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.stripes = new ConcurrentHashMap[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new ConcurrentHashMap<>();
+    }
+    this.stripeMask = size - 1;
+    this.store = store;
+  }
+
+  /**
+   * Takes a token for the key.
+   *
+   * <p>The result is the bucket's backlog after the attempt, in nanos. Decode it with
+   * {@link #isAdmitted(long)}, {@link #remaining(long)}, {@link #resetNanos(long)} and
+   * {@link #retryAfterNanos(long)}; it is a plain long so callers don't pay for a result object.
+   *
+   * @param key       The bucket key
+   * @param nowNanos  Current {@link System#nanoTime()}
+   * @return the backlog in nanos
+   */
+  public long acquire(String key, long nowNanos) {
+    Bucket bucket = bucket(key, nowNanos);
+    while (true) {
+      long tat = bucket.get();
+      long next = Math.max(tat, nowNanos) + intervalNanos;
+      long backlog = next - nowNanos;
+      if (backlog > toleranceNanos) {
+        rejected.increment();
+        return backlog;
+      }
+      if (bucket.compareAndSet(tat, next)) {
+        if (store != null) {
+          Bucket.UNSYNCED.incrementAndGet(bucket);
+        }
+        return backlog;
+      }
+    }
+  }
+
+  private Bucket bucket(String key, long nowNanos) {
+    ConcurrentHashMap<String, Bucket> stripe = stripe(key);
+    Bucket bucket = stripe.get(key);
+    if (bucket != null) {
+      return bucket;
+    }
+    Bucket created = new Bucket(nowNanos);
+    bucket = stripe.putIfAbsent(key, created);
+    return bucket != null ? bucket : created;
+  }
+
+  private ConcurrentHashMap<String, Bucket> stripe(String key) {
+    int h = key.hashCode();
+    return stripes[(h ^ (h >>> 16)) & stripeMask];
+  }
+
+  public boolean isAdmitted(long backlog) {
+    return backlog <= toleranceNanos;
+  }
+
+  /**
+   * @return tokens left after an admitted attempt, {@code 0} after a rejected one
+   */
+  public int remaining(long backlog) {
+    return backlog >= toleranceNanos ? 0 : (int) ((toleranceNanos - backlog) / intervalNanos);
+  }
+
+  /**
+   * @return nanos until the bucket is full again
+   */
+  public long resetNanos(long backlog) {
+    return Math.min(backlog, toleranceNanos);
+  }
+
+  /**
+   * @return nanos until the next token, {@code 0} for an admitted attempt
+   */
+  public long retryAfterNanos(long backlog) {
+    return Math.max(0, backlog - toleranceNanos);
+  }
+
+  /**
+   * Drops buckets that have been full for at least {@code idleNanos}. Runs a stripe at a time;
+   * a request racing the removal of its own bucket at worst gets one token back.
+   *
+   * @param nowNanos Current {@link System#nanoTime()}
+   * @param idleNanos Grace period after a bucket refilled
+   * @return the number of buckets removed
+   */
+  public int evictIdle(long nowNanos, long idleNanos) {
+    int removed = 0;
+    for (ConcurrentHashMap<String, Bucket> stripe : stripes) {
+      Iterator<Map.Entry<String, Bucket>> it = stripe.entrySet().iterator();
+      while (it.hasNext()) {
+        Bucket bucket = it.next().getValue();
+        if (bucket.get() + idleNanos <= nowNanos && bucket.unsynced == 0) {
+          it.remove();
+          removed++;
+        }
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Hands every bucket's tokens taken since the last call to the shared store and merges the
+   * cluster-wide state it returns back into the local bucket. Called from the maintenance thread,
+   * never from the request path; does nothing without a store.
+   *
+   * @param nowNanos      Current {@link System#nanoTime()}
+   * @param nowEpochNanos The same instant as wall-clock nanos, comparable between nodes
+   */
+  public void sync(long nowNanos, long nowEpochNanos) {
+    if (store == null) {
+      return;
+    }
+    long offset = nowEpochNanos - nowNanos;
+    for (ConcurrentHashMap<String, Bucket> stripe : stripes) {
+      for (Map.Entry<String, Bucket> entry : stripe.entrySet()) {
+        Bucket bucket = entry.getValue();
+        int taken = Bucket.UNSYNCED.getAndSet(bucket, 0);
+        if (taken == 0) {
+          continue;
+        }
+        long clusterTat = store.merge(entry.getKey(), taken * intervalNanos, nowEpochNanos);
+        bucket.accumulateAndGet(clusterTat - offset, Math::max);
+      }
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getPeriodNanos() {
+    return toleranceNanos;
+  }
+
+  public RateLimitStore getStore() {
+    return store;
+  }
+
+  /**
+   * @return buckets currently held in memory
+   */
+  public int getKeyCount() {
+    int count = 0;
+    for (ConcurrentHashMap<String, Bucket> stripe : stripes) {
+      count += stripe.size();
+    }
+    return count;
+  }
+
+  /**
+   * @return attempts rejected since creation
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  @Override
+  public String toString() {
+    return name + "[" + capacity + "/" + TimeUnit.NANOSECONDS.toMillis(toleranceNanos) + "ms]";
+  }
+
+  /**
+   * The bucket is its own arrival time, so a key costs one small object.
+   */
+  private static final class Bucket extends AtomicLong {
+
+    private static final AtomicIntegerFieldUpdater<Bucket> UNSYNCED =
+        AtomicIntegerFieldUpdater.newUpdater(Bucket.class, "unsynced");
+
+    private volatile int unsynced; // tokens taken since the last store sync
+
+    private Bucket(long tat) {
+      super(tat);
+    }
+  }
+}
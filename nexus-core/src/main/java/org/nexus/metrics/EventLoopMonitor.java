@@ -0,0 +1,280 @@
+package org.nexus.metrics;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.nexus.Route;
+import org.nexus.config.EventLoopMonitorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the worker event loops for work that blocks them. A background thread posts a probe task
+ * to every loop at a fixed interval; the time the probe waits before it runs is the loop's lag.
+ *
+ * <p>When a probe has waited past the blocked threshold, the stack trace of the loop's thread is
+ * logged once, which usually points straight at the blocking call. Separately, the server reports
+ * how long each request ran on the loop before returning; routes that take longer than the slow
+ * handler threshold are counted, and logged at most once per interval with their template.
+ */
+public final class EventLoopMonitor implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopMonitor.class);
+
+  private final EventLoopMonitorConfig config;
+  private final long intervalNanos;
+  private final long blockedNanos;
+  private final long slowHandlerNanos;
+  private final Map<String, SlowRoute> slowRoutes = new ConcurrentHashMap<>();
+  // Filled once in start(), read-only afterwards
+  private volatile List<LoopProbe> probes = List.of();
+  private volatile Map<EventExecutor, LoopProbe> probesByLoop = Map.of();
+  private Thread monitor;
+  private volatile boolean running;
+
+  public EventLoopMonitor(EventLoopMonitorConfig config) {
+    this.config = config;
+    this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(config.intervalMillis());
+    this.blockedNanos = TimeUnit.MILLISECONDS.toNanos(config.blockedMillis());
+    this.slowHandlerNanos = TimeUnit.MILLISECONDS.toNanos(config.slowHandlerMillis());
+  }
+
+  /**
+   * Starts probing the loops of {@code group}. Must be called once, before channels register.
+   */
+  public synchronized void start(EventLoopGroup group) {
+    if (monitor != null) {
+      throw new IllegalStateException("Event loop monitor already started");
+    }
+    List<LoopProbe> loops = new ArrayList<>();
+    Map<EventExecutor, LoopProbe> byLoop = new IdentityHashMap<>();
+    for (EventExecutor loop : group) {
+      LoopProbe probe = new LoopProbe(loop, "worker-" + loops.size());
+      loops.add(probe);
+      byLoop.put(loop, probe);
+    }
+    this.probes = List.copyOf(loops);
+    this.probesByLoop = byLoop;
+    this.running = true;
+    this.monitor = Thread.ofPlatform()
+        .daemon()
+        .name("nexus-loop-monitor")
+        .start(this::run);
+    LOGGER.info("Monitoring {} event loops (interval={}ms, blocked={}ms, slow handler={}ms)",
+        loops.size(), config.intervalMillis(), config.blockedMillis(),
+        config.slowHandlerMillis());
+  }
+
+  /**
+   * Counts {@code channel} against its event loop until it closes.
+   */
+  public void register(Channel channel) {
+    LoopProbe probe = probesByLoop.get(channel.eventLoop());
+    if (probe != null) {
+      probe.channels.incrementAndGet();
+      channel.closeFuture().addListener(_ -> probe.channels.decrementAndGet());
+    }
+  }
+
+  /**
+   * Reports how long a request ran on its event loop before the route returned or handed its work
+   * off.
+   *
+   * @param route The matched route, or {@code null} if none was
+   */
+  public void handled(Route<?> route, long nanos) {
+    if (nanos < slowHandlerNanos) {
+      return;
+    }
+    String name = route != null
+        ? route.getMethod().name() + " " + route.getPath()
+        : NexusMetrics.UNMATCHED;
+    SlowRoute slow = slowRoutes.get(name);
+    if (slow == null) {
+      slow = slowRoutes.computeIfAbsent(name, SlowRoute::new);
+    }
+    slow.count.increment();
+    slow.maxNanos.accumulate(nanos);
+  }
+
+  /**
+   * @return the current state of every monitored loop
+   */
+  public List<LoopStats> getLoops() {
+    List<LoopStats> loops = new ArrayList<>(probes.size());
+    for (LoopProbe probe : probes) {
+      loops.add(new LoopStats(
+          probe.name,
+          probe.lag.snapshot(),
+          probe.outstanding ? Math.max(probe.lastLag, System.nanoTime() - probe.submittedAt)
+              : probe.lastLag,
+          probe.loop instanceof SingleThreadEventExecutor s ? s.pendingTasks() : -1,
+          probe.channels.get(),
+          probe.blocked.sum()));
+    }
+    return loops;
+  }
+
+  /**
+   * @return how many times each route ran past the slow handler threshold, keyed by
+   *     "METHOD template"
+   */
+  public Map<String, Long> getSlowHandlers() {
+    Map<String, Long> counts = new TreeMap<>();
+    slowRoutes.forEach((name, slow) -> counts.put(name, slow.count.sum()));
+    return counts;
+  }
+
+  @Override
+  public synchronized void close() {
+    running = false;
+    if (monitor != null) {
+      LockSupport.unpark(monitor);
+      try {
+        monitor.join(TimeUnit.SECONDS.toMillis(1));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void run() {
+    while (running) {
+      long now = System.nanoTime();
+      for (LoopProbe probe : probes) {
+        check(probe, now);
+      }
+      reportSlowRoutes();
+      LockSupport.parkNanos(this, intervalNanos);
+    }
+  }
+
+  private void check(LoopProbe probe, long now) {
+    if (probe.outstanding) {
+      long waited = now - probe.submittedAt;
+      if (waited >= blockedNanos && !probe.reportedBlocked) {
+        probe.reportedBlocked = true;
+        probe.blocked.increment();
+        logBlocked(probe, waited);
+      }
+      return;
+    }
+    if (probe.reportedBlocked) {
+      probe.reportedBlocked = false;
+      LOGGER.warn("Event loop {} unblocked after {}ms",
+          probe.name, TimeUnit.NANOSECONDS.toMillis(probe.lastLag));
+    }
+
+    probe.submittedAt = now;
+    probe.outstanding = true;
+    try {
+      probe.loop.execute(probe);
+    } catch (RejectedExecutionException _) {
+      // Shutting down
+      probe.outstanding = false;
+    }
+  }
+
+  private static void logBlocked(LoopProbe probe, long waited) {
+    Thread thread = probe.thread;
+    Exception trace = new Exception("Stack trace of " + (thread != null ? thread.getName() : "?"));
+    if (thread != null) {
+      trace.setStackTrace(thread.getStackTrace());
+    }
+    LOGGER.warn("Event loop {} has been blocked for {}ms, is something blocking on it?",
+        probe.name, TimeUnit.NANOSECONDS.toMillis(waited), trace);
+  }
+
+  private void reportSlowRoutes() {
+    for (SlowRoute slow : slowRoutes.values()) {
+      long count = slow.count.sum();
+      if (count > slow.reported) {
+        LOGGER.warn("Route {} ran on the event loop for up to {}ms, {} time(s). "
+                + "Offload blocking work so the loop can serve other requests",
+            slow.name, TimeUnit.NANOSECONDS.toMillis(slow.maxNanos.getThenReset()),
+            count - slow.reported);
+        slow.reported = count;
+      }
+    }
+  }
+
+  /**
+   * State of an event loop.
+   *
+   * @param name          {@code worker-<n>}
+   * @param lag           Lag of every probe so far
+   * @param currentLag    Lag of the last probe, or how long the one still waiting has waited
+   * @param pendingTasks  Tasks queued on the loop, {@code -1} if it can't tell
+   * @param channels      Connections served by the loop
+   * @param blockedCount  Times the loop was found blocked
+   */
+  public record LoopStats(
+      String name,
+      LatencyHistogram.Snapshot lag,
+      long currentLag,
+      int pendingTasks,
+      int channels,
+      long blockedCount
+  ) {
+
+  }
+
+  /**
+   * Probe of one loop; also the task posted to it. Only one is in flight at a time.
+   */
+  private static final class LoopProbe implements Runnable {
+
+    private final EventExecutor loop;
+    private final String name;
+    private final LatencyHistogram lag = new LatencyHistogram();
+    private final AtomicInteger channels = new AtomicInteger();
+    private final LongAdder blocked = new LongAdder();
+    private volatile long submittedAt;
+    private volatile boolean outstanding;
+    private volatile long lastLag;
+    private volatile Thread thread;
+    private boolean reportedBlocked; // monitor thread only
+
+    LoopProbe(EventExecutor loop, String name) {
+      this.loop = loop;
+      this.name = name;
+    }
+
+    @Override
+    public void run() {
+      long waited = System.nanoTime() - submittedAt;
+      thread = Thread.currentThread();
+      lag.record(waited);
+      lastLag = waited;
+      outstanding = false;
+    }
+  }
+
+  /**
+   * Slow calls of one route, counted on the event loops and logged by the monitor thread.
+   */
+  private static final class SlowRoute {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private long reported; // monitor thread only
+
+    SlowRoute(String name) {
+      this.name = name;
+    }
+  }
+}
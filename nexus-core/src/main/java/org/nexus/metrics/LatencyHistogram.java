@@ -0,0 +1,136 @@
+package org.nexus.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram: values are
+ * kept in microseconds, exactly up to 64µs and then in 32 linear steps per power of two, so a
+ * recorded value is off by at most ~3%. Values above ~19 hours land in the last bucket.
+ *
+ * <p>Recording is one atomic increment plus two striped adders, and never allocates. Readers take
+ * a {@link Snapshot}, which may miss values recorded while it is taken.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BITS = 5;
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+  private static final int MAX_BITS = 36;
+  private static final long MAX_MICROS = (1L << MAX_BITS) - 1;
+  private static final int BUCKETS = index(MAX_MICROS) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder sumNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * @param nanos Duration to record, negative values count as zero
+   */
+  public void record(long nanos) {
+    long value = Math.max(nanos, 0);
+    counts.incrementAndGet(index(Math.min(value / 1000, MAX_MICROS)));
+    sumNanos.add(value);
+    maxNanos.accumulate(value);
+  }
+
+  public Snapshot snapshot() {
+    long[] copy = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      copy[i] = counts.get(i);
+      count += copy[i];
+    }
+    return new Snapshot(copy, count, sumNanos.sum(), maxNanos.get());
+  }
+
+  static int index(long micros) {
+    if (micros < SUB_COUNT << 1) {
+      return (int) micros;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS;
+    return (shift << SUB_BITS) + (int) (micros >>> shift);
+  }
+
+  /**
+   * @return the highest value, in microseconds, that lands in bucket {@code index}
+   */
+  static long highestMicros(int index) {
+    if (index < SUB_COUNT << 1) {
+      return index;
+    }
+    int shift = (index >>> SUB_BITS) - 1;
+    long sub = index - (shift << SUB_BITS);
+    return ((sub + 1) << shift) - 1;
+  }
+
+  /**
+   * A point-in-time copy of a histogram. All values are in nanoseconds.
+   */
+  public static final class Snapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    private Snapshot(long[] counts, long count, long sum, long max) {
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getSum() {
+      return sum;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    public double getMean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile Between 0 and 100, e.g. {@code 99.9}
+     * @return the value at or below which {@code percentile}% of the recorded values are, or 0 if
+     *     there are none
+     */
+    public long getValueAtPercentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(count * Math.clamp(percentile, 0, 100) / 100));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(TimeUnit.MICROSECONDS.toNanos(highestMicros(i) + 1) - 1, max);
+        }
+      }
+      return max;
+    }
+
+    /**
+     * @return how many recorded values are at or below {@code nanos}, give or take a bucket
+     */
+    public long getCountAtOrBelow(long nanos) {
+      if (nanos < 0) {
+        return 0;
+      }
+      int last = index(Math.min(nanos / 1000, MAX_MICROS));
+      long below = 0;
+      for (int i = 0; i <= last; i++) {
+        below += counts[i];
+      }
+      return below;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package org.nexus.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.nexus.Route;
+
+/**
+ * Per-route request metrics of a server. Routes are keyed by their template, so
+ * {@code /users/1} and {@code /users/2} both count towards {@code GET /users/:id}; requests no
+ * route takes share one {@code unmatched} entry, which keeps the number of entries bounded.
+ */
+public final class NexusMetrics {
+
+  public static final String UNMATCHED = "unmatched";
+
+  private final Map<Route<?>, RouteMetrics> routes = new ConcurrentHashMap<>();
+  private final RouteMetrics unmatched = new RouteMetrics(UNMATCHED);
+
+  /**
+   * @param route The matched route, or {@code null} if none was
+   */
+  public RouteMetrics forRoute(Route<?> route) {
+    if (route == null) {
+      return unmatched;
+    }
+    // Plain get first, computeIfAbsent may lock the bin even when the entry exists
+    RouteMetrics metrics = routes.get(route);
+    if (metrics == null) {
+      metrics = routes.computeIfAbsent(
+          route, r -> new RouteMetrics(r.getMethod().name() + " " + r.getPath()));
+    }
+    return metrics;
+  }
+
+  /**
+   * @return the routes that have seen a request, sorted by name, then the unmatched entry
+   */
+  public List<RouteMetrics> getRoutes() {
+    List<RouteMetrics> all = new ArrayList<>(routes.values());
+    all.sort(Comparator.comparing(RouteMetrics::getName));
+    all.add(unmatched);
+    return all;
+  }
+
+  public RouteMetrics getUnmatched() {
+    return unmatched;
+  }
+}
@@ -0,0 +1,378 @@
+package org.nexus.metrics;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.nexus.CachedHttpResponse;
+import org.nexus.NexusBeanScope;
+import org.nexus.NexusBulkhead;
+import org.nexus.NexusExecutor;
+import org.nexus.Response;
+import org.nexus.Route;
+import org.nexus.accesslog.AccessLog;
+import org.nexus.config.jwt.JwtService;
+import org.nexus.dbconnector.DatabaseConnectorFactory;
+import org.nexus.interfaces.DatabaseConnector;
+import org.nexus.limiter.AdmissionController;
+import org.nexus.limiter.GradientConcurrencyLimiter;
+
+/**
+ * Exposes the server's metrics in the Prometheus text format: per-route requests, errors, bytes,
+ * in-flight requests and latency, plus event loops, admission control, bulkheads, JWT verification,
+ * connection pools and the access log when they are in use.
+ *
+ * <p>The exposition is rendered at most once per refresh interval, into a text buffer that is
+ * reused every time, and kept as a response that all scrapes until the next render share. Any
+ * number of agents scraping in between only duplicates that response.
+ */
+public final class PrometheusExporter {
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  // Upper bounds, in seconds, of the latency buckets exported
+  private static final String[] BUCKETS = {
+      "0.001", "0.0025", "0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5",
+      "10"};
+  private static final long[] BUCKET_NANOS = new long[BUCKETS.length];
+
+  static {
+    for (int i = 0; i < BUCKETS.length; i++) {
+      BUCKET_NANOS[i] = (long) (Double.parseDouble(BUCKETS[i]) * 1_000_000_000L);
+    }
+  }
+
+  private final NexusMetrics metrics;
+  private final AdmissionController admissionController;
+  private final EventLoopMonitor eventLoopMonitor;
+  private final AccessLog accessLog;
+  private final long refreshNanos;
+  private final ReentrantLock renderLock = new ReentrantLock();
+  private final StringBuilder text = new StringBuilder(16_384); // guarded by renderLock
+  private boolean inLabels; // guarded by renderLock
+  private JwtService jwtService; // guarded by renderLock
+  private boolean jwtResolved; // guarded by renderLock
+  private volatile long renderedAt;
+  private volatile FullHttpResponse snapshot;
+
+  /**
+   * @param metrics             Per-route metrics of the server
+   * @param admissionController Admission control to export, or {@code null}
+   * @param eventLoopMonitor    Event loop monitor to export, or {@code null}
+   * @param accessLog           Access log to export, or {@code null}
+   * @param refreshMillis       How long a rendered exposition is served before rendering again
+   */
+  public PrometheusExporter(
+      NexusMetrics metrics,
+      AdmissionController admissionController,
+      EventLoopMonitor eventLoopMonitor,
+      AccessLog accessLog,
+      long refreshMillis
+  ) {
+    this.metrics = metrics;
+    this.admissionController = admissionController;
+    this.eventLoopMonitor = eventLoopMonitor;
+    this.accessLog = accessLog;
+    this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+  }
+
+  /**
+   * @return a {@code GET} route serving the exposition, to register on {@code path}
+   */
+  public Route<Void> route(String path) {
+    return new Route<>(HttpMethod.GET, path, _ -> {
+      Response<Void> response = new CachedHttpResponse<>(scrape());
+      return CompletableFuture.completedFuture(response);
+    });
+  }
+
+  /**
+   * Returns the current exposition, rendering it first if the last one is older than the refresh
+   * interval. While one thread renders, the others keep getting the previous one.
+   *
+   * @return the shared response; callers must duplicate it before writing it
+   */
+  public FullHttpResponse scrape() {
+    FullHttpResponse current = snapshot;
+    if (current != null && System.nanoTime() - renderedAt < refreshNanos) {
+      return current;
+    }
+    if (current == null) {
+      renderLock.lock();
+    } else if (!renderLock.tryLock()) {
+      return current;
+    }
+    try {
+      if (snapshot == current) {
+        FullHttpResponse rendered = render();
+        // Written before the snapshot, so whoever sees the new snapshot sees its time too
+        renderedAt = System.nanoTime();
+        snapshot = rendered;
+      }
+      return snapshot;
+    } finally {
+      renderLock.unlock();
+    }
+  }
+
+  private FullHttpResponse render() {
+    text.setLength(0);
+    renderRoutes();
+    renderEventLoops();
+    renderAdmission();
+    renderBulkheads();
+    renderJwt();
+    renderPools();
+    renderAccessLog();
+
+    // Heap memory nobody releases: in-flight scrapes keep it alive, then the GC takes it
+    FullHttpResponse response = new DefaultFullHttpResponse(
+        HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+        Unpooled.wrappedBuffer(text.toString().getBytes(StandardCharsets.UTF_8)));
+    response.headers().set(HttpHeaderNames.CONTENT_TYPE, CONTENT_TYPE);
+    return response;
+  }
+
+  private void renderRoutes() {
+    Iterable<RouteMetrics> routes = metrics.getRoutes();
+
+    family("nexus_http_requests_total", "counter", "Requests completed");
+    for (RouteMetrics route : routes) {
+      sample("nexus_http_requests_total", "route", route.getName(), route.getRequests());
+    }
+    family("nexus_http_errors_total", "counter", "Requests completed with a 4xx or 5xx status");
+    for (RouteMetrics route : routes) {
+      name("nexus_http_errors_total").label("route", route.getName()).label("class", "4xx");
+      value(route.getClientErrors());
+      name("nexus_http_errors_total").label("route", route.getName()).label("class", "5xx");
+      value(route.getServerErrors());
+    }
+    family("nexus_http_request_bytes_total", "counter", "Request body bytes read");
+    for (RouteMetrics route : routes) {
+      sample("nexus_http_request_bytes_total", "route", route.getName(), route.getBytesIn());
+    }
+    family("nexus_http_response_bytes_total", "counter", "Response body bytes written");
+    for (RouteMetrics route : routes) {
+      sample("nexus_http_response_bytes_total", "route", route.getName(), route.getBytesOut());
+    }
+    family("nexus_http_requests_in_flight", "gauge", "Requests being handled");
+    for (RouteMetrics route : routes) {
+      sample("nexus_http_requests_in_flight", "route", route.getName(), route.getInFlight());
+    }
+
+    String duration = "nexus_http_request_duration_seconds";
+    family(duration, "histogram", "Time from reading a request to writing its response head");
+    for (RouteMetrics route : routes) {
+      histogram(duration, "route", route.getName(), route.getLatency().snapshot());
+    }
+  }
+
+  private void renderEventLoops() {
+    if (eventLoopMonitor == null) {
+      return;
+    }
+    List<EventLoopMonitor.LoopStats> loops = eventLoopMonitor.getLoops();
+
+    family("nexus_event_loop_lag_seconds", "histogram", "Time a task waits to run on the loop");
+    for (EventLoopMonitor.LoopStats loop : loops) {
+      histogram("nexus_event_loop_lag_seconds", "loop", loop.name(), loop.lag());
+    }
+    family("nexus_event_loop_pending_tasks", "gauge", "Tasks queued on the loop");
+    for (EventLoopMonitor.LoopStats loop : loops) {
+      if (loop.pendingTasks() >= 0) {
+        sample("nexus_event_loop_pending_tasks", "loop", loop.name(), loop.pendingTasks());
+      }
+    }
+    family("nexus_event_loop_channels", "gauge", "Connections served by the loop");
+    for (EventLoopMonitor.LoopStats loop : loops) {
+      sample("nexus_event_loop_channels", "loop", loop.name(), loop.channels());
+    }
+    family("nexus_event_loop_blocked_total", "counter", "Times the loop was found blocked");
+    for (EventLoopMonitor.LoopStats loop : loops) {
+      sample("nexus_event_loop_blocked_total", "loop", loop.name(), loop.blockedCount());
+    }
+    family("nexus_http_slow_handlers_total", "counter",
+        "Requests that ran on the event loop past the slow handler threshold");
+    eventLoopMonitor.getSlowHandlers().forEach((route, count) ->
+        sample("nexus_http_slow_handlers_total", "route", route, count));
+  }
+
+  private void renderAdmission() {
+    if (admissionController == null) {
+      return;
+    }
+    Map<String, GradientConcurrencyLimiter> limiters =
+        new TreeMap<>(admissionController.getRouteLimiters());
+    limiters.put("global", admissionController.getGlobalLimiter());
+
+    family("nexus_admission_limit", "gauge", "Current adaptive concurrency limit");
+    limiters.forEach((name, limiter) ->
+        sample("nexus_admission_limit", "limiter", name, limiter.getLimit()));
+    family("nexus_admission_in_flight", "gauge", "Requests holding a permit");
+    limiters.forEach((name, limiter) ->
+        sample("nexus_admission_in_flight", "limiter", name, limiter.getInFlight()));
+    family("nexus_admission_rejected_total", "counter", "Requests shed by the limit");
+    limiters.forEach((name, limiter) ->
+        sample("nexus_admission_rejected_total", "limiter", name, limiter.getRejectedCount()));
+  }
+
+  private void renderBulkheads() {
+    Map<String, NexusBulkhead> bulkheads = new TreeMap<>(NexusExecutor.getBulkheads());
+    if (bulkheads.isEmpty()) {
+      return;
+    }
+    family("nexus_bulkhead_active", "gauge", "Tasks running in the bulkhead");
+    bulkheads.forEach((name, bulkhead) ->
+        sample("nexus_bulkhead_active", "bulkhead", name, bulkhead.getActiveCount()));
+    family("nexus_bulkhead_queued", "gauge", "Tasks waiting for a slot");
+    bulkheads.forEach((name, bulkhead) ->
+        sample("nexus_bulkhead_queued", "bulkhead", name, bulkhead.getQueuedCount()));
+    family("nexus_bulkhead_max_concurrent", "gauge", "Tasks the bulkhead runs at once");
+    bulkheads.forEach((name, bulkhead) ->
+        sample("nexus_bulkhead_max_concurrent", "bulkhead", name, bulkhead.getMaxConcurrent()));
+    family("nexus_bulkhead_rejected_total", "counter", "Tasks rejected because it was full");
+    bulkheads.forEach((name, bulkhead) ->
+        sample("nexus_bulkhead_rejected_total", "bulkhead", name, bulkhead.getRejectedCount()));
+  }
+
+  private void renderJwt() {
+    JwtService jwt = jwtService();
+    if (jwt == null) {
+      return;
+    }
+    family("nexus_jwt_issued_total", "counter", "Tokens signed");
+    name("nexus_jwt_issued_total");
+    value(jwt.getIssuedCount());
+    family("nexus_jwt_verifications_total", "counter", "Tokens validated, by result");
+    sample("nexus_jwt_verifications_total", "result", "valid", jwt.getVerifiedCount());
+    sample("nexus_jwt_verifications_total", "result", "invalid", jwt.getRejectedCount());
+  }
+
+  /**
+   * The JWT service is a bean of the application, if it has one at all. Looked up on the first
+   * render after the bean scope is up.
+   */
+  private JwtService jwtService() {
+    if (!jwtResolved) {
+      try {
+        jwtService = NexusBeanScope.get().getOptional(JwtService.class).orElse(null);
+        jwtResolved = true;
+      } catch (IllegalStateException _) {
+        // Bean scope not initialized yet
+      }
+    }
+    return jwtService;
+  }
+
+  private void renderPools() {
+    Map<String, HikariPoolMXBean> pools = new TreeMap<>();
+    for (Map.Entry<String, DatabaseConnector> entry :
+        DatabaseConnectorFactory.getConnectors().entrySet()) {
+      HikariPoolMXBean pool = entry.getValue().getPool();
+      if (pool != null) {
+        pools.put(entry.getKey(), pool);
+      }
+    }
+    if (pools.isEmpty()) {
+      return;
+    }
+    family("nexus_db_pool_active_connections", "gauge", "Connections in use");
+    pools.forEach((name, pool) ->
+        sample("nexus_db_pool_active_connections", "pool", name, pool.getActiveConnections()));
+    family("nexus_db_pool_idle_connections", "gauge", "Connections waiting to be used");
+    pools.forEach((name, pool) ->
+        sample("nexus_db_pool_idle_connections", "pool", name, pool.getIdleConnections()));
+    family("nexus_db_pool_pending_threads", "gauge", "Threads waiting for a connection");
+    pools.forEach((name, pool) -> sample(
+        "nexus_db_pool_pending_threads", "pool", name, pool.getThreadsAwaitingConnection()));
+  }
+
+  private void renderAccessLog() {
+    if (accessLog == null) {
+      return;
+    }
+    family("nexus_access_log_written_total", "counter", "Access log entries written");
+    name("nexus_access_log_written_total");
+    value(accessLog.getWrittenCount());
+    family("nexus_access_log_dropped_total", "counter", "Access log entries dropped");
+    name("nexus_access_log_dropped_total");
+    value(accessLog.getDroppedCount());
+  }
+
+  private void histogram(
+      String name,
+      String label,
+      String labelValue,
+      LatencyHistogram.Snapshot snapshot
+  ) {
+    for (int i = 0; i < BUCKETS.length; i++) {
+      name(name + "_bucket").label(label, labelValue).label("le", BUCKETS[i]);
+      value(snapshot.getCountAtOrBelow(BUCKET_NANOS[i]));
+    }
+    name(name + "_bucket").label(label, labelValue).label("le", "+Inf");
+    value(snapshot.getCount());
+    name(name + "_sum").label(label, labelValue);
+    value(snapshot.getSum() / 1e9);
+    sample(name + "_count", label, labelValue, snapshot.getCount());
+  }
+
+  private void family(String name, String type, String help) {
+    text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private void sample(String name, String label, String labelValue, long value) {
+    name(name).label(label, labelValue);
+    value(value);
+  }
+
+  private PrometheusExporter name(String name) {
+    text.append(name);
+    inLabels = false;
+    return this;
+  }
+
+  private PrometheusExporter label(String name, String value) {
+    text.append(inLabels ? ',' : '{');
+    inLabels = true;
+    text.append(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> text.append("\\\\");
+        case '"' -> text.append("\\\"");
+        case '\n' -> text.append("\\n");
+        default -> text.append(c);
+      }
+    }
+    text.append('"');
+    return this;
+  }
+
+  private void value(long value) {
+    endLabels();
+    text.append(' ').append(value).append('\n');
+  }
+
+  private void value(double value) {
+    endLabels();
+    text.append(' ').append(value).append('\n');
+  }
+
+  private void endLabels() {
+    if (inLabels) {
+      text.append('}');
+      inLabels = false;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.nexus.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency of one route. Updated by the server on every request, from any event loop
+ * or worker thread, without locking.
+ */
+public final class RouteMetrics {
+
+  private final String name;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder clientErrors = new LongAdder();
+  private final LongAdder serverErrors = new LongAdder();
+  private final LongAdder bytesIn = new LongAdder();
+  private final LongAdder bytesOut = new LongAdder();
+  private final LongAdder inFlight = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  RouteMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Counts a request that has been read and is now being handled.
+   *
+   * @param requestBytes Size of the request body
+   */
+  public void started(long requestBytes) {
+    inFlight.increment();
+    bytesIn.add(requestBytes);
+  }
+
+  /**
+   * Counts a request whose response has been written, or given up on. Must follow exactly one
+   * {@link #started(long)}.
+   *
+   * @param status        Status code sent; {@code 499} if the client went away first
+   * @param responseBytes Size of the response body, {@code 0} for a streamed one
+   * @param nanos         Time from reading the request to writing the response head
+   */
+  public void completed(int status, long responseBytes, long nanos) {
+    inFlight.decrement();
+    requests.increment();
+    if (status >= 500) {
+      serverErrors.increment();
+    } else if (status >= 400) {
+      clientErrors.increment();
+    }
+    bytesOut.add(responseBytes);
+    latency.record(nanos);
+  }
+
+  /**
+   * @return "METHOD template", e.g. {@code GET /users/:id}, or {@code unmatched}
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return requests completed so far
+   */
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  /**
+   * @return completed requests answered with a 4xx
+   */
+  public long getClientErrors() {
+    return clientErrors.sum();
+  }
+
+  /**
+   * @return completed requests answered with a 5xx
+   */
+  public long getServerErrors() {
+    return serverErrors.sum();
+  }
+
+  public long getBytesIn() {
+    return bytesIn.sum();
+  }
+
+  public long getBytesOut() {
+    return bytesOut.sum();
+  }
+
+  /**
+   * @return requests started but not completed yet
+   */
+  public long getInFlight() {
+    return inFlight.sum();
+  }
+
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+}
@@ -0,0 +1,194 @@
+package org.nexus.middleware;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.AsciiString;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.nexus.RequestContext;
+import org.nexus.RoutesResolver;
+import org.nexus.config.CorsConfig;
+import org.nexus.interfaces.Middleware;
+import org.nexus.interfaces.MiddlewareChain;
+
+/**
+ * Cross-origin resource sharing. Preflight requests from an allowed origin are answered here with
+ * a {@code 204}, before any later middleware or the route; other requests from it get
+ * {@code Access-Control-Allow-Origin} and go on. Requests from other origins go on untouched and
+ * the browser blocks the response.
+ *
+ * <p>The headers for an origin, and for an origin and set of methods on a preflight, are built the
+ * first time they are needed and kept as blocks that are never changed, so a request only looks
+ * one up and copies it. Like in {@link SecurityHeadersMiddleware}, the blocks are
+ * {@link DefaultHttpHeaders}, which Netty copies entry by entry, and they are set, not added, so
+ * they replace headers of the same name. Origins matched by a wildcard are open-ended: past
+ * {@value #MAX_CACHED} blocks, new ones are built per request instead of kept.
+ */
+public class CorsMiddleware implements Middleware {
+
+  static final int MAX_CACHED = 1024;
+  private static final AsciiString ANY = AsciiString.cached("*");
+  private static final AsciiString TRUE = AsciiString.cached("true");
+
+  private final Set<String> exactOrigins = new HashSet<>();
+  private final List<WildcardOrigin> wildcardOrigins = new ArrayList<>();
+  private final boolean anyOrigin;
+  // With credentials the origin has to be echoed, "*" isn't accepted
+  private final boolean echoOrigin;
+  private final CorsConfig config;
+  private final AsciiString maxAge;
+  private final Map<String, HttpHeaders> actualHeaders = new ConcurrentHashMap<>();
+  private final Map<PreflightKey, HttpHeaders> preflightHeaders = new ConcurrentHashMap<>();
+
+  public CorsMiddleware(CorsConfig config) {
+    this.config = config;
+    boolean any = false;
+    for (String origin : config.allowedOrigins()) {
+      int star = origin.indexOf("*.");
+      if (origin.equals("*")) {
+        any = true;
+      } else if (star > 0) {
+        wildcardOrigins.add(
+            new WildcardOrigin(origin.substring(0, star), origin.substring(star + 1)));
+      } else {
+        exactOrigins.add(origin);
+      }
+    }
+    this.anyOrigin = any;
+    this.echoOrigin = !any || config.allowCredentials();
+    this.maxAge = AsciiString.of(Integer.toString(config.maxAgeSeconds()));
+  }
+
+  @Override
+  public void handle(RequestContext ctx, MiddlewareChain chain) throws Exception {
+    FullHttpRequest request = ctx.getRequest();
+    String origin = request.headers().get(HttpHeaderNames.ORIGIN);
+    if (origin == null || !isAllowed(origin)) {
+      if (echoOrigin) {
+        // The response differs by origin, caches must not hand it to another
+        ctx.getRequestHeaders().add(HttpHeaderNames.VARY, HttpHeaderNames.ORIGIN);
+      }
+      chain.next(ctx);
+      return;
+    }
+    String key = echoOrigin ? origin : "*";
+
+    if (HttpMethod.OPTIONS.equals(request.method())
+        && request.headers().contains(HttpHeaderNames.ACCESS_CONTROL_REQUEST_METHOD)) {
+      String methods = config.allowedMethods().isEmpty()
+          ? RoutesResolver.findAllowedMethods(pathOf(request.uri()))
+          : config.allowedMethods();
+      if (methods != null) {
+        ctx.getRequestHeaders().setAll(
+            cached(preflightHeaders, new PreflightKey(key, methods), this::buildPreflight));
+        ctx.respond(new DefaultFullHttpResponse(
+            HttpVersion.HTTP_1_1, HttpResponseStatus.NO_CONTENT, Unpooled.EMPTY_BUFFER));
+        return;
+      }
+    }
+
+    ctx.getRequestHeaders().setAll(cached(actualHeaders, key, this::buildActual));
+    chain.next(ctx);
+  }
+
+  boolean isAllowed(String origin) {
+    if (anyOrigin || exactOrigins.contains(origin)) {
+      return true;
+    }
+    for (WildcardOrigin wildcard : wildcardOrigins) {
+      if (wildcard.matches(origin)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String pathOf(String uri) {
+    int query = uri.indexOf('?');
+    return query < 0 ? uri : uri.substring(0, query);
+  }
+
+  private static <K> HttpHeaders cached(
+      Map<K, HttpHeaders> cache,
+      K key,
+      Function<K, HttpHeaders> build
+  ) {
+    HttpHeaders headers = cache.get(key);
+    if (headers == null) {
+      headers = build.apply(key);
+      if (cache.size() < MAX_CACHED) {
+        cache.putIfAbsent(key, headers);
+      }
+    }
+    return headers;
+  }
+
+  private HttpHeaders buildActual(String origin) {
+    HttpHeaders headers = originHeaders(origin);
+    if (!config.exposedHeaders().isEmpty()) {
+      headers.add(HttpHeaderNames.ACCESS_CONTROL_EXPOSE_HEADERS, config.exposedHeaders());
+    }
+    return headers;
+  }
+
+  private HttpHeaders buildPreflight(PreflightKey key) {
+    HttpHeaders headers = originHeaders(key.origin());
+    headers.add(HttpHeaderNames.ACCESS_CONTROL_ALLOW_METHODS, key.methods());
+    if (!config.allowedHeaders().isEmpty()) {
+      headers.add(HttpHeaderNames.ACCESS_CONTROL_ALLOW_HEADERS, config.allowedHeaders());
+    }
+    headers.add(HttpHeaderNames.ACCESS_CONTROL_MAX_AGE, maxAge);
+    return headers;
+  }
+
+  private HttpHeaders originHeaders(String origin) {
+    HttpHeaders headers = new DefaultHttpHeaders();
+    if (echoOrigin) {
+      headers.add(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+      headers.add(HttpHeaderNames.VARY, HttpHeaderNames.ORIGIN);
+    } else {
+      headers.add(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, ANY);
+    }
+    if (config.allowCredentials()) {
+      headers.add(HttpHeaderNames.ACCESS_CONTROL_ALLOW_CREDENTIALS, TRUE);
+    }
+    return headers;
+  }
+
+  /**
+   * {@code https://*.example.com}, split around the {@code *}.
+   */
+  private record WildcardOrigin(String scheme, String suffix) {
+
+    boolean matches(String origin) {
+      int end = origin.length() - suffix.length();
+      if (end <= scheme.length() || !origin.startsWith(scheme) || !origin.endsWith(suffix)) {
+        return false;
+      }
+      // Only a host label sequence may stand in for the *, not a path or a port
+      for (int i = scheme.length(); i < end; i++) {
+        char c = origin.charAt(i);
+        if (c == '/' || c == ':' || c == '@') {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private record PreflightKey(String origin, String methods) {
+
+  }
+}
@@ -3,23 +3,50 @@ package org.nexus.middleware;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpMethod;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.BiConsumer;
+import io.netty.handler.codec.http.HttpUtil;
 import org.nexus.RequestContext;
+import org.nexus.RequestContext.CompletionListener;
+import org.nexus.RequestIds;
+import org.nexus.accesslog.AccessLog;
 import org.nexus.interfaces.Middleware;
 import org.nexus.interfaces.MiddlewareChain;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Gives each request an {@code X-Request-ID} and logs its response. Without an {@link AccessLog},
+ * responses are logged through SLF4J: 4xx and 5xx always, others at trace level. With one, every
+ * response goes to the access log, which formats and writes it on its own thread, and only failed
+ * writes are logged through SLF4J.
+ */
 public class LoggingMiddleware implements Middleware {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(LoggingMiddleware.class);
-  private static final String REQUEST_ID_HEADER = "X-Request-ID";
-  private static final AtomicLong ID_COUNTER = new AtomicLong();  // Todo: change this to UUID
 
-  private static void logResponse(RequestContext ctx, Throwable error) {
+  // One listener for every request
+  private final CompletionListener onComplete;
+
+  public LoggingMiddleware() {
+    this(null);
+  }
+
+  /**
+   * @param accessLog Where responses are recorded, or {@code null} to log them through SLF4J
+   */
+  public LoggingMiddleware(AccessLog accessLog) {
+    this.onComplete = accessLog == null
+        ? LoggingMiddleware::logResponse
+        : (ctx, response, error) -> {
+          accessLog.record(ctx, response);
+          if (error != null) {
+            logResponse(ctx, response, error);
+          }
+        };
+  }
+
+  private static void logResponse(RequestContext ctx, FullHttpResponse response, Throwable error) {
     long duration = ctx.getRequestDuration();
-    String requestId = ctx.getRequestHeaders().get(REQUEST_ID_HEADER);
+    String requestId = ctx.getRequestId();
     String method = ctx.getRequest().method().name();
     String uri = ctx.getRequest().uri();
 
@@ -31,7 +58,6 @@ public class LoggingMiddleware implements Middleware {
       return;
     }
 
-    FullHttpResponse response = ctx.getResponse();
     if (response == null) {
       LOGGER.warn("No response set for {} {} [req_id={}, duration={}ms]",
           method, uri, requestId, duration);
@@ -44,7 +70,7 @@ public class LoggingMiddleware implements Middleware {
 
     int statusCode = response.status().code();
     String logMsg = "{} {} -> {} [req_id={}, duration={}ms, size={}]";
-    int contentBytes = response.content().readableBytes();
+    long contentBytes = HttpUtil.getContentLength(response, 0L);
 
     if (statusCode >= 500) {
       LOGGER.error(logMsg, method, uri, statusCode, requestId, duration, contentBytes);
@@ -59,14 +85,15 @@ public class LoggingMiddleware implements Middleware {
   public void handle(RequestContext ctx, MiddlewareChain chain) throws Exception {
     logRequest(ctx);
 
-    ctx.addCompletionHandler(new CompletionHandler(ctx));
+    ctx.addCompletionListener(onComplete);
 
     chain.next(ctx);
   }
 
   private void logRequest(RequestContext ctx) {
     FullHttpRequest request = ctx.getRequest();
-    String requestId = getOrGenerateRequestId(ctx);
+    String requestId = ctx.getRequestId();
+    ctx.getRequestHeaders().set(RequestIds.HEADER, requestId);
     String method = request.method().name();
     String uri = request.uri();
 
@@ -78,28 +105,4 @@ public class LoggingMiddleware implements Middleware {
       }
     }
   }
-
-  private String getOrGenerateRequestId(RequestContext ctx) {
-    String requestId = ctx.getRequestHeaders().get(REQUEST_ID_HEADER);
-    if (requestId != null) {
-      return requestId;
-    }
-
-    requestId = ctx.getRequest().headers().get(REQUEST_ID_HEADER);
-    if (requestId == null) {
-      requestId = String.valueOf(ID_COUNTER.incrementAndGet());
-    }
-
-    ctx.getRequestHeaders().add(REQUEST_ID_HEADER, requestId);
-    return requestId;
-  }
-
-  private record CompletionHandler(RequestContext ctx) implements
-      BiConsumer<FullHttpResponse, Throwable> {
-
-    @Override
-    public void accept(FullHttpResponse response, Throwable error) {
-      logResponse(ctx, error);
-    }
-  }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package org.nexus.middleware;
+
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.util.AttributeKey;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.nexus.RequestContext;
+import org.nexus.Route;
+import org.nexus.config.jwt.JwtService;
+
+/**
+ * Picks the bucket a request is counted against, or {@code null} to let it through unlimited.
+ *
+ * <p>The built-in resolvers cache their key on the connection, so a keep-alive client pays for
+ * building (or, for JWTs, verifying) its key once rather than on every request.
+ */
+@FunctionalInterface
+public interface RateLimitKeyResolver {
+
+  String resolve(RequestContext ctx);
+
+  /**
+   * Falls back to another resolver when this one has no key for the request.
+   */
+  default RateLimitKeyResolver orElse(RateLimitKeyResolver fallback) {
+    Objects.requireNonNull(fallback);
+    return ctx -> {
+      String key = resolve(ctx);
+      return key != null ? key : fallback.resolve(ctx);
+    };
+  }
+
+  /**
+   * Keys by the remote address of the connection.
+   */
+  static RateLimitKeyResolver clientIp() {
+    AttributeKey<String> cache = AttributeKey.valueOf("rateLimitKey.ip");
+    return ctx -> {
+      Channel channel = ctx.getCtx().channel();
+      String key = channel.attr(cache).get();
+      if (key == null) {
+        SocketAddress address = channel.remoteAddress();
+        key = "ip:" + (address instanceof InetSocketAddress inet && inet.getAddress() != null
+            ? inet.getAddress().getHostAddress()
+            : String.valueOf(address));
+        channel.attr(cache).set(key);
+      }
+      return key;
+    };
+  }
+
+  /**
+   * Keys by the first hop of {@code X-Forwarded-For}. Only use it behind a proxy that sets the
+   * header, clients can put anything in it.
+   */
+  static RateLimitKeyResolver forwardedFor() {
+    return perConnection("xff", ctx -> {
+      String forwarded = ctx.getRequest().headers().get("X-Forwarded-For");
+      if (forwarded == null) {
+        return null;
+      }
+      int comma = forwarded.indexOf(',');
+      return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+    });
+  }
+
+  /**
+   * Keys by an API key header.
+   *
+   * @param header Header carrying the key, e.g. {@code X-API-Key}
+   */
+  static RateLimitKeyResolver apiKey(String header) {
+    Objects.requireNonNull(header);
+    return perConnection("key", ctx -> ctx.getRequest().headers().get(header));
+  }
+
+  /**
+   * Keys by the subject of a valid bearer access token. Requests without one, or with a token that
+   * doesn't verify, are keyed by {@link #clientIp()}, so a made-up token doesn't skip the limit.
+   */
+  static RateLimitKeyResolver jwtSubject(JwtService jwtService) {
+    Objects.requireNonNull(jwtService);
+    return perConnection("sub", ctx -> {
+      String auth = ctx.getRequest().headers().get(HttpHeaderNames.AUTHORIZATION);
+      return auth != null && auth.startsWith("Bearer ") ? auth.substring(7) : null;
+    }, token -> jwtService.getSubjectFromToken(token, false)).orElse(clientIp());
+  }
+
+  /**
+   * Keys by the matched route template, so every client shares one bucket per endpoint.
+   */
+  static RateLimitKeyResolver route() {
+    Map<Route<?>, String> keys = new ConcurrentHashMap<>();
+    return ctx -> {
+      Route<?> route = ctx.getRoute();
+      if (route == null) {
+        return null;
+      }
+      return keys.computeIfAbsent(route,
+          r -> "route:" + r.getMethod().name() + " " + r.getPath());
+    };
+  }
+
+  private static RateLimitKeyResolver perConnection(
+      String prefix,
+      Function<RequestContext, String> raw
+  ) {
+    return perConnection(prefix, raw, Function.identity());
+  }
+
+  /**
+   * Remembers the last raw value seen on the connection and the key derived from it, so the key is
+   * only rebuilt when the client sends something different.
+   */
+  private static RateLimitKeyResolver perConnection(
+      String prefix,
+      Function<RequestContext, String> raw,
+      Function<String, String> derive
+  ) {
+    AttributeKey<CachedKey> cache = AttributeKey.valueOf("rateLimitKey." + prefix);
+    return ctx -> {
+      String value = raw.apply(ctx);
+      if (value == null || value.isEmpty()) {
+        return null;
+      }
+      Channel channel = ctx.getCtx().channel();
+      CachedKey cached = channel.attr(cache).get();
+      if (cached != null && cached.raw().equals(value)) {
+        return cached.key();
+      }
+      String derived = derive.apply(value);
+      String key = derived != null ? prefix + ":" + derived : null;
+      channel.attr(cache).set(new CachedKey(value, key));
+      return key;
+    };
+  }
+
+  record CachedKey(String raw, String key) {
+
+  }
+}
@@ -0,0 +1,204 @@
+package org.nexus.middleware;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.nexus.RequestContext;
+import org.nexus.enums.ProblemDetailsTypes;
+import org.nexus.exceptions.ProblemDetailsException;
+import org.nexus.interfaces.Middleware;
+import org.nexus.interfaces.MiddlewareChain;
+import org.nexus.interfaces.ProblemDetails;
+import org.nexus.limiter.RateLimitStore;
+import org.nexus.limiter.TokenBucketRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Token-bucket rate limiting, keyed by a {@link RateLimitKeyResolver}. Every limited response
+ * carries {@code RateLimit-Limit}, {@code RateLimit-Remaining} and {@code RateLimit-Reset}; a
+ * request over the limit gets a 429 problem with {@code Retry-After}.
+ *
+ * <p>A daemon thread evicts buckets that have been idle for a while and, when a
+ * {@link RateLimitStore} is configured, syncs consumption with the other nodes. Close the
+ * middleware to stop it.
+ */
+public class RateLimitMiddleware implements Middleware, AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitMiddleware.class);
+  private static final AsciiString RATELIMIT_LIMIT = AsciiString.cached("RateLimit-Limit");
+  private static final AsciiString RATELIMIT_REMAINING = AsciiString.cached("RateLimit-Remaining");
+  private static final AsciiString RATELIMIT_RESET = AsciiString.cached("RateLimit-Reset");
+
+  private final TokenBucketRateLimiter limiter;
+  private final RateLimitKeyResolver keyResolver;
+  private final AsciiString limitValue;
+  private final long idleNanos;
+  private final ScheduledExecutorService maintenance;
+
+  private RateLimitMiddleware(Builder builder) {
+    this.limiter = new TokenBucketRateLimiter(
+        builder.name, builder.capacity, builder.period, builder.stripes, builder.store);
+    this.keyResolver = builder.keyResolver;
+    this.limitValue = AsciiString.of(Integer.toString(builder.capacity));
+    this.idleNanos = builder.idleTimeout.toNanos();
+
+    this.maintenance = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().daemon().name("nexus-ratelimit-" + builder.name).factory());
+    long evictMillis = Math.max(1, builder.idleTimeout.toMillis() / 2);
+    maintenance.scheduleWithFixedDelay(
+        this::evict, evictMillis, evictMillis, TimeUnit.MILLISECONDS);
+    if (builder.store != null) {
+      long syncMillis = builder.syncInterval.toMillis();
+      maintenance.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private static long toSeconds(long nanos) {
+    return (nanos + 999_999_999L) / 1_000_000_000L; // round up, 0 only when nothing to wait for
+  }
+
+  @Override
+  public void handle(RequestContext ctx, MiddlewareChain chain) throws Exception {
+    String key = keyResolver.resolve(ctx);
+    if (key == null) {
+      chain.next(ctx);
+      return;
+    }
+
+    long backlog = limiter.acquire(key, System.nanoTime());
+    HttpHeaders headers = ctx.getRequestHeaders();
+    headers.set(RATELIMIT_LIMIT, limitValue);
+    headers.setInt(RATELIMIT_REMAINING, limiter.remaining(backlog));
+    headers.setLong(RATELIMIT_RESET, toSeconds(limiter.resetNanos(backlog)));
+
+    if (!limiter.isAdmitted(backlog)) {
+      long retryAfter = toSeconds(limiter.retryAfterNanos(backlog));
+      headers.setLong(HttpHeaderNames.RETRY_AFTER, retryAfter);
+      throw new ProblemDetailsException(
+          new ProblemDetails.Single(
+              ProblemDetailsTypes.TOO_MANY_REQUESTS,
+              "Too Many Requests",
+              429,
+              "Rate limit exceeded, retry in " + retryAfter + "s",
+              "",
+              Map.of("limit", limiter.getName())
+          )
+      );
+    }
+
+    chain.next(ctx);
+  }
+
+  private void evict() {
+    try {
+      int removed = limiter.evictIdle(System.nanoTime(), idleNanos);
+      if (removed > 0) {
+        LOGGER.debug("Rate limit {} evicted {} idle keys", limiter.getName(), removed);
+      }
+      RateLimitStore store = limiter.getStore();
+      if (store != null) {
+        long idleSince = System.currentTimeMillis() * 1_000_000L - idleNanos;
+        store.evict(idleSince);
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Rate limit {} eviction failed", limiter.getName(), e);
+    }
+  }
+
+  private void sync() {
+    try {
+      limiter.sync(System.nanoTime(), System.currentTimeMillis() * 1_000_000L);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Rate limit {} sync failed, limits stay local until it recovers",
+          limiter.getName(), e);
+    }
+  }
+
+  public TokenBucketRateLimiter getLimiter() {
+    return limiter;
+  }
+
+  @Override
+  public void close() {
+    maintenance.shutdownNow();
+  }
+
+  public static final class Builder {
+
+    private String name = "default";
+    private int capacity = 100;
+    private Duration period = Duration.ofMinutes(1);
+    private RateLimitKeyResolver keyResolver = RateLimitKeyResolver.clientIp();
+    private int stripes = 16;
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private RateLimitStore store;
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    private Builder() {
+    }
+
+    public Builder name(String name) {
+      this.name = Objects.requireNonNull(name);
+      return this;
+    }
+
+    /**
+     * @param capacity Requests allowed per period, also the largest burst
+     * @param period   Time over which {@code capacity} tokens are refilled
+     */
+    public Builder limit(int capacity, Duration period) {
+      this.capacity = capacity;
+      this.period = Objects.requireNonNull(period);
+      return this;
+    }
+
+    public Builder keyResolver(RateLimitKeyResolver keyResolver) {
+      this.keyResolver = Objects.requireNonNull(keyResolver);
+      return this;
+    }
+
+    public Builder stripes(int stripes) {
+      this.stripes = stripes;
+      return this;
+    }
+
+    /**
+     * @param idleTimeout How long a full bucket is kept before it is evicted
+     */
+    public Builder idleTimeout(Duration idleTimeout) {
+      this.idleTimeout = Objects.requireNonNull(idleTimeout);
+      return this;
+    }
+
+    /**
+     * Shares the limit with other nodes through {@code store}, syncing every
+     * {@code syncInterval}.
+     */
+    public Builder store(RateLimitStore store, Duration syncInterval) {
+      this.store = Objects.requireNonNull(store);
+      this.syncInterval = Objects.requireNonNull(syncInterval);
+      return this;
+    }
+
+    public RateLimitMiddleware build() {
+      if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+        throw new IllegalArgumentException("idleTimeout must be positive");
+      }
+      if (syncInterval.toMillis() < 1) {
+        throw new IllegalArgumentException("syncInterval must be at least 1ms");
+      }
+      return new RateLimitMiddleware(this);
+    }
+  }
+}
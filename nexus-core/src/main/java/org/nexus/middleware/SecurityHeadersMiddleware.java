@@ -1,16 +1,33 @@
 package org.nexus.middleware;
 
 import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
 import org.nexus.RequestContext;
 import org.nexus.interfaces.Middleware;
 import org.nexus.interfaces.MiddlewareChain;
 
+/**
+ * Sets the usual security headers on every response, replacing any a route or earlier middleware
+ * set. They don't depend on the request, so they are built and validated once, and each request
+ * copies the whole block.
+ *
+ * <p>The block is a {@link DefaultHttpHeaders} like the one {@link RequestContext} collects
+ * headers in, never handed out: Netty copies one of those into another entry by entry with the
+ * hashes already computed, where any other {@link HttpHeaders} is added back one name at a time.
+ */
 public class SecurityHeadersMiddleware implements Middleware {
 
-  private final boolean https;
-  private final String cspPolicy;
-  private final String permissionsPolicy;
+  private static final AsciiString X_CONTENT_TYPE_OPTIONS =
+      AsciiString.cached("X-Content-Type-Options");
+  private static final AsciiString X_XSS_PROTECTION = AsciiString.cached("X-XSS-Protection");
+  private static final AsciiString REFERRER_POLICY = AsciiString.cached("Referrer-Policy");
+  private static final AsciiString PERMISSIONS_POLICY = AsciiString.cached("Permissions-Policy");
+  private static final AsciiString STRICT_TRANSPORT_SECURITY =
+      AsciiString.cached("Strict-Transport-Security");
+
+  private final HttpHeaders headers;
 
   public SecurityHeadersMiddleware(boolean https) {
     this(https,
@@ -20,35 +37,29 @@ public class SecurityHeadersMiddleware implements Middleware {
   }
 
   public SecurityHeadersMiddleware(boolean https, String cspPolicy, String permissionsPolicy) {
-    this.https = https;
-    this.cspPolicy = cspPolicy != null ? cspPolicy : "";
-    this.permissionsPolicy = permissionsPolicy != null ? permissionsPolicy : "";
-  }
-
-  @Override
-  public void handle(RequestContext ctx, MiddlewareChain chain) throws Exception {
-    HttpHeaders headers = ctx.getRequestHeaders();
-    if (headers == null) {
-      headers = new DefaultHttpHeaders();
-    }
-
-    // Always add these
-    headers.set("X-Content-Type-Options", "nosniff");
-    headers.set("X-Frame-Options", "DENY");
-    headers.set("X-XSS-Protection", "1; mode=block");
-    headers.set("Referrer-Policy", "strict-origin-when-cross-origin");
+    HttpHeaders block = new DefaultHttpHeaders();
+    block.add(X_CONTENT_TYPE_OPTIONS, AsciiString.of("nosniff"));
+    block.add(HttpHeaderNames.X_FRAME_OPTIONS, AsciiString.of("DENY"));
+    block.add(X_XSS_PROTECTION, AsciiString.of("1; mode=block"));
+    block.add(REFERRER_POLICY, AsciiString.of("strict-origin-when-cross-origin"));
 
-    if (!cspPolicy.isEmpty()) {
-      headers.set("Content-Security-Policy", cspPolicy);
+    if (cspPolicy != null && !cspPolicy.isEmpty()) {
+      block.add(HttpHeaderNames.CONTENT_SECURITY_POLICY, AsciiString.of(cspPolicy));
     }
-    if (!permissionsPolicy.isEmpty()) {
-      headers.set("Permissions-Policy", permissionsPolicy);
+    if (permissionsPolicy != null && !permissionsPolicy.isEmpty()) {
+      block.add(PERMISSIONS_POLICY, AsciiString.of(permissionsPolicy));
     }
 
     if (https) {
-      headers.set("Strict-Transport-Security", "max-age=31536000; includeSubDomains");
+      block.add(STRICT_TRANSPORT_SECURITY, AsciiString.of("max-age=31536000; includeSubDomains"));
     }
+    // Encoded to bytes as they are, the name and value checks already done
+    this.headers = block;
+  }
 
+  @Override
+  public void handle(RequestContext ctx, MiddlewareChain chain) throws Exception {
+    ctx.getRequestHeaders().setAll(headers);
     chain.next(ctx);
   }
 }
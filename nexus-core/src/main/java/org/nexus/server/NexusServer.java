@@ -13,16 +13,33 @@ import io.netty.channel.nio.NioIoHandler;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketServerCompressionHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.nexus.NexusBeanScope;
 import org.nexus.NexusExecutor;
+import org.nexus.RoutesResolver;
+import org.nexus.accesslog.AccessLog;
+import org.nexus.config.ConcurrencyLimitConfig;
+import org.nexus.config.EventLoopMonitorConfig;
+import org.nexus.config.MetricsEndpointConfig;
 import org.nexus.config.ServerConfig;
+import org.nexus.config.TracingConfig;
 import org.nexus.handlers.DefaultHttpServerHandler;
 import org.nexus.interfaces.Middleware;
+import org.nexus.interfaces.SpanExporter;
+import org.nexus.limiter.AdmissionController;
+import org.nexus.metrics.EventLoopMonitor;
+import org.nexus.metrics.NexusMetrics;
+import org.nexus.metrics.PrometheusExporter;
+import org.nexus.middleware.CorsMiddleware;
 import org.nexus.middleware.LoggingMiddleware;
+import org.nexus.tracing.BatchSpanProcessor;
+import org.nexus.tracing.NexusTracing;
+import org.nexus.tracing.OtlpFileExporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,9 +49,15 @@ public class NexusServer {
 
   private final ServerConfig config;
   private final List<Middleware> middlewares;
+  private final AdmissionController admissionController;
+  private final NexusMetrics metrics;
+  private final EventLoopMonitor eventLoopMonitor;
+  // Only when the server made its own LoggingMiddleware
+  private final AccessLog accessLog;
   private EventLoopGroup bossGroup;
   private EventLoopGroup workerGroup;
   private Channel serverChannel;
+  private BatchSpanProcessor spanProcessor;
 
   /**
    * Creates a new NexusServer with default middlewares.
@@ -43,11 +66,22 @@ public class NexusServer {
    */
   public NexusServer(ServerConfig config) {
     this.config = config;
+    this.accessLog = config.getAccessLog().enabled()
+        ? AccessLog.open(config.getAccessLog())
+        : null;
     List<Middleware> all = new ArrayList<>();
-    all.add(new LoggingMiddleware()); //default middleware
+    all.add(new LoggingMiddleware(accessLog)); //default middleware
+    if (config.getCors().enabled()) {
+      // Ahead of the user's middleware, so preflights don't need credentials to pass
+      all.add(new CorsMiddleware(config.getCors()));
+    }
     all.addAll(config.getMiddlewares());
 
     this.middlewares = List.copyOf(all);
+    this.admissionController = createAdmissionController(config);
+    this.metrics = config.isMetricsEnabled() ? new NexusMetrics() : null;
+    this.eventLoopMonitor = createEventLoopMonitor(config);
+    registerMetricsEndpoint();
     verifyRoutesAvailability();
   }
 
@@ -61,6 +95,11 @@ public class NexusServer {
     this.config = config;
     // Use exactly the provided list; Caller decides whether to include defaults.
     this.middlewares = List.copyOf(middlewares);
+    this.accessLog = null;
+    this.admissionController = createAdmissionController(config);
+    this.metrics = config.isMetricsEnabled() ? new NexusMetrics() : null;
+    this.eventLoopMonitor = createEventLoopMonitor(config);
+    registerMetricsEndpoint();
     verifyRoutesAvailability();
   }
 
@@ -82,9 +121,14 @@ public class NexusServer {
    */
   public void start() throws Exception {
     ensureBeanScopeInitialized();
+    // Before any thread is started, so an exporter that can't open leaves nothing to shut down
+    startTracing();
 
     bossGroup = new MultiThreadIoEventLoopGroup(1, NioIoHandler.newFactory());
     workerGroup = new MultiThreadIoEventLoopGroup(8, NioIoHandler.newFactory());
+    if (eventLoopMonitor != null) {
+      eventLoopMonitor.start(workerGroup);
+    }
 
     ServerBootstrap b = new ServerBootstrap();
     b.group(bossGroup, workerGroup)
@@ -132,6 +176,9 @@ public class NexusServer {
    */
   protected void configurePipeline(Channel ch) {
     ChannelPipeline p = ch.pipeline();
+    if (eventLoopMonitor != null) {
+      eventLoopMonitor.register(ch);
+    }
 
     // Add SSL first if enabled
     /*if (config.isSslEnabled() && config.getSslConfig() != null) {
@@ -144,6 +191,12 @@ public class NexusServer {
     // Add aggregator for full HTTP requests
     p.addLast(new HttpObjectAggregator(config.getMaxContentLength()));
 
+    // Negotiates permessage-deflate on WebSocket upgrades, other requests pass through it.
+    // An inflated frame can't be bigger than a request body.
+    if (config.isWebSocketCompression()) {
+      p.addLast(new WebSocketServerCompressionHandler(config.getMaxContentLength()));
+    }
+
     // Add idle state handler
     p.addLast(new IdleStateHandler(
         config.getIdleTimeoutSeconds(),
@@ -152,8 +205,12 @@ public class NexusServer {
         TimeUnit.SECONDS
     ));
 
+    // Writes StreamingResponse bodies, pausing while the channel isn't writable
+    p.addLast(new ChunkedWriteHandler());
+
     // Add custom handlers with route resolution
-    p.addLast(new DefaultHttpServerHandler(middlewares));
+    p.addLast(new DefaultHttpServerHandler(
+        middlewares, admissionController, metrics, eventLoopMonitor));
   }
 
   /**
@@ -195,6 +252,21 @@ public class NexusServer {
       }
     }
 
+    if (accessLog != null) {
+      accessLog.close();
+    }
+
+    if (eventLoopMonitor != null) {
+      eventLoopMonitor.close();
+    }
+
+    if (spanProcessor != null) {
+      // Spans of requests still in flight are dropped
+      NexusTracing.uninstall();
+      spanProcessor.close();
+      spanProcessor = null;
+    }
+
     // dont close executor on tests
     if (!"true".equals(System.getProperty("nexus.test"))) {
       NexusExecutor.shutdown();
@@ -203,6 +275,85 @@ public class NexusServer {
     LOGGER.info("Server shutdown complete");
   }
 
+  /**
+   * Returns the admission controller shared by all connections, or {@code null} if the adaptive
+   * concurrency limit is disabled.
+   */
+  public AdmissionController getAdmissionController() {
+    return admissionController;
+  }
+
+  /**
+   * Returns the per-route metrics shared by all connections, or {@code null} if they are disabled.
+   */
+  public NexusMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the monitor of the worker event loops, or {@code null} if it is disabled.
+   */
+  public EventLoopMonitor getEventLoopMonitor() {
+    return eventLoopMonitor;
+  }
+
+  /**
+   * Returns the processor exporting spans, or {@code null} if tracing is disabled or the server
+   * isn't running.
+   */
+  public BatchSpanProcessor getSpanProcessor() {
+    return spanProcessor;
+  }
+
+  private void startTracing() {
+    TracingConfig tracing = config.getTracing();
+    if (!tracing.enabled()) {
+      return;
+    }
+    SpanExporter exporter = config.getSpanExporter() != null
+        ? config.getSpanExporter()
+        : OtlpFileExporter.open(tracing.path(), tracing.serviceName());
+    spanProcessor = new BatchSpanProcessor(
+        exporter, tracing.bufferSize(), tracing.batchSize(), tracing.intervalMillis());
+    BatchSpanProcessor previous = NexusTracing.install(spanProcessor, tracing.sampleRatio());
+    if (previous != null) {
+      LOGGER.warn("Replaced the span processor of another server");
+    }
+    LOGGER.info("Tracing enabled (sample ratio={}, exporter={})",
+        tracing.sampleRatio(), exporter.getClass().getSimpleName());
+  }
+
+  private static EventLoopMonitor createEventLoopMonitor(ServerConfig config) {
+    EventLoopMonitorConfig monitor = config.getEventLoopMonitor();
+    return monitor.enabled() ? new EventLoopMonitor(monitor) : null;
+  }
+
+  private void registerMetricsEndpoint() {
+    MetricsEndpointConfig endpoint = config.getMetricsEndpoint();
+    if (!endpoint.enabled()) {
+      return;
+    }
+    if (metrics == null) {
+      LOGGER.warn("Metrics endpoint enabled but metrics are disabled, not serving {}",
+          endpoint.path());
+      return;
+    }
+    PrometheusExporter exporter = new PrometheusExporter(
+        metrics, admissionController, eventLoopMonitor, accessLog, endpoint.refreshMillis());
+    RoutesResolver.register(exporter.route(endpoint.path()));
+    LOGGER.info("Serving metrics on {}", endpoint.path());
+  }
+
+  private static AdmissionController createAdmissionController(ServerConfig config) {
+    ConcurrencyLimitConfig limit = config.getConcurrencyLimit();
+    if (limit == null || !limit.enabled()) {
+      return null;
+    }
+    LOGGER.info("Adaptive concurrency limit enabled (initial={}, min={}, max={}, perRoute={})",
+        limit.initialLimit(), limit.minLimit(), limit.maxLimit(), limit.perRoute());
+    return new AdmissionController(limit);
+  }
+
   private void verifyRoutesAvailability() {
     try {
       Class.forName("org.nexus.GeneratedRoutes");
@@ -0,0 +1,102 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nexus.accesslog.AccessLog;
+import org.nexus.accesslog.AccessLogFormat;
+import org.nexus.config.AccessLogConfig;
+
+@DisplayName("Access Log Tests")
+class AccessLogTest {
+
+  @TempDir
+  Path dir;
+
+  private static RequestContext newContext(String uri) {
+    FullHttpRequest request = TestRequests.request(HttpMethod.GET, uri);
+    request.headers().set("User-Agent", "test \"agent\"");
+    request.headers().set("X-Request-ID", "42");
+    return TestRequests.context(request);
+  }
+
+  /**
+   * A response as the log gets it once written: the length set, the body already released.
+   */
+  private static FullHttpResponse response(int bytes) {
+    FullHttpResponse response = new DefaultFullHttpResponse(
+        HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(new byte[bytes]));
+    HttpUtil.setContentLength(response, bytes);
+    response.release();
+    return response;
+  }
+
+  @Test
+  @DisplayName("Should write combined log lines with quotes escaped")
+  void combined_escapesQuotes() throws IOException {
+    Path file = dir.resolve("access.log");
+    AccessLog log = AccessLog.open(
+        new AccessLogConfig(true, AccessLogFormat.COMBINED, file, 1_000_000, 1, 16));
+
+    log.record(newContext("/users?page=1"), response(5));
+    log.record(newContext("/missing"), null);
+    log.close();
+
+    List<String> lines = Files.readAllLines(file, StandardCharsets.ISO_8859_1);
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0).matches(
+        "- - - \\[.+] \"GET /users\\?page=1 HTTP/1.1\" 200 5 \"-\" \"test \\\\\"agent\\\\\"\""),
+        lines.get(0));
+    assertTrue(lines.get(1).contains("\"GET /missing HTTP/1.1\" - -"), lines.get(1));
+    assertEquals(2, log.getWrittenCount());
+    assertEquals(0, log.getDroppedCount());
+  }
+
+  @Test
+  @DisplayName("Should write JSON lines and roll the file over by size")
+  void json_rollsOver() throws IOException {
+    Path file = dir.resolve("access.log");
+    AccessLog log = AccessLog.open(
+        new AccessLogConfig(true, AccessLogFormat.JSON, file, 300, 2, 16));
+
+    for (int i = 0; i < 5; i++) {
+      log.record(newContext("/items/" + i), response(i));
+    }
+    log.close();
+
+    String first = Files.readString(dir.resolve("access.log.2"), StandardCharsets.ISO_8859_1);
+    assertTrue(first.contains("\"uri\":\"/items/2\""), first);
+    assertTrue(first.contains("\"status\":200,\"bytes\":2"), first);
+    assertTrue(first.contains("\"request_id\":\"42\""), first);
+    assertTrue(first.contains("\"user_agent\":\"test \\\"agent\\\"\""), first);
+    assertTrue(Files.readString(file).contains("/items/4"));
+    assertEquals(5, log.getWrittenCount());
+  }
+
+  @Test
+  @DisplayName("Should reject buffers of fewer than two entries")
+  void bufferSize_atLeastTwo() {
+    Path file = dir.resolve("access.log");
+    assertThrows(IllegalArgumentException.class,
+        () -> new AccessLogConfig(true, AccessLogFormat.COMBINED, file, 1_000_000, 1, 1));
+    assertEquals(2,
+        new AccessLogConfig(true, AccessLogFormat.COMBINED, file, 1_000_000, 1, 2).bufferSize());
+  }
+}
@@ -0,0 +1,113 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.HttpMethod;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.config.ConcurrencyLimitConfig;
+import org.nexus.limiter.AdmissionController;
+import org.nexus.limiter.AdmissionController.Permit;
+import org.nexus.limiter.GradientConcurrencyLimiter;
+
+@DisplayName("Admission Control Tests")
+class AdmissionControllerTest {
+
+  private static final Route<String> ROUTE = new Route<>(HttpMethod.GET, "/limited",
+      _ -> CompletableFuture.completedFuture(new Response<>(200, "OK")));
+
+  @Test
+  @DisplayName("Should reject once the global limit is reached")
+  void globalLimit_rejectsOverflow() {
+    AdmissionController controller = new AdmissionController(
+        new ConcurrencyLimitConfig(true, false, 1, 1, 10, 1));
+
+    Permit permit = controller.tryAcquire(ROUTE);
+    assertNotNull(permit);
+    assertNull(controller.tryAcquire(ROUTE));
+    assertEquals(1, controller.getGlobalLimiter().getRejectedCount());
+
+    permit.release(false);
+    permit.release(false); // idempotent
+    assertEquals(0, controller.getGlobalLimiter().getInFlight());
+    assertNotNull(controller.tryAcquire(ROUTE));
+  }
+
+  @Test
+  @DisplayName("Should free a cancelled permit without touching the limit")
+  void cancel_leavesLimitAlone() {
+    AdmissionController controller = new AdmissionController(
+        new ConcurrencyLimitConfig(true, true, 20, 10, 100, 1));
+    GradientConcurrencyLimiter global = controller.getGlobalLimiter();
+
+    for (int i = 0; i < 10; i++) {
+      controller.tryAcquire(ROUTE).cancel();
+    }
+    assertEquals(20, global.getLimit());
+    assertEquals(0, global.getInFlight());
+    assertEquals(0, controller.getRouteLimiters().get("GET /limited").getInFlight());
+
+    Permit permit = controller.tryAcquire(ROUTE);
+    permit.cancel();
+    permit.release(true); // already released
+    assertEquals(20, global.getLimit());
+    assertEquals(0, global.getInFlight());
+  }
+
+  @Test
+  @DisplayName("Should keep a separate limiter per route")
+  void perRoute_tracksRoutesSeparately() {
+    AdmissionController controller = new AdmissionController(
+        new ConcurrencyLimitConfig(true, true, 1, 1, 10, 1));
+
+    Permit permit = controller.tryAcquire(ROUTE);
+    assertNotNull(permit);
+    assertEquals(1, controller.getRouteLimiters().get("GET /limited").getInFlight());
+
+    permit.release(false);
+    assertEquals(0, controller.getRouteLimiters().get("GET /limited").getInFlight());
+    assertEquals(0, controller.getGlobalLimiter().getInFlight());
+  }
+
+  @Test
+  @DisplayName("Should shrink the limit when latency grows and on drops")
+  void limit_adaptsToLatency() {
+    GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter("test", 100, 10, 1000);
+
+    runAtFullLoad(limiter, 50, 1_000_000L);
+    int steady = limiter.getLimit();
+
+    // Latency jumps while at full load, requests are queueing somewhere
+    acquireAll(limiter);
+    for (int i = 0; i < 5; i++) {
+      limiter.release(50_000_000L, false);
+    }
+    assertTrue(limiter.getLimit() < steady,
+        "limit should shrink, was " + steady + " now " + limiter.getLimit());
+
+    int before = limiter.getLimit();
+    limiter.release(1_000_000L, true);
+    assertTrue(limiter.getLimit() < before);
+  }
+
+  private static void runAtFullLoad(GradientConcurrencyLimiter limiter, int rounds, long rtt) {
+    for (int i = 0; i < rounds; i++) {
+      int admitted = acquireAll(limiter);
+      for (int j = 0; j < admitted; j++) {
+        limiter.release(rtt, false);
+      }
+    }
+  }
+
+  private static int acquireAll(GradientConcurrencyLimiter limiter) {
+    int admitted = 0;
+    while (limiter.tryAcquire()) {
+      admitted++;
+    }
+    return admitted;
+  }
+}
@@ -0,0 +1,129 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.config.CorsConfig;
+import org.nexus.middleware.CorsMiddleware;
+import org.nexus.middleware.SecurityHeadersMiddleware;
+
+@DisplayName("CORS Tests")
+class CorsMiddlewareTest {
+
+  private static final CorsConfig CONFIG = new CorsConfig(
+      true,
+      List.of("https://app.example.org", "https://*.example.com"),
+      "GET, POST",
+      "Content-Type",
+      "X-Request-ID",
+      true,
+      600
+  );
+
+  private static RequestContext newContext(HttpMethod method, String origin) {
+    FullHttpRequest request = TestRequests.request(method, "/users?page=1");
+    if (origin != null) {
+      request.headers().set("Origin", origin);
+    }
+    return TestRequests.context(request);
+  }
+
+  @Test
+  @DisplayName("Should allow exact and wildcard origins and echo them back")
+  void allowedOrigins_areEchoed() throws Exception {
+    CorsMiddleware cors = new CorsMiddleware(CONFIG);
+    AtomicInteger calls = new AtomicInteger();
+
+    for (String origin : List.of("https://app.example.org", "https://api.example.com")) {
+      RequestContext ctx = newContext(HttpMethod.GET, origin);
+      cors.handle(ctx, _ -> calls.incrementAndGet());
+
+      HttpHeaders headers = ctx.getRequestHeaders();
+      assertEquals(origin, headers.get("Access-Control-Allow-Origin"));
+      assertEquals("true", headers.get("Access-Control-Allow-Credentials"));
+      assertEquals("X-Request-ID", headers.get("Access-Control-Expose-Headers"));
+      assertEquals("Origin", headers.get("Vary"));
+    }
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  @DisplayName("Should leave out CORS headers for origins that aren't allowed")
+  void otherOrigins_getNoHeaders() throws Exception {
+    CorsMiddleware cors = new CorsMiddleware(CONFIG);
+
+    for (String origin : List.of(
+        "https://example.com",
+        "http://api.example.com",
+        "https://evil.org/.example.com",
+        "https://app.example.org.evil.org")) {
+      RequestContext ctx = newContext(HttpMethod.GET, origin);
+      AtomicInteger calls = new AtomicInteger();
+      cors.handle(ctx, _ -> calls.incrementAndGet());
+
+      assertEquals(1, calls.get());
+      assertNull(ctx.getRequestHeaders().get("Access-Control-Allow-Origin"), origin);
+      assertEquals("Origin", ctx.getRequestHeaders().get("Vary"));
+    }
+  }
+
+  @Test
+  @DisplayName("Should answer a preflight without calling the rest of the chain")
+  void preflight_isAnswered() throws Exception {
+    CorsMiddleware cors = new CorsMiddleware(CONFIG);
+    RequestContext ctx = newContext(HttpMethod.OPTIONS, "https://app.example.org");
+    ctx.getRequest().headers().set("Access-Control-Request-Method", "POST");
+    AtomicInteger calls = new AtomicInteger();
+
+    cors.handle(ctx, _ -> calls.incrementAndGet());
+
+    assertEquals(0, calls.get());
+    assertEquals(204, ctx.getMiddlewareResponse().status().code());
+    HttpHeaders headers = ctx.getRequestHeaders();
+    assertEquals("https://app.example.org", headers.get("Access-Control-Allow-Origin"));
+    assertEquals("GET, POST", headers.get("Access-Control-Allow-Methods"));
+    assertEquals("Content-Type", headers.get("Access-Control-Allow-Headers"));
+    assertEquals("600", headers.get("Access-Control-Max-Age"));
+  }
+
+  @Test
+  @DisplayName("Should send a wildcard origin when any origin is allowed without credentials")
+  void anyOrigin_withoutCredentials() throws Exception {
+    CorsMiddleware cors = new CorsMiddleware(
+        new CorsConfig(true, List.of("*"), "GET", "", "", false, 0));
+    RequestContext ctx = newContext(HttpMethod.GET, "https://anything.test");
+
+    cors.handle(ctx, _ -> {
+    });
+
+    assertEquals("*", ctx.getRequestHeaders().get("Access-Control-Allow-Origin"));
+    assertFalse(ctx.getRequestHeaders().contains("Vary"));
+    assertFalse(ctx.getRequestHeaders().contains("Access-Control-Allow-Credentials"));
+  }
+
+  @Test
+  @DisplayName("Should replace headers already set instead of repeating them")
+  void headerBlocks_replaceExistingHeaders() throws Exception {
+    RequestContext ctx = newContext(HttpMethod.GET, "https://app.example.org");
+    ctx.getRequestHeaders()
+        .set("Access-Control-Allow-Origin", "*")
+        .set("X-Frame-Options", "SAMEORIGIN");
+
+    new CorsMiddleware(CONFIG).handle(ctx, _ -> {
+    });
+    new SecurityHeadersMiddleware(false).handle(ctx, _ -> {
+    });
+
+    HttpHeaders headers = ctx.getRequestHeaders();
+    assertEquals(List.of("https://app.example.org"), headers.getAll("Access-Control-Allow-Origin"));
+    assertEquals(List.of("DENY"), headers.getAll("X-Frame-Options"));
+  }
+}
@@ -4,16 +4,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -198,4 +203,118 @@ class EndToEndTests {
 
     assertEquals(200, response.statusCode());
   }
+
+  @Test
+  @Order(7)
+  void testStreamingResponse() throws Exception {
+    HttpResponse<String> response = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/db-stream"))
+            .GET()
+            .build(),
+        HttpResponse.BodyHandlers.ofString()
+    );
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.headers().firstValue("content-length").isEmpty(),
+        "Streamed responses should be chunked");
+    JsonNode data = MAPPER.readTree(response.body()).get("data");
+    assertEquals(3, data.size());
+    assertEquals("Alice", data.get(0).get("name").asText());
+    assertEquals("Charlie", data.get(2).get("name").asText());
+  }
+
+  @Test
+  @Order(8)
+  void testEventStream() throws Exception {
+    HttpResponse<String> response = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/events"))
+            .header("Accept", "text/event-stream")
+            .GET()
+            .build(),
+        HttpResponse.BodyHandlers.ofString()
+    );
+
+    assertEquals(200, response.statusCode());
+    assertEquals("text/event-stream",
+        response.headers().firstValue("content-type").orElse(null));
+    assertEquals("event: greeting\ndata: {\"hello\":\"world\"}\n\n", response.body());
+  }
+
+  @Test
+  @Order(9)
+  void testWebSocketEcho() throws Exception {
+    CompletableFuture<String> reply = new CompletableFuture<>();
+    WebSocket webSocket = httpClient.newWebSocketBuilder()
+        .buildAsync(URI.create(baseUrl.replace("http", "ws") + "/ws/echo"),
+            new WebSocket.Listener() {
+              @Override
+              public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+                reply.complete(data.toString());
+                return null;
+              }
+            })
+        .get(5, TimeUnit.SECONDS);
+
+    webSocket.sendText("ping", true);
+    assertEquals("{\"echo\":\"ping\"}", reply.get(5, TimeUnit.SECONDS));
+    webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "").get(5, TimeUnit.SECONDS);
+
+    HttpResponse<String> plain = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/ws/echo"))
+            .GET()
+            .build(),
+        HttpResponse.BodyHandlers.ofString()
+    );
+    assertEquals(426, plain.statusCode());
+    assertEquals("websocket", plain.headers().firstValue("Upgrade").orElse(null));
+    assertEquals("application/problem+json",
+        plain.headers().firstValue("Content-Type").orElse(null));
+  }
+
+  @Test
+  @Order(10)
+  void testHeadOptionsAndMethodNotAllowed() throws Exception {
+    HttpResponse<String> head = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/health"))
+            .HEAD()
+            .build(),
+        HttpResponse.BodyHandlers.ofString()
+    );
+    assertEquals(200, head.statusCode());
+    assertEquals("", head.body());
+
+    HttpResponse<String> options = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/health"))
+            .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+            .build(),
+        HttpResponse.BodyHandlers.ofString()
+    );
+    assertEquals(204, options.statusCode());
+    assertEquals("OPTIONS, GET, HEAD", options.headers().firstValue("Allow").orElseThrow());
+
+    HttpResponse<String> delete = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/path/1/x"))
+            .DELETE()
+            .build(),
+        HttpResponse.BodyHandlers.ofString()
+    );
+    assertEquals(405, delete.statusCode());
+    assertEquals("OPTIONS, GET, HEAD", delete.headers().firstValue("Allow").orElseThrow());
+  }
+
+  @Test
+  @Order(11)
+  void testMetricsEndpoint() throws Exception {
+    HttpResponse<String> response = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/metrics")).GET().build(),
+        HttpResponse.BodyHandlers.ofString()
+    );
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.headers().firstValue("Content-Type").orElseThrow()
+        .startsWith("text/plain"));
+    assertTrue(response.body().contains("# TYPE nexus_http_request_duration_seconds histogram"));
+    assertTrue(response.body().contains("nexus_http_requests_total{route=\"GET /health\"}"),
+        response.body());
+  }
 }
@@ -0,0 +1,61 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.codec.http.HttpMethod;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.config.EventLoopMonitorConfig;
+import org.nexus.metrics.EventLoopMonitor;
+import org.nexus.metrics.EventLoopMonitor.LoopStats;
+
+@DisplayName("Event Loop Monitor Tests")
+class EventLoopMonitorTest {
+
+  @Test
+  @DisplayName("Should measure lag and count a loop blocked past the threshold")
+  void blockedLoop_isDetected() throws Exception {
+    EventLoopGroup group = new DefaultEventLoopGroup(2);
+    EventLoopMonitor monitor = new EventLoopMonitor(new EventLoopMonitorConfig(true, 10, 100, 50));
+    try {
+      monitor.start(group);
+      group.next().submit(() -> {
+        Thread.sleep(300);
+        return null;
+      }).get();
+      Thread.sleep(50);
+
+      LoopStats blocked = monitor.getLoops().stream()
+          .filter(loop -> loop.blockedCount() > 0)
+          .findFirst()
+          .orElseThrow();
+      assertEquals(1, blocked.blockedCount());
+      assertTrue(blocked.lag().getMax() >= TimeUnit.MILLISECONDS.toNanos(200),
+          "max lag was " + blocked.lag().getMax());
+      assertEquals(2, monitor.getLoops().size());
+    } finally {
+      monitor.close();
+      group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+  }
+
+  @Test
+  @DisplayName("Should count slow handlers by route template")
+  void slowHandlers_areCountedByRoute() {
+    Route<String> route = new Route<>(HttpMethod.GET, "/reports/:id",
+        _ -> CompletableFuture.completedFuture(new Response<>(200, "OK")));
+    EventLoopMonitor monitor = new EventLoopMonitor(new EventLoopMonitorConfig(true, 10, 100, 50));
+
+    monitor.handled(route, TimeUnit.MILLISECONDS.toNanos(1));
+    monitor.handled(route, TimeUnit.MILLISECONDS.toNanos(80));
+    monitor.handled(null, TimeUnit.MILLISECONDS.toNanos(60));
+
+    assertEquals(Map.of("GET /reports/:id", 1L, "unmatched", 1L), monitor.getSlowHandlers());
+  }
+}
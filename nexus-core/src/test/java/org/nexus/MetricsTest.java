@@ -0,0 +1,95 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.HttpMethod;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.metrics.LatencyHistogram;
+import org.nexus.metrics.NexusMetrics;
+import org.nexus.metrics.RouteMetrics;
+
+@DisplayName("Metrics Tests")
+class MetricsTest {
+
+  private static Route<String> route(HttpMethod method, String path) {
+    return new Route<>(method, path,
+        _ -> CompletableFuture.completedFuture(new Response<>(200, "OK")));
+  }
+
+  @Test
+  @DisplayName("Should report percentiles within the bucket precision")
+  void histogram_percentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int ms = 1; ms <= 1000; ms++) {
+      histogram.record(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(1000, snapshot.getCount());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), snapshot.getMax());
+    assertEquals(500.5, snapshot.getMean() / 1_000_000, 0.001);
+    for (double p : new double[] {50, 90, 99, 99.9}) {
+      double expected = TimeUnit.MILLISECONDS.toNanos((long) (p * 10));
+      double actual = snapshot.getValueAtPercentile(p);
+      assertTrue(actual >= expected && actual <= expected * 1.04, p + "% was " + actual);
+    }
+    assertEquals(snapshot.getMax(), snapshot.getValueAtPercentile(100));
+    assertEquals(10, snapshot.getCountAtOrBelow(TimeUnit.MILLISECONDS.toNanos(10)));
+    assertEquals(1000, snapshot.getCountAtOrBelow(Long.MAX_VALUE));
+  }
+
+  @Test
+  @DisplayName("Should keep exact values below 64 microseconds")
+  void histogram_smallValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(63));
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(999, snapshot.getValueAtPercentile(10));
+    assertEquals(3999, snapshot.getValueAtPercentile(50));
+    assertEquals(63_000, snapshot.getValueAtPercentile(99));
+    assertEquals(2, snapshot.getCountAtOrBelow(3999));
+  }
+
+  @Test
+  @DisplayName("Should key metrics by route template and count errors, bytes and in-flight")
+  void routeMetrics_countsByTemplate() {
+    NexusMetrics metrics = new NexusMetrics();
+    Route<String> user = route(HttpMethod.GET, "/users/:id");
+    Route<String> create = route(HttpMethod.POST, "/users");
+
+    RouteMetrics userMetrics = metrics.forRoute(user);
+    assertSame(userMetrics, metrics.forRoute(user));
+    userMetrics.started(0);
+    userMetrics.started(0);
+    userMetrics.completed(200, 120, 1_000_000);
+    assertEquals(1, userMetrics.getInFlight());
+    userMetrics.completed(503, 40, 2_000_000);
+
+    metrics.forRoute(create).started(64);
+    metrics.forRoute(create).completed(422, 10, 500_000);
+    metrics.forRoute(null).started(0);
+    metrics.forRoute(null).completed(404, 0, 1_000);
+
+    assertEquals(2, userMetrics.getRequests());
+    assertEquals(1, userMetrics.getServerErrors());
+    assertEquals(0, userMetrics.getClientErrors());
+    assertEquals(160, userMetrics.getBytesOut());
+    assertEquals(0, userMetrics.getInFlight());
+    assertEquals(2, userMetrics.getLatency().snapshot().getCount());
+    assertEquals(64, metrics.forRoute(create).getBytesIn());
+    assertEquals(1, metrics.forRoute(create).getClientErrors());
+
+    List<String> names = metrics.getRoutes().stream().map(RouteMetrics::getName).toList();
+    assertEquals(List.of("GET /users/:id", "POST /users", NexusMetrics.UNMATCHED), names);
+    assertEquals(1, metrics.getUnmatched().getClientErrors());
+  }
+}
@@ -0,0 +1,88 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.metrics.NexusMetrics;
+import org.nexus.metrics.PrometheusExporter;
+import org.nexus.metrics.RouteMetrics;
+
+@DisplayName("Prometheus Exporter Tests")
+class PrometheusExporterTest {
+
+  private static final Route<String> ROUTE = new Route<>(HttpMethod.GET, "/users/:id",
+      _ -> CompletableFuture.completedFuture(new Response<>(200, "OK")));
+
+  private static String body(FullHttpResponse response) {
+    return response.content().toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  @DisplayName("Should render route metrics in the Prometheus text format")
+  void scrape_rendersRoutes() {
+    NexusMetrics metrics = new NexusMetrics();
+    RouteMetrics route = metrics.forRoute(ROUTE);
+    route.started(10);
+    route.completed(200, 100, 2_000_000);
+    route.started(0);
+    route.completed(500, 20, 300_000_000);
+
+    PrometheusExporter exporter = new PrometheusExporter(metrics, null, null, null, 60_000);
+    FullHttpResponse response = exporter.scrape();
+    String text = body(response);
+
+    assertTrue(response.headers().get("Content-Type").startsWith("text/plain; version=0.0.4"));
+    assertTrue(text.contains("# TYPE nexus_http_requests_total counter\n"), text);
+    assertTrue(text.contains("nexus_http_requests_total{route=\"GET /users/:id\"} 2\n"), text);
+    assertTrue(text.contains("nexus_http_requests_total{route=\"unmatched\"} 0\n"), text);
+    assertTrue(text.contains(
+        "nexus_http_errors_total{route=\"GET /users/:id\",class=\"5xx\"} 1\n"), text);
+    assertTrue(text.contains("nexus_http_response_bytes_total{route=\"GET /users/:id\"} 120\n"));
+    assertTrue(text.contains(
+        "nexus_http_request_duration_seconds_bucket{route=\"GET /users/:id\",le=\"0.0025\"} 1\n"));
+    assertTrue(text.contains(
+        "nexus_http_request_duration_seconds_bucket{route=\"GET /users/:id\",le=\"+Inf\"} 2\n"));
+    assertTrue(text.contains(
+        "nexus_http_request_duration_seconds_count{route=\"GET /users/:id\"} 2\n"));
+  }
+
+  @Test
+  @DisplayName("Should serve the same rendering until the refresh interval has passed")
+  void scrape_reusesRendering() {
+    NexusMetrics metrics = new NexusMetrics();
+    PrometheusExporter cached = new PrometheusExporter(metrics, null, null, null, 60_000);
+    FullHttpResponse first = cached.scrape();
+    metrics.forRoute(ROUTE).started(0);
+    assertSame(first, cached.scrape());
+
+    PrometheusExporter uncached = new PrometheusExporter(metrics, null, null, null, 0);
+    FullHttpResponse before = uncached.scrape();
+    metrics.forRoute(ROUTE).completed(200, 0, 1_000);
+    FullHttpResponse after = uncached.scrape();
+    assertNotSame(before, after);
+    assertTrue(body(after).contains("nexus_http_requests_total{route=\"GET /users/:id\"} 1\n"));
+  }
+
+  @Test
+  @DisplayName("Should serve built-in routes through the routes resolver")
+  void route_isResolved() {
+    PrometheusExporter exporter =
+        new PrometheusExporter(new NexusMetrics(), null, null, null, 1000);
+    RoutesResolver.register(exporter.route("/internal/metrics-test"));
+
+    RoutesResolver.RouteMatch match =
+        RoutesResolver.findMatchingRoute("GET", "/internal/metrics-test");
+    assertEquals(Map.of(), match.params());
+    assertEquals("OPTIONS, GET, HEAD",
+        RoutesResolver.findAllowedMethods("/internal/metrics-test"));
+  }
+}
@@ -0,0 +1,170 @@
+package org.nexus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nexus.config.jwt.JwtConfig;
+import org.nexus.config.jwt.JwtService;
+import org.nexus.exceptions.ProblemDetailsException;
+import org.nexus.limiter.RateLimitStore;
+import org.nexus.limiter.TokenBucketRateLimiter;
+import org.nexus.middleware.RateLimitKeyResolver;
+import org.nexus.middleware.RateLimitMiddleware;
+
+@DisplayName("Rate Limit Tests")
+class RateLimitMiddlewareTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  private static RequestContext newContext(String apiKey) {
+    return newContext("X-API-Key", apiKey);
+  }
+
+  private static RequestContext newContext(String header, String value) {
+    FullHttpRequest request = TestRequests.request(HttpMethod.GET, "/limited");
+    if (value != null) {
+      request.headers().set(header, value);
+    }
+    return TestRequests.context(request);
+  }
+
+  @Test
+  @DisplayName("Should allow a full burst, then refill one token per interval")
+  void bucket_burstThenRefill() {
+    TokenBucketRateLimiter limiter =
+        new TokenBucketRateLimiter("test", 10, Duration.ofSeconds(10), 4, null);
+    long now = 0;
+
+    for (int i = 9; i >= 0; i--) {
+      long backlog = limiter.acquire("a", now);
+      assertTrue(limiter.isAdmitted(backlog));
+      assertEquals(i, limiter.remaining(backlog));
+    }
+
+    long rejected = limiter.acquire("a", now);
+    assertFalse(limiter.isAdmitted(rejected));
+    assertEquals(SECOND, limiter.retryAfterNanos(rejected));
+    assertEquals(1, limiter.getRejectedCount());
+
+    // Other keys have their own bucket
+    assertTrue(limiter.isAdmitted(limiter.acquire("b", now)));
+
+    assertTrue(limiter.isAdmitted(limiter.acquire("a", now + SECOND)));
+    assertFalse(limiter.isAdmitted(limiter.acquire("a", now + SECOND)));
+  }
+
+  @Test
+  @DisplayName("Should evict only buckets that refilled and stayed idle")
+  void eviction_dropsIdleBuckets() {
+    TokenBucketRateLimiter limiter =
+        new TokenBucketRateLimiter("test", 10, Duration.ofSeconds(10), 4, null);
+    for (int i = 0; i < 1000; i++) {
+      limiter.acquire("client-" + i, 0);
+    }
+    limiter.acquire("busy", 0);
+    limiter.acquire("busy", 5 * SECOND);
+    assertEquals(1001, limiter.getKeyCount());
+
+    assertEquals(0, limiter.evictIdle(SECOND, SECOND));
+    assertEquals(1000, limiter.evictIdle(3 * SECOND, SECOND));
+    assertEquals(1, limiter.getKeyCount());
+  }
+
+  @Test
+  @DisplayName("Should push consumption to the store and adopt the shared state")
+  void sync_mergesWithStore() {
+    Map<String, Long> shared = new HashMap<>();
+    RateLimitStore store = new RateLimitStore() {
+      @Override
+      public long merge(String key, long consumedNanos, long nowEpochNanos) {
+        return shared.merge(key, nowEpochNanos + consumedNanos,
+            (tat, _) -> Math.max(tat, nowEpochNanos) + consumedNanos);
+      }
+
+      @Override
+      public void evict(long beforeEpochNanos) {
+        shared.values().removeIf(tat -> tat < beforeEpochNanos);
+      }
+    };
+    long epoch = 1_000_000 * SECOND;
+    // Another node already used 8 of the 10 tokens
+    shared.put("a", epoch + 8 * SECOND);
+
+    TokenBucketRateLimiter limiter =
+        new TokenBucketRateLimiter("test", 10, Duration.ofSeconds(10), 1, store);
+    limiter.acquire("a", 0);
+    limiter.sync(0, epoch);
+
+    assertEquals(epoch + 9 * SECOND, shared.get("a"));
+    assertTrue(limiter.isAdmitted(limiter.acquire("a", 0)));
+    assertFalse(limiter.isAdmitted(limiter.acquire("a", 0)));
+  }
+
+  @Test
+  @DisplayName("Should set RateLimit headers and reject with 429 and Retry-After")
+  void middleware_setsHeadersAndRejects() throws Exception {
+    AtomicInteger passed = new AtomicInteger();
+    try (RateLimitMiddleware middleware = RateLimitMiddleware.builder()
+        .limit(2, Duration.ofMinutes(1))
+        .keyResolver(RateLimitKeyResolver.apiKey("X-API-Key"))
+        .build()) {
+
+      RequestContext first = newContext("k1");
+      middleware.handle(first, _ -> passed.incrementAndGet());
+      assertEquals("2", first.getRequestHeaders().get("RateLimit-Limit"));
+      assertEquals("1", first.getRequestHeaders().get("RateLimit-Remaining"));
+      assertEquals("30", first.getRequestHeaders().get("RateLimit-Reset"));
+
+      middleware.handle(newContext("k1"), _ -> passed.incrementAndGet());
+
+      RequestContext third = newContext("k1");
+      ProblemDetailsException e = assertThrows(ProblemDetailsException.class,
+          () -> middleware.handle(third, _ -> passed.incrementAndGet()));
+      assertEquals(429, e.getProblemDetails().getStatus());
+      assertEquals("0", third.getRequestHeaders().get("RateLimit-Remaining"));
+      assertEquals("30", third.getRequestHeaders().get("Retry-After"));
+
+      // No key, no limit
+      middleware.handle(newContext(null), _ -> passed.incrementAndGet());
+      assertEquals(3, passed.get());
+    }
+  }
+
+  @Test
+  @DisplayName("Should limit requests with an invalid bearer token by client IP")
+  void jwtSubject_invalidTokenFallsBackToClientIp() throws Exception {
+    NexusConfig.closeInstance();
+    NexusConfig config = NexusConfig.getInstance();
+    config.init(new String[0]);
+    JwtService jwtService = new JwtService(new JwtConfig(config));
+    RateLimitKeyResolver resolver = RateLimitKeyResolver.jwtSubject(jwtService);
+
+    String token = jwtService.generateAccessToken("user-1", Map.of());
+    assertEquals("sub:user-1", resolver.resolve(newContext("Authorization", "Bearer " + token)));
+    assertEquals("ip:embedded", resolver.resolve(newContext("Authorization", "Bearer x")));
+    assertEquals("ip:embedded", resolver.resolve(newContext("Authorization", null)));
+
+    AtomicInteger passed = new AtomicInteger();
+    try (RateLimitMiddleware middleware = RateLimitMiddleware.builder()
+        .limit(1, Duration.ofMinutes(1))
+        .keyResolver(resolver)
+        .build()) {
+      middleware.handle(newContext("Authorization", "Bearer x"), _ -> passed.incrementAndGet());
+      assertThrows(ProblemDetailsException.class, () -> middleware.handle(
+          newContext("Authorization", "Bearer y"), _ -> passed.incrementAndGet()));
+      assertEquals(1, passed.get());
+    } finally {
+      NexusConfig.closeInstance();
+    }
+  }
+}
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.nexus.config.ConcurrencyLimitConfig;
 import org.nexus.config.ServerConfig;
 import org.nexus.interfaces.Middleware;
 
@@ -198,6 +199,30 @@ class ServerConfigTest {
       assertTrue(config.isSslEnabled());
     }
 
+    @Test
+    @DisplayName("Reads adaptive concurrency limit from .env, disabled by default")
+    void readsConcurrencyLimit() throws IOException {
+      assertFalse(ServerConfig.builder().build().getConcurrencyLimit().enabled());
+
+      initConfig("""
+          CONCURRENCY_LIMIT_ENABLED=true
+          CONCURRENCY_LIMIT_PER_ROUTE=true
+          CONCURRENCY_LIMIT_INITIAL=50
+          CONCURRENCY_LIMIT_MIN=5
+          CONCURRENCY_LIMIT_MAX=500
+          CONCURRENCY_LIMIT_RETRY_AFTER=2
+          """);
+
+      ConcurrencyLimitConfig limit =
+          ServerConfig.from(NexusConfig.getInstance()).getConcurrencyLimit();
+      assertTrue(limit.enabled());
+      assertTrue(limit.perRoute());
+      assertEquals(50, limit.initialLimit());
+      assertEquals(5, limit.minLimit());
+      assertEquals(500, limit.maxLimit());
+      assertEquals(2, limit.retryAfter());
+    }
+
     @Test
     @DisplayName("SSL disabled when flag is false (even if keystore vars exist)")
     void sslDisabled() throws IOException {
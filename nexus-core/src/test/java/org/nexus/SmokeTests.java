@@ -108,6 +108,14 @@ class SmokeTests {
         HttpRequest.newBuilder(URI.create(baseUrl + "/not-found")).GET().build(),
         HttpResponse.BodyHandlers.ofString());
     assertEquals(404, res.statusCode());
+    assertEquals("application/problem+json", res.headers().firstValue("content-type").orElse(null));
+    assertTrue(res.body().contains("\"status\":404"));
+
+    // Served from the same pre-encoded body every time
+    HttpResponse<String> again = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/also-not-found")).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+    assertEquals(res.body(), again.body());
   }
 
   @Test
@@ -423,4 +431,21 @@ class SmokeTests {
       );
     }
   }
+
+  @Test
+  @Order(13)
+  @DisplayName("Should return 200 for blocking endpoints dispatched off the event loop")
+  void blockingEndpoints_returns200() throws Exception {
+    HttpResponse<String> res = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/blocking/response")).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, res.statusCode());
+    assertTrue(res.body().contains("virtual"));
+
+    res = httpClient.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/blocking/value")).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, res.statusCode());
+    assertTrue(res.body().contains("virtual"));
+  }
 }
@@ -1,5 +1,6 @@
 package org.nexus;
 
+import org.nexus.config.MetricsEndpointConfig;
 import org.nexus.config.ServerConfig;
 import org.nexus.middleware.SecurityHeadersMiddleware;
 import org.nexus.server.NexusServer;
@@ -31,6 +32,7 @@ public class TestNexusApplication extends NexusApplication {
         .idleTimeoutSeconds(300)
         .maxContentLength(1_048_576)
         .middleware(new SecurityHeadersMiddleware(true))
+        .metricsEndpoint(new MetricsEndpointConfig(true, "/metrics", 0))
         .build();
     return this.serverConfig;
   }
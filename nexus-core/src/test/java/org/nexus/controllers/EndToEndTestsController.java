@@ -12,11 +12,17 @@ import org.nexus.NexusDatabase;
 import org.nexus.NexusExecutor;
 import org.nexus.NexusStaticResponseRegistry;
 import org.nexus.Response;
+import org.nexus.SseEvent;
+import org.nexus.SseResponse;
+import org.nexus.StreamingResponse;
+import org.nexus.WebSocketResponse;
+import org.nexus.WebSocketSession;
 import org.nexus.annotations.Mapping;
 import org.nexus.annotations.QueryParam;
 import org.nexus.annotations.RequestBody;
 import org.nexus.dto.TestUserDTO;
 import org.nexus.enums.HttpMethod;
+import org.nexus.interfaces.WebSocketListener;
 
 @Singleton
 public class EndToEndTestsController {
@@ -159,6 +165,39 @@ public class EndToEndTestsController {
     }, NexusExecutor.get());
   }
 
+  @Mapping(type = HttpMethod.GET, endpoint = "/db-stream")
+  public CompletableFuture<Response<List<User>>> dbStream() {
+    // The query runs here, the rows are read as the response is written
+    return CompletableFuture.supplyAsync(() -> new StreamingResponse<>(200, db1.stream(
+        "SELECT id, name, email, age FROM users ORDER BY age",
+        100,
+        rs -> new User(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getInt("age")
+        )
+    )), NexusExecutor.get());
+  }
+
+  @Mapping(type = HttpMethod.GET, endpoint = "/events")
+  public SseResponse events() {
+    return new SseResponse(emitter -> {
+      emitter.send(SseEvent.of("greeting", Map.of("hello", "world")));
+      emitter.close();
+    });
+  }
+
+  @Mapping(type = HttpMethod.GET, endpoint = "/ws/echo")
+  public WebSocketResponse echoSocket() {
+    return new WebSocketResponse(new WebSocketListener() {
+      @Override
+      public void onText(WebSocketSession session, String text) {
+        session.send(Map.of("echo", text));
+      }
+    });
+  }
+
   public record User(int id, String name, String email, int age) {
 
   }
@@ -4,6 +4,7 @@ import jakarta.inject.Singleton;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import org.nexus.Response;
+import org.nexus.annotations.Blocking;
 import org.nexus.annotations.Mapping;
 import org.nexus.annotations.QueryParam;
 import org.nexus.annotations.RequestBody;
@@ -92,4 +93,15 @@ public class SmokeTestsController {
     return CompletableFuture.completedFuture(
         new Response<>(200, body));
   }
+
+  @Mapping(type = HttpMethod.GET, endpoint = "/blocking/response")
+  public Response<String> blockingResponseTest() {
+    return new Response<>(200, Thread.currentThread().isVirtual() ? "virtual" : "event-loop");
+  }
+
+  @Blocking
+  @Mapping(type = HttpMethod.GET, endpoint = "/blocking/value")
+  public String blockingValueTest() {
+    return Thread.currentThread().isVirtual() ? "virtual" : "event-loop";
+  }
 }
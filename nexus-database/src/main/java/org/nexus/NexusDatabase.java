@@ -9,8 +9,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.nexus.enums.SpanKind;
 import org.nexus.exceptions.DatabaseException;
 import org.nexus.interfaces.DatabaseConnector;
+import org.nexus.jfr.DatabaseEvent;
+import org.nexus.tracing.NexusTracing;
+import org.nexus.tracing.Span;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -110,16 +119,90 @@ public class NexusDatabase implements AutoCloseable {
    * @return A list of results
    */
   public <T> List<T> query(String sql, ResultSetMapper<T> mapper, Object... params) {
-    return withConnection(conn -> {
-      try (PreparedStatement stmt = prepareStatement(conn, sql, params);
-          ResultSet rs = stmt.executeQuery()) {
-        List<T> results = new ArrayList<>();
-        while (rs.next()) {
-          results.add(mapper.map(rs));
+    DatabaseEvent event = new DatabaseEvent();
+    event.begin();
+    Span span = NexusTracing.startSpan("query", SpanKind.CLIENT);
+    List<T> rows = null;
+    try {
+      rows = withConnection(conn -> {
+        try (PreparedStatement stmt = prepareStatement(conn, sql, params);
+            ResultSet rs = stmt.executeQuery()) {
+          List<T> results = new ArrayList<>();
+          while (rs.next()) {
+            results.add(mapper.map(rs));
+          }
+          return results;
+        }
+      });
+      return rows;
+    } finally {
+      finish(event, span, "query", sql, rows != null ? rows.size() : -1);
+    }
+  }
+
+  /**
+   * Execute a query and map the rows lazily, as the stream is consumed. The connection, statement
+   * and cursor stay open until the stream is closed, so always close it, e.g. with
+   * try-with-resources or by handing it to a {@code StreamingResponse}, which closes it once the
+   * response is written.
+   *
+   * @param sql       The SQL query
+   * @param fetchSize Rows the driver fetches per round trip, or 0 for the driver default. Some
+   *                  drivers, e.g. PostgreSQL, only fetch in batches inside a transaction
+   * @param mapper    Function to map ResultSet to result type T
+   * @param params    Query parameters
+   * @param <T>       The result type
+   * @return A stream of results backed by the open cursor
+   */
+  public <T> Stream<T> stream(String sql, int fetchSize, ResultSetMapper<T> mapper,
+      Object... params) {
+    // Both end when the stream is closed, with the rows read so far
+    DatabaseEvent event = new DatabaseEvent();
+    event.begin();
+    Span span = NexusTracing.startSpan("stream", SpanKind.CLIENT);
+    Connection conn = transactionConnection.get();
+    boolean isTransaction = (conn != null);
+    PreparedStatement stmt = null;
+    ResultSet rs;
+    try {
+      if (!isTransaction) {
+        conn = connector.getConnection();
+      }
+      stmt = prepareStatement(conn, sql, params);
+      stmt.setFetchSize(fetchSize);
+      rs = stmt.executeQuery();
+    } catch (SQLException e) {
+      closeCursor(null, stmt, isTransaction ? null : conn);
+      finish(event, span, "stream", sql, -1);
+      throw new DatabaseException("Database operation failed", e);
+    }
+
+    long[] read = {0}; // -1 once reading failed
+    Connection owned = isTransaction ? null : conn;
+    PreparedStatement statement = stmt;
+    Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(
+        Long.MAX_VALUE, Spliterator.ORDERED) {
+      @Override
+      public boolean tryAdvance(Consumer<? super T> action) {
+        try {
+          if (!rs.next()) {
+            return false;
+          }
+          T row = mapper.map(rs);
+          read[0]++;
+          action.accept(row);
+          return true;
+        } catch (SQLException e) {
+          read[0] = -1;
+          throw new DatabaseException("Database operation failed", e);
         }
-        return results;
       }
-    });
+    };
+    return StreamSupport.stream(rows, false)
+        .onClose(() -> {
+          closeCursor(rs, statement, owned);
+          finish(event, span, "stream", sql, read[0]);
+        });
   }
 
   /**
@@ -144,11 +227,20 @@ public class NexusDatabase implements AutoCloseable {
    * @return The number of rows affected
    */
   public int update(String sql, Object... params) {
-    return withConnection(conn -> {
-      try (PreparedStatement stmt = prepareStatement(conn, sql, params)) {
-        return stmt.executeUpdate();
-      }
-    });
+    DatabaseEvent event = new DatabaseEvent();
+    event.begin();
+    Span span = NexusTracing.startSpan("update", SpanKind.CLIENT);
+    int rows = -1;
+    try {
+      rows = withConnection(conn -> {
+        try (PreparedStatement stmt = prepareStatement(conn, sql, params)) {
+          return stmt.executeUpdate();
+        }
+      });
+      return rows;
+    } finally {
+      finish(event, span, "update", sql, rows);
+    }
   }
 
   /**
@@ -161,18 +253,30 @@ public class NexusDatabase implements AutoCloseable {
    * @return The generated key
    */
   public <K> K insert(String sql, ResultSetMapper<K> keyMapper, Object... params) {
-    return withConnection(conn -> {
-      try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-        setParameters(stmt, params);
-        stmt.executeUpdate();
-        try (ResultSet rs = stmt.getGeneratedKeys()) {
-          if (rs.next()) {
-            return keyMapper.map(rs);
+    DatabaseEvent event = new DatabaseEvent();
+    event.begin();
+    Span span = NexusTracing.startSpan("insert", SpanKind.CLIENT);
+    int[] rows = {-1};
+    try {
+      return withConnection(conn -> {
+        try (PreparedStatement stmt =
+            conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+          setParameters(stmt, params);
+          int updated = stmt.executeUpdate();
+          try (ResultSet rs = stmt.getGeneratedKeys()) {
+            if (!rs.next()) {
+              throw new SQLException("No generated keys returned");
+            }
+            K key = keyMapper.map(rs);
+            // Only an insert that gave back its key counts as done
+            rows[0] = updated;
+            return key;
           }
-          throw new SQLException("No generated keys returned");
         }
-      }
-    });
+      });
+    } finally {
+      finish(event, span, "insert", sql, rows[0]);
+    }
   }
 
   // endregion
@@ -208,6 +312,38 @@ public class NexusDatabase implements AutoCloseable {
     }
   }
 
+  /**
+   * Commits {@code event} if a recording takes it and ends {@code span} if there is one. The SQL is
+   * the statement as written, without its parameters, so no values end up in either.
+   *
+   * @param rows Rows returned or affected, {@code -1} if the statement failed
+   */
+  private static void finish(
+      DatabaseEvent event,
+      Span span,
+      String operation,
+      String sql,
+      long rows
+  ) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.sql = sql;
+      event.rows = rows;
+      event.commit();
+    }
+    if (span != null) {
+      span.setAttribute("db.operation.name", operation)
+          .setAttribute("db.query.text", sql);
+      if (rows >= 0) {
+        span.setAttribute("db.response.returned_rows", rows);
+      } else {
+        span.setError("Statement failed");
+      }
+      span.end();
+    }
+  }
+
   private PreparedStatement prepareStatement(Connection conn, String sql, Object[] params)
       throws SQLException {
     PreparedStatement stmt = conn.prepareStatement(sql);
@@ -221,6 +357,18 @@ public class NexusDatabase implements AutoCloseable {
     }
   }
 
+  private void closeCursor(ResultSet rs, Statement stmt, Connection conn) {
+    for (AutoCloseable resource : new AutoCloseable[]{rs, stmt, conn}) {
+      if (resource != null) {
+        try {
+          resource.close();
+        } catch (Exception e) {
+          LOGGER.error("Failed to close database cursor", e);
+        }
+      }
+    }
+  }
+
   @Override
   public void close() {
     // Clean up any open transaction
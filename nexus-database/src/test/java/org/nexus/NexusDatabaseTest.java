@@ -6,10 +6,16 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -577,4 +583,96 @@ class NexusDatabaseTest {
       newDb.close();
     }
   }
-}
\ No newline at end of file
+
+  @Nested
+  @DisplayName("Flight Recorder Events")
+  class FlightRecorderEvents {
+
+    @Test
+    @DisplayName("Should record each statement with its SQL and row count")
+    void testStatementEvents() throws IOException {
+      Path file = tempDir.resolve("db.jfr");
+      try (Recording recording = new Recording()) {
+        recording.enable("org.nexus.Database").withoutThreshold();
+        recording.start();
+
+        database.update("INSERT INTO users (name, email, age) VALUES (?, ?, ?)",
+            "Alice", "alice@example.com", 25);
+        database.query("SELECT name FROM users", rs -> rs.getString("name"));
+        assertThrows(DatabaseException.class, () -> database.update("DELETE FROM missing"));
+
+        recording.stop();
+        recording.dump(file);
+      }
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+      assertEquals(3, events.size());
+      assertEquals("update", events.get(0).getString("operation"));
+      assertEquals(1, events.get(0).getLong("rows"));
+      assertEquals("SELECT name FROM users", events.get(1).getString("sql"));
+      assertEquals(1, events.get(1).getLong("rows"));
+      assertEquals(-1, events.get(2).getLong("rows"));
+    }
+
+    @Test
+    @DisplayName("Should record inserts, with no row count when they fail")
+    void testInsertEvents() throws IOException {
+      Path file = tempDir.resolve("insert.jfr");
+      String sql = "INSERT INTO users (name, email, age) VALUES (?, ?, ?)";
+      try (Recording recording = new Recording()) {
+        recording.enable("org.nexus.Database").withoutThreshold();
+        recording.start();
+
+        database.insert(sql, rs -> rs.getInt(1), "Alice", "alice@example.com", 25);
+        assertThrows(DatabaseException.class,
+            () -> database.insert(sql, rs -> rs.getInt(1), "Bob", "alice@example.com", 30));
+        assertThrows(DatabaseException.class, () -> database.insert(sql, rs -> {
+          throw new SQLException("Unreadable key");
+        }, "Carol", "carol@example.com", 35));
+
+        recording.stop();
+        recording.dump(file);
+      }
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+      assertEquals(3, events.size());
+      assertEquals("insert", events.get(0).getString("operation"));
+      assertEquals(sql, events.get(0).getString("sql"));
+      assertEquals(1, events.get(0).getLong("rows"));
+      assertEquals("insert", events.get(1).getString("operation"));
+      assertEquals(-1, events.get(1).getLong("rows"));
+      // Inserted, but the key couldn't be read
+      assertEquals(-1, events.get(2).getLong("rows"));
+    }
+
+    @Test
+    @DisplayName("Should record a stream once it is closed, with the rows read")
+    void testStreamEvents() throws IOException {
+      database.update("INSERT INTO users (name, email, age) VALUES (?, ?, ?)",
+          "Alice", "alice@example.com", 25);
+      database.update("INSERT INTO users (name, email, age) VALUES (?, ?, ?)",
+          "Bob", "bob@example.com", 30);
+      Path file = tempDir.resolve("stream.jfr");
+      try (Recording recording = new Recording()) {
+        recording.enable("org.nexus.Database").withoutThreshold();
+        recording.start();
+
+        try (Stream<String> names =
+            database.stream("SELECT name FROM users", 0, rs -> rs.getString("name"))) {
+          assertEquals(List.of("Alice", "Bob"), names.toList());
+        }
+
+        recording.stop();
+        recording.dump(file);
+      }
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+      assertEquals(1, events.size());
+      assertEquals("stream", events.getFirst().getString("operation"));
+      assertEquals("SELECT name FROM users", events.getFirst().getString("sql"));
+      assertEquals(2, events.getFirst().getLong("rows"));
+    }
+  }
+}